@@ -138,6 +138,16 @@ extends		AbstractCVM
 	public static Instant		START_INSTANT =
 									Instant.parse("2025-12-02T06:00:00.00Z");
 
+	/** local file of the time-of-use tariff table given to the electric
+	 *  meter, relative to the directory from which the test is run.		*/
+	public static String		TARIFF_FILE =
+			"fr/sorbonne_u/components/hem2025e3/equipments/meter/"
+												+ "time-of-use-tariff.txt";
+	/** local directory under which the electric meter journals its
+	 *  readings, one epoch per run, relative to the directory from which
+	 *  the test is run.													*/
+	public static String		JOURNAL_DIRECTORY = "meter-journals";
+
 	// Solar panel constants
 
 	/** number of square meters in the test solar panel.					*/
@@ -239,6 +249,8 @@ extends		AbstractCVM
 		ElectricMeterCyPhy.VERBOSE = true;
 		ElectricMeterCyPhy.X_RELATIVE_POSITION = 1;
 		ElectricMeterCyPhy.Y_RELATIVE_POSITION = 0;
+		ElectricMeterCyPhy.TARIFF_FILE = TARIFF_FILE;
+		ElectricMeterCyPhy.JOURNAL_DIRECTORY = JOURNAL_DIRECTORY;
 		
 		HairDryerTesterCyPhy.VERBOSE = true;
 		HairDryerTesterCyPhy.X_RELATIVE_POSITION = 0;
@@ -443,6 +455,7 @@ extends		AbstractCVM
 						HeaterController.STANDARD_CONTROL_PERIOD,
 						ControlMode.PULL,
 						ExecutionMode.INTEGRATION_TEST_WITH_SIL_SIMULATION,
+						CLOCK_URI,
 						ACCELERATION_FACTOR
 				});
 			AbstractComponent.createComponent(
@@ -17,6 +17,7 @@ import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.SwitchOf
 import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.SwitchOnBoxWifi;
 import fr.sorbonne_u.components.hem2025e2.utils.Electricity;
 import fr.sorbonne_u.components.hem2025e3.equipements.wifi.BoxWifiCyPhy;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events.SIL_IntensityChanged;
 import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
 import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ExportedVariable;
@@ -35,7 +36,8 @@ import fr.sorbonne_u.devs_simulation.utils.StandardLogger;
 import fr.sorbonne_u.exceptions.AssertionChecking;
 
 @ModelExternalEvents(imported = {SwitchOnBoxWifi.class, SwitchOffBoxWifi.class,
-		ActivateWifiBoxWifi.class, DeactivateWifiBoxWifi.class})
+		ActivateWifiBoxWifi.class, DeactivateWifiBoxWifi.class},
+		exported = {SIL_IntensityChanged.class})
 @ModelExportedVariable(name = "currentIntensity", type = Double.class)
 public class BoxWifiElectricitySILModel extends AtomicHIOA {
 
@@ -56,6 +58,9 @@ public class BoxWifiElectricitySILModel extends AtomicHIOA {
     /** true when the electricity consumption has changed after executing an external event. */
     protected boolean consumptionHasChanged = false;
 
+    /** true when currentIntensity has been updated and the change is still to be notified to the electric meter model. */
+    protected boolean intensityToBeNotified = false;
+
     /** Power consumption in BOX_ONLY mode. */
     protected double boxOnlyConsumption;
     
@@ -252,6 +257,7 @@ public class BoxWifiElectricitySILModel extends AtomicHIOA {
 
         this.currentMode = BoxWifiCyPhy.INITIAL_MODE;
         this.consumptionHasChanged = false;
+        this.intensityToBeNotified = false;
         this.totalConsumption = 0.0;
 
         if (VERBOSE) {
@@ -278,14 +284,20 @@ public class BoxWifiElectricitySILModel extends AtomicHIOA {
 
     @Override
     public ArrayList<EventI> output() {
-        return null; // This model does not export events
+        ArrayList<EventI> ret = null;
+        if (this.intensityToBeNotified) {
+            // the intensity has been updated by the previous transition
+            ret = new ArrayList<>();
+            ret.add(new SIL_IntensityChanged(this.getCurrentStateTime(), this.getURI()));
+        }
+        return ret;
     }
 
     @Override
     public Duration timeAdvance() {
         Duration ret;
-        if (this.consumptionHasChanged) {
-            this.toggleConsumptionHasChanged();
+        if (this.consumptionHasChanged || this.intensityToBeNotified) {
+            // update the intensity, then notify the update
             ret = new Duration(0.0, this.getSimulatedTimeUnit());
         } else {
             ret = Duration.INFINITY;
@@ -303,33 +315,40 @@ public class BoxWifiElectricitySILModel extends AtomicHIOA {
     public void userDefinedInternalTransition(Duration elapsedTime) {
         super.userDefinedInternalTransition(elapsedTime);
 
-        Time t = this.getCurrentStateTime();
-        double newIntensity = 0.0;
-
-        switch (this.currentMode) {
-            case OFF:
-                newIntensity = 0.0;
-                break;
-            case BOX_ONLY:
-                newIntensity = this.boxOnlyConsumption / this.tension;
-                break;
-            case FULL_ON:
-                newIntensity = this.fullOnConsumption / this.tension;
-                break;
-        }
+        // the notification, if any, has been emitted by the output
+        this.intensityToBeNotified = false;
+        if (this.consumptionHasChanged) {
+            this.toggleConsumptionHasChanged();
+            this.intensityToBeNotified = true;
 
-        this.currentIntensity.setNewValue(newIntensity, t);
+            Time t = this.getCurrentStateTime();
+            double newIntensity = 0.0;
 
-        if (VERBOSE) {
-            StringBuilder message = new StringBuilder("Executes internal transition ");
-            message.append("with current consumption ");
-            message.append(this.currentIntensity.getValue());
-            message.append(" A ");
-            message.append("(").append(this.currentIntensity.getValue() * this.tension).append(" W)");
-            message.append(" at ");
-            message.append(this.currentIntensity.getTime());
-            message.append(" [Mode: ").append(this.currentMode).append("]");
-            this.logMessage(message.toString());
+            switch (this.currentMode) {
+                case OFF:
+                    newIntensity = 0.0;
+                    break;
+                case BOX_ONLY:
+                    newIntensity = this.boxOnlyConsumption / this.tension;
+                    break;
+                case FULL_ON:
+                    newIntensity = this.fullOnConsumption / this.tension;
+                    break;
+            }
+
+            this.currentIntensity.setNewValue(newIntensity, t);
+
+            if (VERBOSE) {
+                StringBuilder message = new StringBuilder("Executes internal transition ");
+                message.append("with current consumption ");
+                message.append(this.currentIntensity.getValue());
+                message.append(" A ");
+                message.append("(").append(this.currentIntensity.getValue() * this.tension).append(" W)");
+                message.append(" at ");
+                message.append(this.currentIntensity.getTime());
+                message.append(" [Mode: ").append(this.currentMode).append("]");
+                this.logMessage(message.toString());
+            }
         }
 
         assert BoxWifiElectricitySILModel.implementationInvariants(this) :
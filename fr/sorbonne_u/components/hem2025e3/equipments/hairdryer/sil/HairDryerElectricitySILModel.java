@@ -51,6 +51,7 @@ import fr.sorbonne_u.components.hem2025e2.equipments.hairdryer.mil.events.Switch
 import fr.sorbonne_u.components.hem2025e2.equipments.hairdryer.mil.events.SwitchOnHairDryer;
 import fr.sorbonne_u.components.hem2025e2.utils.Electricity;
 import fr.sorbonne_u.components.hem2025e3.equipments.hairdryer.HairDryerCyPhy;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events.SIL_IntensityChanged;
 import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
 import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ExportedVariable;
@@ -91,6 +92,11 @@ import fr.sorbonne_u.exceptions.AssertionChecking;
  * dryer electricity model in the corresponding mode with the corresponding
  * electricity consumption.
  * </p>
+ * <p>
+ * Each update of {@code currentIntensity} is followed by another immediate
+ * internal transition which emits a {@code SIL_IntensityChanged} event, so
+ * that the electric meter model reads the new intensity after its update.
+ * </p>
  * 
  * <ul>
  * <li>Imported events:
@@ -98,7 +104,7 @@ import fr.sorbonne_u.exceptions.AssertionChecking;
  *   {@code SwitchOffHairDryer},
  *   {@code SetLowHairDryer},
  *   {@code SetHighHairDryer}</li>
- * <li>Exported events: none</li>
+ * <li>Exported events: {@code SIL_IntensityChanged}</li>
  * <li>Imported variables: none</li>
  * <li>Exported variables:
  *   name = {@code currentIntensity}, type = {@code Double}</li>
@@ -131,7 +137,8 @@ import fr.sorbonne_u.exceptions.AssertionChecking;
 @ModelExternalEvents(imported = {SwitchOnHairDryer.class,
 								 SwitchOffHairDryer.class,
 								 SetLowHairDryer.class,
-								 SetHighHairDryer.class})
+								 SetHighHairDryer.class},
+					 exported = {SIL_IntensityChanged.class})
 @ModelExportedVariable(name = "currentIntensity", type = Double.class)
 // -----------------------------------------------------------------------------
 public class			HairDryerElectricitySILModel
@@ -163,6 +170,9 @@ implements	HairDryerOperationI
 	 *  will be triggered by putting through in this variable which will
 	 *  update the variable <code>currentIntensity</code>.					*/
 	protected boolean				consumptionHasChanged = false;
+	/** true when <code>currentIntensity</code> has been updated and the
+	 *  change is still to be notified to the electric meter model.		*/
+	protected boolean				intensityToBeNotified = false;
 
 	/** power consumption in the LOW mode in the unit defined by the
 	 *  hair dryer.															*/
@@ -474,6 +484,7 @@ implements	HairDryerOperationI
 		this.currentState = HairDryerState.OFF;
 		this.currentMode = HairDryerMode.HIGH;
 		this.consumptionHasChanged = false;
+		this.intensityToBeNotified = false;
 		this.totalConsumption = 0.0;
 
 		if (VERBOSE) {
@@ -515,8 +526,14 @@ implements	HairDryerOperationI
 	@Override
 	public ArrayList<EventI>	output()
 	{
-		// the model does not export events.
-		return null;
+		ArrayList<EventI> ret = null;
+		if (this.intensityToBeNotified) {
+			// the intensity has been updated by the previous transition
+			ret = new ArrayList<>();
+			ret.add(new SIL_IntensityChanged(this.getCurrentStateTime(),
+											 this.getURI()));
+		}
+		return ret;
 	}
 
 	/**
@@ -528,12 +545,10 @@ implements	HairDryerOperationI
 		Duration ret = null;
 		// to trigger an internal transition after an external transition, the
 		// variable consumptionHasChanged is set to true, hence when it is true
-		// return a zero delay otherwise return an infinite delay (no internal
+		// return a zero delay, and then again to notify the update of the
+		// intensity, otherwise return an infinite delay (no internal
 		// transition expected)
-		if (this.consumptionHasChanged) {
-			// after triggering the internal transition, toggle the boolean
-			// to prepare for the next internal transition.
-			this.toggleConsumptionHasChanged();
+		if (this.consumptionHasChanged || this.intensityToBeNotified) {
 			ret = new Duration(0.0, this.getSimulatedTimeUnit());
 		} else {
 			// after an internal transition, wait until another external
@@ -560,34 +575,43 @@ implements	HairDryerOperationI
 	{
 		super.userDefinedInternalTransition(elapsedTime);
 
-		// set the current electricity consumption from the current state
-		Time t = this.getCurrentStateTime();
-		if (this.currentState == HairDryerState.ON) {
-			switch (this.currentMode)
-			{
-				case LOW :	this.currentIntensity.setNewValue(
-									this.lowModeConsumption/this.tension,
-									t);
-							break;
-				case HIGH : this.currentIntensity.setNewValue(
-									this.highModeConsumption/this.tension,
-									t);
+		// the notification, if any, has been emitted by the output
+		this.intensityToBeNotified = false;
+		if (this.consumptionHasChanged) {
+			// after the update, toggle the boolean to prepare for the next
+			// internal transition.
+			this.toggleConsumptionHasChanged();
+			this.intensityToBeNotified = true;
+
+			// set the current electricity consumption from the current state
+			Time t = this.getCurrentStateTime();
+			if (this.currentState == HairDryerState.ON) {
+				switch (this.currentMode)
+				{
+					case LOW :	this.currentIntensity.setNewValue(
+										this.lowModeConsumption/this.tension,
+										t);
+								break;
+					case HIGH : this.currentIntensity.setNewValue(
+										this.highModeConsumption/this.tension,
+										t);
+				}
+			} else {
+				this.currentIntensity.setNewValue(0.0, t);
 			}
-		} else {
-			this.currentIntensity.setNewValue(0.0, t);
-		}
 
-		// Tracing
-		if (VERBOSE) {
-			StringBuffer message =
-					new StringBuffer("executes an internal transition ");
-			message.append("with current consumption ");
-			message.append(this.currentIntensity.getValue());
-			message.append(" ");
-			message.append(ElectricMeterImplementationI.POWER_UNIT);
-			message.append(" at ");
-			message.append(this.currentIntensity.getTime());
-			this.logMessage(message.toString());
+			// Tracing
+			if (VERBOSE) {
+				StringBuffer message =
+						new StringBuffer("executes an internal transition ");
+				message.append("with current consumption ");
+				message.append(this.currentIntensity.getValue());
+				message.append(" ");
+				message.append(ElectricMeterImplementationI.POWER_UNIT);
+				message.append(" at ");
+				message.append(this.currentIntensity.getTime());
+				this.logMessage(message.toString());
+			}
 		}
 
 		assert	HairDryerElectricitySILModel.implementationInvariants(this) :
@@ -261,6 +261,7 @@ extends		AbstractCVM
 						HeaterController.STANDARD_CONTROL_PERIOD,
 						ControlMode.PULL,
 						HEATER_EXECUTION_MODE,
+						CLOCK_URI,
 						ACCELERATION_FACTOR
 						});
 
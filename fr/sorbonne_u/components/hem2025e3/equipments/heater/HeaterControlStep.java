@@ -0,0 +1,283 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+
+import java.util.concurrent.atomic.AtomicReference;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterControlTrace.Decision;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue.Command;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterControlStep</code> implements the control step of the
+ * {@code HeaterController} on the temperatures of the heater.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A control step decides from the target and current temperatures and the
+ * hysteresis whether the heater must start or stop heating, claims the
+ * corresponding transition of the perceived state of the heater by a
+ * compare and set, issues the command into the actuator command queue and
+ * records the decision in the control trace. The transition is claimed
+ * before issuing the command, hence a concurrent switch off or step
+ * prevents the actuation and the decision recorded is then the one
+ * corresponding to the state found. When issuing the command opens a new
+ * coalescing window, the window opener given at the creation is run to
+ * schedule the delivery of the pending commands.
+ * </p>
+ * <p>
+ * The control step uses only the state, the queue and the trace it is given,
+ * so that it is run as is by the controller component and by the benchmarks
+ * of its hot paths outside of any component.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code state != null}
+ * invariant	{@code hysteresis > 0.0}
+ * invariant	{@code trace != null}
+ * invariant	{@code queue != null}
+ * invariant	{@code actuatorURI != null && !actuatorURI.isEmpty()}
+ * invariant	{@code windowOpener != null}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterControlStep
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** perceived state of the heater, shared with the controller.			*/
+	protected final AtomicReference<HeaterState>	state;
+	/** hysteresis used in the control step.								*/
+	protected final double							hysteresis;
+	/** trace into which the decisions are recorded.						*/
+	protected final HeaterControlTrace				trace;
+	/** queue into which the actuator commands are issued.					*/
+	protected final HeaterActuatorCommandQueue		queue;
+	/** URI of the actuator to which the commands are issued.				*/
+	protected final String							actuatorURI;
+	/** action run when an issued command opens a new coalescing window.	*/
+	protected final Runnable						windowOpener;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a control step on the given state, trace and command queue.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code state != null}
+	 * pre	{@code hysteresis > 0.0}
+	 * pre	{@code trace != null}
+	 * pre	{@code queue != null}
+	 * pre	{@code actuatorURI != null && !actuatorURI.isEmpty()}
+	 * pre	{@code windowOpener != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param state			perceived state of the heater, shared with the controller.
+	 * @param hysteresis	hysteresis used in the control step.
+	 * @param trace			trace into which the decisions are recorded.
+	 * @param queue			queue into which the actuator commands are issued.
+	 * @param actuatorURI	URI of the actuator to which the commands are issued.
+	 * @param windowOpener	action run when an issued command opens a new coalescing window.
+	 */
+	public				HeaterControlStep(
+		AtomicReference<HeaterState> state,
+		double hysteresis,
+		HeaterControlTrace trace,
+		HeaterActuatorCommandQueue queue,
+		String actuatorURI,
+		Runnable windowOpener
+		)
+	{
+		assert	state != null : new PreconditionException("state != null");
+		assert	hysteresis > 0.0 :
+				new PreconditionException("hysteresis > 0.0");
+		assert	trace != null : new PreconditionException("trace != null");
+		assert	queue != null : new PreconditionException("queue != null");
+		assert	actuatorURI != null && !actuatorURI.isEmpty() :
+				new PreconditionException(
+						"actuatorURI != null && !actuatorURI.isEmpty()");
+		assert	windowOpener != null :
+				new PreconditionException("windowOpener != null");
+
+		this.state = state;
+		this.hysteresis = hysteresis;
+		this.trace = trace;
+		this.queue = queue;
+		this.actuatorURI = actuatorURI;
+		this.windowOpener = windowOpener;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * perform one control step on the given temperatures and return the
+	 * decision recorded in the trace.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code priorState != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param t				target temperature of the thermostat.
+	 * @param c				current room temperature.
+	 * @param timestamp		time stamp of the temperatures in nanoseconds since the epoch.
+	 * @param priorState	state of the heater before the control step.
+	 * @return				the decision recorded in the trace.
+	 */
+	public Decision		step(
+		double t,
+		double c,
+		long timestamp,
+		HeaterState priorState
+		)
+	{
+		assert	priorState != null :
+				new PreconditionException("priorState != null");
+
+		Decision d = Decision.decide(t, c, this.hysteresis,
+									 HeaterState.HEATING == priorState);
+		if (d == Decision.START_HEATING) {
+			// the transition is claimed before actuating, hence a
+			// concurrent switch off or step prevents the actuation
+			if (this.transition(HeaterState.ON, HeaterState.HEATING)) {
+				this.issueCommand(Command.START_HEATING);
+			} else {
+				d = this.unchangedDecision();
+			}
+		} else if (d == Decision.STOP_HEATING) {
+			if (this.transition(HeaterState.HEATING, HeaterState.ON)) {
+				this.issueCommand(Command.STOP_HEATING);
+			} else {
+				d = this.unchangedDecision();
+			}
+		}
+		// tracing, rendered as text later by the trace draining task
+		this.trace.record(timestamp, c, t, this.hysteresis, d);
+		return d;
+	}
+
+	/**
+	 * perform the transition of the perceived heater state from {@code from}
+	 * to {@code to} if the current state is still {@code from}, returning
+	 * true if the transition has been done.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from == HeaterState.ON && to == HeaterState.HEATING || from == HeaterState.HEATING && to == HeaterState.ON}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param from	state from which the transition is done.
+	 * @param to	state to which the transition is done.
+	 * @return		true if the transition has been done.
+	 */
+	protected boolean	transition(HeaterState from, HeaterState to)
+	{
+		assert	from == HeaterState.ON && to == HeaterState.HEATING ||
+					from == HeaterState.HEATING && to == HeaterState.ON :
+				new PreconditionException(
+						"from == HeaterState.ON && to == HeaterState.HEATING"
+						+ " || from == HeaterState.HEATING && to == "
+						+ "HeaterState.ON");
+
+		return this.state.compareAndSet(from, to);
+	}
+
+	/**
+	 * issue {@code command} into the command queue, running the window
+	 * opener if it opens a new coalescing window.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code command != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param command	command to be issued.
+	 */
+	protected void		issueCommand(Command command)
+	{
+		if (this.queue.issue(this.actuatorURI, command)) {
+			this.windowOpener.run();
+		}
+	}
+
+	/**
+	 * return the decision corresponding to the current perceived state of the
+	 * heater, used when a transition has been prevented by a concurrent one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return == Decision.STILL_HEATING || return == Decision.STILL_NOT_HEATING}
+	 * </pre>
+	 *
+	 * @return	the decision corresponding to the current state.
+	 */
+	protected Decision	unchangedDecision()
+	{
+		return this.state.get() == HeaterState.HEATING ?
+					Decision.STILL_HEATING
+				:	Decision.STILL_NOT_HEATING;
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,676 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterControlTrace</code> implements a preallocated ring
+ * buffer of control decisions taken by the {@code HeaterController}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Each record holds, as primitive values, the time stamp of the temperatures
+ * in nanoseconds since the epoch, the current and target temperatures, the
+ * hysteresis and the decision taken by the controller, plus the number of the
+ * heater when the controller regulates several ones. Recording a decision
+ * does not allocate any object; when the buffer is full, the oldest records
+ * are overwritten. Recording never renders the records: they are rendered as
+ * text on the reader side only, either by {@code drain}, which passes the
+ * records made since the previous drain to the attached sink, or by
+ * {@code dump}. The sink is always called outside the lock of the buffer.
+ * </p>
+ * <p>
+ * Recording takes no lock, so that the control steps of several threads
+ * never wait for each other nor for a reader: a record is claimed by an
+ * atomic increment of the sequence number and its slot is marked in
+ * progress, written and published by ordered stores. The lock of the
+ * buffer only serialises the readers, which check the sequence number of a
+ * slot before and after copying it to discard the records overwritten in
+ * the meantime.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code capacity > 0}
+ * invariant	{@code sequences.length() == capacity}
+ * invariant	{@code drained >= 0 && drained <= recorded.get()}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterControlTrace
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The enumeration <code>Decision</code> describes the decisions that can
+	 * be taken by the controller in one control step.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static enum	Decision
+	{
+		/** the heater was not heating and starts heating.					*/
+		START_HEATING("start heating with ", " < ", " - "),
+		/** the heater was heating and continues to heat.					*/
+		STILL_HEATING("still heating with ", " < ", " + "),
+		/** the heater was heating and stops heating.						*/
+		STOP_HEATING("stop heating with ", " > ", " + "),
+		/** the heater was not heating and continues not to heat.			*/
+		STILL_NOT_HEATING("still not heating with ", " > ", " - ");
+
+		/** decisions indexed by their ordinal, to avoid {@code values()}
+		 *  copies.															*/
+		private static final Decision[]	DECISIONS = Decision.values();
+
+		/** text starting the rendering of the decision.					*/
+		protected final String	prefix;
+		/** text separating the current and the target temperatures.		*/
+		protected final String	comparison;
+		/** text separating the target temperature and the hysteresis.		*/
+		protected final String	hysteresisSign;
+
+		private				Decision(
+			String prefix,
+			String comparison,
+			String hysteresisSign
+			)
+		{
+			this.prefix = prefix;
+			this.comparison = comparison;
+			this.hysteresisSign = hysteresisSign;
+		}
+
+		/**
+		 * return the decision with the given ordinal.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code ordinal >= 0 && ordinal < Decision.values().length}
+		 * post	{@code return != null}
+		 * </pre>
+		 *
+		 * @param ordinal	ordinal of the decision.
+		 * @return			the decision with the given ordinal.
+		 */
+		public static Decision	ofOrdinal(int ordinal)
+		{
+			return DECISIONS[ordinal];
+		}
+
+		/**
+		 * return the decision of the threshold-based control with
+		 * hysteresis for the given temperatures, when the heater is heating
+		 * or not.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code hysteresis > 0.0}
+		 * post	{@code return != null}
+		 * </pre>
+		 *
+		 * @param target		target temperature of the thermostat.
+		 * @param current		current room temperature.
+		 * @param hysteresis	control hysteresis around the target temperature.
+		 * @param heating		true if the heater is currently heating.
+		 * @return				the decision for the given temperatures.
+		 */
+		public static Decision	decide(
+			double target,
+			double current,
+			double hysteresis,
+			boolean heating
+			)
+		{
+			if (current < target - hysteresis) {
+				// the current room temperature is too low, heat
+				return heating ? STILL_HEATING : START_HEATING;
+			} else if (current > target + hysteresis) {
+				// the current room temperature is high enough, do not heat
+				return heating ? STOP_HEATING : STILL_NOT_HEATING;
+			} else {
+				return heating ? STILL_HEATING : STILL_NOT_HEATING;
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** maximum number of records kept in the buffer.						*/
+	protected final int				capacity;
+	/** sequence number plus one of the record published in each slot, 0
+	 *  when the slot is empty and minus the sequence number minus one while
+	 *  the record is being written.										*/
+	protected final AtomicLongArray	sequences;
+	/** time stamps of the records in nanoseconds since the epoch.			*/
+	protected final AtomicLongArray	timestamps;
+	/** raw bits of the current temperatures of the records.				*/
+	protected final AtomicLongArray	currents;
+	/** raw bits of the target temperatures of the records.				*/
+	protected final AtomicLongArray	targets;
+	/** raw bits of the hysteresis of the records.							*/
+	protected final AtomicLongArray	hystereses;
+	/** ordinals of the decisions of the records.							*/
+	protected final AtomicIntegerArray	decisions;
+	/** numbers of the heaters of the records, or -1 when the controller
+	 *  regulates a single heater.											*/
+	protected final AtomicIntegerArray	heaters;
+	/** total number of records claimed since the creation, i.e., the
+	 *  sequence number of the next record.								*/
+	protected final AtomicLong		recorded;
+	/** sequence number of the next record to be drained; the records
+	 *  overwritten before being drained are skipped.						*/
+	protected long					drained;
+	/** sink to which records are rendered when drained, or null.			*/
+	protected volatile Consumer<String>	sink;
+	/** buffer reused to render the records.								*/
+	protected final StringBuilder	renderBuffer;
+
+	// Copy of the last record read, used by the reading methods only
+
+	/** time stamp of the last record read.									*/
+	protected long					readTimestamp;
+	/** current temperature of the last record read.						*/
+	protected double				readCurrent;
+	/** target temperature of the last record read.							*/
+	protected double				readTarget;
+	/** hysteresis of the last record read.									*/
+	protected double				readHysteresis;
+	/** ordinal of the decision of the last record read.					*/
+	protected int					readDecision;
+	/** number of the heater of the last record read.						*/
+	protected int					readHeater;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a control trace holding at most {@code capacity} records.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code capacity > 0}
+	 * post	{@code size() == 0}
+	 * post	{@code !hasSink()}
+	 * </pre>
+	 *
+	 * @param capacity	maximum number of records kept in the buffer.
+	 */
+	public				HeaterControlTrace(int capacity)
+	{
+		assert	capacity > 0 : new PreconditionException("capacity > 0");
+
+		this.capacity = capacity;
+		this.sequences = new AtomicLongArray(capacity);
+		this.timestamps = new AtomicLongArray(capacity);
+		this.currents = new AtomicLongArray(capacity);
+		this.targets = new AtomicLongArray(capacity);
+		this.hystereses = new AtomicLongArray(capacity);
+		this.decisions = new AtomicIntegerArray(capacity);
+		this.heaters = new AtomicIntegerArray(capacity);
+		this.recorded = new AtomicLong(0L);
+		this.drained = 0L;
+		this.sink = null;
+		this.renderBuffer = new StringBuilder(128);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * attach a sink to which the records are rendered when drained,
+	 * replacing any previously attached sink; passing null detaches the
+	 * current sink.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code hasSink() == (sink != null)}
+	 * </pre>
+	 *
+	 * @param sink	sink to which the records are rendered or null.
+	 */
+	public void			attachSink(Consumer<String> sink)
+	{
+		this.sink = sink;
+	}
+
+	/**
+	 * return true if a sink is attached.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if a sink is attached.
+	 */
+	public boolean		hasSink()
+	{
+		return this.sink != null;
+	}
+
+	/**
+	 * record a control decision, which is rendered to the sink only by the
+	 * next call to {@code drain}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code decision != null}
+	 * post	{@code size() > 0}
+	 * </pre>
+	 *
+	 * @param timestamp		time stamp of the temperatures in nanoseconds since the epoch.
+	 * @param current		current room temperature.
+	 * @param target		target temperature.
+	 * @param hysteresis	hysteresis used by the controller.
+	 * @param decision		decision taken by the controller.
+	 */
+	public void			record(
+		long timestamp,
+		double current,
+		double target,
+		double hysteresis,
+		Decision decision
+		)
+	{
+		this.record(-1, timestamp, current, target, hysteresis, decision);
+	}
+
+	/**
+	 * record a control decision taken for the heater number {@code heater}
+	 * by a controller regulating several heaters, which is rendered to the
+	 * sink only by the next call to {@code drain}; the record is claimed by
+	 * an atomic increment and published by ordered stores, without lock.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heater >= -1}
+	 * pre	{@code decision != null}
+	 * post	{@code size() > 0}
+	 * </pre>
+	 *
+	 * @param heater		number of the heater, or -1 for the single heater of the controller.
+	 * @param timestamp		time stamp of the temperatures in nanoseconds since the epoch.
+	 * @param current		current room temperature.
+	 * @param target		target temperature.
+	 * @param hysteresis	hysteresis used by the controller.
+	 * @param decision		decision taken by the controller.
+	 */
+	public void			record(
+		int heater,
+		long timestamp,
+		double current,
+		double target,
+		double hysteresis,
+		Decision decision
+		)
+	{
+		assert	heater >= -1 : new PreconditionException("heater >= -1");
+		assert	decision != null :
+				new PreconditionException("decision != null");
+
+		long seq = this.recorded.getAndIncrement();
+		int i = (int) (seq % this.capacity);
+		// the ordered stores make the slot appear in progress to the readers
+		// before any of its fields changes, and published only after all of
+		// them have been written
+		this.sequences.lazySet(i, -(seq + 1));
+		this.heaters.lazySet(i, heater);
+		this.timestamps.lazySet(i, timestamp);
+		this.currents.lazySet(i, Double.doubleToRawLongBits(current));
+		this.targets.lazySet(i, Double.doubleToRawLongBits(target));
+		this.hystereses.lazySet(i, Double.doubleToRawLongBits(hysteresis));
+		this.decisions.lazySet(i, decision.ordinal());
+		this.sequences.lazySet(i, seq + 1);
+	}
+
+	/**
+	 * render the records made since the previous drain to the attached sink,
+	 * from the oldest to the most recent, and return the number of records
+	 * rendered; the records overwritten before being drained are skipped,
+	 * the drain stops at the first record still being written and nothing
+	 * is rendered when no sink is attached.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records rendered to the sink.
+	 */
+	public int			drain()
+	{
+		Consumer<String> s = this.sink;
+		String[] lines;
+		int n = 0;
+		// the lock only serialises the readers, never the recording
+		synchronized (this) {
+			long hi = this.recorded.get();
+			long seq = Math.max(this.drained, hi - this.capacity);
+			if (s == null) {
+				this.drained = hi;
+				return 0;
+			}
+			lines = new String[(int) (hi - seq)];
+			while (seq < hi) {
+				int r = this.read(seq);
+				if (r < 0) {
+					// still being written, drained next time
+					break;
+				}
+				if (r > 0) {
+					this.renderBuffer.setLength(0);
+					this.render(this.renderBuffer);
+					lines[n++] = this.renderBuffer.toString();
+				}
+				seq++;
+			}
+			this.drained = seq;
+		}
+		// the sink is called outside the lock, hence never delays the
+		// other readers
+		for (int k = 0 ; k < n ; k++) {
+			s.accept(lines[k]);
+		}
+		return n;
+	}
+
+	/**
+	 * return the number of records currently held in the buffer, including
+	 * the ones still being written.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records currently held in the buffer.
+	 */
+	public int			size()
+	{
+		return (int) Math.min(this.recorded.get(), this.capacity);
+	}
+
+	/**
+	 * return the total number of records made since the creation, including
+	 * the ones that have been overwritten.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= size()}
+	 * </pre>
+	 *
+	 * @return	the total number of records made since the creation.
+	 */
+	public long			recorded()
+	{
+		return this.recorded.get();
+	}
+
+	/**
+	 * return the decision of the {@code n}th oldest record still in the
+	 * buffer.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code n >= 0 && n < size()}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param n	rank of the record from the oldest one.
+	 * @return	the decision of the {@code n}th oldest record.
+	 */
+	public synchronized Decision	getDecision(int n)
+	{
+		this.readRank(n);
+		return Decision.ofOrdinal(this.readDecision);
+	}
+
+	/**
+	 * return the current temperature of the {@code n}th oldest record still
+	 * in the buffer.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code n >= 0 && n < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param n	rank of the record from the oldest one.
+	 * @return	the current temperature of the {@code n}th oldest record.
+	 */
+	public synchronized double	getCurrent(int n)
+	{
+		this.readRank(n);
+		return this.readCurrent;
+	}
+
+	/**
+	 * return the time stamp in nanoseconds since the epoch of the {@code n}th
+	 * oldest record still in the buffer.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code n >= 0 && n < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param n	rank of the record from the oldest one.
+	 * @return	the time stamp of the {@code n}th oldest record.
+	 */
+	public synchronized long	getTimestamp(int n)
+	{
+		this.readRank(n);
+		return this.readTimestamp;
+	}
+
+	/**
+	 * render all the published records still in the buffer, from the
+	 * oldest to the most recent, to the given sink.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sink != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sink	sink to which the records are rendered.
+	 */
+	public void			dump(Consumer<String> sink)
+	{
+		assert	sink != null : new PreconditionException("sink != null");
+
+		String[] lines;
+		int n = 0;
+		synchronized (this) {
+			long hi = this.recorded.get();
+			long lo = Math.max(0L, hi - this.capacity);
+			lines = new String[(int) (hi - lo)];
+			StringBuilder sb = new StringBuilder(128);
+			for (long seq = lo ; seq < hi ; seq++) {
+				if (this.read(seq) > 0) {
+					sb.setLength(0);
+					this.render(sb);
+					lines[n++] = sb.toString();
+				}
+			}
+		}
+		for (int k = 0 ; k < n ; k++) {
+			sink.accept(lines[k]);
+		}
+	}
+
+	/**
+	 * copy the record of sequence number {@code seq} into the fields of the
+	 * last record read, returning 1 if it has been read, 0 if it has been
+	 * overwritten and -1 if it is still being written.
+	 * 
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p>
+	 * The slot sequence number is read before and after the fields: as the
+	 * writers make a slot appear in progress before changing any of its
+	 * fields, an unchanged sequence number means that the fields read belong
+	 * to the record. A record may only be mixed with the one overwriting it
+	 * when its writer is overtaken by a whole lap of the buffer, which only
+	 * affects the trace, never the control.
+	 * </p>
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code Thread.holdsLock(this)}
+	 * pre	{@code seq >= 0 && seq < recorded()}
+	 * post	{@code return >= -1 && return <= 1}
+	 * </pre>
+	 *
+	 * @param seq	sequence number of the record.
+	 * @return		1 if the record has been read, 0 if it has been overwritten, -1 if it is still being written.
+	 */
+	protected int		read(long seq)
+	{
+		int i = (int) (seq % this.capacity);
+		long published = this.sequences.get(i);
+		if (published != seq + 1) {
+			return published > seq + 1 || -published > seq + 1 ? 0 : -1;
+		}
+		this.readHeater = this.heaters.get(i);
+		this.readTimestamp = this.timestamps.get(i);
+		this.readCurrent = Double.longBitsToDouble(this.currents.get(i));
+		this.readTarget = Double.longBitsToDouble(this.targets.get(i));
+		this.readHysteresis = Double.longBitsToDouble(this.hystereses.get(i));
+		this.readDecision = this.decisions.get(i);
+		return this.sequences.get(i) == published ? 1 : 0;
+	}
+
+	/**
+	 * copy the {@code n}th oldest record still in the buffer into the fields
+	 * of the last record read.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code Thread.holdsLock(this)}
+	 * pre	{@code n >= 0 && n < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param n	rank of the record from the oldest one.
+	 */
+	protected void		readRank(int n)
+	{
+		long hi = this.recorded.get();
+		int size = (int) Math.min(hi, this.capacity);
+		assert	n >= 0 && n < size :
+				new PreconditionException("n >= 0 && n < size()");
+
+		this.read(hi - size + n);
+	}
+
+	/**
+	 * render the last record read in the given string builder.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code Thread.holdsLock(this)}
+	 * pre	{@code sb != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sb	string builder in which the record is rendered.
+	 */
+	protected void		render(StringBuilder sb)
+	{
+		Decision d = Decision.ofOrdinal(this.readDecision);
+		if (this.readHeater >= 0) {
+			sb.append("heater ");
+			sb.append(this.readHeater);
+			sb.append(": ");
+		}
+		sb.append(d.prefix);
+		sb.append(this.readCurrent);
+		sb.append(d.comparison);
+		sb.append(this.readTarget);
+		sb.append(d.hysteresisSign);
+		sb.append(this.readHysteresis);
+		sb.append(" at ");
+		sb.append(Instant.ofEpochSecond(0L, this.readTimestamp));
+		sb.append(".\n");
+	}
+}
+// -----------------------------------------------------------------------------
@@ -32,26 +32,33 @@ package fr.sorbonne_u.components.hem2025e3.equipments.heater;
 // The fact that you are presently reading this means that you have had
 // knowledge of the CeCILL-C license and that you accept its terms.
 
+import java.time.Instant;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.annotations.OfferedInterfaces;
 import fr.sorbonne_u.components.annotations.RequiredInterfaces;
 import fr.sorbonne_u.components.cyphy.ExecutionMode;
+import fr.sorbonne_u.components.cyphy.utils.aclocks.ClocksServerWithSimulation;
 import fr.sorbonne_u.components.cyphy.utils.aclocks.ClocksServerWithSimulationCI;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.components.exceptions.ComponentStartException;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI.HeaterSensorRequiredPullCI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue.Command;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorConnector;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorOutboundPort;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataConnector;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataOutboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.TemperatureSensorData;
 import fr.sorbonne_u.components.interfaces.DataRequiredCI;
 import fr.sorbonne_u.exceptions.ImplementationInvariantException;
 import fr.sorbonne_u.exceptions.AssertionChecking;
 import fr.sorbonne_u.exceptions.InvariantException;
+import fr.sorbonne_u.utils.aclocks.AcceleratedClock;
 import fr.sorbonne_u.exceptions.PreconditionException;
 
 // -----------------------------------------------------------------------------
@@ -63,16 +70,60 @@ import fr.sorbonne_u.exceptions.PreconditionException;
  * 
  * <p>
  * The controller is a simple fixed period threshold-based controller with
- * hysteresis. It has two control modes. In a pull mode, it calls the pull
+ * hysteresis. It has three control modes. In a pull mode, it calls the pull
  * sensors of the heater to get the target and current temperatures. In the
  * push mode, it sets the period for the heater to push the temperatures data
- * towards it and perform once its control decision upon each reception. It
+ * towards it and perform once its control decision upon each reception. In
+ * the event mode, the heater samples the temperatures locally and pushes them
+ * only when the current temperature leaves the band
+ * {@code [target - hysteresis, target + hysteresis]}, plus a heartbeat push
+ * every {@code STANDARD_HEARTBEAT_PERIOD} as a safety net, so that the number
+ * of calls to the controller follows the temperature changes rather than the
+ * wall-clock time. The batching of the readings of several heaters is
+ * provided by {@code MultiHeaterController}, as a batch of the readings of
+ * the single heater regulated by this controller would only hold one. In
+ * pull mode, the periodic control steps are driven by a
+ * {@code TimingWheel} owned by the component, which keeps the phase of the
+ * control period instead of rescheduling a one-shot task after each step
+ * and reports the missed control deadlines. Under test, the wheel runs in
+ * accelerated time: the deadlines are multiples of the control period in
+ * the time of the controlled system, and the lateness of each step is
+ * compensated when computing the delay until the next one rather than
+ * accumulated, the drift and jitter statistics of the control task being
+ * traced when the component finalises. It
  * also uses a push pattern to receive changes in the state of the heater. For
  * example, when the heater is switched on, it sends a state data telling the
  * controller that it is now on so that the controller can begins its control
  * until the heater is switched off.
  * </p>
- * 
+ * <p>
+ * The perceived state of the heater is an atomic reference rather than a
+ * field protected by a lock: the states pushed by the heater are set
+ * unconditionally while the control steps perform their {@code ON} to
+ * {@code HEATING} and {@code HEATING} to {@code ON} transitions by
+ * compare-and-set before actuating the heater, so that a concurrent switch
+ * off or control step makes the transition fail instead of being
+ * overwritten, and state pushes and control steps never block each other.
+ * </p>
+ * <p>
+ * The actuator commands are not sent to the heater by the control steps
+ * themselves but issued into a {@code HeaterActuatorCommandQueue}: the first
+ * command issued opens a coalescing window of
+ * {@code commandCoalescingWindow} seconds at the end of which the timing
+ * wheel delivers the surviving command, the commands superseded in the
+ * meantime being dropped, so that oscillations around the hysteresis band
+ * do not produce bursts of start/stop calls to the heater. The commands are
+ * coalesced against the actual heating state of the heater, and the pending
+ * command is cancelled when the heater pushes a new state, so that the heater
+ * only receives the commands allowed by its current state.
+ * </p>
+ * <p>
+ * As the command queue and the control trace take no lock either, a control
+ * step takes none from its decision to its recording, the only exception
+ * being the command opening a coalescing window, which schedules its
+ * delivery on the timing wheel.
+ * </p>
+ *
  * <p><strong>Glass-box Invariants</strong></p>
  * 
  * <pre>
@@ -88,6 +139,9 @@ import fr.sorbonne_u.exceptions.PreconditionException;
  * <pre>
  * invariant	{@code STANDARD_HYSTERESIS > 0.0}
  * invariant	{@code STANDARD_CONTROL_PERIOD > 0}
+ * invariant	{@code STANDARD_HEARTBEAT_PERIOD >= STANDARD_CONTROL_PERIOD}
+ * invariant	{@code CONTROL_TRACE_CAPACITY > 0}
+ * invariant	{@code STANDARD_COMMAND_COALESCING_WINDOW >= 0.0}
  * </pre>
  * 
  * <p>Created on : 2022-10-27</p>
@@ -110,7 +164,8 @@ implements	HeaterPushImplementationI
 
 	public static enum	ControlMode {
 		PULL,
-		PUSH
+		PUSH,
+		EVENT
 	}
 
 	// -------------------------------------------------------------------------
@@ -122,7 +177,7 @@ implements	HeaterPushImplementationI
 	/** when tracing, y coordinate of the window relative position.			*/
 	public static int			Y_RELATIVE_POSITION = 0;
 	/** when true, some methods trace their actions.						*/
-	public static boolean		VERBOSE = true;
+	public static boolean		VERBOSE = false;
 	/** when true, some methods trace their actions.						*/
 	public static boolean		DEBUG = true;
 
@@ -130,6 +185,19 @@ implements	HeaterPushImplementationI
 	public static final double	STANDARD_HYSTERESIS = 0.1;
 	/** standard control period in seconds.									*/
 	public static final double	STANDARD_CONTROL_PERIOD = 60.0;
+	/** standard period in seconds of the heartbeat pushes in event mode.	*/
+	public static final double	STANDARD_HEARTBEAT_PERIOD = 600.0;
+	/** number of control decisions kept in the control trace.			*/
+	public static final int		CONTROL_TRACE_CAPACITY = 1024;
+	/** standard coalescing window in seconds of the actuator commands.	*/
+	public static final double	STANDARD_COMMAND_COALESCING_WINDOW = 5.0;
+	/** identifier of the pull control task in the timing wheel.			*/
+	protected static final int	PULL_CONTROL_TASK = 0;
+	/** identifier of the actuator commands delivery task in the timing
+	 *  wheel.																*/
+	protected static final int	COMMAND_DELIVERY_TASK = 1;
+	/** identifier of the control trace draining task in the timing wheel.	*/
+	protected static final int	TRACE_DRAIN_TASK = 2;
 
 	/** URI of the sensor inbound port on the {@code ThermostatedHeater}.	*/
 	protected String							sensorIBP_URI;
@@ -151,14 +219,37 @@ implements	HeaterPushImplementationI
 	 * used for scheduling the control task.								*/
 	protected long								actualControlPeriod;
 	/** the current state of the heater as perceived through the sensor
-	 *  data received from the {@code ThermostatedHeater}.					*/
-	protected HeaterState						currentState;
-	/** lock controlling the access to {@code currentState}.				*/
-	protected Object							stateLock;
+	 *  data received from the {@code ThermostatedHeater}, updated without
+	 *  locks: the pushed states are set unconditionally and the control
+	 *  steps compare-and-set their {@code ON}/{@code HEATING} transitions.	*/
+	protected AtomicReference<HeaterState>		currentState;
+	/** preallocated trace of the control decisions, drained to the
+	 *  component tracer once per control period only when {@code VERBOSE}.	*/
+	protected HeaterControlTrace				controlTrace;
+	/** timing wheel driving the periodic tasks of the component.			*/
+	protected TimingWheel						wheel;
+	/** lock protecting the planned wake up of the ticker.					*/
+	protected Object							tickerLock;
+	/** value of {@code System.nanoTime()} at the planned wake up of the
+	 *  ticker, {@code Long.MAX_VALUE} when none is planned.				*/
+	protected long								tickerWakeUp;
+	/** generation of the planned wake up, the ticker tasks of previous
+	 *  generations being superseded.										*/
+	protected long								tickerGeneration;
+	/** queue coalescing the actuator commands until their delivery.		*/
+	protected HeaterActuatorCommandQueue		commandQueue;
+	/** coalescing window of the actuator commands in seconds.				*/
+	protected double							commandCoalescingWindow;
+	/** control step on the perceived state, the command queue and the
+	 *  control trace.														*/
+	protected HeaterControlStep					controlStep;
 
 	/** the current execution mode of the component: standard, test or
 	 *  test with simulation SIL or HIL.									*/
 	protected ExecutionMode						executionMode;
+	/** URI of the accelerated clock giving the time of the timing wheel in
+	 *  test executions, null in standard executions.						*/
+	protected String							clockURI;
 
 	// -------------------------------------------------------------------------
 	// Invariants
@@ -196,6 +287,13 @@ implements	HeaterPushImplementationI
 					HeaterController.class,
 					instance,
 					"controlPeriod > 0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.executionMode.isStandard() ||
+						instance.clockURI != null &&
+											!instance.clockURI.isEmpty(),
+					HeaterController.class, instance,
+					"executionMode.isStandard() || clockURI != null && "
+					+ "!clockURI.isEmpty()");
 		ret &= AssertionChecking.checkImplementationInvariant(
 					instance.sensorIBP_URI != null &&
 											!instance.sensorIBP_URI.isEmpty(),
@@ -246,6 +344,21 @@ implements	HeaterPushImplementationI
 					HeaterController.class,
 					instance,
 					"STANDARD_CONTROL_PERIOD > 0");
+		ret &= AssertionChecking.checkInvariant(
+					STANDARD_HEARTBEAT_PERIOD >= STANDARD_CONTROL_PERIOD,
+					HeaterController.class,
+					instance,
+					"STANDARD_HEARTBEAT_PERIOD >= STANDARD_CONTROL_PERIOD");
+		ret &= AssertionChecking.checkInvariant(
+					CONTROL_TRACE_CAPACITY > 0,
+					HeaterController.class,
+					instance,
+					"CONTROL_TRACE_CAPACITY > 0");
+		ret &= AssertionChecking.checkInvariant(
+					STANDARD_COMMAND_COALESCING_WINDOW >= 0.0,
+					HeaterController.class,
+					instance,
+					"STANDARD_COMMAND_COALESCING_WINDOW >= 0.0");
 		return ret;
 	}
 
@@ -301,7 +414,7 @@ implements	HeaterPushImplementationI
 	 * @param actuatorIBP_URI	URI of the heater actuator inbound port.
 	 * @param hysteresis		control hysteresis around the target temperature.
 	 * @param controlPeriod		control period in seconds.
-	 * @param controlMode		control mode: {@code PULL} or {@code PUSH}.
+	 * @param controlMode		control mode: {@code PULL}, {@code PUSH} or {@code EVENT}.
 	 * @throws Exception 		<i>to do</i>.
 	 */
 	protected			HeaterController(
@@ -321,6 +434,9 @@ implements	HeaterPushImplementationI
 						controlPeriod, controlMode);
 
 		this.executionMode = ExecutionMode.STANDARD;
+		this.wheel = new TimingWheel(TimingWheel.STANDARD_TICK_DURATION,
+									 TimingWheel.STANDARD_NUMBER_OF_BUCKETS,
+									 1);
 		this.actualControlPeriod =
 				(long)((this.controlPeriod * TimeUnit.SECONDS.toNanos(1)));
 		// sanity checking, the standard Java scheduler has a
@@ -351,6 +467,7 @@ implements	HeaterPushImplementationI
 	 * pre	{@code controlPeriod > 0}
 	 * pre	{@code controlMode != null}
 	 * pre	{@code executionMode.isSimulationTest()}
+	 * pre	{@code clockURI != null && !clockURI.isEmpty()}
 	 * pre	{@code accelerationFactor > 0.0}
 	 * post	{@code getExecutionMode().equals(executionMode)}
 	 * </pre>
@@ -359,8 +476,9 @@ implements	HeaterPushImplementationI
 	 * @param actuatorIBP_URI		URI of the heater actuator inbound port.
 	 * @param hysteresis			control hysteresis around the target temperature.
 	 * @param controlPeriod			control period in seconds.
-	 * @param controlMode			control mode: {@code PULL} or {@code PUSH}.
+	 * @param controlMode			control mode: {@code PULL}, {@code PUSH} or {@code EVENT}.
 	 * @param executionMode			execution mode for the next run.
+	 * @param clockURI				URI of the clock giving the time of the controller.
 	 * @param accelerationFactor	acceleration factor for the simulation.
 	 * @throws Exception 			<i>to do</i>.
 	 */
@@ -371,6 +489,7 @@ implements	HeaterPushImplementationI
 		double controlPeriod,
 		ControlMode controlMode,
 		ExecutionMode executionMode,
+		String clockURI,
 		double accelerationFactor
 		) throws Exception
 	{
@@ -393,6 +512,9 @@ implements	HeaterPushImplementationI
 				new PreconditionException("controlMode != null");
 		assert	executionMode.isSimulationTest() :
 				new PreconditionException("executionMode.isSimulationTest()");
+		assert	clockURI != null && !clockURI.isEmpty() :
+				new PreconditionException(
+						"clockURI != null && !clockURI.isEmpty()");
 		assert	accelerationFactor > 0.0 :
 				new PreconditionException("accelerationFactor > 0.0");
 
@@ -400,6 +522,9 @@ implements	HeaterPushImplementationI
 						controlPeriod, controlMode);
 
 		this.executionMode = executionMode;
+		this.clockURI = clockURI;
+		// the timing wheel runs in the time of the accelerated clock, hence
+		// it is created in execute, once the clock has been retrieved
 		// the accelerated period is in nanoseconds, hence first convert
 		// the period to nanoseconds, perform the division and then
 		// convert to long (hence providing a better precision than
@@ -451,7 +576,7 @@ implements	HeaterPushImplementationI
 	 * @param actuatorIBP_URI	URI of the heater actuator inbound port.
 	 * @param hysteresis		control hysteresis around the target temperature.
 	 * @param controlPeriod		control period in seconds.
-	 * @param controlMode		control mode: {@code PULL} or {@code PUSH}.
+	 * @param controlMode		control mode: {@code PULL}, {@code PUSH} or {@code EVENT}.
 	 * @throws Exception 		<i>to do</i>.
 	 */
 	protected void		initialise(
@@ -467,7 +592,22 @@ implements	HeaterPushImplementationI
 		this.hysteresis = hysteresis;
 		this.controlPeriod = controlPeriod;
 		this.controlMode = controlMode;
-		this.stateLock = new Object();
+		this.currentState = new AtomicReference<>(HeaterState.OFF);
+		this.controlTrace = new HeaterControlTrace(CONTROL_TRACE_CAPACITY);
+		if (VERBOSE) {
+			this.controlTrace.attachSink(m -> this.traceMessage(m));
+		}
+		this.tickerLock = new Object();
+		this.tickerWakeUp = Long.MAX_VALUE;
+		this.tickerGeneration = 0L;
+		this.commandQueue = new HeaterActuatorCommandQueue(1);
+		this.commandCoalescingWindow = STANDARD_COMMAND_COALESCING_WINDOW;
+		this.controlStep = new HeaterControlStep(this.currentState,
+												 this.hysteresis,
+												 this.controlTrace,
+												 this.commandQueue,
+												 this.actuatorIBPURI,
+												 () -> this.openCommandWindow());
 
 		this.sensorOutboundPort = new HeaterSensorDataOutboundPort(this);
 		this.sensorOutboundPort.publishPort();
@@ -497,9 +637,7 @@ implements	HeaterPushImplementationI
 					this.actuatorIBPURI,
 					HeaterActuatorConnector.class.getCanonicalName());
 
-			synchronized (this.stateLock) {
-				this.currentState = HeaterState.OFF;
-			}
+			this.currentState.set(HeaterState.OFF);
 
 			if (VERBOSE) {
 				this.traceMessage("Heater controller starts.\n");
@@ -509,6 +647,34 @@ implements	HeaterPushImplementationI
 		}
 	}
 
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#execute()
+	 */
+	@Override
+	public synchronized void	execute() throws Exception
+	{
+		if (!this.executionMode.isStandard()) {
+			// the deadlines of the wheel are computed from the instants of
+			// the accelerated clock shared with the heater, rather than from
+			// the real time multiplied by the acceleration factor
+			this.initialiseClock(
+					ClocksServerWithSimulation.STANDARD_INBOUNDPORT_URI,
+					this.clockURI);
+			AcceleratedClock ac = this.getClock();
+			double af = ac.getAccelerationFactor();
+			this.wheel = new TimingWheel(
+						(long)(TimingWheel.STANDARD_TICK_DURATION * af),
+						TimingWheel.STANDARD_NUMBER_OF_BUCKETS,
+						1,
+						() -> {
+							Instant i = ac.currentInstant();
+							return TimeUnit.SECONDS.toNanos(i.getEpochSecond())
+															+ i.getNano();
+						},
+						af);
+		}
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.AbstractComponent#finalise()
 	 */
@@ -518,6 +684,26 @@ implements	HeaterPushImplementationI
 		if (VERBOSE) {
 			this.traceMessage("Heater controller ends.\n");
 		}
+		this.wheel.cancel(PULL_CONTROL_TASK);
+		this.wheel.cancel(COMMAND_DELIVERY_TASK);
+		this.wheel.cancel(TRACE_DRAIN_TASK);
+		this.controlTrace.drain();
+		// the last decision is delivered before disconnecting
+		try {
+			this.deliverCommands();
+		} catch (RuntimeException e) {
+			this.traceMessage("last actuator commands not delivered: " + e
+							  + "\n");
+		}
+		if (VERBOSE && this.wheel.getExpiries(PULL_CONTROL_TASK) > 0) {
+			this.traceMessage("pull control timing, "
+							  + this.wheel.statisticsToString(PULL_CONTROL_TASK)
+							  + ".\n");
+		}
+		if (VERBOSE) {
+			this.traceMessage("actuator commands, " + this.commandQueue
+							  + ".\n");
+		}
 		this.doPortDisconnection(this.sensorOutboundPort.getPortURI());
 		this.doPortDisconnection(this.actuatorOutboundPort.getPortURI());
 		super.finalise();
@@ -568,48 +754,75 @@ implements	HeaterPushImplementationI
 
 		// the current state is always updated, but only in the case
 		// when the heater is switched on that the controller begins to
-		// perform the temperature control
-		synchronized (this.stateLock) {
-			HeaterState oldState = this.currentState;
-			this.currentState = heaterState;	
-
-			if (heaterState != HeaterState.OFF && oldState == HeaterState.OFF) {
-				if (this.controlMode == ControlMode.PULL) {
-					if (VERBOSE) {
-						this.traceMessage("start pull control.\n");
-					}
-					if (this.executionMode.isStandard() ||
-								this.executionMode.isTestWithoutSimulation()) {
-						this.pullControLoop();
-					} else {
-						// if a state change has been detected from OFF to ON,
-						// schedule a first execution of the control loop, which
-						// in turn will schedule its next execution if needed
-						this.scheduleTaskOnComponent(
-								new AbstractComponent.AbstractTask() {
-									@Override
-									public void run() {
-										((HeaterController)
-												this.getTaskOwner()).
-															pullControLoop();
-										}
-									},
-								this.actualControlPeriod, 
-								TimeUnit.NANOSECONDS);
-					}
-				} else {
-					if (VERBOSE) {
-						this.traceMessage("start push control.\n");
-					}
-					long cp = (long) (TimeUnit.SECONDS.toMillis(1)
-														* this.controlPeriod);
-					try {
-						this.sensorOutboundPort.
-								startTemperaturesPushSensor(
-													cp, TimeUnit.MILLISECONDS);
-					} catch (Exception e) {
-						throw new RuntimeException(e) ;
-					}
+		// perform the temperature control; as only one thread can observe
+		// the transition from OFF, the control is started exactly once
+		// without holding any lock
+		HeaterState oldState = this.currentState.getAndSet(heaterState);
+		// the heater pushes its state when switched on or off, hence it is
+		// not heating and a command decided before is cancelled, as it may no
+		// longer be valid e.g., a start that would follow a switch off
+		if (this.commandQueue.reset(this.actuatorIBPURI,
+									heaterState == HeaterState.HEATING)
+															&& VERBOSE) {
+			this.traceMessage("cancels the pending actuator command.\n");
+		}
+
+		if (heaterState != HeaterState.OFF && oldState == HeaterState.OFF) {
+			if (this.controlTrace.hasSink()) {
+				// the decisions are rendered by the wheel, outside the
+				// control steps that record them
+				long p = (long)(this.controlPeriod
+										* TimeUnit.SECONDS.toNanos(1));
+				this.wheel.schedule(TRACE_DRAIN_TASK, p, p);
+				this.wakeUpTicker();
+			}
+			if (this.controlMode == ControlMode.PULL) {
+				if (VERBOSE) {
+					this.traceMessage("start pull control.\n");
+				}
+				if (this.executionMode.isStandard() ||
+							this.executionMode.isTestWithoutSimulation()) {
+					this.pullControLoop();
+				}
+				// if a state change has been detected from OFF to ON,
+				// schedule the control loop at a fixed rate on the
+				// timing wheel until the heater is switched off; the
+				// period is expressed in the time of the wheel, hence
+				// without any division by the acceleration factor
+				long p = (long)(this.controlPeriod
+										* TimeUnit.SECONDS.toNanos(1));
+				this.wheel.schedule(PULL_CONTROL_TASK, p, p);
+				this.wakeUpTicker();
+			} else if (this.controlMode == ControlMode.PUSH) {
+				if (VERBOSE) {
+					this.traceMessage("start push control.\n");
+				}
+				long cp = (long) (TimeUnit.SECONDS.toMillis(1)
+													* this.controlPeriod);
+				try {
+					this.sensorOutboundPort.
+							startTemperaturesPushSensor(
+												cp, TimeUnit.MILLISECONDS);
+				} catch (Exception e) {
+					throw new RuntimeException(e) ;
+				}
+			} else {
+				if (VERBOSE) {
+					this.traceMessage("start event control.\n");
+				}
+				long cp = (long) (TimeUnit.SECONDS.toMillis(1)
+													* this.controlPeriod);
+				long hp = (long) (TimeUnit.SECONDS.toMillis(1)
+											* STANDARD_HEARTBEAT_PERIOD);
+				try {
+					this.sensorOutboundPort.
+							startTemperaturesThresholdPushSensor(
+									this.hysteresis,
+									cp,
+									Math.max(cp, hp),
+									TimeUnit.MILLISECONDS);
+				} catch (Exception e) {
+					throw new RuntimeException(e) ;
 				}
 			}
 		}
@@ -630,10 +843,7 @@ implements	HeaterPushImplementationI
 
 		try {
 			// execute the control only of the heater is still ON
-			HeaterState s = HeaterState.OFF;
-			synchronized (this.stateLock) {
-				s = this.currentState;
-			}
+			HeaterState s = this.currentState.get();
 			if (s != HeaterState.OFF) {
 				this.oneControlStep(target, current, s);
 			} else {
@@ -648,19 +858,49 @@ implements	HeaterPushImplementationI
 	}
 
 	/**
+	 * implement the push control loop on temperatures received as primitive
+	 * values.
 	 * 
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterPushImplementationI#processTemperatures(double, double, long)
+	 */
+	@Override
+	public void			processTemperatures(
+		double target,
+		double current,
+		long timestamp
+		)
+	{
+		try {
+			// execute the control only of the heater is still ON
+			HeaterState s = this.currentState.get();
+			if (s != HeaterState.OFF) {
+				this.oneControlStep(target, current, timestamp, s);
+			} else {
+				// when the heater is OFF, exit the control loop
+				if (VERBOSE) {
+					this.traceMessage("control is off.\n");
+				}
+			}
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+	}
+
+	/**
+	 * perform one control step on the given temperatures data.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
 	 * <pre>
-	 * pre	{@code true}	// no precondition.
+	 * pre	{@code target != null && current != null}
+	 * pre	{@code priorState != null}
 	 * post	{@code true}	// no postcondition.
 	 * </pre>
 	 *
-	 * @param target
-	 * @param current
-	 * @param priorState
-	 * @throws Exception
+	 * @param target		target temperature of the thermostat.
+	 * @param current		current room temperature.
+	 * @param priorState	state of the heater before the control step.
+	 * @throws Exception	<i>to do</i>.
 	 */
 	protected void		oneControlStep(
 		TemperatureSensorData target,
@@ -668,93 +908,185 @@ implements	HeaterPushImplementationI
 		HeaterState priorState
 		) throws Exception
 	{
-		// tracing
-		StringBuffer sb = new StringBuffer();
-		double c = current.getMeasure().getData();
-		double t = target.getMeasure().getData();
-		if (c < t - this.hysteresis) {
-			// the current room temperature is too low, start heating
-			if (HeaterState.HEATING != priorState) {
-				// actuate
-				this.actuatorOutboundPort.startHeating();
-				// update state
-				this.currentState = HeaterState.HEATING;
-			}
-			if (VERBOSE) {
-				StringBuffer temp = new StringBuffer();
-				temp.append(current);
-				temp.append(" < ");
-				temp.append(target);
-				if (HeaterState.HEATING != priorState) {
-					sb.append("start heating with ");
-					sb.append(temp);
-					sb.append(" - ");
-				} else {
-					sb.append("still heating with ");
-					sb.append(temp);
-					sb.append(" + ");
+		// the current temperature is stamped with its simulated time
+		Instant ts = current.getTimestamp();
+		this.oneControlStep(
+				target.getMeasure().getData(),
+				current.getMeasure().getData(),
+				TimeUnit.SECONDS.toNanos(ts.getEpochSecond()) + ts.getNano(),
+				priorState);
+	}
+
+	/**
+	 * perform one control step on the given temperatures, recording the
+	 * decision in the control trace.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code priorState != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t				target temperature of the thermostat.
+	 * @param c				current room temperature.
+	 * @param timestamp		time stamp of the temperatures in nanoseconds since the epoch.
+	 * @param priorState	state of the heater before the control step.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected void		oneControlStep(
+		double t,
+		double c,
+		long timestamp,
+		HeaterState priorState
+		) throws Exception
+	{
+		this.controlStep.step(t, c, timestamp, priorState);
+	}
+
+	/**
+	 * schedule the delivery of the pending actuator commands at the end of
+	 * the coalescing window opened by a command issued by the control step.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		openCommandWindow()
+	{
+		// the window is expressed in the time of the wheel
+		this.wheel.schedule(
+				COMMAND_DELIVERY_TASK,
+				(long)(this.commandCoalescingWindow
+										* TimeUnit.SECONDS.toNanos(1)),
+				0L);
+		this.wakeUpTicker();
+	}
+
+	/**
+	 * deliver the pending actuator commands to the heater.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		deliverCommands()
+	{
+		try {
+			this.commandQueue.deliverPending((uri, c) -> {
+				if (this.currentState.get() == HeaterState.OFF) {
+					// switched off since the command has been dequeued
+					return;
 				}
-				sb.append(this.hysteresis);
-				sb.append(" at ");
-				sb.append(target.getTimestamp());
-				sb.append(".\n");
-				this.traceMessage(sb.toString());
-			}
-		} else if (c > t + this.hysteresis) {
-			// the current room temperature is high enough, stop heating
-			// tracing
-			if (HeaterState.HEATING == priorState) {
-				// actuate
-				this.actuatorOutboundPort.stopHeating();;
-				// update state
-				this.currentState = HeaterState.ON;
-			}
-			StringBuffer temp = new StringBuffer();
-			temp.append(current);
-			temp.append(" > ");
-			temp.append(target);
-			if (VERBOSE) {
-				if (HeaterState.HEATING == priorState) {
-					sb.append("stop heating with ");
-					sb.append(temp);
-					sb.append(" + ");
+				if (c == Command.START_HEATING) {
+					this.actuatorOutboundPort.startHeating();
 				} else {
-					sb.append("still not heating with ");
-					sb.append(temp);
-					sb.append(" - ");
+					this.actuatorOutboundPort.stopHeating();
 				}
-				sb.append(this.hysteresis);
-				sb.append(" at ");
-				sb.append(target.getTimestamp());
-				sb.append(".\n");
-				this.traceMessage(sb.toString());
+			});
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+	}
+
+	/**
+	 * plan the wake up of the ticker at the end of the tick of the earliest
+	 * deadline on the timing wheel, unless the wheel is empty or an earlier
+	 * wake up is already planned; the ticker hence runs only when a task is
+	 * due rather than at every tick of the wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		wakeUpTicker()
+	{
+		long delay = this.wheel.delayToNextExpiry();
+		if (delay < 0) {
+			// no task on the wheel, the ticker sleeps until the next one is
+			// scheduled
+			return;
+		}
+		synchronized (this.tickerLock) {
+			long wakeUp = System.nanoTime() + delay;
+			if (wakeUp >= this.tickerWakeUp) {
+				return;
 			}
-		} else {
-			if (VERBOSE) {
-				if (HeaterState.HEATING == priorState) {
-					sb.append("still heating with ");
-					sb.append(current);
-					sb.append(" < ");
-					sb.append(target);
-					sb.append(" + ");
-				} else {
-					sb.append("still not heating with ");
-					sb.append(current);
-					sb.append(" > ");
-					sb.append(target);
-					sb.append(" - ");
+			this.tickerWakeUp = wakeUp;
+			final long generation = ++this.tickerGeneration;
+			this.scheduleTaskOnComponent(
+					new AbstractComponent.AbstractTask() {
+						@Override
+						public void run() {
+							((HeaterController)this.getTaskOwner()).tick(generation);
+						}
+					},
+					delay,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * advance the timing wheel, executing the expired periodic tasks, and
+	 * plan the next wake up of the ticker as long as tasks remain on the
+	 * wheel; a ticker task superseded by an earlier wake up does nothing.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param generation	generation of the wake up executed by this task.
+	 */
+	protected void		tick(long generation)
+	{
+		synchronized (this.tickerLock) {
+			if (generation != this.tickerGeneration) {
+				return;
 			}
-			sb.append(this.hysteresis);
-			sb.append(" at ");
-			sb.append(target.getTimestamp());
-			sb.append(".\n");
-				this.traceMessage(sb.toString());
+			this.tickerWakeUp = Long.MAX_VALUE;
+		}
+		try {
+			long missed = this.wheel.getTotalMissedDeadlines();
+			this.wheel.advance(id -> {
+				if (id == PULL_CONTROL_TASK) {
+					this.pullControLoop();
+				} else if (id == COMMAND_DELIVERY_TASK) {
+					this.deliverCommands();
+				} else if (id == TRACE_DRAIN_TASK) {
+					this.controlTrace.drain();
+				}
+			});
+			missed = this.wheel.getTotalMissedDeadlines() - missed;
+			if (VERBOSE && missed > 0) {
+				this.traceMessage("misses " + missed
+								  + " control deadline(s).\n");
 			}
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
 		}
+		// the deadlines are computed from the wheel origin, hence the
+		// latency of the tasks does not accumulate
+		this.wakeUpTicker();
 	}
 
 	/**
-	 * implement the pull control loop.
+	 * implement one step of the pull control loop, which is executed
+	 * periodically by the timing wheel until the heater is switched off.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -768,36 +1100,31 @@ implements	HeaterPushImplementationI
 	{
 		try {
 			// execute the control as long as the heater is ON
-			HeaterState priorState = HeaterState.OFF;
-			synchronized (this.stateLock) {
-				priorState = this.currentState;
-			}
+			HeaterState priorState = this.currentState.get();
 			if (priorState != HeaterState.OFF) {
 				// get the temperature data from the heater
-				HeaterTemperaturesSensorData td =
-						(HeaterTemperaturesSensorData)
-										this.sensorOutboundPort.request();
+				DataRequiredCI.DataI d = this.sensorOutboundPort.request();
 
 				if (DEBUG) {
 					this.traceMessage(
-							"executes a new pull control step on " + td + "\n");
+							"executes a new pull control step on " + d + "\n");
 				}
 
-				this.oneControlStep(td.getTargetTemperature(),
-									td.getCurrentTemperature(),
-									priorState);
-
-				// schedule the next execution of the loop only if the
-				// current execution is standard or if it is a real time
-				// simulation with code execution i.e., SIL or HIL
-				// otherwise, perform only one call to pull sensors to
-				// test the functionality
-				this.scheduleTask(
-						o -> ((HeaterController)o).pullControLoop(),
-						this.actualControlPeriod, 
-						TimeUnit.NANOSECONDS);
+				if (d instanceof CompactHeaterTemperaturesSensorData) {
+					CompactHeaterTemperaturesSensorData td =
+										(CompactHeaterTemperaturesSensorData)d;
+					this.oneControlStep(td.getTarget(), td.getCurrent(),
+										td.getTimestamp(), priorState);
+				} else {
+					HeaterTemperaturesSensorData td =
+										(HeaterTemperaturesSensorData)d;
+					this.oneControlStep(td.getTargetTemperature(),
+										td.getCurrentTemperature(),
+										priorState);
+				}
 			} else {
 				// when the heater is OFF, exit the control loop
+				this.wheel.cancel(PULL_CONTROL_TASK);
 				if (VERBOSE) {
 					this.traceMessage("exit the control.\n");
 				}
@@ -65,6 +65,7 @@ import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOff
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOnHeater;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorInboundPort;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterStateSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeatingSensorData;
@@ -76,6 +77,7 @@ import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPo
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater.PowerValue;
 import fr.sorbonne_u.components.utils.tests.TestScenario;
 import fr.sorbonne_u.devs_simulation.architectures.RTArchitecture;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.exceptions.ImplementationInvariantException;
 import fr.sorbonne_u.exceptions.AssertionChecking;
@@ -84,8 +86,11 @@ import fr.sorbonne_u.exceptions.PostconditionException;
 import fr.sorbonne_u.exceptions.PreconditionException;
 import fr.sorbonne_u.utils.aclocks.AcceleratedClock;
 import fr.sorbonne_u.utils.aclocks.ClocksServer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -256,6 +261,33 @@ implements	HeaterUserI,
 	protected HeaterSensorDataInboundPort	sensorInboundPort;
 	/** the inbound port through which the actuators are called.			*/
 	protected HeaterActuatorInboundPort		actuatorInboundPort;
+	/** identifier of the periodic temperatures push task in the timing
+	 *  wheel.																*/
+	protected static final int				PUSH_SENSOR_TASK = 0;
+	/** identifier of the periodic threshold temperatures sampling task in
+	 *  the timing wheel.													*/
+	protected static final int				THRESHOLD_PUSH_SENSOR_TASK = 1;
+	/** control hysteresis of the threshold push mode.						*/
+	protected double						thresholdHysteresis;
+	/** number of samplings after which a push is forced in the threshold
+	 *  push mode.															*/
+	protected int							thresholdHeartbeatSamples;
+	/** number of samplings done since the last threshold push.				*/
+	protected int							thresholdSamplesSinceLastPush;
+	/** position of the current temperature relative to the band at the
+	 *  previous threshold sampling: -1 below, 0 inside, 1 above.			*/
+	protected int							thresholdPreviousPosition;
+	/** timing wheel driving the periodic push tasks of the component,
+	 *  created upon the first use when the clock is available.			*/
+	protected TimingWheel					wheel;
+	/** lock protecting the planned wake up of the ticker.					*/
+	protected Object						tickerLock;
+	/** value of {@code System.nanoTime()} at the planned wake up of the
+	 *  ticker, {@code Long.MAX_VALUE} when none is planned.				*/
+	protected long							tickerWakeUp;
+	/** generation of the planned wake up, the ticker tasks of previous
+	 *  generations being superseded.										*/
+	protected long							tickerGeneration;
 
 	// Execution/Simulation
 
@@ -867,6 +899,9 @@ implements	HeaterUserI,
 		this.actuatorInboundPort = new HeaterActuatorInboundPort(
 											heaterActuatorInboundPortURI, this);
 		this.actuatorInboundPort.publishPort();
+		this.tickerLock = new Object();
+		this.tickerWakeUp = Long.MAX_VALUE;
+		this.tickerGeneration = 0L;
 
 		if (VERBOSE) {
 			this.tracer.get().setTitle("Heater component");
@@ -905,6 +940,14 @@ implements	HeaterUserI,
 		assert	accelerationFactor > 0.0 :
 				new PreconditionException("accelerationFactor > 0.0");
 
+		// the models of the architecture depend upon the run parameters of
+		// the test scenario, e.g., to replay a weather trace
+		Map<String,Object> runParameters = new HashMap<>();
+		if (this.testScenario instanceof TestScenarioWithSimulation) {
+			((TestScenarioWithSimulation)this.testScenario).
+										addToRunParameters(runParameters);
+		}
+
 		RTArchitecture ret = null;
 		if (architectureURI.equals(UNIT_TEST_ARCHITECTURE_URI)) {
 			ret = Local_SIL_SimulationArchitectures.
@@ -912,14 +955,16 @@ implements	HeaterUserI,
 									architectureURI,
 									rootModelURI,
 									simulatedTimeUnit,
-									accelerationFactor);
+									accelerationFactor,
+									runParameters);
 		} else if (architectureURI.equals(INTEGRATION_TEST_ARCHITECTURE_URI)) {
 			ret = Local_SIL_SimulationArchitectures.
 						createHeater_SIL_LocalArchitecture4IntegrationTest(
 									architectureURI,
 									rootModelURI,
 									simulatedTimeUnit,
-									accelerationFactor);
+									accelerationFactor,
+									runParameters);
 		} else {
 			throw new BCMException("Unknown local simulation architecture "
 								   + "URI: " + architectureURI);
@@ -1013,7 +1058,8 @@ implements	HeaterUserI,
 												get(this.localArchitectureURI);
 				// add to the standard plug-in the method getModelStateValue
 				// from the interface ModelStateAccessI used to get the
-				// current temperature from the simulator
+				// temperature at the current simulated time from the
+				// simulator
 				this.asp = new RTAtomicSimulatorPlugin() {
 					private static final long serialVersionUID = 1L;
 					/**
@@ -1029,10 +1075,11 @@ implements	HeaterUserI,
 						assert	modelURI.equals(HeaterTemperatureSILModel.URI);
 						assert	name.equals(CURRENT_TEMPERATURE_NAME);
 
+						Time now = HeaterCyPhy.this.currentSimulatedTime();
 						return ((HeaterTemperatureSILModel)
 										this.atomicSimulators.get(modelURI).
 												getSimulatedModel()).
-														getCurrentTemperature();
+														getTemperatureAt(now);
 					}
 				};
 				((RTAtomicSimulatorPlugin)this.asp).
@@ -1424,6 +1471,34 @@ implements	HeaterUserI,
 							CURRENT_TEMPERATURE_NAME);
 	}
 
+	/**
+	 * return the current simulated time of the SIL simulation, computed from
+	 * the current instant of the clock used in SIL simulation runs.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code getClock4Simulation() != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the current simulated time.
+	 */
+	protected Time		currentSimulatedTime()
+	{
+		assert	this.getClock4Simulation() != null :
+				new PreconditionException("getClock4Simulation() != null");
+
+		Time start = this.getClock4Simulation().getSimulatedStartTime();
+		long elapsed =
+			ChronoUnit.NANOS.between(
+						this.getClock4Simulation().getStartInstant(),
+						this.getClock4Simulation().currentInstant());
+		return new Time(start.getSimulatedTime() +
+							((double) elapsed)/start.getTimeUnit().toNanos(1L),
+						start.getTimeUnit());
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.hem2025e1.equipments.heater.HeaterInternalControlI#heating()
 	 */
@@ -1711,9 +1786,9 @@ implements	HeaterUserI,
 		HeaterTemperaturesSensorData ret = null;
 		switch (this.getExecutionMode()) {
 		case STANDARD:
-			ret = new HeaterTemperaturesSensorData(
-								this.targetTemperaturePullSensor(),
-								this.currentTemperaturePullSensor());
+			ret = standardTemperaturesSensor(
+						this.targetTemperature,
+						FAKE_CURRENT_TEMPERATURE.getMeasure().getData());
 			break;
 		case UNIT_TEST:
 		case INTEGRATION_TEST:
@@ -1732,7 +1807,78 @@ implements	HeaterUserI,
 	}
 
 	/**
-	 * start a sequence of temperatures pushes with the given period.
+	 * return the target and the current temperatures as a sensor data in the
+	 * standard execution mode, where the temperatures are not time stamped
+	 * with the time of a clock; this is the sensor data built by
+	 * {@code temperaturesSensor} in this mode.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code target != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param target	target temperature of the heater.
+	 * @param current	current temperature of the room in {@code TEMPERATURE_UNIT}.
+	 * @return			the target and the current temperatures as a sensor data.
+	 */
+	public static HeaterTemperaturesSensorData	standardTemperaturesSensor(
+		TimedMeasure<Double> target,
+		double current
+		)
+	{
+		assert	target != null : new PreconditionException("target != null");
+
+		return new HeaterTemperaturesSensorData(
+					new TemperatureSensorData(target),
+					new TemperatureSensorData(
+							new TimedMeasure<Double>(current,
+													 TEMPERATURE_UNIT)));
+	}
+
+	/**
+	 * return the target and the current temperatures as a compact sensor
+	 * data, avoiding the creation of the intermediate timed measures and
+	 * signal data.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return				the target and the current temperatures as a compact sensor data.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public CompactHeaterTemperaturesSensorData	compactTemperaturesSensor()
+	throws Exception
+	{
+		double current;
+		Instant i;
+		if (this.executionMode.isSILTest()) {
+			// stamped with the simulated time of the temperature, as the
+			// other sensor data, so that the traces match the simulation ones
+			VariableValue<Double> v = this.computeCurrentTemperature();
+			current = v.getValue();
+			i = this.getClock4Simulation().instantOfSimulatedTime(v.getTime());
+		} else {
+			current = FAKE_CURRENT_TEMPERATURE.getMeasure().getData();
+			i = this.executionMode.isStandard() ?
+					Instant.now()
+				:	this.getClock().currentInstant();
+		}
+		return CompactHeaterTemperaturesSensorData.at(
+										this.targetTemperature.getData(),
+										current,
+										i);
+	}
+
+	/**
+	 * start a sequence of temperatures pushes with the given period, the
+	 * first one being made immediately and the next ones at a fixed rate
+	 * driven by the timing wheel of the component.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -1751,79 +1897,228 @@ implements	HeaterUserI,
 		TimeUnit tu
 		) throws Exception
 	{
-		long actualControlPeriod = -1L;
-		if (this.executionMode.isStandard()) {
-			actualControlPeriod = (long)(controlPeriod * tu.toNanos(1));
-		} else {
-			// this will synchronise the start of the push sensor with the
-			// availability of the clock, required to compute the actual push
-			// period with the correct acceleration factor
-			AcceleratedClock ac = this.clock.get();
-			// the accelerated period is in nanoseconds, hence first convert
-			// the period to nanoseconds, perform the division and then
-			// convert to long (hence providing a better precision than
-			// first dividing and then converting to nanoseconds...)
-			actualControlPeriod =
-					(long)((controlPeriod * tu.toNanos(1))/
-											ac.getAccelerationFactor());
-			// sanity checking, the standard Java scheduler has a
-			// precision no less than 10 milliseconds...
-			if (actualControlPeriod < TimeUnit.MILLISECONDS.toNanos(10)) {
-				System.out.println(
-					"Warning: accelerated control period is "
-							+ "too small ("
-							+ actualControlPeriod +
-							"), unexpected scheduling problems may"
-							+ " occur!");
-			}
-		}
-		this.temperaturesPushSensorTask(actualControlPeriod);
+		// the period is expressed in the time of the wheel, which is the
+		// accelerated time under test, hence without any division by the
+		// acceleration factor
+		long period = tu.toNanos(controlPeriod);
+		this.timingWheel();
+		this.temperaturesPushSensorTask();
+		this.schedulePeriodicTask(PUSH_SENSOR_TASK, period);
 	}
 
 	/**
-	 * if the heater is not off, perform one push and schedule the next.
+	 * schedule the periodic task {@code id} on the timing wheel with the
+	 * given period if the heater is not off, starting the advance of the
+	 * wheel if needed; the task is scheduled only if the current execution
+	 * is standard or a real time simulation with code execution i.e., SIL
+	 * or HIL, otherwise its first execution is performed only to test the
+	 * functionality.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
 	 * <pre>
-	 * pre	{@code actualControlPeriod > 0}
+	 * pre	{@code id >= 0}
+	 * pre	{@code period > 0}
 	 * post	{@code true}	// no postcondition.
 	 * </pre>
 	 *
-	 * @param actualControlPeriod	period at which the push sensor must be triggered.
-	 * @throws Exception			<i>to do</i>.
+	 * @param id			identifier of the task in the timing wheel.
+	 * @param period		period of the task in the time of the wheel, in nanoseconds.
+	 * @throws Exception	<i>to do</i>.
 	 */
-	protected void		temperaturesPushSensorTask(long actualControlPeriod)
+	protected void		schedulePeriodicTask(int id, long period)
 	throws Exception
 	{
-		assert	actualControlPeriod > 0 :
-				new PreconditionException("actualControlPeriod > 0");
+		assert	period > 0 : new PreconditionException("period > 0");
 
-		if (this.currentState != HeaterState.OFF) {
-			this.traceMessage("Heater performs a new temperatures push.\n");
-			this.temperaturesPushSensor();
-			if (this.executionMode.isStandard()
+		if (this.currentState != HeaterState.OFF &&
+				(this.executionMode.isStandard()
 							|| this.executionMode.isSILTest()
-											|| this.executionMode.isHILTest()) {
-				// schedule the next execution of the loop only if the
-				// current execution is standard or if it is a real time
-				// simulation with code execution i.e., SIL or HIL
-				// otherwise, perform only one call to push sensors to
-				// test the functionality
-				this.scheduleTaskOnComponent(
+											|| this.executionMode.isHILTest())) {
+			this.timingWheel().schedule(id, period, period);
+			this.wakeUpTicker();
+		}
+	}
+
+	/**
+	 * cancel the periodic task {@code id} on the timing wheel if it is
+	 * scheduled, tracing its timing statistics.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code wheel == null || !wheel.isScheduled(id)}
+	 * </pre>
+	 *
+	 * @param id	identifier of the task in the timing wheel.
+	 */
+	protected void		cancelPeriodicTask(int id)
+	{
+		if (this.wheel != null && this.wheel.isScheduled(id)) {
+			this.wheel.cancel(id);
+			if (HeaterCyPhy.VERBOSE) {
+				this.traceMessage("Heater push timing, "
+								  + this.wheel.statisticsToString(id)
+								  + ".\n");
+			}
+		}
+	}
+
+	/**
+	 * return the timing wheel of the component, creating it upon the first
+	 * call; in standard executions, the wheel runs in real time, otherwise
+	 * it runs in the accelerated time of the clock so that the deadlines of
+	 * the periodic tasks are computed from the instants of the clock.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return				the timing wheel of the component.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected synchronized TimingWheel	timingWheel() throws Exception
+	{
+		if (this.wheel == null) {
+			if (this.executionMode.isStandard()) {
+				this.wheel =
+					new TimingWheel(TimingWheel.STANDARD_TICK_DURATION,
+									TimingWheel.STANDARD_NUMBER_OF_BUCKETS,
+									1);
+			} else {
+				// this will synchronise the creation of the wheel with the
+				// availability of the clock
+				AcceleratedClock ac = this.clock.get();
+				double af = ac.getAccelerationFactor();
+				this.wheel =
+					new TimingWheel(
+						(long)(TimingWheel.STANDARD_TICK_DURATION * af),
+						TimingWheel.STANDARD_NUMBER_OF_BUCKETS,
+						1,
+						() -> {
+							Instant i = ac.currentInstant();
+							return TimeUnit.SECONDS.toNanos(i.getEpochSecond())
+															+ i.getNano();
+						},
+						af);
+			}
+		}
+		return this.wheel;
+	}
+
+	/**
+	 * plan the wake up of the ticker at the end of the tick of the earliest
+	 * deadline on the timing wheel, unless the wheel is empty or an earlier
+	 * wake up is already planned; the ticker hence runs only when a task is
+	 * due rather than at every tick of the wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		wakeUpTicker()
+	{
+		long delay = this.wheel.delayToNextExpiry();
+		if (delay < 0) {
+			// no task on the wheel, the ticker sleeps until the next one is
+			// scheduled
+			return;
+		}
+		synchronized (this.tickerLock) {
+			long wakeUp = System.nanoTime() + delay;
+			if (wakeUp >= this.tickerWakeUp) {
+				return;
+			}
+			this.tickerWakeUp = wakeUp;
+			final long generation = ++this.tickerGeneration;
+			this.scheduleTaskOnComponent(
 					new AbstractComponent.AbstractTask() {
 						@Override
 						public void run() {
-							try {
-								temperaturesPushSensorTask(actualControlPeriod);
-							} catch (Exception e) {
-								e.printStackTrace();
-							}
+							((HeaterCyPhy)this.getTaskOwner()).tick(generation);
 						}
 					},
-					actualControlPeriod,
+					delay,
 					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * advance the timing wheel, executing the expired periodic tasks, and
+	 * plan the next wake up of the ticker as long as tasks remain on the
+	 * wheel; a ticker task superseded by an earlier wake up does nothing.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param generation	generation of the wake up executed by this task.
+	 */
+	protected void		tick(long generation)
+	{
+		synchronized (this.tickerLock) {
+			if (generation != this.tickerGeneration) {
+				return;
 			}
+			this.tickerWakeUp = Long.MAX_VALUE;
+		}
+		try {
+			long missed = this.wheel.getTotalMissedDeadlines();
+			this.wheel.advance(id -> {
+				switch (id) {
+				case PUSH_SENSOR_TASK:
+					this.temperaturesPushSensorTask();
+					break;
+				case THRESHOLD_PUSH_SENSOR_TASK:
+					this.temperaturesThresholdPushSensorTask();
+					break;
+				default:
+				}
+			});
+			missed = this.wheel.getTotalMissedDeadlines() - missed;
+			if (VERBOSE && missed > 0) {
+				this.traceMessage("Heater misses " + missed
+								  + " push deadline(s).\n");
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		// the deadlines are computed from the wheel origin, hence the
+		// latency of the tasks does not accumulate
+		this.wakeUpTicker();
+	}
+
+	/**
+	 * if the heater is not off, perform one push, otherwise remove the
+	 * periodic push task from the timing wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected void		temperaturesPushSensorTask() throws Exception
+	{
+		if (this.currentState != HeaterState.OFF) {
+			this.traceMessage("Heater performs a new temperatures push.\n");
+			this.temperaturesPushSensor();
+		} else {
+			this.cancelPeriodicTask(PUSH_SENSOR_TASK);
 		}
 	}
 
@@ -1842,7 +2137,127 @@ implements	HeaterUserI,
 	 */
 	protected void		temperaturesPushSensor() throws Exception
 	{
-		this.sensorInboundPort.send(this.temperaturesSensor());
+		this.sensorInboundPort.send(this.compactTemperaturesSensor());
+	}
+
+	/**
+	 * start a sampling of the temperatures with the given period that pushes
+	 * them only when the current temperature leaves the band
+	 * {@code [target - hysteresis, target + hysteresis]} or when no push has
+	 * been made for {@code heartbeatPeriod}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code hysteresis > 0.0}
+	 * pre	{@code samplingPeriod > 0}
+	 * pre	{@code heartbeatPeriod >= samplingPeriod}
+	 * pre	{@code tu != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param hysteresis		control hysteresis around the target temperature.
+	 * @param samplingPeriod	period at which the temperatures are sampled.
+	 * @param heartbeatPeriod	maximum delay between two successive pushes.
+	 * @param tu				time unit in which the periods are expressed.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	public void			startTemperaturesThresholdPushSensor(
+		double hysteresis,
+		long samplingPeriod,
+		long heartbeatPeriod,
+		TimeUnit tu
+		) throws Exception
+	{
+		assert	hysteresis > 0.0 :
+				new PreconditionException("hysteresis > 0.0");
+		assert	samplingPeriod > 0 :
+				new PreconditionException("samplingPeriod > 0");
+		assert	heartbeatPeriod >= samplingPeriod :
+				new PreconditionException("heartbeatPeriod >= samplingPeriod");
+		assert	tu != null : new PreconditionException("tu != null");
+
+		this.thresholdHysteresis = hysteresis;
+		this.thresholdHeartbeatSamples =
+				(int) Math.max(1L, heartbeatPeriod/samplingPeriod);
+		// the first sampling always pushes, so that the controller can take
+		// its initial decision
+		this.thresholdSamplesSinceLastPush = this.thresholdHeartbeatSamples - 1;
+		this.thresholdPreviousPosition = 0;
+		// the sampling period is expressed in the time of the wheel
+		this.timingWheel();
+		this.temperaturesThresholdPushSensorTask();
+		this.schedulePeriodicTask(THRESHOLD_PUSH_SENSOR_TASK,
+								  tu.toNanos(samplingPeriod));
+	}
+
+	/**
+	 * if the heater is not off, sample the temperatures and push them if the
+	 * current temperature has just left the hysteresis band or if the
+	 * heartbeat is due; when the heater is off, the periodic sampling task is
+	 * removed from the timing wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code thresholdHysteresis > 0.0}
+	 * pre	{@code thresholdHeartbeatSamples > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected void		temperaturesThresholdPushSensorTask() throws Exception
+	{
+		assert	this.thresholdHysteresis > 0.0 :
+				new PreconditionException("thresholdHysteresis > 0.0");
+		assert	this.thresholdHeartbeatSamples > 0 :
+				new PreconditionException("thresholdHeartbeatSamples > 0");
+
+		if (this.currentState != HeaterState.OFF) {
+			double h = this.thresholdHysteresis;
+			double t = this.targetTemperature.getData();
+			double c = this.currentTemperatureValue();
+			int position = c < t - h ? -1 : (c > t + h ? 1 : 0);
+			int sinceLastPush = this.thresholdSamplesSinceLastPush + 1;
+			if (position != 0 && position != this.thresholdPreviousPosition
+							|| sinceLastPush >= this.thresholdHeartbeatSamples) {
+				if (HeaterCyPhy.VERBOSE) {
+					this.traceMessage(
+							"Heater performs a new threshold temperatures "
+							+ "push.\n");
+				}
+				this.temperaturesPushSensor();
+				sinceLastPush = 0;
+			}
+			this.thresholdSamplesSinceLastPush = sinceLastPush;
+			this.thresholdPreviousPosition = position;
+		} else {
+			this.cancelPeriodicTask(THRESHOLD_PUSH_SENSOR_TASK);
+		}
+	}
+
+	/**
+	 * return the value of the current temperature, without building the
+	 * corresponding sensor data.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return				the value of the current temperature.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected double	currentTemperatureValue() throws Exception
+	{
+		if (this.executionMode.isSILTest()) {
+			return this.computeCurrentTemperature().getValue();
+		} else {
+			return FAKE_CURRENT_TEMPERATURE.getMeasure().getData();
+		}
 	}
 }
 // -----------------------------------------------------------------------------
@@ -88,5 +88,26 @@ public interface		HeaterPushImplementationI
 	public void			processTemperatures(
 		TemperatureSensorData target,
 		TemperatureSensorData current);
+
+	/**
+	 * receive and process the temperatures pushed from the heater as
+	 * primitive values, typically unpacked from a
+	 * {@code CompactHeaterTemperaturesSensorData}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param target	target temperature of the thermostat.
+	 * @param current	current room temperature.
+	 * @param timestamp	time stamp of the temperatures in nanoseconds since the epoch.
+	 */
+	public void			processTemperatures(
+		double target,
+		double current,
+		long timestamp);
 }
 // -----------------------------------------------------------------------------
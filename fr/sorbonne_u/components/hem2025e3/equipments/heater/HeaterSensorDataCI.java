@@ -93,6 +93,21 @@ import fr.sorbonne_u.components.interfaces.RequiredCI;
  * {@code HeaterSensorCI::startTemperaturesPushSensor}.
  * </p>
  * <p>
+ * The event-driven control mode also relies on the push protocol, but the
+ * heater samples the temperatures locally and pushes them only when the
+ * current temperature crosses the hysteresis band around the target, plus a
+ * periodic heartbeat push; it is started by the controller calling the method
+ * {@code HeaterSensorCI::startTemperaturesThresholdPushSensor}.
+ * </p>
+ * <p>
+ * Finally, a controller of several heaters can batch the readings pushed by
+ * its heaters: the heaters are started in push mode and the controller
+ * accumulates their readings in a batcher it owns, processing them as one
+ * {@code HeaterTemperaturesBatchSensorData} in a single task once readings
+ * of a given number of heaters are accumulated or at the end of a time
+ * window.
+ * </p>
+ * <p>
  * As the standard pull and push protocols are used to transmit the state of
  * the heater and the temperatures, the component interface
  * {@code HeaterSensorCI} adds method allowing to access other sensor data and
@@ -215,6 +230,35 @@ extends		DataOfferedCI,
 			long controlPeriod,
 			TimeUnit tu
 			) throws Exception;
+
+		/**
+		 * start a sampling of the temperatures with the given period that
+		 * pushes them only when the current temperature leaves the band
+		 * {@code [target - hysteresis, target + hysteresis]} or, as a safety
+		 * net, when no push has been made for {@code heartbeatPeriod}.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code hysteresis > 0.0}
+		 * pre	{@code samplingPeriod > 0}
+		 * pre	{@code heartbeatPeriod >= samplingPeriod}
+		 * pre	{@code tu != null}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param hysteresis		control hysteresis around the target temperature.
+		 * @param samplingPeriod	period at which the temperatures are sampled.
+		 * @param heartbeatPeriod	maximum delay between two successive pushes.
+		 * @param tu				time unit in which the periods are expressed.
+		 * @throws Exception		<i>to do</i>.
+		 */
+		public void			startTemperaturesThresholdPushSensor(
+			double hysteresis,
+			long samplingPeriod,
+			long heartbeatPeriod,
+			TimeUnit tu
+			) throws Exception;
 	}
 
 	/**
@@ -0,0 +1,123 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.components.interfaces.OfferedCI;
+import fr.sorbonne_u.components.interfaces.RequiredCI;
+
+// -----------------------------------------------------------------------------
+/**
+ * The component interface <code>MultiHeaterControlCI</code> declares the
+ * signatures of the methods used to manage the set of heaters regulated by a
+ * {@code MultiHeaterController}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Heaters are identified by the URI of their sensor inbound port, the
+ * controller connecting to their sensor and actuator inbound ports when they
+ * are added and disconnecting from them when they are removed.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		MultiHeaterControlCI
+extends		OfferedCI,
+			RequiredCI
+{
+	/**
+	 * add a heater to the controlled ones.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sensorIBP_URI != null && !sensorIBP_URI.isEmpty()}
+	 * pre	{@code actuatorIBP_URI != null && !actuatorIBP_URI.isEmpty()}
+	 * pre	{@code hysteresis > 0.0}
+	 * pre	{@code controlPeriod > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sensorIBP_URI		URI of the heater sensor inbound port, also used as key of the heater.
+	 * @param actuatorIBP_URI	URI of the heater actuator inbound port.
+	 * @param hysteresis		control hysteresis around the target temperature.
+	 * @param controlPeriod		control period in seconds.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	public void			addHeater(
+		String sensorIBP_URI,
+		String actuatorIBP_URI,
+		double hysteresis,
+		double controlPeriod
+		) throws Exception;
+
+	/**
+	 * remove a heater from the controlled ones, doing nothing if it is not
+	 * controlled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sensorIBP_URI != null && !sensorIBP_URI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sensorIBP_URI	URI of the heater sensor inbound port.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public void			removeHeater(String sensorIBP_URI) throws Exception;
+
+	/**
+	 * return the number of heaters currently controlled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return				the number of heaters currently controlled.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public int			numberOfHeaters() throws Exception;
+}
+// -----------------------------------------------------------------------------
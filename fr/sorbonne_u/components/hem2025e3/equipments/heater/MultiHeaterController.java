@@ -0,0 +1,1454 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.annotations.OfferedInterfaces;
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
+import fr.sorbonne_u.components.cyphy.ExecutionMode;
+import fr.sorbonne_u.components.cyphy.utils.aclocks.ClocksServerWithSimulation;
+import fr.sorbonne_u.components.cyphy.utils.aclocks.ClocksServerWithSimulationCI;
+import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
+import fr.sorbonne_u.components.exceptions.ComponentStartException;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterControlTrace.Decision;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI.HeaterSensorRequiredPullCI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue.Command;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorConnector;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorOutboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataBatcher;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataConnector;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.MultiHeaterControlInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.MultiHeaterSensorDataOutboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesBatchSensorData;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesSensorData;
+import fr.sorbonne_u.components.interfaces.DataRequiredCI;
+import fr.sorbonne_u.exceptions.AssertionChecking;
+import fr.sorbonne_u.exceptions.ImplementationInvariantException;
+import fr.sorbonne_u.exceptions.InvariantException;
+import fr.sorbonne_u.utils.aclocks.AcceleratedClock;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>MultiHeaterController</code> implements a controller
+ * component regulating a dynamic set of heaters.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The controller applies to each heater the same threshold-based control with
+ * hysteresis as {@code HeaterController} in pull mode, but a single component
+ * with a fixed thread pool regulates all of them. Heaters are added and
+ * removed at run time by other components calling {@code addHeater} and
+ * {@code removeHeater} through the {@code MultiHeaterControlCI} inbound port,
+ * each one being identified by the URI of its sensor inbound port. The state of
+ * the heaters (hysteresis, perceived state and control period) is kept in
+ * arrays indexed by a slot number allocated when the heater is added, the
+ * URIs being mapped to the slots by a hash map; freed slots are reused by
+ * the next additions.
+ * </p>
+ * <p>
+ * Each control step follows the same path as the ones of
+ * {@code HeaterController}: the perceived state of each heater is a CAS
+ * state word, an atomic integer holding the ordinal of the state, set
+ * unconditionally by the state pushes while the steps compare-and-set their
+ * {@code ON} to {@code HEATING} and {@code HEATING} to {@code ON}
+ * transitions; the actuator commands are issued into a
+ * {@code HeaterActuatorCommandQueue} keyed by the heater URIs and delivered
+ * by the timing wheel at the end of their coalescing window; the decisions
+ * are recorded in a preallocated {@code HeaterControlTrace}, tagged with the
+ * slot of their heater and drained to the component tracer only when
+ * {@code VERBOSE}.
+ * </p>
+ * <p>
+ * The control steps of all the heaters are driven by one
+ * {@code TimingWheel}, the task of the heater in a slot having the slot number
+ * plus {@code FIRST_HEATER_TASK} as identifier, the smaller identifiers being
+ * reserved for the flush of the batch of readings, the delivery of the
+ * actuator commands and the draining of the control trace. The
+ * wheel runs in the simulated time of the heaters, its tick and the control
+ * periods being expressed in simulated seconds and converted to actual time
+ * only when scheduling the ticker. A single ticker task expires the heaters
+ * which control period has elapsed and performs their control steps in
+ * sequence, a heater being scheduled on the wheel when it is switched on and
+ * cancelled when it is switched off, as pushed by its state sensor. The
+ * ticker sleeps until the tick of the earliest control deadline rather than
+ * waking up at each tick, and is not scheduled at all when no heater is
+ * under control; a heater switched on with a deadline earlier than the
+ * planned wake up reschedules it, the superseded wake up being ignored.
+ * </p>
+ * <p>
+ * When created with a positive batch size, the controller does not pull the
+ * temperatures but asks each heater switched on to push its readings, which
+ * its sensor data outbound ports accumulate in a
+ * {@code HeaterSensorDataBatcher} owned by the controller instead of
+ * submitting one task per reading. A batch holds the latest reading of each
+ * heater and is processed in one task once readings of {@code batchSize}
+ * heaters are accumulated or when the wheel flushes it, {@code batchWindow}
+ * seconds of simulated time after its first reading; hence with a window not
+ * exceeding the control periods, each control decision is taken upon the
+ * latest reading of its heater, at most one control period old, and the
+ * controller executes one task per batch instead of one per reading. Both
+ * parameters are given at creation time as run parameters of the controller.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code actualTickPeriod > 0}
+ * invariant	{@code accelerationFactor > 0.0}
+ * invariant	{@code executionMode.isStandard() || clockURI != null && !clockURI.isEmpty()}
+ * invariant	{@code heaterURIs.length == hystereses.length}
+ * invariant	{@code heaterURIs.length == states.length}
+ * invariant	{@code heaterURIs.length == controlPeriods.length}
+ * invariant	{@code slots.size() <= heaterURIs.length}
+ * invariant	{@code batchSize >= 0}
+ * invariant	{@code batchSize == 0 || batchWindow > 0.0}
+ * invariant	{@code (batchSize == 0) == (sensorBatcher == null)}
+ * invariant	{@code controlInboundPort != null}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code CONTROL_INBOUND_PORT_URI != null && !CONTROL_INBOUND_PORT_URI.isEmpty()}
+ * invariant	{@code X_RELATIVE_POSITION >= 0}
+ * invariant	{@code Y_RELATIVE_POSITION >= 0}
+ * invariant	{@code STANDARD_TICK_PERIOD > 0.0}
+ * invariant	{@code WHEEL_SIZE > 0}
+ * invariant	{@code INITIAL_CAPACITY > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+//-----------------------------------------------------------------------------
+@RequiredInterfaces(required={HeaterSensorRequiredPullCI.class,
+							  HeaterActuatorCI.class,
+							  ClocksServerWithSimulationCI.class})
+@OfferedInterfaces(offered={DataRequiredCI.PushCI.class,
+							MultiHeaterControlCI.class})
+//-----------------------------------------------------------------------------
+public class			MultiHeaterController
+extends		AbstractComponent
+implements	MultiHeaterPushImplementationI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** URI of the inbound port through which the heaters are managed.	*/
+	public static final String	CONTROL_INBOUND_PORT_URI =
+											"MULTI-HEATER-CONTROL-INBOUND-PORT";
+	/** when tracing, x coordinate of the window relative position.			*/
+	public static int			X_RELATIVE_POSITION = 0;
+	/** when tracing, y coordinate of the window relative position.			*/
+	public static int			Y_RELATIVE_POSITION = 0;
+	/** when true, some methods trace their actions.						*/
+	public static boolean		VERBOSE = false;
+	/** when true, some methods trace their actions.						*/
+	public static boolean		DEBUG = false;
+
+	/** standard duration in seconds of simulated time of a tick of the
+	 *  timing wheel.														*/
+	public static final double	STANDARD_TICK_PERIOD = 1.0;
+	/** number of buckets of the timing wheel.								*/
+	public static final int		WHEEL_SIZE = 256;
+	/** initial number of heater slots, grown on demand.					*/
+	public static final int		INITIAL_CAPACITY = 16;
+	/** identifier of the batch flushing task in the timing wheel.			*/
+	protected static final int	BATCH_FLUSH_TASK = 0;
+	/** identifier of the actuator commands delivery task in the timing
+	 *  wheel.																*/
+	protected static final int	COMMAND_DELIVERY_TASK = 1;
+	/** identifier of the control trace draining task in the timing wheel.	*/
+	protected static final int	TRACE_DRAIN_TASK = 2;
+	/** identifier of the control task of the heater in slot 0 in the
+	 *  timing wheel, the heater in slot {@code s} having the identifier
+	 *  {@code s + FIRST_HEATER_TASK}.										*/
+	protected static final int	FIRST_HEATER_TASK = 3;
+
+	/** heater states indexed by their ordinal, to decode {@code states}.	*/
+	protected static final HeaterState[]	STATES = HeaterState.values();
+
+	/** URI of the sensor inbound port of the heater in each slot, null
+	 *  when the slot is free.												*/
+	protected String[]							heaterURIs;
+	/** sensor data outbound port connected to the heater in each slot.		*/
+	protected MultiHeaterSensorDataOutboundPort[]	sensorOutboundPorts;
+	/** actuator outbound port connected to the heater in each slot.		*/
+	protected HeaterActuatorOutboundPort[]		actuatorOutboundPorts;
+	/** control hysteresis of the heater in each slot.						*/
+	protected double[]							hystereses;
+	/** CAS state word holding the ordinal of the perceived state of the
+	 *  heater in each slot, allocated when the heater is added hence kept
+	 *  by the control steps in progress when the arrays grow.				*/
+	protected AtomicInteger[]					states;
+	/** control period in nanoseconds of simulated time of the heater in
+	 *  each slot.															*/
+	protected long[]							controlPeriods;
+	/** slot of each heater, keyed by its sensor inbound port URI.			*/
+	protected Map<String,Integer>				slots;
+	/** stack of the freed slots, reused before growing the arrays.			*/
+	protected int[]								freeSlots;
+	/** number of slots in {@code freeSlots}.								*/
+	protected int								freeSlotsCount;
+	/** number of slots ever allocated.										*/
+	protected int								allocatedSlots;
+	/** lock protecting the per-heater arrays and the map.					*/
+	protected final Object						heatersLock;
+	/** inbound port through which the heaters are added and removed.		*/
+	protected MultiHeaterControlInboundPort		controlInboundPort;
+	/** preallocated trace of the control decisions of all the heaters,
+	 *  drained to the component tracer only when {@code VERBOSE}.			*/
+	protected HeaterControlTrace				controlTrace;
+	/** queue coalescing the actuator commands of all the heaters until
+	 *  their delivery, keyed by the heater URIs.							*/
+	protected HeaterActuatorCommandQueue		commandQueue;
+	/** coalescing window of the actuator commands in seconds.				*/
+	protected double							commandCoalescingWindow;
+
+	/** timing wheel driving the control steps of all the heaters, running
+	 *  in the time of the accelerated clock in test executions.			*/
+	protected TimingWheel						wheel;
+	/** duration in seconds of simulated time of a tick of the wheel.		*/
+	protected double							tickPeriod;
+	/** URI of the accelerated clock giving the time of the timing wheel in
+	 *  test executions, null in standard executions.						*/
+	protected String							clockURI;
+	/** actual tick period of the wheel in nanoseconds, i.e., its tick in
+	 *  simulated time divided by the acceleration factor.					*/
+	protected long								actualTickPeriod;
+	/** acceleration factor applied to the control periods (1.0 when
+	 *  executing in standard mode).										*/
+	protected double							accelerationFactor;
+	/** true while the ticker task must be rescheduled.						*/
+	protected volatile boolean					ticking;
+	/** lock protecting the planned wake up of the ticker.					*/
+	protected final Object						tickerLock;
+	/** value of {@code System.nanoTime()} at the planned wake up of the
+	 *  ticker, {@code Long.MAX_VALUE} when none is planned.				*/
+	protected long								tickerWakeUp;
+	/** generation of the planned wake up, the ticker tasks of previous
+	 *  generations being superseded.										*/
+	protected long								tickerGeneration;
+	/** maximum number of heaters which readings are processed in one
+	 *  batch, 0 when the controller pulls the temperatures.				*/
+	protected int								batchSize;
+	/** maximum delay in seconds of simulated time between the first reading
+	 *  of a batch and its processing.										*/
+	protected double							batchWindow;
+	/** batcher accumulating the readings pushed by the heaters, or null
+	 *  when the controller pulls the temperatures.							*/
+	protected HeaterSensorDataBatcher			sensorBatcher;
+
+	/** the current execution mode of the component: standard, test or
+	 *  test with simulation SIL or HIL.									*/
+	protected ExecutionMode						executionMode;
+
+	// -------------------------------------------------------------------------
+	// Invariants
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the implementation invariants are observed, false
+	 * otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the implementation invariants are observed, false otherwise.
+	 */
+	protected static boolean	implementationInvariants(
+		MultiHeaterController instance
+		)
+	{
+		assert	instance != null :
+				new PreconditionException("instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.actualTickPeriod > 0,
+					MultiHeaterController.class, instance,
+					"actualTickPeriod > 0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.accelerationFactor > 0.0,
+					MultiHeaterController.class, instance,
+					"accelerationFactor > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.executionMode.isStandard() ||
+						instance.clockURI != null &&
+											!instance.clockURI.isEmpty(),
+					MultiHeaterController.class, instance,
+					"executionMode.isStandard() || clockURI != null && "
+					+ "!clockURI.isEmpty()");
+		synchronized (instance.heatersLock) {
+			ret &= AssertionChecking.checkImplementationInvariant(
+					instance.heaterURIs.length == instance.hystereses.length,
+					MultiHeaterController.class, instance,
+					"heaterURIs.length == hystereses.length");
+			ret &= AssertionChecking.checkImplementationInvariant(
+					instance.heaterURIs.length == instance.states.length,
+					MultiHeaterController.class, instance,
+					"heaterURIs.length == states.length");
+			ret &= AssertionChecking.checkImplementationInvariant(
+					instance.heaterURIs.length ==
+									instance.controlPeriods.length,
+					MultiHeaterController.class, instance,
+					"heaterURIs.length == controlPeriods.length");
+			ret &= AssertionChecking.checkImplementationInvariant(
+					instance.slots.size() <= instance.heaterURIs.length,
+					MultiHeaterController.class, instance,
+					"slots.size() <= heaterURIs.length");
+		}
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.batchSize >= 0,
+					MultiHeaterController.class, instance,
+					"batchSize >= 0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.batchSize == 0 || instance.batchWindow > 0.0,
+					MultiHeaterController.class, instance,
+					"batchSize == 0 || batchWindow > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					(instance.batchSize == 0) == (instance.sensorBatcher == null),
+					MultiHeaterController.class, instance,
+					"(batchSize == 0) == (sensorBatcher == null)");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.controlInboundPort != null,
+					MultiHeaterController.class, instance,
+					"controlInboundPort != null");
+		return ret;
+	}
+
+	/**
+	 * return true if the invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the invariants are observed, false otherwise.
+	 */
+	protected static boolean	invariants(MultiHeaterController instance)
+	{
+		assert	instance != null :
+				new PreconditionException("instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkInvariant(
+					CONTROL_INBOUND_PORT_URI != null &&
+										!CONTROL_INBOUND_PORT_URI.isEmpty(),
+					MultiHeaterController.class, instance,
+					"CONTROL_INBOUND_PORT_URI != null && "
+					+ "!CONTROL_INBOUND_PORT_URI.isEmpty()");
+		ret &= AssertionChecking.checkInvariant(
+					X_RELATIVE_POSITION >= 0,
+					MultiHeaterController.class, instance,
+					"X_RELATIVE_POSITION >= 0");
+		ret &= AssertionChecking.checkInvariant(
+					Y_RELATIVE_POSITION >= 0,
+					MultiHeaterController.class, instance,
+					"Y_RELATIVE_POSITION >= 0");
+		ret &= AssertionChecking.checkInvariant(
+					STANDARD_TICK_PERIOD > 0.0,
+					MultiHeaterController.class, instance,
+					"STANDARD_TICK_PERIOD > 0.0");
+		ret &= AssertionChecking.checkInvariant(
+					WHEEL_SIZE > 0,
+					MultiHeaterController.class, instance,
+					"WHEEL_SIZE > 0");
+		ret &= AssertionChecking.checkInvariant(
+					INITIAL_CAPACITY > 0,
+					MultiHeaterController.class, instance,
+					"INITIAL_CAPACITY > 0");
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	// Standard execution
+
+	/**
+	 * create the multi-heater controller component for standard executions.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !(this instanceof ComponentInterface)}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected			MultiHeaterController() throws Exception
+	{
+		this(CONTROL_INBOUND_PORT_URI, STANDARD_TICK_PERIOD,
+			 ExecutionMode.STANDARD, null, 1.0);
+	}
+
+	// Test executions, with or without simulation
+
+	/**
+	 * create the multi-heater controller component pulling the temperatures
+	 * with the given parameters.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !(this instanceof ComponentInterface)}
+	 * pre	{@code controlInboundPortURI != null && !controlInboundPortURI.isEmpty()}
+	 * pre	{@code tickPeriod > 0.0}
+	 * pre	{@code executionMode != null}
+	 * pre	{@code executionMode.isStandard() || clockURI != null && !clockURI.isEmpty()}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param controlInboundPortURI	URI of the inbound port through which the heaters are managed.
+	 * @param tickPeriod			duration in seconds of simulated time of a tick of the timing wheel.
+	 * @param executionMode			execution mode for the next run.
+	 * @param clockURI				URI of the clock giving the time of the controller, null in standard executions.
+	 * @param accelerationFactor	acceleration factor for the simulation.
+	 * @throws Exception			<i>to do</i>.
+	 */
+	protected			MultiHeaterController(
+		String controlInboundPortURI,
+		double tickPeriod,
+		ExecutionMode executionMode,
+		String clockURI,
+		double accelerationFactor
+		) throws Exception
+	{
+		this(controlInboundPortURI, tickPeriod, 0, 0.0, executionMode,
+			 clockURI, accelerationFactor);
+	}
+
+	/**
+	 * create the multi-heater controller component with the given
+	 * parameters, the temperatures being pushed in batches when
+	 * {@code batchSize > 0} and pulled otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !(this instanceof ComponentInterface)}
+	 * pre	{@code controlInboundPortURI != null && !controlInboundPortURI.isEmpty()}
+	 * pre	{@code tickPeriod > 0.0}
+	 * pre	{@code batchSize >= 0}
+	 * pre	{@code batchSize == 0 || batchWindow > 0.0}
+	 * pre	{@code executionMode != null}
+	 * pre	{@code executionMode.isStandard() || clockURI != null && !clockURI.isEmpty()}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param controlInboundPortURI	URI of the inbound port through which the heaters are managed.
+	 * @param tickPeriod			duration in seconds of simulated time of a tick of the timing wheel.
+	 * @param batchSize				maximum number of heaters which readings are processed in one batch, 0 to pull the temperatures.
+	 * @param batchWindow			maximum delay in seconds between the first reading of a batch and its processing.
+	 * @param executionMode			execution mode for the next run.
+	 * @param clockURI				URI of the clock giving the time of the controller, null in standard executions.
+	 * @param accelerationFactor	acceleration factor for the simulation.
+	 * @throws Exception			<i>to do</i>.
+	 */
+	protected			MultiHeaterController(
+		String controlInboundPortURI,
+		double tickPeriod,
+		int batchSize,
+		double batchWindow,
+		ExecutionMode executionMode,
+		String clockURI,
+		double accelerationFactor
+		) throws Exception
+	{
+		// one thread runs the ticker task and hence all the control steps,
+		// the other ones receive the state pushes and the additions and
+		// removals of heaters; the number of threads does not depend upon
+		// the number of heaters
+		super(2, 1);
+
+		assert	controlInboundPortURI != null &&
+										!controlInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"controlInboundPortURI != null && "
+						+ "!controlInboundPortURI.isEmpty()");
+		assert	tickPeriod > 0.0 :
+				new PreconditionException("tickPeriod > 0.0");
+		assert	batchSize >= 0 : new PreconditionException("batchSize >= 0");
+		assert	batchSize == 0 || batchWindow > 0.0 :
+				new PreconditionException(
+						"batchSize == 0 || batchWindow > 0.0");
+		assert	executionMode != null :
+				new PreconditionException("executionMode != null");
+		assert	executionMode.isStandard() ||
+							clockURI != null && !clockURI.isEmpty() :
+				new PreconditionException(
+						"executionMode.isStandard() || clockURI != null && "
+						+ "!clockURI.isEmpty()");
+		assert	accelerationFactor > 0.0 :
+				new PreconditionException("accelerationFactor > 0.0");
+
+		this.executionMode = executionMode;
+		this.clockURI = clockURI;
+		this.accelerationFactor = accelerationFactor;
+		this.actualTickPeriod = this.toActualPeriod(tickPeriod);
+		// sanity checking, the standard Java scheduler has a
+		// precision no less than 10 milliseconds...
+		if (this.actualTickPeriod < TimeUnit.MILLISECONDS.toNanos(10)) {
+			System.out.println(
+					"Warning: accelerated tick period is "
+							+ "too small ("
+							+ this.actualTickPeriod +
+							"), unexpected scheduling problems may"
+							+ " occur!");
+		}
+
+		this.heatersLock = new Object();
+		this.heaterURIs = new String[INITIAL_CAPACITY];
+		this.sensorOutboundPorts =
+				new MultiHeaterSensorDataOutboundPort[INITIAL_CAPACITY];
+		this.actuatorOutboundPorts =
+				new HeaterActuatorOutboundPort[INITIAL_CAPACITY];
+		this.hystereses = new double[INITIAL_CAPACITY];
+		this.states = new AtomicInteger[INITIAL_CAPACITY];
+		this.controlPeriods = new long[INITIAL_CAPACITY];
+		this.slots = new HashMap<>();
+		this.freeSlots = new int[INITIAL_CAPACITY];
+		this.freeSlotsCount = 0;
+		this.allocatedSlots = 0;
+		this.tickPeriod = tickPeriod;
+		if (executionMode.isStandard()) {
+			this.wheel = new TimingWheel(
+						(long)(tickPeriod * TimeUnit.SECONDS.toNanos(1)),
+						WHEEL_SIZE,
+						INITIAL_CAPACITY + FIRST_HEATER_TASK);
+		}
+		// otherwise, the timing wheel runs in the time of the accelerated
+		// clock, hence it is created in execute, once the clock has been
+		// retrieved
+		this.ticking = false;
+		this.tickerLock = new Object();
+		this.tickerWakeUp = Long.MAX_VALUE;
+		this.tickerGeneration = 0L;
+		this.batchSize = batchSize;
+		this.batchWindow = batchWindow;
+		this.sensorBatcher =
+				batchSize > 0 ? new HeaterSensorDataBatcher(batchSize) : null;
+		this.controlTrace =
+				new HeaterControlTrace(HeaterController.CONTROL_TRACE_CAPACITY);
+		if (VERBOSE) {
+			this.controlTrace.attachSink(m -> this.traceMessage(m));
+		}
+		this.commandQueue = new HeaterActuatorCommandQueue(INITIAL_CAPACITY);
+		this.commandCoalescingWindow =
+						HeaterController.STANDARD_COMMAND_COALESCING_WINDOW;
+		this.controlInboundPort =
+				new MultiHeaterControlInboundPort(controlInboundPortURI, this);
+		this.controlInboundPort.publishPort();
+
+		if (VERBOSE || DEBUG) {
+			this.tracer.get().setTitle("Multi-heater controller component");
+			this.tracer.get().setRelativePosition(X_RELATIVE_POSITION,
+												  Y_RELATIVE_POSITION);
+			this.toggleTracing();
+		}
+
+		// Invariant checking
+		assert	MultiHeaterController.implementationInvariants(this) :
+				new ImplementationInvariantException(
+					"MultiHeaterController.implementationInvariants(this)");
+		assert	MultiHeaterController.invariants(this) :
+				new InvariantException("MultiHeaterController.invariants(this)");
+	}
+
+	// -------------------------------------------------------------------------
+	// Component life-cycle
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#start()
+	 */
+	@Override
+	public synchronized void	start() throws ComponentStartException
+	{
+		super.start();
+
+		try {
+			// the ticker is scheduled when the first heater is switched on
+			this.ticking = true;
+
+			if (VERBOSE) {
+				this.traceMessage("Multi-heater controller starts.\n");
+			}
+		} catch (Exception e) {
+			throw new ComponentStartException(e);
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#execute()
+	 */
+	@Override
+	public synchronized void	execute() throws Exception
+	{
+		if (!this.executionMode.isStandard()) {
+			// the deadlines of the wheel are computed from the instants of
+			// the accelerated clock shared with the heaters
+			this.initialiseClock(
+					ClocksServerWithSimulation.STANDARD_INBOUNDPORT_URI,
+					this.clockURI);
+			AcceleratedClock ac = this.getClock();
+			this.wheel = new TimingWheel(
+						(long)(this.tickPeriod * TimeUnit.SECONDS.toNanos(1)),
+						WHEEL_SIZE,
+						INITIAL_CAPACITY + FIRST_HEATER_TASK,
+						() -> {
+							Instant i = ac.currentInstant();
+							return TimeUnit.SECONDS.toNanos(i.getEpochSecond())
+															+ i.getNano();
+						},
+						ac.getAccelerationFactor());
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#finalise()
+	 */
+	@Override
+	public synchronized void	finalise() throws Exception
+	{
+		if (VERBOSE) {
+			this.traceMessage("Multi-heater controller ends.\n");
+		}
+		this.ticking = false;
+		this.wheel.cancel(BATCH_FLUSH_TASK);
+		this.wheel.cancel(COMMAND_DELIVERY_TASK);
+		this.wheel.cancel(TRACE_DRAIN_TASK);
+		// the last decisions are delivered before disconnecting
+		try {
+			this.deliverCommands();
+		} catch (RuntimeException e) {
+			this.traceMessage("last actuator commands not delivered: " + e
+							  + "\n");
+		}
+		this.controlTrace.drain();
+		if (VERBOSE) {
+			this.traceMessage("actuator commands, " + this.commandQueue
+							  + ".\n");
+		}
+		synchronized (this.heatersLock) {
+			for (int slot = 0 ; slot < this.allocatedSlots ; slot++) {
+				if (this.heaterURIs[slot] != null) {
+					this.wheel.cancel(slot + FIRST_HEATER_TASK);
+					this.doPortDisconnection(
+							this.sensorOutboundPorts[slot].getPortURI());
+					this.doPortDisconnection(
+							this.actuatorOutboundPorts[slot].getPortURI());
+				}
+			}
+		}
+		super.finalise();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#shutdown()
+	 */
+	@Override
+	public synchronized void	shutdown() throws ComponentShutdownException
+	{
+		try {
+			synchronized (this.heatersLock) {
+				for (int slot = 0 ; slot < this.allocatedSlots ; slot++) {
+					if (this.heaterURIs[slot] != null) {
+						this.sensorOutboundPorts[slot].unpublishPort();
+						this.actuatorOutboundPorts[slot].unpublishPort();
+					}
+				}
+			}
+			this.controlInboundPort.unpublishPort();
+		} catch (Exception e) {
+			throw new ComponentShutdownException(e) ;
+		}
+		super.shutdown();
+	}
+
+	// -------------------------------------------------------------------------
+	// Component internal methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of heaters currently controlled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of heaters currently controlled.
+	 */
+	public int			numberOfHeaters()
+	{
+		synchronized (this.heatersLock) {
+			return this.slots.size();
+		}
+	}
+
+	/**
+	 * add a heater to the controlled ones, connecting to its sensor and
+	 * actuator inbound ports; the heater is considered {@code OFF} until its
+	 * state sensor pushes another state. Called through the
+	 * {@code MultiHeaterControlCI} inbound port.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sensorIBP_URI != null && !sensorIBP_URI.isEmpty()}
+	 * pre	{@code actuatorIBP_URI != null && !actuatorIBP_URI.isEmpty()}
+	 * pre	{@code hysteresis > 0.0}
+	 * pre	{@code controlPeriod > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sensorIBP_URI		URI of the heater sensor inbound port, also used as key of the heater.
+	 * @param actuatorIBP_URI	URI of the heater actuator inbound port.
+	 * @param hysteresis		control hysteresis around the target temperature.
+	 * @param controlPeriod		control period in seconds.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	public void			addHeater(
+		String sensorIBP_URI,
+		String actuatorIBP_URI,
+		double hysteresis,
+		double controlPeriod
+		) throws Exception
+	{
+		assert	sensorIBP_URI != null && !sensorIBP_URI.isEmpty() :
+				new PreconditionException(
+						"sensorIBP_URI != null && !sensorIBP_URI.isEmpty()");
+		assert	actuatorIBP_URI != null && !actuatorIBP_URI.isEmpty() :
+				new PreconditionException(
+					"actuatorIBP_URI != null && !actuatorIBP_URI.isEmpty()");
+		assert	hysteresis > 0.0 :
+				new PreconditionException("hysteresis > 0.0");
+		assert	controlPeriod > 0.0 :
+				new PreconditionException("controlPeriod > 0.0");
+
+		MultiHeaterSensorDataOutboundPort sop =
+				new MultiHeaterSensorDataOutboundPort(sensorIBP_URI, this);
+		sop.publishPort();
+		HeaterActuatorOutboundPort aop = new HeaterActuatorOutboundPort(this);
+		aop.publishPort();
+		synchronized (this.heatersLock) {
+			if (this.slots.containsKey(sensorIBP_URI)) {
+				sop.unpublishPort();
+				aop.unpublishPort();
+				throw new IllegalArgumentException(
+						"heater " + sensorIBP_URI + " is already controlled.");
+			}
+			int slot;
+			if (this.freeSlotsCount > 0) {
+				slot = this.freeSlots[--this.freeSlotsCount];
+			} else {
+				if (this.allocatedSlots == this.heaterURIs.length) {
+					this.grow(2 * this.allocatedSlots);
+				}
+				slot = this.allocatedSlots++;
+			}
+			this.heaterURIs[slot] = sensorIBP_URI;
+			this.sensorOutboundPorts[slot] = sop;
+			this.actuatorOutboundPorts[slot] = aop;
+			this.hystereses[slot] = hysteresis;
+			this.states[slot] = new AtomicInteger(HeaterState.OFF.ordinal());
+			this.controlPeriods[slot] =
+						(long)(controlPeriod * TimeUnit.SECONDS.toNanos(1));
+			this.slots.put(sensorIBP_URI, slot);
+		}
+		// connecting subscribes to the state pushes of the heater, hence
+		// the slot must be ready beforehand
+		this.doPortConnection(
+				sop.getPortURI(),
+				sensorIBP_URI,
+				HeaterSensorDataConnector.class.getCanonicalName());
+		this.doPortConnection(
+				aop.getPortURI(),
+				actuatorIBP_URI,
+				HeaterActuatorConnector.class.getCanonicalName());
+
+		if (VERBOSE) {
+			this.traceMessage("adds heater " + sensorIBP_URI + " in slot "
+							  + this.slots.get(sensorIBP_URI) + ".\n");
+		}
+	}
+
+	/**
+	 * remove a heater from the controlled ones, cancelling its control and
+	 * disconnecting from it; its slot is reused by the next addition. Called
+	 * through the {@code MultiHeaterControlCI} inbound port.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sensorIBP_URI != null && !sensorIBP_URI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param sensorIBP_URI	URI of the heater sensor inbound port.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public void			removeHeater(String sensorIBP_URI) throws Exception
+	{
+		assert	sensorIBP_URI != null && !sensorIBP_URI.isEmpty() :
+				new PreconditionException(
+						"sensorIBP_URI != null && !sensorIBP_URI.isEmpty()");
+
+		MultiHeaterSensorDataOutboundPort sop;
+		HeaterActuatorOutboundPort aop;
+		synchronized (this.heatersLock) {
+			Integer slot = this.slots.remove(sensorIBP_URI);
+			if (slot == null) {
+				return;
+			}
+			this.wheel.cancel(slot + FIRST_HEATER_TASK);
+			sop = this.sensorOutboundPorts[slot];
+			aop = this.actuatorOutboundPorts[slot];
+			this.heaterURIs[slot] = null;
+			this.sensorOutboundPorts[slot] = null;
+			this.actuatorOutboundPorts[slot] = null;
+			this.freeSlots[this.freeSlotsCount++] = slot;
+		}
+		this.doPortDisconnection(sop.getPortURI());
+		this.doPortDisconnection(aop.getPortURI());
+		sop.unpublishPort();
+		aop.unpublishPort();
+
+		if (VERBOSE) {
+			this.traceMessage("removes heater " + sensorIBP_URI + ".\n");
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.MultiHeaterPushImplementationI#processHeaterState(java.lang.String, fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState)
+	 */
+	@Override
+	public void			processHeaterState(
+		String heaterURI,
+		HeaterState heaterState
+		)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+		assert	heaterState != null :
+				new PreconditionException("heaterState != null");
+
+		if (DEBUG) {
+			this.traceMessage("receives heater state " + heaterState
+							  + " from " + heaterURI + ".\n");
+		}
+
+		MultiHeaterSensorDataOutboundPort pushingSensor = null;
+		long pushPeriod = 0L;
+		boolean scheduled = false;
+		synchronized (this.heatersLock) {
+			Integer slot = this.slots.get(heaterURI);
+			if (slot == null) {
+				// the heater has been removed in the meantime
+				return;
+			}
+			// the state is set unconditionally, making the transitions of
+			// the control steps in progress fail
+			HeaterState oldState =
+				STATES[this.states[slot].getAndSet(heaterState.ordinal())];
+			// as in HeaterController, a command decided before the push may
+			// no longer be valid, hence it is cancelled
+			if (this.commandQueue.reset(heaterURI,
+										heaterState == HeaterState.HEATING)
+																&& VERBOSE) {
+				this.traceMessage("cancels the pending actuator command of "
+								  + heaterURI + ".\n");
+			}
+			if (heaterState != HeaterState.OFF && oldState == HeaterState.OFF) {
+				long p = this.controlPeriods[slot];
+				if (this.sensorBatcher != null) {
+					pushingSensor = this.sensorOutboundPorts[slot];
+					pushPeriod = p;
+				} else {
+					this.wheel.schedule(slot + FIRST_HEATER_TASK, p, p);
+					scheduled = true;
+				}
+				if (this.controlTrace.hasSink() &&
+								!this.wheel.isScheduled(TRACE_DRAIN_TASK)) {
+					// the decisions are rendered by the wheel, outside the
+					// control steps that record them
+					this.wheel.schedule(TRACE_DRAIN_TASK, p, p);
+					scheduled = true;
+				}
+				if (VERBOSE) {
+					this.traceMessage("start control of " + heaterURI + ".\n");
+				}
+			} else if (heaterState == HeaterState.OFF &&
+												oldState != HeaterState.OFF) {
+				// in batch mode, the heater stops pushing by itself and its
+				// reading still waiting in the batch is discarded
+				this.wheel.cancel(slot + FIRST_HEATER_TASK);
+				if (this.sensorBatcher != null) {
+					synchronized (this.sensorBatcher) {
+						this.sensorBatcher.remove(heaterURI);
+					}
+				}
+				if (VERBOSE) {
+					this.traceMessage("exit the control of " + heaterURI
+									  + ".\n");
+				}
+			}
+		}
+		if (scheduled) {
+			this.wakeUpTicker();
+		}
+		if (pushingSensor != null) {
+			// the period is given in simulated time, the heater converting
+			// it to its own actual time
+			try {
+				pushingSensor.startTemperaturesPushSensor(
+											pushPeriod, TimeUnit.NANOSECONDS);
+			} catch (Exception e) {
+				throw new RuntimeException(e) ;
+			}
+		}
+	}
+
+	/**
+	 * accumulate the reading in the batch of the controller, processing the
+	 * batch in one task if it is complete and planning its flush at the end
+	 * of the batch window if the reading opens it; this method is called by
+	 * the sensor data outbound ports in the thread pushing the reading, hence
+	 * without submitting a task per reading.
+	 * 
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.MultiHeaterPushImplementationI#batchTemperatures(java.lang.String, double, double, long)
+	 */
+	@Override
+	public void			batchTemperatures(
+		String heaterURI,
+		double target,
+		double current,
+		long timestamp
+		)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+
+		if (this.sensorBatcher == null) {
+			// the controller pulls the temperatures
+			return;
+		}
+		boolean opens;
+		HeaterTemperaturesBatchSensorData complete;
+		synchronized (this.sensorBatcher) {
+			opens = this.sensorBatcher.isEmpty();
+			complete = this.sensorBatcher.add(heaterURI, target, current,
+											  timestamp);
+			if (opens && complete == null) {
+				// the window is expressed in the time of the wheel, a flush
+				// planned for a previous batch being superseded
+				this.wheel.schedule(
+						BATCH_FLUSH_TASK,
+						(long)(this.batchWindow * TimeUnit.SECONDS.toNanos(1)),
+						0L);
+			}
+		}
+		if (complete != null) {
+			this.runTask(o -> ((MultiHeaterController)o).
+											processTemperaturesBatch(complete));
+		} else if (opens) {
+			this.wakeUpTicker();
+		}
+	}
+
+	/**
+	 * process the readings accumulated in the batch of the controller at
+	 * the end of the batch window, if any.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sensorBatcher != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		flushTemperaturesBatch()
+	{
+		HeaterTemperaturesBatchSensorData batch = this.sensorBatcher.flush();
+		if (batch != null) {
+			this.processTemperaturesBatch(batch);
+		}
+	}
+
+	/**
+	 * perform one control step for each heater which reading is in the
+	 * batch, upon the latest reading of the heater.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code batch != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param batch	batch of the latest temperatures readings of the heaters.
+	 */
+	protected void		processTemperaturesBatch(
+		HeaterTemperaturesBatchSensorData batch
+		)
+	{
+		assert	batch != null : new PreconditionException("batch != null");
+
+		if (DEBUG) {
+			this.traceMessage("processes a batch of " + batch.size()
+							  + " temperatures.\n");
+		}
+
+		for (int i = 0 ; i < batch.size() ; i++) {
+			String uri = batch.getHeaterURI(i);
+			int slot;
+			AtomicInteger state;
+			double h;
+			synchronized (this.heatersLock) {
+				Integer s = this.slots.get(uri);
+				if (s == null) {
+					// the heater has been removed in the meantime
+					continue;
+				}
+				slot = s;
+				state = this.states[slot];
+				h = this.hystereses[slot];
+			}
+			HeaterState priorState = STATES[state.get()];
+			if (priorState == HeaterState.OFF) {
+				continue;
+			}
+			try {
+				this.control(slot, uri, state, h, priorState,
+							 batch.getTarget(i), batch.getCurrent(i),
+							 batch.getTimestamp(i));
+			} catch (Exception e) {
+				// a failing heater must not prevent the control of the
+				// other ones
+				this.traceMessage("control step of " + uri + " fails: " + e
+								  + "\n");
+			}
+		}
+	}
+
+	/**
+	 * plan the wake up of the ticker at the end of the tick of the earliest
+	 * control deadline, unless no heater is under control or an earlier wake
+	 * up is already planned.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		wakeUpTicker()
+	{
+		if (!this.ticking) {
+			return;
+		}
+		long delay = this.wheel.delayToNextExpiry();
+		if (delay < 0) {
+			// no heater under control, the ticker sleeps until the next one
+			// is switched on
+			return;
+		}
+		synchronized (this.tickerLock) {
+			long wakeUp = System.nanoTime() + delay;
+			if (wakeUp >= this.tickerWakeUp) {
+				return;
+			}
+			this.tickerWakeUp = wakeUp;
+			final long generation = ++this.tickerGeneration;
+			this.scheduleTask(
+					o -> ((MultiHeaterController)o).tick(generation),
+					delay,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * advance the timing wheel, performing the control steps of the heaters
+	 * which control period has elapsed, and plan the next wake up of the
+	 * ticker; a ticker task superseded by an earlier wake up does nothing.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param generation	generation of the wake up executed by this task.
+	 */
+	protected void		tick(long generation)
+	{
+		if (!this.ticking) {
+			return;
+		}
+		synchronized (this.tickerLock) {
+			if (generation != this.tickerGeneration) {
+				return;
+			}
+			this.tickerWakeUp = Long.MAX_VALUE;
+		}
+		try {
+			long missed = this.wheel.getTotalMissedDeadlines();
+			this.wheel.advance(id -> {
+				if (id == BATCH_FLUSH_TASK) {
+					this.flushTemperaturesBatch();
+					return;
+				} else if (id == COMMAND_DELIVERY_TASK) {
+					this.deliverCommands();
+					return;
+				} else if (id == TRACE_DRAIN_TASK) {
+					this.controlTrace.drain();
+					return;
+				}
+				try {
+					this.oneControlStep(id - FIRST_HEATER_TASK);
+				} catch (Exception e) {
+					// a failing heater must not prevent the control of the
+					// other ones
+					this.traceMessage("control step of slot "
+									  + (id - FIRST_HEATER_TASK)
+									  + " fails: " + e + "\n");
+				}
+			});
+			missed = this.wheel.getTotalMissedDeadlines() - missed;
+			if (VERBOSE && missed > 0) {
+				this.traceMessage("misses " + missed
+								  + " control deadline(s).\n");
+			}
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+		// the deadlines are computed from the wheel origin, hence the
+		// latency of the control steps does not accumulate
+		this.wakeUpTicker();
+	}
+
+	/**
+	 * perform one control step for the heater in {@code slot}, pulling its
+	 * temperatures and actuating it if needed; the remote calls are made
+	 * outside of the lock protecting the per-heater state.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code slot >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param slot			slot of the heater to be controlled.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected void		oneControlStep(int slot) throws Exception
+	{
+		String uri;
+		MultiHeaterSensorDataOutboundPort sop;
+		AtomicInteger state;
+		double h;
+		synchronized (this.heatersLock) {
+			uri = this.heaterURIs[slot];
+			if (uri == null) {
+				return;
+			}
+			state = this.states[slot];
+			if (state.get() == HeaterState.OFF.ordinal()) {
+				this.wheel.cancel(slot + FIRST_HEATER_TASK);
+				return;
+			}
+			sop = this.sensorOutboundPorts[slot];
+			h = this.hystereses[slot];
+		}
+
+		DataRequiredCI.DataI d = sop.request();
+		double t;
+		double c;
+		long timestamp;
+		if (d instanceof CompactHeaterTemperaturesSensorData) {
+			CompactHeaterTemperaturesSensorData td =
+										(CompactHeaterTemperaturesSensorData)d;
+			t = td.getTarget();
+			c = td.getCurrent();
+			timestamp = td.getTimestamp();
+		} else {
+			HeaterTemperaturesSensorData td = (HeaterTemperaturesSensorData)d;
+			t = td.getTargetTemperature().getMeasure().getData();
+			c = td.getCurrentTemperature().getMeasure().getData();
+			Instant i = td.getCurrentTemperature().getTimestamp();
+			timestamp = TimeUnit.SECONDS.toNanos(i.getEpochSecond())
+														+ i.getNano();
+		}
+		// the state read after the request, as a state pushed in the
+		// meantime supersedes the one perceived before it
+		HeaterState priorState = STATES[state.get()];
+		if (priorState != HeaterState.OFF) {
+			this.control(slot, uri, state, h, priorState, t, c, timestamp);
+		}
+	}
+
+	/**
+	 * take the control decision for the heater in {@code slot} upon the
+	 * given target and current temperatures, claiming the transition of its
+	 * perceived state before issuing the corresponding actuator command and
+	 * recording the decision in the control trace; as in
+	 * {@code HeaterController}, a transition lost to a state pushed in the
+	 * meantime issues no command.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code slot >= 0}
+	 * pre	{@code uri != null && state != null && priorState != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param slot			slot of the heater to be controlled.
+	 * @param uri			URI of the heater sensor inbound port.
+	 * @param state			perceived state word of the heater.
+	 * @param h				control hysteresis of the heater.
+	 * @param priorState	perceived state of the heater before the decision.
+	 * @param t				target temperature.
+	 * @param c				current room temperature.
+	 * @param timestamp		time stamp of the temperatures in nanoseconds since the epoch.
+	 */
+	protected void		control(
+		int slot,
+		String uri,
+		AtomicInteger state,
+		double h,
+		HeaterState priorState,
+		double t,
+		double c,
+		long timestamp
+		)
+	{
+		Decision d = Decision.decide(t, c, h, HeaterState.HEATING == priorState);
+		if (d == Decision.START_HEATING) {
+			if (state.compareAndSet(HeaterState.ON.ordinal(),
+									HeaterState.HEATING.ordinal())) {
+				this.issueCommand(uri, Command.START_HEATING);
+			} else {
+				d = this.unchangedDecision(state);
+			}
+		} else if (d == Decision.STOP_HEATING) {
+			if (state.compareAndSet(HeaterState.HEATING.ordinal(),
+									HeaterState.ON.ordinal())) {
+				this.issueCommand(uri, Command.STOP_HEATING);
+			} else {
+				d = this.unchangedDecision(state);
+			}
+		}
+		// tracing, rendered as text later by the trace draining task
+		this.controlTrace.record(slot, timestamp, c, t, h, d);
+
+		if (DEBUG) {
+			this.traceMessage(uri + ": " + priorState + " -> "
+							  + STATES[state.get()] + " at " + c + " for "
+							  + t + "\n");
+		}
+	}
+
+	/**
+	 * issue {@code command} for the heater {@code uri} into the command
+	 * queue, scheduling its delivery at the end of the coalescing window if
+	 * it opens a new one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code uri != null && command != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri		URI of the heater sensor inbound port.
+	 * @param command	command to be issued.
+	 */
+	protected void		issueCommand(String uri, Command command)
+	{
+		if (this.commandQueue.issue(uri, command)) {
+			// the window is expressed in the time of the wheel
+			this.wheel.schedule(
+					COMMAND_DELIVERY_TASK,
+					(long)(this.commandCoalescingWindow
+											* TimeUnit.SECONDS.toNanos(1)),
+					0L);
+			this.wakeUpTicker();
+		}
+	}
+
+	/**
+	 * deliver the pending actuator commands to the heaters still under
+	 * control and not switched off in the meantime.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		deliverCommands()
+	{
+		try {
+			this.commandQueue.deliverPending((uri, c) -> {
+				HeaterActuatorOutboundPort aop;
+				synchronized (this.heatersLock) {
+					Integer slot = this.slots.get(uri);
+					if (slot == null || this.states[slot].get() ==
+												HeaterState.OFF.ordinal()) {
+						// removed or switched off since the command has
+						// been issued
+						return;
+					}
+					aop = this.actuatorOutboundPorts[slot];
+				}
+				if (c == Command.START_HEATING) {
+					aop.startHeating();
+				} else {
+					aop.stopHeating();
+				}
+			});
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+	}
+
+	/**
+	 * return the decision corresponding to the current value of
+	 * {@code state} when a transition has been lost to a concurrent state
+	 * change.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code state != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param state	perceived state word of a heater.
+	 * @return		the decision corresponding to the current state.
+	 */
+	protected Decision	unchangedDecision(AtomicInteger state)
+	{
+		return state.get() == HeaterState.HEATING.ordinal() ?
+					Decision.STILL_HEATING
+				:	Decision.STILL_NOT_HEATING;
+	}
+
+	/**
+	 * convert a period in seconds of simulated time to an actual period in
+	 * nanoseconds, taking the acceleration factor into account.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code period > 0.0}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param period	period in seconds.
+	 * @return			the actual period in nanoseconds.
+	 */
+	protected long		toActualPeriod(double period)
+	{
+		// first convert to nanoseconds, then divide and then convert to
+		// long to get a better precision
+		return (long)((period * TimeUnit.SECONDS.toNanos(1))
+													/ this.accelerationFactor);
+	}
+
+	/**
+	 * grow the per-heater arrays to {@code capacity} slots.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code capacity > heaterURIs.length}
+	 * post	{@code heaterURIs.length == capacity}
+	 * </pre>
+	 *
+	 * @param capacity	new number of slots.
+	 */
+	protected void		grow(int capacity)
+	{
+		this.heaterURIs = Arrays.copyOf(this.heaterURIs, capacity);
+		this.sensorOutboundPorts =
+				Arrays.copyOf(this.sensorOutboundPorts, capacity);
+		this.actuatorOutboundPorts =
+				Arrays.copyOf(this.actuatorOutboundPorts, capacity);
+		this.hystereses = Arrays.copyOf(this.hystereses, capacity);
+		this.states = Arrays.copyOf(this.states, capacity);
+		this.controlPeriods = Arrays.copyOf(this.controlPeriods, capacity);
+		this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,108 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState;
+
+// -----------------------------------------------------------------------------
+/**
+ * The interface <code>MultiHeaterPushImplementationI</code> declares the
+ * signatures of the methods to be implemented by a controller of several
+ * heaters to receive the sensor data pushed by each of them.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Contrary to {@code HeaterPushImplementationI}, the methods take the URI of
+ * the heater sensor inbound port from which the data has been pushed, as a
+ * key to the per-heater state of the controller.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		MultiHeaterPushImplementationI
+{
+	/**
+	 * receive and process the state of the heater {@code heaterURI},
+	 * starting its control if the state has changed from {@code OFF} to
+	 * {@code ON}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * pre	{@code heaterState != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heaterURI		URI of the sensor inbound port of the heater.
+	 * @param heaterState	heater state to be received from the heater component.
+	 */
+	public void			processHeaterState(
+		String heaterURI,
+		HeaterState heaterState
+		);
+
+	/**
+	 * receive a temperatures reading pushed by the heater {@code heaterURI},
+	 * to be accumulated in the batch of the readings of the heaters of the
+	 * controller.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the sensor inbound port of the heater.
+	 * @param target	target temperature.
+	 * @param current	current room temperature.
+	 * @param timestamp	time stamp of the reading in nanoseconds since the epoch.
+	 */
+	public void			batchTemperatures(
+		String heaterURI,
+		double target,
+		double current,
+		long timestamp
+		);
+}
+// -----------------------------------------------------------------------------
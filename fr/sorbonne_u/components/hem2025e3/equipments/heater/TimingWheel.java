@@ -0,0 +1,833 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>TimingWheel</code> implements a hashed timing wheel driving
+ * periodic tasks identified by small integer identifiers.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Time is divided into ticks of {@code tickDuration} nanoseconds, measured
+ * from the creation of the wheel with a time source giving the current time
+ * in nanoseconds, {@code System.nanoTime()} by default. When the time source
+ * gives the time of an accelerated clock, the ticks, deadlines and periods
+ * are expressed in accelerated time, so that each deadline is computed from
+ * the accelerated time reference rather than from a period converted once
+ * to real time, and only the delays until the next tick, used to schedule
+ * the advances of the wheel, are converted to real time by dividing them by
+ * the acceleration factor. A task is
+ * stored in the bucket corresponding to the tick of its deadline modulo the
+ * number of buckets, in a doubly linked list implemented with primitive
+ * arrays indexed by the task identifiers, so that scheduling and cancelling
+ * a task are done in constant time. When advancing the wheel, each elapsed
+ * tick entirely elapsed is visited and the tasks of its bucket which
+ * deadline falls in this tick or before are expired, hence with a lateness
+ * of less than one tick when the wheel is advanced in time; periodic tasks are then rescheduled at their previous deadline
+ * plus their period, hence at a fixed rate from their initial phase rather
+ * than from the time of the end of their execution. When the wheel is
+ * advanced too late, a periodic task expires only once and its elapsed
+ * occurrences are skipped, keeping its phase; the skipped occurrences are
+ * counted as missed deadlines, per task and in total, so that the owner
+ * component can report them.
+ * </p>
+ * <p>
+ * At each expiry, the lateness of the task, i.e., the time elapsed between
+ * its deadline and the advance of the wheel that expires it, is recorded in
+ * per-task statistics: number of expiries, last lateness (the current drift
+ * of the task relative to its ideal phase), mean and maximum lateness and
+ * standard deviation of the lateness (its jitter). As the next deadline is
+ * computed from the phase, the lateness never accumulates from one period to
+ * the next.
+ * </p>
+ * <p>
+ * The methods are synchronised, but the wheel must be advanced by one
+ * thread at a time; the expiry handler is called outside the lock so that it
+ * can itself schedule or cancel tasks.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code tickDuration > 0}
+ * invariant	{@code heads.length > 0 && (heads.length & (heads.length - 1)) == 0}
+ * invariant	{@code accelerationFactor > 0.0}
+ * invariant	{@code size >= 0}
+ * invariant	{@code totalMissedDeadlines >= 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code STANDARD_TICK_DURATION > 0}
+ * invariant	{@code STANDARD_NUMBER_OF_BUCKETS > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			TimingWheel
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>ExpiryHandlerI</code> declares the method called
+	 * when a task of the wheel expires.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	ExpiryHandlerI
+	{
+		/**
+		 * execute the task {@code id} which deadline has been reached.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code id >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param id			identifier of the expired task.
+		 * @throws Exception	<i>to do</i>.
+		 */
+		public void		expired(int id) throws Exception;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** standard duration of a tick in nanoseconds, the precision of the
+	 *  standard Java scheduler.											*/
+	public static final long	STANDARD_TICK_DURATION =
+											TimeUnit.MILLISECONDS.toNanos(10);
+	/** standard number of buckets.											*/
+	public static final int		STANDARD_NUMBER_OF_BUCKETS = 512;
+	/** marks the absence of task in the linked lists.						*/
+	protected static final int	NONE = -1;
+
+	/** duration of a tick in nanoseconds.									*/
+	protected final long		tickDuration;
+	/** time source giving the current time in nanoseconds.				*/
+	protected final LongSupplier	timeSource;
+	/** acceleration factor of the time source relative to real time.		*/
+	protected final double		accelerationFactor;
+	/** value of the time source at the beginning of tick 0.				*/
+	protected final long		origin;
+	/** first task of each bucket.											*/
+	protected final int[]		heads;
+	/** next task in the bucket of each task.								*/
+	protected int[]				next;
+	/** previous task in the bucket of each task.							*/
+	protected int[]				prev;
+	/** bucket of each task.												*/
+	protected int[]				bucketOf;
+	/** true if the task is currently scheduled.							*/
+	protected boolean[]			scheduled;
+	/** deadline of each task in nanoseconds, relative to {@code origin}.	*/
+	protected long[]			deadlines;
+	/** period of each task in nanoseconds, 0 for one-shot tasks.			*/
+	protected long[]			periods;
+	/** number of missed deadlines of each task.							*/
+	protected long[]			missedDeadlines;
+	/** number of missed deadlines of all the tasks since the creation.	*/
+	protected long				totalMissedDeadlines;
+	/** number of expiries of each task.									*/
+	protected long[]			expiries;
+	/** lateness in nanoseconds of the last expiry of each task.			*/
+	protected long[]			lastLateness;
+	/** maximum lateness in nanoseconds of each task.						*/
+	protected long[]			maxLateness;
+	/** sum of the lateness in nanoseconds of each task.					*/
+	protected double[]			sumLateness;
+	/** sum of the squared lateness in nanoseconds of each task.			*/
+	protected double[]			sumSquaredLateness;
+	/** number of tasks currently scheduled.								*/
+	protected int				size;
+	/** next tick to be visited when advancing the wheel.					*/
+	protected long				nextTick;
+	/** buffer of the tasks expired during the current advance.			*/
+	protected int[]				expired;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a timing wheel in real time, using {@code System.nanoTime()}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code tickDuration > 0}
+	 * pre	{@code numberOfBuckets > 0}
+	 * pre	{@code initialCapacity > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param tickDuration		duration of a tick in nanoseconds.
+	 * @param numberOfBuckets	minimum number of buckets, rounded up to a power of two.
+	 * @param initialCapacity	initial number of task identifiers.
+	 */
+	public				TimingWheel(
+		long tickDuration,
+		int numberOfBuckets,
+		int initialCapacity
+		)
+	{
+		this(tickDuration, numberOfBuckets, initialCapacity,
+			 System::nanoTime, 1.0);
+	}
+
+	/**
+	 * create a timing wheel using the given time source, which time flows
+	 * {@code accelerationFactor} times faster than real time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code tickDuration > 0}
+	 * pre	{@code numberOfBuckets > 0}
+	 * pre	{@code initialCapacity > 0}
+	 * pre	{@code timeSource != null}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param tickDuration			duration of a tick in nanoseconds of the time source.
+	 * @param numberOfBuckets		minimum number of buckets, rounded up to a power of two.
+	 * @param initialCapacity		initial number of task identifiers.
+	 * @param timeSource			time source giving the current time in nanoseconds.
+	 * @param accelerationFactor	acceleration factor of the time source relative to real time.
+	 */
+	public				TimingWheel(
+		long tickDuration,
+		int numberOfBuckets,
+		int initialCapacity,
+		LongSupplier timeSource,
+		double accelerationFactor
+		)
+	{
+		assert	tickDuration > 0 :
+				new PreconditionException("tickDuration > 0");
+		assert	numberOfBuckets > 0 :
+				new PreconditionException("numberOfBuckets > 0");
+		assert	initialCapacity > 0 :
+				new PreconditionException("initialCapacity > 0");
+		assert	timeSource != null :
+				new PreconditionException("timeSource != null");
+		assert	accelerationFactor > 0.0 :
+				new PreconditionException("accelerationFactor > 0.0");
+
+		this.tickDuration = tickDuration;
+		this.timeSource = timeSource;
+		this.accelerationFactor = accelerationFactor;
+		this.origin = timeSource.getAsLong();
+		int n = Integer.highestOneBit(numberOfBuckets);
+		if (n < numberOfBuckets) {
+			n <<= 1;
+		}
+		this.heads = new int[n];
+		Arrays.fill(this.heads, NONE);
+		this.next = new int[initialCapacity];
+		this.prev = new int[initialCapacity];
+		this.bucketOf = new int[initialCapacity];
+		this.scheduled = new boolean[initialCapacity];
+		this.deadlines = new long[initialCapacity];
+		this.periods = new long[initialCapacity];
+		this.missedDeadlines = new long[initialCapacity];
+		this.totalMissedDeadlines = 0L;
+		this.expiries = new long[initialCapacity];
+		this.lastLateness = new long[initialCapacity];
+		this.maxLateness = new long[initialCapacity];
+		this.sumLateness = new double[initialCapacity];
+		this.sumSquaredLateness = new double[initialCapacity];
+		this.size = 0;
+		this.expired = new int[initialCapacity];
+		this.nextTick = 0L;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the duration of a tick in nanoseconds.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the duration of a tick in nanoseconds.
+	 */
+	public long			getTickDuration()
+	{
+		return this.tickDuration;
+	}
+
+	/**
+	 * return the number of tasks currently scheduled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of tasks currently scheduled.
+	 */
+	public synchronized int	size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * return the number of deadlines missed by the task {@code id} since it
+	 * has been first scheduled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the number of deadlines missed by the task {@code id}.
+	 */
+	public synchronized long	getMissedDeadlines(int id)
+	{
+		return id < this.missedDeadlines.length ? this.missedDeadlines[id] : 0L;
+	}
+
+	/**
+	 * return the number of deadlines missed by all the tasks since the
+	 * creation of the wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of deadlines missed by all the tasks.
+	 */
+	public synchronized long	getTotalMissedDeadlines()
+	{
+		return this.totalMissedDeadlines;
+	}
+
+	/**
+	 * return true if the task {@code id} is currently scheduled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		true if the task {@code id} is currently scheduled.
+	 */
+	public synchronized boolean	isScheduled(int id)
+	{
+		return id < this.scheduled.length && this.scheduled[id];
+	}
+
+	/**
+	 * schedule the task {@code id} to expire after {@code delay} nanoseconds
+	 * and then every {@code period} nanoseconds if {@code period > 0};
+	 * a task already scheduled is first cancelled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * pre	{@code delay >= 0}
+	 * pre	{@code period >= 0}
+	 * post	{@code isScheduled(id)}
+	 * </pre>
+	 *
+	 * @param id		identifier of the task.
+	 * @param delay		delay in nanoseconds before the first expiry.
+	 * @param period	period in nanoseconds of the task or 0 if one-shot.
+	 */
+	public synchronized void	schedule(int id, long delay, long period)
+	{
+		assert	id >= 0 : new PreconditionException("id >= 0");
+		assert	delay >= 0 : new PreconditionException("delay >= 0");
+		assert	period >= 0 : new PreconditionException("period >= 0");
+
+		this.ensureCapacity(id + 1);
+		if (this.scheduled[id]) {
+			this.unlink(id);
+		}
+		this.periods[id] = period;
+		this.link(id, this.now() + delay);
+	}
+
+	/**
+	 * cancel the task {@code id} if it is scheduled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code !isScheduled(id)}
+	 * </pre>
+	 *
+	 * @param id	identifier of the task.
+	 */
+	public synchronized void	cancel(int id)
+	{
+		assert	id >= 0 : new PreconditionException("id >= 0");
+
+		if (id < this.scheduled.length && this.scheduled[id]) {
+			this.unlink(id);
+		}
+	}
+
+	/**
+	 * return the delay in real time nanoseconds from now until the end of the
+	 * next tick to be visited, or 0 if it is already elapsed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the delay in real time nanoseconds until the next tick.
+	 */
+	public synchronized long	delayToNextTick()
+	{
+		long d = (this.nextTick + 1) * this.tickDuration - this.now();
+		return d > 0 ? (long)(d / this.accelerationFactor) : 0L;
+	}
+
+	/**
+	 * return the delay in real time nanoseconds from now until the end of the
+	 * tick in which the earliest scheduled task expires, 0 if it is already
+	 * elapsed, or -1 if no task is scheduled; an owner advancing the wheel
+	 * after this delay rather than at each tick does not wake up when no
+	 * task is due.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= -1}
+	 * post	{@code size() > 0 || return == -1}
+	 * </pre>
+	 *
+	 * @return	the delay in real time nanoseconds until the next expiry or -1.
+	 */
+	public synchronized long	delayToNextExpiry()
+	{
+		if (this.size == 0) {
+			return -1L;
+		}
+		// the scan is linear in the number of task identifiers, which is
+		// paid once per wake up instead of one wake up per tick
+		long first = Long.MAX_VALUE;
+		for (int id = 0 ; id < this.scheduled.length ; id++) {
+			if (this.scheduled[id]) {
+				long t = Math.max(this.deadlines[id] / this.tickDuration,
+								  this.nextTick);
+				if (t < first) {
+					first = t;
+				}
+			}
+		}
+		long d = (first + 1) * this.tickDuration - this.now();
+		return d > 0 ? (long)(d / this.accelerationFactor) : 0L;
+	}
+
+	/**
+	 * visit all the ticks elapsed up to now, expiring the tasks which
+	 * deadlines are reached and calling {@code handler} for each of them
+	 * outside of the lock of the wheel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code handler != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param handler		handler to be called for each expired task.
+	 * @return				the number of expired tasks.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public int			advance(ExpiryHandlerI handler) throws Exception
+	{
+		assert	handler != null : new PreconditionException("handler != null");
+
+		int count = 0;
+		synchronized (this) {
+			long now = this.now();
+			// only the ticks entirely elapsed are visited
+			long lastTick = now / this.tickDuration - 1;
+			// when more ticks than buckets have elapsed, visiting each bucket
+			// once is enough
+			long firstTick =
+				Math.max(this.nextTick, lastTick - this.heads.length + 1);
+			for (long t = firstTick ; t <= lastTick ; t++) {
+				int b = (int) (t & (this.heads.length - 1));
+				int id = this.heads[b];
+				while (id != NONE) {
+					int n = this.next[id];
+					// the other tasks of the bucket are due in later
+					// revolutions of the wheel
+					if (this.deadlines[id] / this.tickDuration <= t) {
+						this.unlink(id);
+						this.recordLateness(id, now - this.deadlines[id]);
+						if (count == this.expired.length) {
+							this.expired =
+								Arrays.copyOf(this.expired, 2 * count);
+						}
+						this.expired[count++] = id;
+						long p = this.periods[id];
+						if (p > 0) {
+							// keep the phase of the task, skipping the
+							// occurrences already elapsed if it is late
+							long d = this.deadlines[id] + p;
+							if (d <= now) {
+								long skipped = (now - d) / p + 1;
+								d += skipped * p;
+								this.missedDeadlines[id] += skipped;
+								this.totalMissedDeadlines += skipped;
+							}
+							this.link(id, d);
+						}
+					}
+					id = n;
+				}
+			}
+			this.nextTick = Math.max(this.nextTick, lastTick + 1);
+		}
+		for (int i = 0 ; i < count ; i++) {
+			handler.expired(this.expired[i]);
+		}
+		return count;
+	}
+
+	/**
+	 * return the number of expiries of the task {@code id}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the number of expiries of the task {@code id}.
+	 */
+	public synchronized long	getExpiries(int id)
+	{
+		return id < this.expiries.length ? this.expiries[id] : 0L;
+	}
+
+	/**
+	 * return the lateness in nanoseconds of the time source of the last
+	 * expiry of the task {@code id}, i.e., its current drift from its ideal
+	 * phase.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the lateness of the last expiry of the task {@code id}.
+	 */
+	public synchronized long	getDrift(int id)
+	{
+		return id < this.lastLateness.length ? this.lastLateness[id] : 0L;
+	}
+
+	/**
+	 * return the maximum lateness in nanoseconds of the time source of the
+	 * task {@code id}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the maximum lateness of the task {@code id}.
+	 */
+	public synchronized long	getMaxLateness(int id)
+	{
+		return id < this.maxLateness.length ? this.maxLateness[id] : 0L;
+	}
+
+	/**
+	 * return the mean lateness in nanoseconds of the time source of the task
+	 * {@code id}, or 0 if it has never expired.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the mean lateness of the task {@code id}.
+	 */
+	public synchronized double	getMeanLateness(int id)
+	{
+		long n = this.getExpiries(id);
+		return n > 0 ? this.sumLateness[id] / n : 0.0;
+	}
+
+	/**
+	 * return the jitter of the task {@code id}, i.e., the standard deviation
+	 * of its lateness in nanoseconds of the time source, or 0 if it has
+	 * never expired.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		the jitter of the task {@code id}.
+	 */
+	public synchronized double	getJitter(int id)
+	{
+		long n = this.getExpiries(id);
+		if (n == 0) {
+			return 0.0;
+		}
+		double mean = this.sumLateness[id] / n;
+		double variance = this.sumSquaredLateness[id] / n - mean * mean;
+		return variance > 0.0 ? Math.sqrt(variance) : 0.0;
+	}
+
+	/**
+	 * return a textual summary of the timing statistics of the task
+	 * {@code id}, in milliseconds of the time source.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param id	identifier of a task.
+	 * @return		a textual summary of the timing statistics of the task.
+	 */
+	public synchronized String	statisticsToString(int id)
+	{
+		double ms = TimeUnit.MILLISECONDS.toNanos(1);
+		StringBuilder sb = new StringBuilder("task ");
+		sb.append(id);
+		sb.append(": ");
+		sb.append(this.getExpiries(id));
+		sb.append(" expiries, ");
+		sb.append(this.getMissedDeadlines(id));
+		sb.append(" missed, drift ");
+		sb.append(this.getDrift(id) / ms);
+		sb.append(" ms, mean lateness ");
+		sb.append(this.getMeanLateness(id) / ms);
+		sb.append(" ms, max lateness ");
+		sb.append(this.getMaxLateness(id) / ms);
+		sb.append(" ms, jitter ");
+		sb.append(this.getJitter(id) / ms);
+		sb.append(" ms");
+		return sb.toString();
+	}
+
+	/**
+	 * return the current time of the time source relative to {@code origin}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current time relative to {@code origin}.
+	 */
+	protected long		now()
+	{
+		return this.timeSource.getAsLong() - this.origin;
+	}
+
+	/**
+	 * record the lateness of an expiry of the task {@code id}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code lateness >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param id		identifier of the task.
+	 * @param lateness	lateness of the expiry in nanoseconds.
+	 */
+	protected void		recordLateness(int id, long lateness)
+	{
+		this.expiries[id]++;
+		this.lastLateness[id] = lateness;
+		if (lateness > this.maxLateness[id]) {
+			this.maxLateness[id] = lateness;
+		}
+		this.sumLateness[id] += lateness;
+		this.sumSquaredLateness[id] += (double) lateness * lateness;
+	}
+
+	/**
+	 * link the task {@code id} in the bucket of the given deadline.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !scheduled[id]}
+	 * post	{@code scheduled[id]}
+	 * </pre>
+	 *
+	 * @param id		identifier of the task.
+	 * @param deadline	deadline relative to {@code origin}.
+	 */
+	protected void		link(int id, long deadline)
+	{
+		this.deadlines[id] = deadline;
+		// a deadline in an already visited tick is put in the next one
+		long t = Math.max(deadline / this.tickDuration, this.nextTick);
+		int b = (int) (t & (this.heads.length - 1));
+		this.bucketOf[id] = b;
+		this.prev[id] = NONE;
+		this.next[id] = this.heads[b];
+		if (this.heads[b] != NONE) {
+			this.prev[this.heads[b]] = id;
+		}
+		this.heads[b] = id;
+		this.scheduled[id] = true;
+		this.size++;
+	}
+
+	/**
+	 * unlink the task {@code id} from its bucket.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code scheduled[id]}
+	 * post	{@code !scheduled[id]}
+	 * </pre>
+	 *
+	 * @param id	identifier of the task.
+	 */
+	protected void		unlink(int id)
+	{
+		if (this.prev[id] != NONE) {
+			this.next[this.prev[id]] = this.next[id];
+		} else {
+			this.heads[this.bucketOf[id]] = this.next[id];
+		}
+		if (this.next[id] != NONE) {
+			this.prev[this.next[id]] = this.prev[id];
+		}
+		this.scheduled[id] = false;
+		this.size--;
+	}
+
+	/**
+	 * ensure that the arrays can hold at least {@code capacity} tasks.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code capacity > 0}
+	 * post	{@code next.length >= capacity}
+	 * </pre>
+	 *
+	 * @param capacity	minimum number of task identifiers.
+	 */
+	protected void		ensureCapacity(int capacity)
+	{
+		if (capacity > this.next.length) {
+			int c = Math.max(capacity, 2 * this.next.length);
+			this.next = Arrays.copyOf(this.next, c);
+			this.prev = Arrays.copyOf(this.prev, c);
+			this.bucketOf = Arrays.copyOf(this.bucketOf, c);
+			this.scheduled = Arrays.copyOf(this.scheduled, c);
+			this.deadlines = Arrays.copyOf(this.deadlines, c);
+			this.periods = Arrays.copyOf(this.periods, c);
+			this.missedDeadlines = Arrays.copyOf(this.missedDeadlines, c);
+			this.expiries = Arrays.copyOf(this.expiries, c);
+			this.lastLateness = Arrays.copyOf(this.lastLateness, c);
+			this.maxLateness = Arrays.copyOf(this.maxLateness, c);
+			this.sumLateness = Arrays.copyOf(this.sumLateness, c);
+			this.sumSquaredLateness =
+								Arrays.copyOf(this.sumSquaredLateness, c);
+		}
+	}
+}
+// -----------------------------------------------------------------------------
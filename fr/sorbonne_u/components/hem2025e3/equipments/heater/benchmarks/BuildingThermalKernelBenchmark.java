@@ -0,0 +1,362 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.benchmarks;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.BuildingThermalNetwork;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>BuildingThermalKernelBenchmark</code> compares the cost of
+ * advancing the temperatures of the rooms of a building with the step of
+ * {@code BuildingThermalNetwork} to the cost of advancing one temperature
+ * model per room.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The building is a grid of {@code WIDTH * DEPTH} rooms with the constants of
+ * {@code HeaterTemperatureSILModel}, each room heating at the maximal power
+ * during {@code HEATING_DURATION} hours every {@code CYCLE_DURATION} hours,
+ * the cycles of the rooms being staggered, under a constant external
+ * temperature, over {@code SCENARIO_DURATION} hours with Euler steps of
+ * {@code STEP} hours. The switches of the heaters are precomputed as lists of
+ * rooms per step, as events would tell them. The per-room baseline is an array of room objects
+ * which derivative is computed as in the single-room model, with the heating
+ * tested by a branch; it ignores the walls between rooms. The network is run
+ * without walls, which must give the same temperatures as the baseline, and
+ * with walls. The benchmark prints the largest difference with the baseline
+ * and the best time per room and per step over {@code MEASUREMENT_ROUNDS}
+ * rounds.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MEASUREMENT_ROUNDS > 0}
+ * invariant	{@code WIDTH > 0 && DEPTH > 0}
+ * invariant	{@code HEATING_DURATION > 0.0 && HEATING_DURATION < CYCLE_DURATION}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			BuildingThermalKernelBenchmark
+{
+	// -------------------------------------------------------------------------
+	// Inner classes
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>Room</code> holds the state of one room as a
+	 * temperature model of a single room does.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	protected static class	Room
+	{
+		/** temperature of the room.										*/
+		protected double	temperature = INITIAL_TEMPERATURE;
+		/** true if the heater of the room heats.							*/
+		protected boolean	heating;
+
+		/**
+		 * return the derivative of the temperature of the room.
+		 *
+		 * @return	the derivative of the temperature of the room.
+		 */
+		protected double	derivative()
+		{
+			double d = 0.0;
+			if (this.heating) {
+				d = (STANDARD_HEATING_TEMP - this.temperature)/
+												HEATING_TRANSFER_CONSTANT;
+			}
+			d += (EXTERNAL_TEMPERATURE - this.temperature)/
+												INSULATION_TRANSFER_CONSTANT;
+			return d;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of measurement rounds, the first ones warming up the JIT.	*/
+	public static final int		MEASUREMENT_ROUNDS = 200;
+	/** number of rooms in a row of the grid.								*/
+	public static final int		WIDTH = 10;
+	/** number of rows of the grid.											*/
+	public static final int		DEPTH = 20;
+	/** duration of the scenario in hours.									*/
+	public static final double	SCENARIO_DURATION = 24.0;
+	/** period of the heating cycles in hours.								*/
+	public static final double	CYCLE_DURATION = 4.0;
+	/** duration of heating in each cycle in hours.							*/
+	public static final double	HEATING_DURATION = 1.0;
+	/** constant external temperature in Celsius.							*/
+	public static final double	EXTERNAL_TEMPERATURE = 5.0;
+	/** initial temperature of the rooms in Celsius.						*/
+	public static final double	INITIAL_TEMPERATURE = 19.005;
+	/** wall insulation heat transfer constant of the model.				*/
+	public static final double	INSULATION_TRANSFER_CONSTANT = 12.5;
+	/** heating transfer constant of the model at the maximal power.		*/
+	public static final double	HEATING_TRANSFER_CONSTANT = 40.0;
+	/** heat transfer constant of the walls between rooms.					*/
+	public static final double	WALL_TRANSFER_CONSTANT = 25.0;
+	/** temperature of the heating plate of the model.						*/
+	public static final double	STANDARD_HEATING_TEMP = 300.0;
+	/** integration step of the model.										*/
+	public static final double	STEP = 60.0/3600.0;
+
+	/** consumer of the results of the runs.								*/
+	protected static volatile double	sink;
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the heater of the room {@code i} heats at time
+	 * {@code t}, the cycles of the rooms being staggered.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t >= 0.0 && i >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the room.
+	 * @param t	time in hours since the beginning of the scenario.
+	 * @return	true if the heater of the room heats at time {@code t}.
+	 */
+	protected static boolean	heating(int i, double t)
+	{
+		return (t + i * CYCLE_DURATION / (WIDTH * DEPTH)) % CYCLE_DURATION
+															< HEATING_DURATION;
+	}
+
+	/**
+	 * return, for each step of the scenario, the rooms which heater switches
+	 * at the beginning of the step.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the rooms which heater switches, per step.
+	 */
+	protected static int[][]	switches()
+	{
+		int n = WIDTH * DEPTH;
+		int steps = (int) Math.round(SCENARIO_DURATION/STEP);
+		int[][] ret = new int[steps][];
+		boolean[] previous = new boolean[n];
+		int[] buffer = new int[n];
+		for (int k = 0 ; k < steps ; k++) {
+			int count = 0;
+			for (int i = 0 ; i < n ; i++) {
+				boolean h = heating(i, k * STEP);
+				if (h != previous[i]) {
+					previous[i] = h;
+					buffer[count++] = i;
+				}
+			}
+			ret[k] = Arrays.copyOf(buffer, count);
+		}
+		return ret;
+	}
+
+	/**
+	 * run the scenario with one object per room and return the final
+	 * temperatures.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code switches != null}
+	 * post	{@code return.length == WIDTH * DEPTH}
+	 * </pre>
+	 *
+	 * @param switches	rooms which heater switches, per step.
+	 * @return			the final temperatures of the rooms.
+	 */
+	protected static double[]	runPerRoom(int[][] switches)
+	{
+		int n = WIDTH * DEPTH;
+		Room[] rooms = new Room[n];
+		for (int i = 0 ; i < n ; i++) {
+			rooms[i] = new Room();
+		}
+		for (int k = 0 ; k < switches.length ; k++) {
+			for (int i : switches[k]) {
+				rooms[i].heating = !rooms[i].heating;
+			}
+			// one transition of each room model
+			for (int i = 0 ; i < n ; i++) {
+				rooms[i].temperature += STEP * rooms[i].derivative();
+			}
+		}
+		double[] ret = new double[n];
+		for (int i = 0 ; i < n ; i++) {
+			ret[i] = rooms[i].temperature;
+		}
+		return ret;
+	}
+
+	/**
+	 * run the scenario with the step of {@code network} and return the final
+	 * temperatures.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code network != null && network.getRooms() == WIDTH * DEPTH}
+	 * pre	{@code switches != null}
+	 * post	{@code return.length == WIDTH * DEPTH}
+	 * </pre>
+	 *
+	 * @param network	network of the rooms.
+	 * @param switches	rooms which heater switches, per step.
+	 * @return			the final temperatures of the rooms.
+	 */
+	protected static double[]	runNetwork(
+		BuildingThermalNetwork network,
+		int[][] switches
+		)
+	{
+		int n = network.getRooms();
+		double[] t = new double[n];
+		double[] g = new double[n];
+		double[] flows = new double[n];
+		Arrays.fill(t, INITIAL_TEMPERATURE);
+		for (int k = 0 ; k < switches.length ; k++) {
+			for (int i : switches[k]) {
+				g[i] = g[i] == 0.0 ? 1.0/HEATING_TRANSFER_CONSTANT : 0.0;
+			}
+			// one transition of the building model
+			network.step(t, g, STANDARD_HEATING_TEMP, EXTERNAL_TEMPERATURE,
+						 STEP, flows);
+		}
+		return t;
+	}
+
+	/**
+	 * run the scenario {@code MEASUREMENT_ROUNDS} times with {@code network}
+	 * or with one object per room if null, and return the final temperatures
+	 * and the best time in nanoseconds per room and per step.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code switches != null}
+	 * post	{@code return.length == WIDTH * DEPTH + 1}
+	 * </pre>
+	 *
+	 * @param network	network of the rooms or null.
+	 * @param switches	rooms which heater switches, per step.
+	 * @return			the final temperatures followed by the best time.
+	 */
+	protected static double[]	measure(
+		BuildingThermalNetwork network,
+		int[][] switches
+		)
+	{
+		double[] r = null;
+		double bestTime = Double.MAX_VALUE;
+		for (int i = 0 ; i < MEASUREMENT_ROUNDS ; i++) {
+			long t0 = System.nanoTime();
+			r = network == null ? runPerRoom(switches)
+								: runNetwork(network, switches);
+			long t1 = System.nanoTime();
+			bestTime = Math.min(bestTime, (double)(t1 - t0));
+			sink += r[0];
+		}
+		double[] ret = Arrays.copyOf(r, r.length + 1);
+		ret[r.length] = bestTime /
+											(r.length * switches.length);
+		return ret;
+	}
+
+	/**
+	 * run the scenario per room and with the network, without and with
+	 * walls, and print the results.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param args	not used.
+	 */
+	public static void	main(String[] args)
+	{
+		int n = WIDTH * DEPTH;
+		BuildingThermalNetwork noWalls =
+				BuildingThermalNetwork.grid(WIDTH, DEPTH,
+											1.0/INSULATION_TRANSFER_CONSTANT,
+											0.0);
+		BuildingThermalNetwork walls =
+				BuildingThermalNetwork.grid(WIDTH, DEPTH,
+											1.0/INSULATION_TRANSFER_CONSTANT,
+											1.0/WALL_TRANSFER_CONSTANT);
+		int[][] switches = switches();
+		double[] reference = measure(null, switches);
+		System.out.println(String.format("%-20s %6s %14s %14s",
+										 "model", "rooms", "max diff",
+										 "ns/room/step"));
+		System.out.println(String.format("%-20s %6d %14.3e %14.3f",
+										 "per-room objects", n, 0.0,
+										 reference[n]));
+		for (Object[] c : new Object[][]{{"network, no walls", noWalls},
+										 {"network, walls", walls}}) {
+			double[] r = measure((BuildingThermalNetwork) c[1], switches);
+			double maxDiff = 0.0;
+			for (int i = 0 ; i < n ; i++) {
+				maxDiff = Math.max(maxDiff, Math.abs(r[i] - reference[i]));
+			}
+			System.out.println(String.format("%-20s %6d %14.3e %14.3f",
+											 c[0], n, maxDiff, r[n]));
+		}
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,501 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.benchmarks;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import fr.sorbonne_u.alasca.physical_data.TimedMeasure;
+import fr.sorbonne_u.components.hem2025e1.equipments.heater.HeaterTemperatureI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterControlStep;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterControlTrace;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterControlTrace.Decision;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterCyPhy.HeaterState;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterPushImplementationI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.TimingWheel;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterActuatorCommandQueue.Command;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataOutboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesSensorData;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.TemperatureSensorData;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterHotPathsBenchmark</code> measures the time and the
+ * memory allocated per operation on the hot paths of the heater control and
+ * sensor data, and compares them to a baseline to flag regressions.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The benchmark is a plain Java program, like the other test drivers of the
+ * project, and calls the production code only where it can be run without
+ * starting the BCM4Java run-time i.e., without creating components, ports or
+ * clocks, the cross-component calls themselves being outside of its scope;
+ * the BCM4Java libraries must nevertheless be on the class path, as the
+ * component classes are loaded. Besides the individual data structures
+ * (control trace, sensor data, timing wheel and actuator command queue), it
+ * measures the three steps of the push control loop:
+ * </p>
+ * <ul>
+ * <li>{@code heater.temperaturesSensor}: the creation by the heater of the
+ *   temperatures sensor data in the standard execution mode, by
+ *   {@code HeaterCyPhy#standardTemperaturesSensor} as called by
+ *   {@code HeaterCyPhy#temperaturesSensor};</li>
+ * <li>{@code sensorPort.receive}: the dispatch by the sensor data outbound
+ *   port of the controller of the received data to the processing method,
+ *   as done by the task run by {@code HeaterSensorDataOutboundPort#receive};
+ *   </li>
+ * <li>{@code controller.oneControlStep}: the control step of the
+ *   controller, i.e., the decision, the claim of the state transition, the
+ *   issue of the command with the scheduling of its delivery and the
+ *   recording of the decision, by the {@code HeaterControlStep} to which
+ *   {@code HeaterController#oneControlStep} delegates, the commands being
+ *   delivered at each step to open a new coalescing window each time.</li>
+ * </ul>
+ * <p>
+ * Each operation is first executed {@code WARMUP_ITERATIONS} times, then
+ * measured over {@code MEASUREMENT_ROUNDS} rounds of
+ * {@code ITERATIONS_PER_ROUND} executions, the best round being kept. The
+ * memory allocated is measured with the per-thread allocation counter of the
+ * HotSpot JVM. The results are compared to the baseline file given as first
+ * argument (by default the resource {@code BASELINE_FILE} next to this class,
+ * committed with the sources) and an
+ * operation is flagged as a regression when its time exceeds the baseline by
+ * more than {@code TIME_TOLERANCE} or when it allocates more than
+ * {@code ALLOCATION_TOLERANCE} bytes more than the baseline. When the system
+ * property {@code benchmark.updateBaseline} is {@code true}, the baseline
+ * file given as first argument, or {@code BASELINE_FILE} in the current
+ * directory, is rewritten with the new results. The numbers are written and
+ * read in the root locale, so that baselines are shared among machines.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code WARMUP_ITERATIONS > 0}
+ * invariant	{@code ITERATIONS_PER_ROUND > 0}
+ * invariant	{@code MEASUREMENT_ROUNDS > 0}
+ * invariant	{@code TIME_TOLERANCE > 0.0}
+ * invariant	{@code ALLOCATION_TOLERANCE >= 0.0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterHotPathsBenchmark
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>OperationI</code> declares the operation to be
+	 * benchmarked.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	OperationI
+	{
+		/**
+		 * execute the {@code i}th iteration of the operation, returning a
+		 * value which is consumed to prevent the elimination of the code.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code i >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param i				index of the iteration.
+		 * @return				a value depending upon the result of the operation.
+		 * @throws Exception	<i>to do</i>.
+		 */
+		public long		run(int i) throws Exception;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of executions before the measurements.						*/
+	public static final int		WARMUP_ITERATIONS = 200_000;
+	/** number of executions per measurement round.						*/
+	public static final int		ITERATIONS_PER_ROUND = 200_000;
+	/** number of measurement rounds.										*/
+	public static final int		MEASUREMENT_ROUNDS = 5;
+	/** relative increase of the time per operation flagged as regression.	*/
+	public static final double	TIME_TOLERANCE = 0.25;
+	/** increase in bytes of the allocation per operation flagged as
+	 *  regression.															*/
+	public static final double	ALLOCATION_TOLERANCE = 8.0;
+	/** default name of the baseline file.									*/
+	public static final String	BASELINE_FILE =
+										"heater-hot-paths-baseline.properties";
+
+	/** control hysteresis used by the control step benchmark.				*/
+	public static final double	CONTROL_HYSTERESIS = 0.5;
+	/** coalescing window of the actuator commands in nanoseconds.			*/
+	public static final long	COMMAND_WINDOW = 10_000_000L;
+
+	/** consumer of the values returned by the operations.					*/
+	protected static volatile long	sink;
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of bytes allocated so far by the current thread, or
+	 * -1 if the JVM does not provide this measure.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the number of bytes allocated so far by the current thread.
+	 */
+	protected static long	allocatedBytes()
+	{
+		java.lang.management.ThreadMXBean b =
+										ManagementFactory.getThreadMXBean();
+		if (b instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)b).
+					getThreadAllocatedBytes(Thread.currentThread().getId());
+		} else {
+			return -1L;
+		}
+	}
+
+	/**
+	 * measure {@code op} and return its time in nanoseconds and its
+	 * allocation in bytes per operation.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code op != null}
+	 * post	{@code return.length == 2}
+	 * </pre>
+	 *
+	 * @param op			operation to be measured.
+	 * @return				the time and the allocation per operation.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected static double[]	measure(OperationI op) throws Exception
+	{
+		long s = 0L;
+		for (int i = 0 ; i < WARMUP_ITERATIONS ; i++) {
+			s += op.run(i);
+		}
+		double bestTime = Double.MAX_VALUE;
+		double bestAllocation = Double.MAX_VALUE;
+		for (int r = 0 ; r < MEASUREMENT_ROUNDS ; r++) {
+			long a0 = allocatedBytes();
+			long t0 = System.nanoTime();
+			for (int i = 0 ; i < ITERATIONS_PER_ROUND ; i++) {
+				s += op.run(i);
+			}
+			long t1 = System.nanoTime();
+			long a1 = allocatedBytes();
+			bestTime = Math.min(bestTime,
+								(double)(t1 - t0) / ITERATIONS_PER_ROUND);
+			if (a0 >= 0) {
+				bestAllocation = Math.min(bestAllocation,
+									(double)(a1 - a0) / ITERATIONS_PER_ROUND);
+			}
+		}
+		sink += s;
+		return new double[]{bestTime,
+							bestAllocation == Double.MAX_VALUE ?
+												-1.0 : bestAllocation};
+	}
+
+	/**
+	 * return the operations to be benchmarked, by name.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the operations to be benchmarked, by name.
+	 */
+	protected static Map<String,OperationI>	operations()
+	{
+		Map<String,OperationI> ret = new LinkedHashMap<>();
+
+		HeaterControlTrace trace = new HeaterControlTrace(1024);
+		ret.put("controlTrace.record",
+				i -> {
+					trace.record(i, 18.0 + (i & 7) * 0.1, 19.0, 0.1,
+								 Decision.ofOrdinal(i & 3));
+					return trace.recorded();
+				});
+		ret.put("compactSensorData.new",
+				i -> new CompactHeaterTemperaturesSensorData(
+										19.0, 18.0 + (i & 7), i).hashCode());
+		CompactHeaterTemperaturesSensorData compact =
+					new CompactHeaterTemperaturesSensorData(19.0, 18.5, 0L);
+		byte[] buffer = new byte[CompactHeaterTemperaturesSensorData.
+															SERIALIZED_SIZE];
+		ret.put("compactSensorData.writeTo",
+				i -> {
+					compact.writeTo(buffer, 0);
+					return buffer[i % buffer.length];
+				});
+		ret.put("temperaturesSensorData.new",
+				i -> new HeaterTemperaturesSensorData(
+						new TemperatureSensorData(
+								new TimedMeasure<Double>(
+										19.0,
+										HeaterTemperatureI.TEMPERATURE_UNIT)),
+						new TemperatureSensorData(
+								new TimedMeasure<Double>(
+										18.0 + (i & 7),
+										HeaterTemperatureI.TEMPERATURE_UNIT))).
+																hashCode());
+		TimingWheel wheel =
+				new TimingWheel(TimingWheel.STANDARD_TICK_DURATION,
+								TimingWheel.STANDARD_NUMBER_OF_BUCKETS, 64);
+		ret.put("timingWheel.scheduleCancel",
+				i -> {
+					wheel.schedule(i & 63, 1_000_000_000L + i, 0L);
+					wheel.cancel((i + 32) & 63);
+					return wheel.size();
+				});
+		HeaterActuatorCommandQueue queue = new HeaterActuatorCommandQueue(1);
+		ret.put("commandQueue.issue",
+				i -> queue.issue("heater",
+								 (i & 1) == 0 ?
+										Command.START_HEATING
+									:	Command.STOP_HEATING) ? 1L : 0L);
+		HeaterControlTrace stepTrace = new HeaterControlTrace(1024);
+		HeaterActuatorCommandQueue stepQueue =
+										new HeaterActuatorCommandQueue(1);
+		TimingWheel stepWheel =
+				new TimingWheel(TimingWheel.STANDARD_TICK_DURATION,
+								TimingWheel.STANDARD_NUMBER_OF_BUCKETS, 1);
+		AtomicReference<HeaterState> stepState =
+										new AtomicReference<>(HeaterState.ON);
+		HeaterControlStep step =
+				new HeaterControlStep(
+						stepState,
+						CONTROL_HYSTERESIS,
+						stepTrace,
+						stepQueue,
+						"heater",
+						() -> stepWheel.schedule(0, COMMAND_WINDOW, 0L));
+		ret.put("controller.oneControlStep",
+				i -> {
+					// the current temperature sweeps the hysteresis band so
+					// that all of the decisions are taken
+					double c = 17.0 + (i & 15) * 0.25;
+					Decision d = step.step(19.0, c, i, stepState.get());
+					if (d == Decision.START_HEATING
+											|| d == Decision.STOP_HEATING) {
+						stepQueue.deliverPending((uri, command) -> {});
+					}
+					return d.ordinal();
+				});
+		TimedMeasure<Double> target =
+				new TimedMeasure<Double>(19.0,
+										 HeaterTemperatureI.TEMPERATURE_UNIT);
+		ret.put("heater.temperaturesSensor",
+				i -> HeaterCyPhy.standardTemperaturesSensor(
+												target, 18.0 + (i & 7)).
+																	hashCode());
+		long[] received = new long[1];
+		HeaterPushImplementationI controller =
+			new HeaterPushImplementationI() {
+				@Override
+				public void processHeaterState(HeaterState heaterState)
+				{
+					received[0]++;
+				}
+
+				@Override
+				public void processTemperatures(
+					TemperatureSensorData target,
+					TemperatureSensorData current
+					)
+				{
+					received[0]++;
+				}
+
+				@Override
+				public void processTemperatures(
+					double target,
+					double current,
+					long timestamp
+					)
+				{
+					received[0] += timestamp;
+				}
+			};
+		CompactHeaterTemperaturesSensorData[] pushed =
+								new CompactHeaterTemperaturesSensorData[8];
+		for (int i = 0 ; i < pushed.length ; i++) {
+			pushed[i] = new CompactHeaterTemperaturesSensorData(
+															19.0, 18.0 + i, i);
+		}
+		ret.put("sensorPort.receive",
+				i -> {
+					HeaterSensorDataOutboundPort.dispatch(pushed[i & 7],
+														  controller);
+					return received[0];
+				});
+		return ret;
+	}
+
+	/**
+	 * parse a number of the baseline file, written in the root locale.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code value != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param value				text of the number in the root locale.
+	 * @return					the parsed number.
+	 * @throws ParseException	if {@code value} is not a number in the root locale.
+	 */
+	protected static double	parseBaseline(String value) throws ParseException
+	{
+		return NumberFormat.getNumberInstance(Locale.ROOT).
+											parse(value.trim()).doubleValue();
+	}
+
+	/**
+	 * run the benchmarks, print their results and compare them with the
+	 * baseline.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param args	optional path of the baseline file.
+	 */
+	public static void	main(String[] args)
+	{
+		String baselineFile = args.length > 0 ? args[0] : BASELINE_FILE;
+		Properties baseline = new Properties();
+		try (InputStream in =
+				args.length > 0 ?
+					new FileInputStream(baselineFile)
+				:	HeaterHotPathsBenchmark.class.
+											getResourceAsStream(BASELINE_FILE)) {
+			if (in == null) {
+				throw new IOException("resource not found");
+			}
+			baseline.load(in);
+		} catch (IOException e) {
+			System.out.println("No baseline read from " + baselineFile + ".");
+		}
+
+		Properties results = new Properties();
+		int regressions = 0;
+		try {
+			System.out.println(String.format(Locale.ROOT,
+									"%-28s %12s %12s  %s",
+									"operation", "ns/op", "B/op", "status"));
+			for (Map.Entry<String,OperationI> e : operations().entrySet()) {
+				double[] m = measure(e.getValue());
+				String status = "no baseline";
+				String bt = baseline.getProperty(e.getKey() + ".time");
+				String ba = baseline.getProperty(e.getKey() + ".allocation");
+				if (bt != null && ba != null) {
+					status = "ok";
+					if (m[0] > parseBaseline(bt) * (1.0 + TIME_TOLERANCE)) {
+						status = "REGRESSION (time)";
+						regressions++;
+					} else if (m[1] > parseBaseline(ba)
+													+ ALLOCATION_TOLERANCE) {
+						status = "REGRESSION (allocation)";
+						regressions++;
+					}
+				}
+				System.out.println(String.format(Locale.ROOT,
+												 "%-28s %12.2f %12.2f  %s",
+												 e.getKey(), m[0], m[1],
+												 status));
+				results.setProperty(e.getKey() + ".time",
+									String.format(Locale.ROOT, "%.2f", m[0]));
+				results.setProperty(e.getKey() + ".allocation",
+									String.format(Locale.ROOT, "%.2f", m[1]));
+			}
+			if (Boolean.getBoolean("benchmark.updateBaseline")) {
+				try (OutputStream out = new FileOutputStream(baselineFile)) {
+					results.store(out, "heater hot paths baseline, ns/op and "
+									   + "B/op");
+				}
+				System.out.println("Baseline written to " + baselineFile
+								   + ".");
+			}
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+		System.out.println(regressions + " regression(s).");
+		if (regressions > 0) {
+			System.exit(1);
+		}
+	}
+}
+// -----------------------------------------------------------------------------
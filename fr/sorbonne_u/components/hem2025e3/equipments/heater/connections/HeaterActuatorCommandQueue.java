@@ -0,0 +1,493 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.connections;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterActuatorCommandQueue</code> holds the actuator
+ * commands issued towards heaters until their delivery, coalescing the
+ * commands issued towards the same heater in the meantime.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A controller issues its {@code startHeating} and {@code stopHeating}
+ * commands into the queue instead of calling the actuator immediately; the
+ * first command issued towards a heater opens a coalescing window, managed
+ * by the owner of the queue, at the end of which the owner calls
+ * {@code deliverPending} to deliver the surviving commands asynchronously
+ * through a {@code DeliveryI}. At most one command is pending per heater: a
+ * new command supersedes the pending one, which is dropped, and when the new
+ * command would put the heater in the state it is already in, as with a
+ * start followed by a stop while the heater was not heating, it is dropped
+ * as well. When the temperature oscillates around the hysteresis band, a
+ * burst of start/stop pairs hence collapses into at most one cross-component
+ * call per window, and a stop is never delivered to a heater that is not
+ * heating nor a start to one that is.
+ * </p>
+ * <p>
+ * The state of a heater against which the commands are coalesced is its
+ * actual heating state, not the last command sent to it: it is set by the
+ * delivered commands and reset by the owner through {@code reset} each time
+ * the heater pushes a new state, i.e. when it is switched on or off, which
+ * also cancels the pending command of the heater, as it has been decided
+ * for a heater in a state that no longer holds.
+ * </p>
+ * <p>
+ * Heaters are keyed by the URI of their actuator inbound port, the pending
+ * command and the heating state of each heater being packed in one atomic
+ * word created upon its first use. The queue takes no lock: {@code issue},
+ * {@code reset} and {@code deliverPending} update the word of a heater by
+ * compare-and-set, so that the control steps issuing commands never wait
+ * for each other nor for a delivery. The queue counts the issued,
+ * coalesced (dropped), cancelled and delivered commands, hence
+ * {@code issued == coalesced + cancelled + delivered + pending} once the
+ * concurrent calls have returned.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code words != null}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterActuatorCommandQueue
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The enumeration <code>Command</code> defines the heater actuator
+	 * commands.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static enum	Command
+	{
+		/** start heating.													*/
+		START_HEATING,
+		/** stop heating.													*/
+		STOP_HEATING;
+
+		/** commands indexed by their ordinal.								*/
+		protected static final Command[]	VALUES = Command.values();
+	}
+
+	/**
+	 * The interface <code>DeliveryI</code> declares the method called to
+	 * deliver a command to a heater.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	DeliveryI
+	{
+		/**
+		 * deliver {@code command} to the heater {@code heaterURI}.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+		 * pre	{@code command != null}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param heaterURI		URI of the heater actuator inbound port.
+		 * @param command		command to be delivered.
+		 * @throws Exception	<i>to do</i>.
+		 */
+		public void		deliver(String heaterURI, Command command)
+		throws Exception;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** value of the pending command bits when no command is pending.		*/
+	protected static final int	NONE = 0;
+	/** bits of the pending command in the word of a heater, holding the
+	 *  ordinal of the command plus one or {@code NONE}.					*/
+	protected static final int	PENDING_MASK = 0x3;
+	/** bit of the heating state in the word of a heater.					*/
+	protected static final int	HEATING = 0x4;
+
+	/** word of each heater, keyed by its actuator inbound port URI,
+	 *  packing its pending command and its heating state as known from its
+	 *  pushed states and the commands delivered to it.					*/
+	protected final Map<String,AtomicInteger>	words;
+	/** number of heaters having a pending command.						*/
+	protected final AtomicInteger	pendingCount;
+	/** number of commands issued.											*/
+	protected final AtomicLong		issued;
+	/** number of commands dropped as superseded or redundant.				*/
+	protected final AtomicLong		coalesced;
+	/** number of pending commands cancelled by a new state of the heater.	*/
+	protected final AtomicLong		cancelled;
+	/** number of commands delivered.										*/
+	protected final AtomicLong		delivered;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create an empty command queue.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code initialCapacity > 0}
+	 * post	{@code !hasPending()}
+	 * </pre>
+	 *
+	 * @param initialCapacity	initial number of heaters.
+	 */
+	public				HeaterActuatorCommandQueue(int initialCapacity)
+	{
+		assert	initialCapacity > 0 :
+				new PreconditionException("initialCapacity > 0");
+
+		this.words = new ConcurrentHashMap<>(initialCapacity);
+		this.pendingCount = new AtomicInteger(0);
+		this.issued = new AtomicLong(0L);
+		this.coalesced = new AtomicLong(0L);
+		this.cancelled = new AtomicLong(0L);
+		this.delivered = new AtomicLong(0L);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * issue {@code command} towards the heater {@code heaterURI}, returning
+	 * true if it opens a new coalescing window i.e., if no command was
+	 * pending for this heater and the command has not been dropped.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * pre	{@code command != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the heater actuator inbound port.
+	 * @param command	command to be issued.
+	 * @return			true if the command opens a new coalescing window.
+	 */
+	public boolean		issue(String heaterURI, Command command)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+		assert	command != null : new PreconditionException("command != null");
+
+		this.issued.incrementAndGet();
+		AtomicInteger word = this.wordOf(heaterURI);
+		boolean start = command == Command.START_HEATING;
+		int old;
+		boolean redundant;
+		do {
+			old = word.get();
+			// a command putting the heater in the state it is already in is
+			// dropped, otherwise it supersedes the pending one
+			redundant = ((old & HEATING) != 0) == start;
+			int next = redundant ?
+							old & HEATING
+						:	(old & HEATING) | (command.ordinal() + 1);
+			if (word.compareAndSet(old, next)) {
+				break;
+			}
+		} while (true);
+		boolean wasPending = (old & PENDING_MASK) != NONE;
+		if (wasPending) {
+			this.coalesced.incrementAndGet();
+		}
+		if (redundant) {
+			this.coalesced.incrementAndGet();
+			if (wasPending) {
+				this.pendingCount.decrementAndGet();
+			}
+			return false;
+		}
+		if (!wasPending) {
+			this.pendingCount.incrementAndGet();
+		}
+		return !wasPending;
+	}
+
+	/**
+	 * set the heating state of the heater {@code heaterURI} after it has
+	 * pushed a new state, cancelling its pending command if any, and return
+	 * true if a command has been cancelled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the heater actuator inbound port.
+	 * @param heating	true if the heater is heating in its new state.
+	 * @return			true if a pending command has been cancelled.
+	 */
+	public boolean		reset(String heaterURI, boolean heating)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+
+		int old = this.wordOf(heaterURI).getAndSet(heating ? HEATING : NONE);
+		if ((old & PENDING_MASK) != NONE) {
+			this.pendingCount.decrementAndGet();
+			this.cancelled.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * return true if some command is pending.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if some command is pending.
+	 */
+	public boolean		hasPending()
+	{
+		return this.pendingCount.get() > 0;
+	}
+
+	/**
+	 * deliver all the pending commands through {@code delivery} and return
+	 * the number of delivered commands; each command is taken from the word
+	 * of its heater by compare-and-set before being delivered, and a command
+	 * which delivery fails is counted as delivered, the exception being
+	 * propagated after the other deliveries.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code delivery != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param delivery		delivery of the commands to the heaters.
+	 * @return				the number of delivered commands.
+	 * @throws Exception	the first exception thrown by {@code delivery}.
+	 */
+	public int			deliverPending(DeliveryI delivery) throws Exception
+	{
+		assert	delivery != null : new PreconditionException("delivery != null");
+
+		if (this.pendingCount.get() == 0) {
+			return 0;
+		}
+		ArrayList<String> uris = new ArrayList<>();
+		ArrayList<Command> commands = new ArrayList<>();
+		for (Map.Entry<String,AtomicInteger> e : this.words.entrySet()) {
+			AtomicInteger word = e.getValue();
+			int old;
+			do {
+				old = word.get();
+				if ((old & PENDING_MASK) == NONE) {
+					break;
+				}
+				// the heater is known to be in the state the command puts it
+				int next = (old & PENDING_MASK) ==
+										Command.START_HEATING.ordinal() + 1 ?
+											HEATING : NONE;
+				if (word.compareAndSet(old, next)) {
+					uris.add(e.getKey());
+					commands.add(Command.VALUES[(old & PENDING_MASK) - 1]);
+					this.pendingCount.decrementAndGet();
+					this.delivered.incrementAndGet();
+					break;
+				}
+			} while (true);
+		}
+		Exception first = null;
+		for (int i = 0 ; i < uris.size() ; i++) {
+			try {
+				delivery.deliver(uris.get(i), commands.get(i));
+			} catch (Exception e) {
+				if (first == null) {
+					first = e;
+				}
+			}
+		}
+		if (first != null) {
+			throw first;
+		}
+		return uris.size();
+	}
+
+	/**
+	 * return the number of commands issued.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of commands issued.
+	 */
+	public long			getIssued()
+	{
+		return this.issued.get();
+	}
+
+	/**
+	 * return the number of commands dropped as superseded or redundant.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of commands dropped as superseded or redundant.
+	 */
+	public long			getCoalesced()
+	{
+		return this.coalesced.get();
+	}
+
+	/**
+	 * return the number of pending commands cancelled by a new state of their
+	 * heater.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of pending commands cancelled.
+	 */
+	public long			getCancelled()
+	{
+		return this.cancelled.get();
+	}
+
+	/**
+	 * return the number of commands delivered.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of commands delivered.
+	 */
+	public long			getDelivered()
+	{
+		return this.delivered.get();
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		return this.getClass().getSimpleName() + "[issued = "
+				+ this.issued.get() + ", coalesced = " + this.coalesced.get()
+				+ ", cancelled = " + this.cancelled.get() + ", delivered = "
+				+ this.delivered.get() + ", pending = "
+				+ this.pendingCount.get() + "]";
+	}
+
+	/**
+	 * return the word of the heater {@code heaterURI}, creating it upon the
+	 * first call for this heater.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the heater actuator inbound port.
+	 * @return			the word of the heater.
+	 */
+	protected AtomicInteger	wordOf(String heaterURI)
+	{
+		AtomicInteger word = this.words.get(heaterURI);
+		if (word == null) {
+			// a heater is not heating until a start is delivered to it
+			word = this.words.computeIfAbsent(heaterURI,
+											  u -> new AtomicInteger(NONE));
+		}
+		return word;
+	}
+}
+// -----------------------------------------------------------------------------
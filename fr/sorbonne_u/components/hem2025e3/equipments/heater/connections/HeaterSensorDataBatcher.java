@@ -0,0 +1,276 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.connections;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesBatchSensorData;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterSensorDataBatcher</code> accumulates the latest
+ * temperatures reading of each of a set of heaters until either readings of a
+ * given number of heaters have been accumulated or its owner flushes it, and
+ * then releases them as one {@code HeaterTemperaturesBatchSensorData}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The batcher is owned by the controller component regulating the heaters,
+ * here {@code MultiHeaterController}, and is fed by the sensor data outbound
+ * ports of this component as the heaters push their readings, so that one
+ * control task processes the readings of all the heaters received during
+ * one batch window instead of one task per reading. The batcher does not
+ * measure time: its owner flushes it from a task scheduled at the end of each
+ * window, a batch being also released as soon as it holds the readings of
+ * {@code batchSize} heaters. A batch holds at most one reading per heater: a
+ * new reading of a heater replaces the one of the same heater still waiting
+ * in the batch, hence the controller always decides upon the latest reading
+ * and never replays stale ones. With a window not exceeding the control
+ * period, a reading waits at most one control period before being processed.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code batchSize > 0}
+ * invariant	{@code count >= 0 && count < batchSize}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			HeaterSensorDataBatcher
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** maximum number of heaters which readings are in a batch.			*/
+	protected final int			batchSize;
+	/** URI of the heaters of the accumulated readings.						*/
+	protected final String[]	heaterURIs;
+	/** target temperatures of the accumulated readings.					*/
+	protected final double[]	targets;
+	/** current temperatures of the accumulated readings.					*/
+	protected final double[]	currents;
+	/** time stamps of the accumulated readings.							*/
+	protected final long[]		timestamps;
+	/** number of accumulated readings.										*/
+	protected int				count;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a batcher.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code batchSize > 0}
+	 * post	{@code isEmpty()}
+	 * </pre>
+	 *
+	 * @param batchSize		maximum number of heaters which readings are in a batch.
+	 */
+	public				HeaterSensorDataBatcher(int batchSize)
+	{
+		assert	batchSize > 0 : new PreconditionException("batchSize > 0");
+
+		this.batchSize = batchSize;
+		this.heaterURIs = new String[batchSize];
+		this.targets = new double[batchSize];
+		this.currents = new double[batchSize];
+		this.timestamps = new long[batchSize];
+		this.count = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if no reading is currently accumulated.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if no reading is currently accumulated.
+	 */
+	public synchronized boolean	isEmpty()
+	{
+		return this.count == 0;
+	}
+
+	/**
+	 * accumulate a reading, replacing the previous one of the same heater if
+	 * any, and return the batch to be processed if readings of
+	 * {@code batchSize} heaters are accumulated, otherwise null.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * post	{@code return == null || isEmpty()}
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the heater that produced the reading.
+	 * @param target	target temperature.
+	 * @param current	current room temperature.
+	 * @param timestamp	time stamp of the reading in nanoseconds since the epoch.
+	 * @return			the batch to be processed or null.
+	 */
+	public synchronized HeaterTemperaturesBatchSensorData	add(
+		String heaterURI,
+		double target,
+		double current,
+		long timestamp
+		)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+
+		int i = this.indexOf(heaterURI);
+		if (i < 0) {
+			i = this.count++;
+			this.heaterURIs[i] = heaterURI;
+		}
+		this.targets[i] = target;
+		this.currents[i] = current;
+		this.timestamps[i] = timestamp;
+
+		if (this.count >= this.batchSize) {
+			return this.flush();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * discard the reading of the heater {@code heaterURI} waiting in the
+	 * current batch, if any.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of the heater which reading must be discarded.
+	 */
+	public synchronized void	remove(String heaterURI)
+	{
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+
+		int i = this.indexOf(heaterURI);
+		if (i >= 0) {
+			int last = --this.count;
+			this.heaterURIs[i] = this.heaterURIs[last];
+			this.targets[i] = this.targets[last];
+			this.currents[i] = this.currents[last];
+			this.timestamps[i] = this.timestamps[last];
+			this.heaterURIs[last] = null;
+		}
+	}
+
+	/**
+	 * return the batch of the currently accumulated readings and empty the
+	 * batcher, or null if no reading is accumulated.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the batch of the currently accumulated readings or null.
+	 */
+	public synchronized HeaterTemperaturesBatchSensorData	flush()
+	{
+		if (this.count == 0) {
+			return null;
+		}
+		HeaterTemperaturesBatchSensorData ret =
+			new HeaterTemperaturesBatchSensorData(
+					Arrays.copyOf(this.heaterURIs, this.count),
+					Arrays.copyOf(this.targets, this.count),
+					Arrays.copyOf(this.currents, this.count),
+					Arrays.copyOf(this.timestamps, this.count));
+		Arrays.fill(this.heaterURIs, 0, this.count, null);
+		this.count = 0;
+		return ret;
+	}
+
+	/**
+	 * return the index of the reading of {@code heaterURI} in the current
+	 * batch or -1 if none; the batches being small, a linear search is used.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null}
+	 * post	{@code return >= -1 && return < count}
+	 * </pre>
+	 *
+	 * @param heaterURI	URI of a heater.
+	 * @return			the index of the reading of {@code heaterURI} or -1.
+	 */
+	protected int		indexOf(String heaterURI)
+	{
+		for (int i = 0 ; i < this.count ; i++) {
+			if (heaterURI.equals(this.heaterURIs[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
+// -----------------------------------------------------------------------------
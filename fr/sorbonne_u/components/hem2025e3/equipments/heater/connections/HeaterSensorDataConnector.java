@@ -117,5 +117,21 @@ implements	HeaterSensorDataCI.HeaterSensorRequiredPullCI
 		((HeaterSensorDataCI.HeaterSensorOfferedPullCI)this.offering).
 								startTemperaturesPushSensor(controlPeriod, tu);
 	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI.HeaterSensorCI#startTemperaturesThresholdPushSensor(double, long, long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void			startTemperaturesThresholdPushSensor(
+		double hysteresis,
+		long samplingPeriod,
+		long heartbeatPeriod,
+		TimeUnit tu
+		) throws Exception
+	{
+		((HeaterSensorDataCI.HeaterSensorOfferedPullCI)this.offering).
+						startTemperaturesThresholdPushSensor(
+								hysteresis, samplingPeriod, heartbeatPeriod, tu);
+	}
 }
 // -----------------------------------------------------------------------------
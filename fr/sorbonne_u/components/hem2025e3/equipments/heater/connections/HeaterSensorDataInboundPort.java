@@ -183,6 +183,25 @@ implements	HeaterSensorDataCI.HeaterSensorOfferedPullCI
 				 });
 	}
 
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI.HeaterSensorCI#startTemperaturesThresholdPushSensor(double, long, long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void			startTemperaturesThresholdPushSensor(
+		double hysteresis,
+		long samplingPeriod,
+		long heartbeatPeriod,
+		TimeUnit tu
+		) throws Exception
+	{
+		this.getOwner().handleRequest(
+				o -> {	((HeaterCyPhy)o).
+							startTemperaturesThresholdPushSensor(
+								hysteresis, samplingPeriod, heartbeatPeriod, tu);
+						return null;
+				 });
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.interfaces.DataOfferedCI.PullCI#get()
 	 */
@@ -190,7 +209,7 @@ implements	HeaterSensorDataCI.HeaterSensorOfferedPullCI
 	public DataOfferedCI.DataI		get() throws Exception
 	{
 		return this.getOwner().handleRequest(
-								o -> ((HeaterCyPhy)o).temperaturesSensor());
+						o -> ((HeaterCyPhy)o).compactTemperaturesSensor());
 	}
 }
 // -----------------------------------------------------------------------------
@@ -37,6 +37,7 @@ import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.exceptions.BCMException;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterPushImplementationI;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterSensorDataI;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterStateSensorData;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterTemperaturesSensorData;
@@ -189,6 +190,22 @@ implements	HeaterSensorDataCI.HeaterSensorRequiredPullCI
 								startTemperaturesPushSensor(controlPeriod, tu);
 	}
 
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.HeaterSensorDataCI.HeaterSensorCI#startTemperaturesThresholdPushSensor(double, long, long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public void			startTemperaturesThresholdPushSensor(
+		double hysteresis,
+		long samplingPeriod,
+		long heartbeatPeriod,
+		TimeUnit tu
+		) throws Exception
+	{
+		((HeaterSensorDataCI.HeaterSensorRequiredPullCI)this.getConnector()).
+						startTemperaturesThresholdPushSensor(
+								hysteresis, samplingPeriod, heartbeatPeriod, tu);
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.interfaces.DataRequiredCI.PushCI#receive(fr.sorbonne_u.components.interfaces.DataRequiredCI.DataI)
 	 */
@@ -198,19 +215,52 @@ implements	HeaterSensorDataCI.HeaterSensorRequiredPullCI
 		assert	d instanceof HeaterSensorDataI :
 				new BCMException("d instanceof HeaterSensorDataI");
 
+		if (!(d instanceof HeaterStateSensorData
+				|| d instanceof CompactHeaterTemperaturesSensorData
+				|| d instanceof HeaterTemperaturesSensorData)) {
+			throw new BCMException("Unknown heater sensor data: " + d);
+		}
+		this.getOwner().runTask(
+					o -> dispatch(d, (HeaterPushImplementationI)o));
+	}
+
+	/**
+	 * call the method of {@code target} processing the heater sensor data
+	 * {@code d}; this is the part of the reception executed by the task run
+	 * on the owner component.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code d instanceof HeaterSensorDataI}
+	 * pre	{@code target != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param d			heater sensor data to be processed.
+	 * @param target	object processing the heater sensor data.
+	 */
+	public static void	dispatch(
+		DataRequiredCI.DataI d,
+		HeaterPushImplementationI target
+		)
+	{
 		if (d instanceof HeaterStateSensorData) {
-			this.getOwner().runTask(
-					o -> ((HeaterPushImplementationI)o).processHeaterState(
-							(( HeaterStateSensorData)d).getMeasure().getData()));
+			target.processHeaterState(
+							((HeaterStateSensorData)d).getMeasure().getData());
+		} else if (d instanceof CompactHeaterTemperaturesSensorData) {
+			// unpacked as primitive values, without any boxing
+			CompactHeaterTemperaturesSensorData td =
+										(CompactHeaterTemperaturesSensorData)d;
+			target.processTemperatures(td.getTarget(), td.getCurrent(),
+									   td.getTimestamp());
 		} else if (d instanceof HeaterTemperaturesSensorData) {
-			this.getOwner().runTask(
-					o -> ((HeaterPushImplementationI)o).processTemperatures(
-								((HeaterTemperaturesSensorData)d).
-													getTargetTemperature(),
-								((HeaterTemperaturesSensorData)d).
-													getCurrentTemperature()));
+			target.processTemperatures(
+					((HeaterTemperaturesSensorData)d).getTargetTemperature(),
+					((HeaterTemperaturesSensorData)d).getCurrentTemperature());
 		} else {
-			throw new BCMException("Unknown heater sensor data: " + d);
+			throw new IllegalArgumentException(
+									"Unknown heater sensor data: " + d);
 		}
 	}
 }
@@ -0,0 +1,175 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.connections;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.exceptions.BCMException;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.MultiHeaterPushImplementationI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.CompactHeaterTemperaturesSensorData;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterSensorDataI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data.HeaterStateSensorData;
+import fr.sorbonne_u.components.interfaces.DataRequiredCI;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>MultiHeaterSensorDataOutboundPort</code> implements the
+ * outbound port used by a controller of several heaters to connect to the
+ * sensor inbound port of one of them.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The port knows the URI of the heater sensor inbound port it is connected
+ * to and passes it to the {@code MultiHeaterPushImplementationI} owner
+ * together with the pushed data, so that the owner can dispatch the data to
+ * the state of the right heater. Besides the heater state, only compact
+ * temperatures readings are expected to be pushed, in the batch mode of the
+ * controller: they are passed to the batcher of the owner in the pushing
+ * thread, the batcher being thread-safe, so that only the complete batches
+ * cost a task on the owner instead of each reading.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code heaterURI != null && !heaterURI.isEmpty()}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			MultiHeaterSensorDataOutboundPort
+extends		HeaterSensorDataOutboundPort
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+
+	/** URI of the heater sensor inbound port this port is connected to.	*/
+	protected final String		heaterURI;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create the outbound port.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURI != null && !heaterURI.isEmpty()}
+	 * pre	{@code owner instanceof MultiHeaterPushImplementationI}
+	 * post	{@code getHeaterURI().equals(heaterURI)}
+	 * </pre>
+	 *
+	 * @param heaterURI		URI of the heater sensor inbound port to be connected.
+	 * @param owner			component that owns this port.
+	 * @throws Exception 	<i>to do</i>.
+	 */
+	public				MultiHeaterSensorDataOutboundPort(
+		String heaterURI,
+		ComponentI owner
+		) throws Exception
+	{
+		super(owner);
+
+		assert	heaterURI != null && !heaterURI.isEmpty() :
+				new PreconditionException(
+						"heaterURI != null && !heaterURI.isEmpty()");
+		assert	owner instanceof MultiHeaterPushImplementationI :
+				new PreconditionException(
+						"owner instanceof MultiHeaterPushImplementationI");
+
+		this.heaterURI = heaterURI;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the URI of the heater sensor inbound port to be connected.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the URI of the heater sensor inbound port to be connected.
+	 */
+	public String		getHeaterURI()
+	{
+		return this.heaterURI;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.connections.HeaterSensorDataOutboundPort#receive(fr.sorbonne_u.components.interfaces.DataRequiredCI.DataI)
+	 */
+	@Override
+	public void			receive(DataRequiredCI.DataI d) throws Exception
+	{
+		assert	d instanceof HeaterSensorDataI :
+				new BCMException("d instanceof HeaterSensorDataI");
+
+		if (d instanceof HeaterStateSensorData) {
+			this.getOwner().runTask(
+					o -> ((MultiHeaterPushImplementationI)o).processHeaterState(
+							this.heaterURI,
+							((HeaterStateSensorData)d).getMeasure().getData()));
+		} else if (d instanceof CompactHeaterTemperaturesSensorData) {
+			CompactHeaterTemperaturesSensorData td =
+										(CompactHeaterTemperaturesSensorData)d;
+			((MultiHeaterPushImplementationI)this.getOwner()).
+								batchTemperatures(this.heaterURI,
+												  td.getTarget(),
+												  td.getCurrent(),
+												  td.getTimestamp());
+		} else {
+			throw new BCMException("Unexpected heater sensor data: " + d);
+		}
+	}
+}
+// -----------------------------------------------------------------------------
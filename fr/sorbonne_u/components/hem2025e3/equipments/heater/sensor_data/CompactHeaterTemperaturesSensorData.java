@@ -0,0 +1,492 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.alasca.physical_data.MeasurementUnit;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>CompactHeaterTemperaturesSensorData</code> implements an
+ * immutable and primitive-backed version of the sensor data sent by the heater
+ * to the controller, containing the target temperature and the current room
+ * temperature.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Where a {@code HeaterTemperaturesSensorData} composes two
+ * {@code TemperatureSensorData}, each wrapping a {@code TimedMeasure} with
+ * boxed values, units, clocks and instants, this class holds the two
+ * temperatures as {@code double}, the time stamp as a number of nanoseconds
+ * since the epoch and the measurement unit as an identifier in the
+ * {@code MeasurementUnitRegistry}. When serialised, it is written as a fixed
+ * size byte layout of {@code SERIALIZED_SIZE} bytes: target, current (IEEE
+ * 754 bits) and time stamp, all big-endian, followed by the unit identifier.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code unitId >= 0 && unitId < MeasurementUnitRegistry.MAX_UNITS}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code SERIALIZED_SIZE == 3 * Long.BYTES + 1}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		CompactHeaterTemperaturesSensorData
+implements	HeaterSensorDataI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+	/** size in bytes of the serialised form.								*/
+	public static final int		SERIALIZED_SIZE = 3 * Long.BYTES + 1;
+
+	/** target temperature of the thermostat.								*/
+	protected final double		target;
+	/** current room temperature.											*/
+	protected final double		current;
+	/** time stamp in nanoseconds since the epoch.							*/
+	protected final long		timestamp;
+	/** identifier of the measurement unit of the temperatures.			*/
+	protected final byte		unitId;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a compact temperatures sensor data.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code unitId >= 0 && unitId < MeasurementUnitRegistry.MAX_UNITS}
+	 * post	{@code getTarget() == target}
+	 * post	{@code getCurrent() == current}
+	 * post	{@code getTimestamp() == timestamp}
+	 * post	{@code getUnitId() == unitId}
+	 * </pre>
+	 *
+	 * @param target	target temperature of the thermostat.
+	 * @param current	current room temperature.
+	 * @param timestamp	time stamp in nanoseconds since the epoch.
+	 * @param unitId	identifier of the measurement unit of the temperatures.
+	 */
+	public				CompactHeaterTemperaturesSensorData(
+		double target,
+		double current,
+		long timestamp,
+		byte unitId
+		)
+	{
+		assert	unitId >= 0 && unitId < MeasurementUnitRegistry.MAX_UNITS :
+				new PreconditionException(
+						"unitId >= 0 && unitId < MeasurementUnitRegistry."
+						+ "MAX_UNITS");
+
+		this.target = target;
+		this.current = current;
+		this.timestamp = timestamp;
+		this.unitId = unitId;
+	}
+
+	/**
+	 * create a compact temperatures sensor data in the heater temperature
+	 * unit.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code getUnitId() == MeasurementUnitRegistry.TEMPERATURE_UNIT_ID}
+	 * </pre>
+	 *
+	 * @param target	target temperature of the thermostat.
+	 * @param current	current room temperature.
+	 * @param timestamp	time stamp in nanoseconds since the epoch.
+	 */
+	public				CompactHeaterTemperaturesSensorData(
+		double target,
+		double current,
+		long timestamp
+		)
+	{
+		this(target, current, timestamp,
+			 MeasurementUnitRegistry.TEMPERATURE_UNIT_ID);
+	}
+
+	/**
+	 * create a compact temperatures sensor data in the heater temperature
+	 * unit, time stamped with the given instant.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instant != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param target	target temperature of the thermostat.
+	 * @param current	current room temperature.
+	 * @param instant	instant at which the temperatures have been read.
+	 * @return			the compact temperatures sensor data.
+	 */
+	public static CompactHeaterTemperaturesSensorData	at(
+		double target,
+		double current,
+		Instant instant
+		)
+	{
+		assert	instant != null : new PreconditionException("instant != null");
+
+		return new CompactHeaterTemperaturesSensorData(
+						target,
+						current,
+						TimeUnit.SECONDS.toNanos(instant.getEpochSecond())
+													+ instant.getNano());
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the target temperature of the thermostat.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the target temperature of the thermostat.
+	 */
+	public double		getTarget()
+	{
+		return this.target;
+	}
+
+	/**
+	 * return the current room temperature.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current room temperature.
+	 */
+	public double		getCurrent()
+	{
+		return this.current;
+	}
+
+	/**
+	 * return the time stamp in nanoseconds since the epoch.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time stamp in nanoseconds since the epoch.
+	 */
+	public long			getTimestamp()
+	{
+		return this.timestamp;
+	}
+
+	/**
+	 * return the identifier of the measurement unit of the temperatures.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the identifier of the measurement unit of the temperatures.
+	 */
+	public byte			getUnitId()
+	{
+		return this.unitId;
+	}
+
+	/**
+	 * return the measurement unit of the temperatures.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the measurement unit of the temperatures.
+	 */
+	public MeasurementUnit	getMeasurementUnit()
+	{
+		return MeasurementUnitRegistry.unitOf(this.unitId);
+	}
+
+	/**
+	 * write this sensor data in {@code dst} from {@code offset} using the
+	 * fixed size layout.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code dst != null}
+	 * pre	{@code offset >= 0 && offset + SERIALIZED_SIZE <= dst.length}
+	 * post	{@code fromBytes(dst, offset).equals(this)}
+	 * </pre>
+	 *
+	 * @param dst		byte array in which the sensor data is written.
+	 * @param offset	index in {@code dst} of the first byte to be written.
+	 */
+	public void			writeTo(byte[] dst, int offset)
+	{
+		assert	dst != null : new PreconditionException("dst != null");
+		assert	offset >= 0 && offset + SERIALIZED_SIZE <= dst.length :
+				new PreconditionException(
+						"offset >= 0 && offset + SERIALIZED_SIZE <= "
+						+ "dst.length");
+
+		putLong(dst, offset, Double.doubleToRawLongBits(this.target));
+		putLong(dst, offset + Long.BYTES,
+				Double.doubleToRawLongBits(this.current));
+		putLong(dst, offset + 2 * Long.BYTES, this.timestamp);
+		dst[offset + 3 * Long.BYTES] = this.unitId;
+	}
+
+	/**
+	 * return a new byte array containing this sensor data in the fixed size
+	 * layout.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return.length == SERIALIZED_SIZE}
+	 * </pre>
+	 *
+	 * @return	a new byte array containing this sensor data.
+	 */
+	public byte[]		toBytes()
+	{
+		byte[] ret = new byte[SERIALIZED_SIZE];
+		this.writeTo(ret, 0);
+		return ret;
+	}
+
+	/**
+	 * read a sensor data written in the fixed size layout in {@code src}
+	 * from {@code offset}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code src != null}
+	 * pre	{@code offset >= 0 && offset + SERIALIZED_SIZE <= src.length}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param src		byte array from which the sensor data is read.
+	 * @param offset	index in {@code src} of the first byte to be read.
+	 * @return			the sensor data read from {@code src}.
+	 */
+	public static CompactHeaterTemperaturesSensorData	fromBytes(
+		byte[] src,
+		int offset
+		)
+	{
+		assert	src != null : new PreconditionException("src != null");
+		assert	offset >= 0 && offset + SERIALIZED_SIZE <= src.length :
+				new PreconditionException(
+						"offset >= 0 && offset + SERIALIZED_SIZE <= "
+						+ "src.length");
+
+		return new CompactHeaterTemperaturesSensorData(
+					Double.longBitsToDouble(getLong(src, offset)),
+					Double.longBitsToDouble(getLong(src, offset + Long.BYTES)),
+					getLong(src, offset + 2 * Long.BYTES),
+					src[offset + 3 * Long.BYTES]);
+	}
+
+	/**
+	 * write {@code v} in big-endian order in {@code dst} from {@code offset}.
+	 *
+	 * @param dst		byte array in which the value is written.
+	 * @param offset	index in {@code dst} of the first byte to be written.
+	 * @param v			value to be written.
+	 */
+	private static void	putLong(byte[] dst, int offset, long v)
+	{
+		for (int i = Long.BYTES - 1 ; i >= 0 ; i--) {
+			dst[offset + i] = (byte) v;
+			v >>>= 8;
+		}
+	}
+
+	/**
+	 * read a big-endian value in {@code src} from {@code offset}.
+	 *
+	 * @param src		byte array from which the value is read.
+	 * @param offset	index in {@code src} of the first byte to be read.
+	 * @return			the value read.
+	 */
+	private static long	getLong(byte[] src, int offset)
+	{
+		long v = 0L;
+		for (int i = 0 ; i < Long.BYTES ; i++) {
+			v = (v << 8) | (src[offset + i] & 0xFFL);
+		}
+		return v;
+	}
+
+	/**
+	 * replace this object by its fixed size layout when serialising.
+	 *
+	 * @return							the serialised form of this object.
+	 * @throws ObjectStreamException	<i>to do</i>.
+	 */
+	private Object		writeReplace() throws ObjectStreamException
+	{
+		return new SerializedForm(this.toBytes());
+	}
+
+	/**
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean		equals(Object o)
+	{
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CompactHeaterTemperaturesSensorData)) {
+			return false;
+		}
+		CompactHeaterTemperaturesSensorData other =
+									(CompactHeaterTemperaturesSensorData) o;
+		return Double.compare(this.target, other.target) == 0
+				&& Double.compare(this.current, other.current) == 0
+				&& this.timestamp == other.timestamp
+				&& this.unitId == other.unitId;
+	}
+
+	/**
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int			hashCode()
+	{
+		int h = Double.hashCode(this.target);
+		h = 31 * h + Double.hashCode(this.current);
+		h = 31 * h + Long.hashCode(this.timestamp);
+		return 31 * h + this.unitId;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		return this.getClass().getSimpleName() + "[target = " + this.target
+				+ ", current = " + this.current + ", unit = "
+				+ this.getMeasurementUnit() + ", timestamp = "
+				+ Instant.ofEpochSecond(
+						TimeUnit.NANOSECONDS.toSeconds(this.timestamp),
+						this.timestamp % TimeUnit.SECONDS.toNanos(1))
+				+ "]";
+	}
+
+	// -------------------------------------------------------------------------
+	// Inner classes
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>SerializedForm</code> holds the fixed size layout of a
+	 * compact temperatures sensor data during its serialisation.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	private static final class	SerializedForm
+	implements	Serializable
+	{
+		private static final long serialVersionUID = 1L;
+		/** fixed size layout of the sensor data.							*/
+		private final byte[]	bytes;
+
+		SerializedForm(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		/**
+		 * rebuild the sensor data from its fixed size layout.
+		 *
+		 * @return							the deserialised sensor data.
+		 * @throws ObjectStreamException	<i>to do</i>.
+		 */
+		private Object	readResolve() throws ObjectStreamException
+		{
+			return CompactHeaterTemperaturesSensorData.fromBytes(this.bytes, 0);
+		}
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,244 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>HeaterTemperaturesBatchSensorData</code> implements an
+ * immutable batch of temperatures readings, each tagged with the URI of the
+ * heater that produced it, delivered to a controller as one sensor data.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The readings are held in parallel arrays of primitive values, in the order
+ * in which they have been produced. The heater URI is the URI of the sensor
+ * inbound port of the heater, which is also the one used by the controllers
+ * to connect to it.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code heaterURIs.length == targets.length}
+ * invariant	{@code heaterURIs.length == currents.length}
+ * invariant	{@code heaterURIs.length == timestamps.length}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code size() > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		HeaterTemperaturesBatchSensorData
+implements	HeaterSensorDataI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+
+	/** URI of the heaters that produced the readings.						*/
+	protected final String[]	heaterURIs;
+	/** target temperatures of the readings.								*/
+	protected final double[]	targets;
+	/** current room temperatures of the readings.							*/
+	protected final double[]	currents;
+	/** time stamps of the readings in nanoseconds since the epoch.		*/
+	protected final long[]		timestamps;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a batch from the given arrays, which are not copied and must
+	 * therefore not be modified afterwards.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code heaterURIs != null && heaterURIs.length > 0}
+	 * pre	{@code targets != null && targets.length == heaterURIs.length}
+	 * pre	{@code currents != null && currents.length == heaterURIs.length}
+	 * pre	{@code timestamps != null && timestamps.length == heaterURIs.length}
+	 * post	{@code size() == heaterURIs.length}
+	 * </pre>
+	 *
+	 * @param heaterURIs	URI of the heaters that produced the readings.
+	 * @param targets		target temperatures of the readings.
+	 * @param currents		current room temperatures of the readings.
+	 * @param timestamps	time stamps of the readings in nanoseconds since the epoch.
+	 */
+	public				HeaterTemperaturesBatchSensorData(
+		String[] heaterURIs,
+		double[] targets,
+		double[] currents,
+		long[] timestamps
+		)
+	{
+		assert	heaterURIs != null && heaterURIs.length > 0 :
+				new PreconditionException(
+						"heaterURIs != null && heaterURIs.length > 0");
+		assert	targets != null && targets.length == heaterURIs.length :
+				new PreconditionException(
+						"targets != null && targets.length == "
+						+ "heaterURIs.length");
+		assert	currents != null && currents.length == heaterURIs.length :
+				new PreconditionException(
+						"currents != null && currents.length == "
+						+ "heaterURIs.length");
+		assert	timestamps != null && timestamps.length == heaterURIs.length :
+				new PreconditionException(
+						"timestamps != null && timestamps.length == "
+						+ "heaterURIs.length");
+
+		this.heaterURIs = heaterURIs;
+		this.targets = targets;
+		this.currents = currents;
+		this.timestamps = timestamps;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of readings in the batch.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the number of readings in the batch.
+	 */
+	public int			size()
+	{
+		return this.heaterURIs.length;
+	}
+
+	/**
+	 * return the URI of the heater that produced the {@code i}th reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the URI of the heater that produced the {@code i}th reading.
+	 */
+	public String		getHeaterURI(int i)
+	{
+		return this.heaterURIs[i];
+	}
+
+	/**
+	 * return the target temperature of the {@code i}th reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the target temperature of the {@code i}th reading.
+	 */
+	public double		getTarget(int i)
+	{
+		return this.targets[i];
+	}
+
+	/**
+	 * return the current room temperature of the {@code i}th reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the current room temperature of the {@code i}th reading.
+	 */
+	public double		getCurrent(int i)
+	{
+		return this.currents[i];
+	}
+
+	/**
+	 * return the time stamp in nanoseconds since the epoch of the {@code i}th
+	 * reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the time stamp of the {@code i}th reading.
+	 */
+	public long			getTimestamp(int i)
+	{
+		return this.timestamps[i];
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		return this.getClass().getSimpleName() + "[size = " + this.size()
+				+ "]";
+	}
+}
+// -----------------------------------------------------------------------------
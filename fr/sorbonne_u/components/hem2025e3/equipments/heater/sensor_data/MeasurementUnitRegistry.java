@@ -0,0 +1,169 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sensor_data;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.alasca.physical_data.MeasurementUnit;
+import fr.sorbonne_u.components.hem2025e1.equipments.heater.HeaterTemperatureI;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>MeasurementUnitRegistry</code> implements a small registry
+ * associating measurement units to one byte identifiers, so that compact
+ * sensor data can carry their unit as a primitive value.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Identifiers are attributed in the order of registration; the units used by
+ * the heater are registered when the class is loaded so that they get the
+ * same identifiers in all the JVM exchanging compact sensor data. Other units
+ * must be registered in the same order in all of these JVM.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code count >= 0 && count <= MAX_UNITS}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MAX_UNITS > 0 && MAX_UNITS <= 128}
+ * invariant	{@code idOf(TEMPERATURE_UNIT) == TEMPERATURE_UNIT_ID}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		MeasurementUnitRegistry
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** maximum number of units that can be registered.					*/
+	public static final int					MAX_UNITS = 16;
+	/** registered units indexed by their identifier.						*/
+	private static final MeasurementUnit[]	UNITS =
+											new MeasurementUnit[MAX_UNITS];
+	/** number of registered units.											*/
+	private static int						count = 0;
+	/** identifier of the heater temperature unit.							*/
+	public static final byte				TEMPERATURE_UNIT_ID =
+								register(HeaterTemperatureI.TEMPERATURE_UNIT);
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	private				MeasurementUnitRegistry()
+	{
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * register {@code unit} if not already done and return its identifier.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code unit != null}
+	 * post	{@code unitOf(return).equals(unit)}
+	 * </pre>
+	 *
+	 * @param unit	measurement unit to be registered.
+	 * @return		the identifier of {@code unit}.
+	 */
+	public static synchronized byte	register(MeasurementUnit unit)
+	{
+		assert	unit != null : new PreconditionException("unit != null");
+
+		for (int i = 0 ; i < count ; i++) {
+			if (UNITS[i].equals(unit)) {
+				return (byte) i;
+			}
+		}
+		if (count >= MAX_UNITS) {
+			throw new IllegalStateException(
+						"too many registered measurement units: " + unit);
+		}
+		UNITS[count] = unit;
+		return (byte) count++;
+	}
+
+	/**
+	 * return the identifier of {@code unit}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code unit != null}
+	 * post	{@code return >= 0 && unitOf(return).equals(unit)}
+	 * </pre>
+	 *
+	 * @param unit	a registered measurement unit.
+	 * @return		the identifier of {@code unit}.
+	 */
+	public static byte	idOf(MeasurementUnit unit)
+	{
+		return register(unit);
+	}
+
+	/**
+	 * return the measurement unit with identifier {@code id}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code id >= 0 && id < MAX_UNITS}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param id	identifier of a registered measurement unit.
+	 * @return		the measurement unit with identifier {@code id}.
+	 */
+	public static synchronized MeasurementUnit	unitOf(int id)
+	{
+		assert	id >= 0 && id < count :
+				new PreconditionException("id >= 0 && id < count");
+
+		return UNITS[id];
+	}
+}
+// -----------------------------------------------------------------------------
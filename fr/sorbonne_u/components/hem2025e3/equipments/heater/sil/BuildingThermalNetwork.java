@@ -0,0 +1,453 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>BuildingThermalNetwork</code> represents the thermal
+ * coupling of the rooms of a building and implements the integration step
+ * of their temperatures.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Each room {@code i} follows the equation of the heater temperature model,
+ * extended with the heat exchanged through its walls with the other rooms:
+ * </p>
+ * <pre>
+ * T'[i] = insulation[i] * (Text - T[i]) + heating[i] * (Theat - T[i])
+ *         + sum over j of coupling[i][j] * (T[j] - T[i])
+ * </pre>
+ * <p>
+ * where the conductances are the inverses of the transfer constants of the
+ * heater temperature model, per time unit. As a room only shares walls with
+ * a few others, the coupling matrix is stored in compressed sparse row form:
+ * the coefficients of the row {@code i} and their column indexes are found
+ * in {@code coefficients} and {@code columns} from {@code rowStart[i]}
+ * included to {@code rowStart[i+1]} excluded. The diagonal is folded with the
+ * insulation into {@code losses}, so that the step reads:
+ * </p>
+ * <pre>
+ * T[i] += h * (flows[i] + insulation[i] * Text + heating[i] * (Theat - T[i])
+ *              - losses[i] * T[i])
+ * </pre>
+ * <p>
+ * where {@code flows} is the product of the off-diagonal coefficients by
+ * the temperatures. The temperatures and the heating conductances are kept
+ * by the caller in plain arrays indexed by room, so that the second loop of
+ * the step is a branch-free loop over primitive arrays that the JIT compiler
+ * can unroll and vectorise; only the sparse product goes through the indexes.
+ * </p>
+ * <p>
+ * The step is an explicit Euler step, which is stable and does not make the
+ * temperatures oscillate as long as {@code h} is at most
+ * {@code maxStableStep(maxHeating)}; callers split longer durations.
+ * Networks are immutable and can be shared among models.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code rooms > 0}
+ * invariant	{@code insulation.length == rooms && losses.length == rooms}
+ * invariant	{@code rowStart.length == rooms + 1 && rowStart[0] == 0}
+ * invariant	{@code columns.length == rowStart[rooms] && coefficients.length == rowStart[rooms]}
+ * invariant	{@code maxLoss > 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		BuildingThermalNetwork
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of rooms.													*/
+	protected final int			rooms;
+	/** conductance of the outer walls of each room per time unit.			*/
+	protected final double[]	insulation;
+	/** index in {@code columns} and {@code coefficients} of the first
+	 *  coefficient of each row, followed by the number of coefficients.		*/
+	protected final int[]		rowStart;
+	/** room index of each off-diagonal coefficient.						*/
+	protected final int[]		columns;
+	/** off-diagonal conductances between rooms per time unit.				*/
+	protected final double[]	coefficients;
+	/** sum of the insulation and of the coefficients of each row.			*/
+	protected final double[]	losses;
+	/** largest element of {@code losses}.									*/
+	protected final double		maxLoss;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a network from the insulation of the rooms and the coupling
+	 * matrix in compressed sparse row form; the arrays are copied.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code insulation != null && insulation.length > 0}
+	 * pre	{@code rowStart != null && rowStart.length == insulation.length + 1 && rowStart[0] == 0}
+	 * pre	{@code columns != null && coefficients != null}
+	 * pre	{@code columns.length == rowStart[insulation.length] && coefficients.length == columns.length}
+	 * pre	{@code for all i, insulation[i] > 0.0 && rowStart[i] <= rowStart[i+1]}
+	 * pre	{@code for all k, columns[k] >= 0 && columns[k] < insulation.length && coefficients[k] >= 0.0}
+	 * post	{@code getRooms() == insulation.length}
+	 * </pre>
+	 *
+	 * @param insulation	conductance of the outer walls of each room per time unit.
+	 * @param rowStart		index of the first coefficient of each row, followed by the number of coefficients.
+	 * @param columns		room index of each off-diagonal coefficient.
+	 * @param coefficients	off-diagonal conductances between rooms per time unit.
+	 */
+	public				BuildingThermalNetwork(
+		double[] insulation,
+		int[] rowStart,
+		int[] columns,
+		double[] coefficients
+		)
+	{
+		assert	insulation != null && insulation.length > 0 :
+				new PreconditionException(
+						"insulation != null && insulation.length > 0");
+		assert	rowStart != null &&
+					rowStart.length == insulation.length + 1 &&
+						rowStart[0] == 0 :
+				new PreconditionException(
+						"rowStart != null && rowStart.length == "
+						+ "insulation.length + 1 && rowStart[0] == 0");
+		assert	columns != null && coefficients != null :
+				new PreconditionException(
+						"columns != null && coefficients != null");
+		assert	columns.length == rowStart[insulation.length] &&
+					coefficients.length == columns.length :
+				new PreconditionException(
+						"columns.length == rowStart[insulation.length] && "
+						+ "coefficients.length == columns.length");
+
+		this.rooms = insulation.length;
+		this.insulation = insulation.clone();
+		this.rowStart = rowStart.clone();
+		this.columns = columns.clone();
+		this.coefficients = coefficients.clone();
+		this.losses = new double[this.rooms];
+		double max = 0.0;
+		for (int i = 0 ; i < this.rooms ; i++) {
+			assert	insulation[i] > 0.0 && rowStart[i] <= rowStart[i + 1] :
+					new PreconditionException(
+							"insulation[i] > 0.0 && rowStart[i] <= "
+							+ "rowStart[i+1] for i = " + i);
+			double l = insulation[i];
+			for (int k = rowStart[i] ; k < rowStart[i + 1] ; k++) {
+				assert	columns[k] >= 0 && columns[k] < this.rooms &&
+												coefficients[k] >= 0.0 :
+						new PreconditionException(
+								"columns[k] >= 0 && columns[k] < "
+								+ "insulation.length && coefficients[k] >= 0.0"
+								+ " for k = " + k);
+				l += coefficients[k];
+			}
+			this.losses[i] = l;
+			max = Math.max(max, l);
+		}
+		this.maxLoss = max;
+	}
+
+	/**
+	 * create a network which rooms exchange heat through the walls
+	 * {@code (roomA[w], roomB[w])} of conductance {@code conductance[w]},
+	 * each wall appearing in both rows of the coupling matrix.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code insulation != null && insulation.length > 0}
+	 * pre	{@code roomA != null && roomB != null && conductance != null}
+	 * pre	{@code roomA.length == roomB.length && roomA.length == conductance.length}
+	 * pre	{@code for all w, roomA[w] != roomB[w]}
+	 * post	{@code return != null && return.getRooms() == insulation.length}
+	 * post	{@code return.getNonZeros() == 2 * roomA.length}
+	 * </pre>
+	 *
+	 * @param insulation	conductance of the outer walls of each room per time unit.
+	 * @param roomA			first room of each wall.
+	 * @param roomB			second room of each wall.
+	 * @param conductance	conductance of each wall per time unit.
+	 * @return				the network of the rooms.
+	 */
+	public static BuildingThermalNetwork	withWalls(
+		double[] insulation,
+		int[] roomA,
+		int[] roomB,
+		double[] conductance
+		)
+	{
+		assert	insulation != null && insulation.length > 0 :
+				new PreconditionException(
+						"insulation != null && insulation.length > 0");
+		assert	roomA != null && roomB != null && conductance != null :
+				new PreconditionException(
+						"roomA != null && roomB != null && conductance != null");
+		assert	roomA.length == roomB.length &&
+									roomA.length == conductance.length :
+				new PreconditionException(
+						"roomA.length == roomB.length && "
+						+ "roomA.length == conductance.length");
+
+		int n = insulation.length;
+		// count the coefficients of each row, then fill the rows in place
+		int[] rowStart = new int[n + 1];
+		for (int w = 0 ; w < roomA.length ; w++) {
+			assert	roomA[w] != roomB[w] :
+					new PreconditionException(
+							"roomA[w] != roomB[w] for w = " + w);
+			rowStart[roomA[w] + 1]++;
+			rowStart[roomB[w] + 1]++;
+		}
+		for (int i = 0 ; i < n ; i++) {
+			rowStart[i + 1] += rowStart[i];
+		}
+		int[] next = new int[n];
+		System.arraycopy(rowStart, 0, next, 0, n);
+		int[] columns = new int[rowStart[n]];
+		double[] coefficients = new double[rowStart[n]];
+		for (int w = 0 ; w < roomA.length ; w++) {
+			int k = next[roomA[w]]++;
+			columns[k] = roomB[w];
+			coefficients[k] = conductance[w];
+			k = next[roomB[w]]++;
+			columns[k] = roomA[w];
+			coefficients[k] = conductance[w];
+		}
+		return new BuildingThermalNetwork(insulation, rowStart, columns,
+										  coefficients);
+	}
+
+	/**
+	 * create a network of {@code width * depth} rooms laid out on a grid,
+	 * the room at column {@code x} and row {@code y} having the index
+	 * {@code y * width + x} and sharing a wall with its horizontal and
+	 * vertical neighbours.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code width > 0 && depth > 0}
+	 * pre	{@code insulation > 0.0 && wall >= 0.0}
+	 * post	{@code return != null && return.getRooms() == width * depth}
+	 * </pre>
+	 *
+	 * @param width			number of rooms in a row of the grid.
+	 * @param depth			number of rows of the grid.
+	 * @param insulation	conductance of the outer walls of every room per time unit.
+	 * @param wall			conductance of the walls between rooms per time unit.
+	 * @return				the network of the rooms of the grid.
+	 */
+	public static BuildingThermalNetwork	grid(
+		int width,
+		int depth,
+		double insulation,
+		double wall
+		)
+	{
+		assert	width > 0 && depth > 0 :
+				new PreconditionException("width > 0 && depth > 0");
+		assert	insulation > 0.0 && wall >= 0.0 :
+				new PreconditionException("insulation > 0.0 && wall >= 0.0");
+
+		int n = width * depth;
+		double[] ins = new double[n];
+		Arrays.fill(ins, insulation);
+		int walls = (width - 1) * depth + width * (depth - 1);
+		int[] a = new int[walls];
+		int[] b = new int[walls];
+		double[] c = new double[walls];
+		int w = 0;
+		for (int y = 0 ; y < depth ; y++) {
+			for (int x = 0 ; x < width ; x++) {
+				int i = y * width + x;
+				if (x + 1 < width) {
+					a[w] = i;
+					b[w] = i + 1;
+					c[w++] = wall;
+				}
+				if (y + 1 < depth) {
+					a[w] = i;
+					b[w] = i + width;
+					c[w++] = wall;
+				}
+			}
+		}
+		return withWalls(ins, a, b, c);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of rooms.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the number of rooms.
+	 */
+	public int			getRooms()
+	{
+		return this.rooms;
+	}
+
+	/**
+	 * return the number of off-diagonal coefficients of the coupling matrix.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of off-diagonal coefficients.
+	 */
+	public int			getNonZeros()
+	{
+		return this.rowStart[this.rooms];
+	}
+
+	/**
+	 * return the largest step for which the Euler step is stable and
+	 * monotone when no heating conductance exceeds {@code maxHeating}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code maxHeating >= 0.0}
+	 * post	{@code return > 0.0}
+	 * </pre>
+	 *
+	 * @param maxHeating	largest heating conductance per time unit.
+	 * @return				the largest stable step in time units.
+	 */
+	public double		maxStableStep(double maxHeating)
+	{
+		assert	maxHeating >= 0.0 :
+				new PreconditionException("maxHeating >= 0.0");
+
+		return 1.0/(this.maxLoss + maxHeating);
+	}
+
+	/**
+	 * advance the temperatures {@code t} of the rooms by an Euler step of
+	 * {@code h} time units under the heating conductances {@code heating},
+	 * the heating temperature {@code hot} and the external temperature
+	 * {@code ext}; the step does not allocate.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null && t.length == getRooms()}
+	 * pre	{@code heating != null && heating.length == getRooms()}
+	 * pre	{@code flows != null && flows.length == getRooms()}
+	 * pre	{@code h >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t			temperatures of the rooms in Celsius, updated in place.
+	 * @param heating	heating conductance of each room per time unit.
+	 * @param hot		temperature of the heating plates in Celsius.
+	 * @param ext		external temperature in Celsius.
+	 * @param h			duration of the step in time units.
+	 * @param flows		scratch array receiving the heat flowing from the neighbours.
+	 */
+	public void			step(
+		double[] t,
+		double[] heating,
+		double hot,
+		double ext,
+		double h,
+		double[] flows
+		)
+	{
+		assert	t != null && t.length == this.rooms :
+				new PreconditionException(
+						"t != null && t.length == getRooms()");
+		assert	heating != null && heating.length == this.rooms :
+				new PreconditionException(
+						"heating != null && heating.length == getRooms()");
+		assert	flows != null && flows.length == this.rooms :
+				new PreconditionException(
+						"flows != null && flows.length == getRooms()");
+		assert	h >= 0.0 : new PreconditionException("h >= 0.0");
+
+		final int n = this.rooms;
+		final int[] rs = this.rowStart;
+		final int[] cs = this.columns;
+		final double[] cf = this.coefficients;
+		// sparse product, from the temperatures before the step
+		for (int i = 0 ; i < n ; i++) {
+			double s = 0.0;
+			for (int k = rs[i], end = rs[i + 1] ; k < end ; k++) {
+				s += cf[k] * t[cs[k]];
+			}
+			flows[i] = s;
+		}
+		// dense update, branch-free over primitive arrays of the same length
+		final double[] ins = this.insulation;
+		final double[] loss = this.losses;
+		for (int i = 0 ; i < n ; i++) {
+			t[i] += h * (flows[i] + ins[i] * ext + heating[i] * (hot - t[i])
+						 - loss[i] * t[i]);
+		}
+	}
+}
+// -----------------------------------------------------------------------------
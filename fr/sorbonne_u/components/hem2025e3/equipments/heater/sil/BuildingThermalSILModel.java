@@ -0,0 +1,981 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
+import fr.sorbonne_u.components.hem2025e1.equipments.heater.Heater.HeaterState;
+import fr.sorbonne_u.components.hem2025e1.equipments.heater.HeaterExternalControlI;
+import fr.sorbonne_u.components.hem2025e2.GlobalReportI;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.HeaterSimulationConfigurationI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_RoomHeaterEvent;
+import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
+import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
+import fr.sorbonne_u.devs_simulation.hioa.annotations.ImportedVariable;
+import fr.sorbonne_u.devs_simulation.hioa.annotations.InternalVariable;
+import fr.sorbonne_u.devs_simulation.hioa.annotations.ModelImportedVariable;
+import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA;
+import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
+import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
+import fr.sorbonne_u.devs_simulation.models.events.Event;
+import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
+import fr.sorbonne_u.devs_simulation.models.time.Duration;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.AtomicSimulatorI;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulationReportI;
+import fr.sorbonne_u.devs_simulation.utils.Pair;
+import fr.sorbonne_u.devs_simulation.utils.StandardLogger;
+import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>BuildingThermalSILModel</code> defines a simulation model
+ * of the temperatures of all of the rooms of a building, each one heated by
+ * its own heater.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Where a {@code HeaterTemperatureSILModel} simulates one room, this model
+ * advances the temperatures of all of the rooms of a building at once, with
+ * the same equation extended with the heat exchanged through the walls
+ * between rooms, as defined by a {@code BuildingThermalNetwork}. The state is
+ * kept as a structure of arrays indexed by room: the temperatures, the
+ * heating powers and the heating conductances they give, so that a
+ * transition of the model is one call to the integration step of the network
+ * over these arrays, whatever the number of rooms, instead of one transition
+ * of a temperature model per room.
+ * </p>
+ * <p>
+ * The model also holds the state and the power level of the heater of each
+ * room, initially on and not heating at the maximal power level as in the
+ * single-room model. The heater events reach it wrapped in
+ * {@code SIL_RoomHeaterEvent} events that select their room before being
+ * executed, the model then acting as the heater of the selected room through
+ * {@code SIL_HeaterOperationI}; the power delivered in a room is the power
+ * level of its heater when it heats and zero otherwise.
+ * </p>
+ * <p>
+ * The model makes a transition upon each heater event and otherwise only
+ * every {@code SAMPLING_PERIOD}, to sample the external temperature and
+ * update the mean temperature of the rooms, the period running from the
+ * last sampling whatever the heater events in between. The temperatures are
+ * integrated over the time elapsed since the last transition with steps of
+ * at most {@code STEP}, split in equal substeps when longer than the largest
+ * stable step of the network, under the external temperature sampled at the
+ * beginning of this time.
+ * </p>
+ * <p>
+ * The network is a grid of {@code GRID_WIDTH * GRID_DEPTH} rooms by default
+ * and can be given per model by the run parameter {@code NETWORK_RPNAME}.
+ * The mean temperature of the rooms is exposed in the internal variable
+ * {@code meanRoomTemperature}.
+ * </p>
+ * 
+ * <ul>
+ * <li>Imported events: {@code SIL_RoomHeaterEvent}</li>
+ * <li>Exported events: none</li>
+ * <li>Imported variables:
+ *   <ul>
+ *   <li>name = {@code externalTemperature}, type = {@code Double}</li>
+ *   </ul>
+ * </li>
+ * <li>Exported variables: none</li>
+ * </ul>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code network != null}
+ * invariant	{@code temperatures == null || temperatures.length == network.getRooms()}
+ * invariant	{@code integrationStep.getSimulatedDuration() > 0.0}
+ * invariant	{@code substeps > 0}
+ * invariant	{@code selectedRoom >= 0 && selectedRoom < network.getRooms()}
+ * invariant	{@code sinceSampling >= 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code URI != null && !URI.isEmpty()}
+ * invariant	{@code STEP > 0.0}
+ * invariant	{@code SAMPLING_PERIOD >= STEP}
+ * invariant	{@code GRID_WIDTH > 0 && GRID_DEPTH > 0}
+ * invariant	{@code WALL_TRANSFER_CONSTANT > 0.0}
+ * invariant	{@code NETWORK_RPNAME != null && !NETWORK_RPNAME.isEmpty()}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+// -----------------------------------------------------------------------------
+@ModelExternalEvents(imported = {SIL_RoomHeaterEvent.class})
+@ModelImportedVariable(name = "externalTemperature", type = Double.class)
+// -----------------------------------------------------------------------------
+public class			BuildingThermalSILModel
+extends		AtomicHIOA
+implements	SIL_BuildingHeatingI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long		serialVersionUID = 1L;
+
+	// The following variables should be considered constant but can be changed
+	// before the first model instance is created to adapt the simulation
+	// scenario.
+
+	/** URI for a model; works when only one instance is created.			*/
+	public static String		URI = BuildingThermalSILModel.class.
+															getSimpleName();
+	/** when true, leaves a trace of the execution of the model.			*/
+	public static boolean		VERBOSE = true;
+	/** when true, leaves a debugging trace of the execution of the model.	*/
+	public static boolean		DEBUG = false;
+
+	/** temperature of the rooms when the simulation begins.				*/
+	public static double		INITIAL_TEMPERATURE =
+									HeaterTemperatureSILModel.INITIAL_TEMPERATURE;
+	/** number of rooms in a row of the default grid of rooms.				*/
+	public static int			GRID_WIDTH = 10;
+	/** number of rows of the default grid of rooms.						*/
+	public static int			GRID_DEPTH = 20;
+	/** heat transfer constant of the walls between rooms in the default
+	 *  grid, as the insulation transfer constant of the outer walls.		*/
+	public static double		WALL_TRANSFER_CONSTANT = 25.0;
+	/** integration step for the differential equations (assumed in hours).	*/
+	protected static double		STEP = 60.0/3600.0;	// 60 seconds
+	/** period of the sampling of the external temperature between heater
+	 *  events (assumed in hours).											*/
+	public static double		SAMPLING_PERIOD = 15.0/60.0;	// 15 minutes
+
+	/** network of the rooms of the building.								*/
+	protected BuildingThermalNetwork	network;
+	/** integration step as a duration, including the time unit.			*/
+	protected final Duration	integrationStep;
+	/** temperature of each room in Celsius.								*/
+	protected double[]			temperatures;
+	/** state of the heater of each room.									*/
+	protected HeaterState[]		states;
+	/** power level of the heater of each room in watts.					*/
+	protected double[]			levels;
+	/** heating power delivered in each room in watts.						*/
+	protected double[]			powers;
+	/** heating conductance of each room per time unit.						*/
+	protected double[]			heating;
+	/** scratch array of the integration step.								*/
+	protected double[]			flows;
+	/** number of substeps per integration step.							*/
+	protected int				substeps;
+	/** room which heater the heater events apply to.					*/
+	protected int				selectedRoom;
+	/** time elapsed since the last sampling of the external temperature.	*/
+	protected double			sinceSampling;
+	/** number of internal transitions, for the simulation report.			*/
+	protected long				internalTransitions;
+	/** number of external transitions, for the simulation report.			*/
+	protected long				externalTransitions;
+	/** accumulator to compute the mean temperature of the rooms for the
+	 *  simulation report.													*/
+	protected double			temperatureAcc;
+	/** the simulation time of start used to compute the mean temperature.	*/
+	protected Time				start;
+	/** the mean temperature over the simulation duration for the simulation
+	 *  report.																*/
+	protected double			meanTemperature;
+
+	// -------------------------------------------------------------------------
+	// HIOA model variables
+	// -------------------------------------------------------------------------
+
+	/** current external temperature in Celsius.							*/
+	@ImportedVariable(type = Double.class)
+	protected Value<Double>			externalTemperature;
+	/** current mean temperature of the rooms in Celsius.					*/
+	@InternalVariable(type = Double.class)
+	protected final Value<Double>	meanRoomTemperature = new Value<Double>(this);
+
+	// -------------------------------------------------------------------------
+	// Invariants
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the implementation invariants are observed, false
+	 * otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the implementation invariants are observed, false otherwise.
+	 */
+	protected static boolean	implementationInvariants(
+		BuildingThermalSILModel instance
+		)
+	{
+		assert	instance != null :
+				new NeoSim4JavaException(
+						"Precondition violation: instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.network != null,
+				BuildingThermalSILModel.class,
+				instance,
+				"network != null");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.temperatures == null ||
+					instance.temperatures.length == instance.network.getRooms(),
+				BuildingThermalSILModel.class,
+				instance,
+				"temperatures == null || "
+				+ "temperatures.length == network.getRooms()");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.integrationStep.getSimulatedDuration() > 0.0,
+				BuildingThermalSILModel.class,
+				instance,
+				"integrationStep.getSimulatedDuration() > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.substeps > 0,
+				BuildingThermalSILModel.class,
+				instance,
+				"substeps > 0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.selectedRoom >= 0 &&
+					instance.selectedRoom < instance.network.getRooms(),
+				BuildingThermalSILModel.class,
+				instance,
+				"selectedRoom >= 0 && selectedRoom < network.getRooms()");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.sinceSampling >= 0.0,
+				BuildingThermalSILModel.class,
+				instance,
+				"sinceSampling >= 0.0");
+		return ret;
+	}
+
+	/**
+	 * return true if the static invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the static invariants are observed, false otherwise.
+	 */
+	public static boolean	staticInvariants()
+	{
+		boolean ret = true;
+		ret &= HeaterSimulationConfigurationI.staticInvariants();
+		ret &= AssertionChecking.checkStaticInvariant(
+				URI != null && !URI.isEmpty(),
+				BuildingThermalSILModel.class,
+				"URI != null && !URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				STEP > 0.0,
+				BuildingThermalSILModel.class,
+				"STEP > 0.0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				SAMPLING_PERIOD >= STEP,
+				BuildingThermalSILModel.class,
+				"SAMPLING_PERIOD >= STEP");
+		ret &= AssertionChecking.checkStaticInvariant(
+				GRID_WIDTH > 0 && GRID_DEPTH > 0,
+				BuildingThermalSILModel.class,
+				"GRID_WIDTH > 0 && GRID_DEPTH > 0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				WALL_TRANSFER_CONSTANT > 0.0,
+				BuildingThermalSILModel.class,
+				"WALL_TRANSFER_CONSTANT > 0.0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				NETWORK_RPNAME != null && !NETWORK_RPNAME.isEmpty(),
+				BuildingThermalSILModel.class,
+				"NETWORK_RPNAME != null && !NETWORK_RPNAME.isEmpty()");
+		return ret;
+	}
+
+	/**
+	 * return true if the invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the invariants are observed, false otherwise.
+	 */
+	protected static boolean	invariants(BuildingThermalSILModel instance)
+	{
+		assert	instance != null :
+				new NeoSim4JavaException(
+						"Precondition violation: instance != null");
+
+		boolean ret = true;
+		ret &= staticInvariants();
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a <code>BuildingThermalSILModel</code> instance.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code uri == null || !uri.isEmpty()}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code simulationEngine != null && !simulationEngine.isModelSet()}
+	 * pre	{@code simulationEngine instanceof AtomicEngine}
+	 * post	{@code !isDebugModeOn()}
+	 * post	{@code getURI() != null && !getURI().isEmpty()}
+	 * post	{@code uri == null || getURI().equals(uri)}
+	 * post	{@code getSimulatedTimeUnit().equals(simulatedTimeUnit)}
+	 * post	{@code getSimulationEngine().equals(simulationEngine)}
+	 * post	{@code getRooms() == GRID_WIDTH * GRID_DEPTH}
+	 * </pre>
+	 *
+	 * @param uri				URI of the model.
+	 * @param simulatedTimeUnit	time unit used for the simulation time.
+	 * @param simulationEngine	simulation engine to which the model is attached.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	public				BuildingThermalSILModel(
+		String uri,
+		TimeUnit simulatedTimeUnit,
+		AtomicSimulatorI simulationEngine
+		) throws Exception
+	{
+		super(uri, simulatedTimeUnit, simulationEngine);
+
+		this.integrationStep = new Duration(STEP, simulatedTimeUnit);
+		this.setNetwork(BuildingThermalNetwork.grid(
+							GRID_WIDTH,
+							GRID_DEPTH,
+							1.0/HeaterTemperatureSILModel.
+											INSULATION_TRANSFER_CONSTANT,
+							1.0/WALL_TRANSFER_CONSTANT));
+		this.getSimulationEngine().setLogger(new StandardLogger());
+
+		assert	BuildingThermalSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.implementationInvariants(this)");
+		assert	BuildingThermalSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.invariants(this)");
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * set the network of the rooms and the number of substeps that keeps its
+	 * integration stable at full heating power.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code network != null}
+	 * post	{@code getRooms() == network.getRooms()}
+	 * </pre>
+	 *
+	 * @param network	network of the rooms of the building.
+	 */
+	protected void		setNetwork(BuildingThermalNetwork network)
+	{
+		assert	network != null :
+				new NeoSim4JavaException(
+						"Precondition violation: network != null");
+
+		this.network = network;
+		double maxHeating = this.heatingConductance(
+							HeaterExternalControlI.MAX_POWER_LEVEL.getData());
+		this.substeps = (int) Math.ceil(
+				STEP/this.network.maxStableStep(maxHeating));
+		if (this.substeps < 1) {
+			this.substeps = 1;
+		}
+	}
+
+	/**
+	 * return the heating conductance per time unit of a heater delivering
+	 * {@code power}, the inverse of the heat transfer constant of the
+	 * {@code HeaterTemperatureSILModel}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power >= 0.0}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param power	heating power in watts.
+	 * @return		the heating conductance per time unit.
+	 */
+	protected double	heatingConductance(double power)
+	{
+		if (power <= HeaterTemperatureSILModel.POWER_HEAT_TRANSFER_TOLERANCE) {
+			return 0.0;
+		}
+		return power/(HeaterTemperatureSILModel.MIN_HEATING_TRANSFER_CONSTANT *
+							HeaterExternalControlI.MAX_POWER_LEVEL.getData());
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_BuildingHeatingI#getRooms()
+	 */
+	@Override
+	public int			getRooms()
+	{
+		return this.network.getRooms();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_BuildingHeatingI#selectRoom(int)
+	 */
+	@Override
+	public void			selectRoom(int room)
+	{
+		assert	room >= 0 && room < this.getRooms() :
+				new NeoSim4JavaException(
+						"Precondition violation: room >= 0 && "
+						+ "room < getRooms(), but room = " + room);
+
+		this.selectedRoom = room;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_BuildingHeatingI#getSelectedRoom()
+	 */
+	@Override
+	public int			getSelectedRoom()
+	{
+		return this.selectedRoom;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.HeaterOperationI#setState(fr.sorbonne_u.components.hem2025e1.equipments.heater.Heater.HeaterState)
+	 */
+	@Override
+	public void			setState(HeaterState s)
+	{
+		this.states[this.selectedRoom] = s;
+		this.updateDeliveredPower(this.selectedRoom);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.HeaterOperationI#getState()
+	 */
+	@Override
+	public HeaterState	getState()
+	{
+		return this.states[this.selectedRoom];
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_HeaterOperationI#setCurrentHeatingPower(double, fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void			setCurrentHeatingPower(double newPower, Time t)
+	{
+		assert	newPower >= 0.0 &&
+					newPower <= HeaterExternalControlI.MAX_POWER_LEVEL.getData() :
+				new NeoSim4JavaException(
+					"Precondition violation: newPower >= 0.0 && "
+					+ "newPower <= HeaterExternalControlI.MAX_POWER_LEVEL."
+					+ "getData(), but newPower = " + newPower);
+
+		this.levels[this.selectedRoom] = newPower;
+		this.updateDeliveredPower(this.selectedRoom);
+	}
+
+	/**
+	 * update the heating power delivered in the room {@code room} and its
+	 * heating conductance from the state and the power level of its heater.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code room >= 0 && room < getRooms()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param room	index of the room.
+	 */
+	protected void		updateDeliveredPower(int room)
+	{
+		this.powers[room] = this.states[room] == HeaterState.HEATING ?
+														this.levels[room] : 0.0;
+		this.heating[room] = this.heatingConductance(this.powers[room]);
+	}
+
+	/**
+	 * For software-in-the-loop tests with simulation, return the temperature
+	 * of the room {@code room} at the last transition.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code room >= 0 && room < getRooms()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param room	index of the room.
+	 * @return		the temperature of the room in Celsius.
+	 */
+	public double		getRoomTemperature(int room)
+	{
+		assert	room >= 0 && room < this.getRooms() :
+				new NeoSim4JavaException(
+						"Precondition violation: room >= 0 && "
+						+ "room < getRooms(), but room = " + room);
+
+		return this.temperatures[room];
+	}
+
+	/**
+	 * return the mean of the temperatures of the rooms.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code temperatures != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the mean of the temperatures of the rooms.
+	 */
+	protected double	computeMeanTemperature()
+	{
+		final double[] t = this.temperatures;
+		double s = 0.0;
+		for (int i = 0 ; i < t.length ; i++) {
+			s += t[i];
+		}
+		return s/t.length;
+	}
+
+	/**
+	 * advance the temperatures of all of the rooms over {@code d} time units
+	 * under the current heating powers and external temperature.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code d >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param d	duration in time units.
+	 */
+	protected void		advance(double d)
+	{
+		assert	d >= 0.0 :
+				new NeoSim4JavaException("Precondition violation: d >= 0.0");
+
+		if (d <= 0.0) {
+			return;
+		}
+		// the mean over the duration is approximated by the left value, as
+		// the Euler step itself
+		this.temperatureAcc += this.computeMeanTemperature() * d;
+		double ext = this.externalTemperature.evaluateAt(
+												this.getCurrentStateTime());
+		// steps longer than the integration step, after a heating change,
+		// are split as well
+		int n = this.substeps *
+				(int) Math.max(1.0, Math.ceil(
+						d/this.integrationStep.getSimulatedDuration()));
+		double h = d/n;
+		for (int k = 0 ; k < n ; k++) {
+			this.network.step(this.temperatures, this.heating,
+							  HeaterTemperatureSILModel.STANDARD_HEATING_TEMP,
+							  ext, h, this.flows);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// DEVS simulation protocol
+	// -------------------------------------------------------------------------
+
+	/** run parameter name for the network of the rooms.					*/
+	public static final String		NETWORK_RPNAME = "NETWORK";
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#setSimulationRunParameters(Map)
+	 */
+	@Override
+	public void			setSimulationRunParameters(
+		Map<String, Object> simParams
+		) throws MissingRunParameterException
+	{
+		super.setSimulationRunParameters(simParams);
+
+		String networkName =
+				ModelI.createRunParameterName(this.getURI(), NETWORK_RPNAME);
+		if (simParams.containsKey(networkName)) {
+			this.setNetwork((BuildingThermalNetwork) simParams.get(networkName));
+		}
+
+		if (simParams.containsKey(
+						AtomicSimulatorPlugin.OWNER_RUNTIME_PARAMETER_NAME)) {
+			this.getSimulationEngine().setLogger(
+						AtomicSimulatorPlugin.createComponentLogger(simParams));
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA#initialiseState(fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void			initialiseState(Time initialTime)
+	{
+		int n = this.network.getRooms();
+		this.temperatures = new double[n];
+		Arrays.fill(this.temperatures, INITIAL_TEMPERATURE);
+		// same initial heater state as the temperature model of a single
+		// room, on and not heating at the maximal power level
+		this.states = new HeaterState[n];
+		Arrays.fill(this.states, HeaterState.ON);
+		this.levels = new double[n];
+		Arrays.fill(this.levels,
+					HeaterExternalControlI.MAX_POWER_LEVEL.getData());
+		this.powers = new double[n];
+		this.heating = new double[n];
+		this.flows = new double[n];
+		this.selectedRoom = 0;
+		this.sinceSampling = 0.0;
+		this.temperatureAcc = 0.0;
+		this.start = initialTime;
+		this.internalTransitions = 0L;
+		this.externalTransitions = 0L;
+
+		if (VERBOSE) {
+			this.logMessage("simulation begins with " + n + " rooms and "
+							+ this.network.getNonZeros() + " wall couplings.");
+		}
+
+		super.initialiseState(initialTime);
+
+		assert	BuildingThermalSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.implementationInvariants(this)");
+		assert	BuildingThermalSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.invariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.interfaces.VariableInitialisationI#useFixpointInitialiseVariables()
+	 */
+	@Override
+	public boolean		useFixpointInitialiseVariables()
+	{
+		return true;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.interfaces.VariableInitialisationI#fixpointInitialiseVariables()
+	 */
+	@Override
+	public Pair<Integer, Integer>	fixpointInitialiseVariables()
+	{
+		int justInitialised = 0;
+		int notInitialisedYet = 0;
+
+		// the mean temperature only depends upon the initial temperatures
+		if (!this.meanRoomTemperature.isInitialised()) {
+			this.meanRoomTemperature.initialise(this.computeMeanTemperature());
+			justInitialised++;
+		}
+
+		return new Pair<>(justInitialised, notInitialisedYet);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI#output()
+	 */
+	@Override
+	public ArrayList<EventI>	output()
+	{
+		return null;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#timeAdvance()
+	 */
+	@Override
+	public Duration		timeAdvance()
+	{
+		// the heater events trigger their own transitions, so the model
+		// only wakes up to sample the external temperature
+		return new Duration(
+					Math.max(0.0, SAMPLING_PERIOD - this.sinceSampling),
+					this.getSimulatedTimeUnit());
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedInternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
+	 */
+	@Override
+	public void			userDefinedInternalTransition(Duration elapsedTime)
+	{
+		this.internalTransitions++;
+		this.advance(elapsedTime.getSimulatedDuration());
+		this.sinceSampling = 0.0;
+		this.meanRoomTemperature.setNewValue(this.computeMeanTemperature(),
+											 this.getCurrentStateTime());
+
+		if (VERBOSE) {
+			StringBuffer message = new StringBuffer();
+			message.append(this.getCurrentStateTime().getSimulatedTime());
+			message.append(" : mean room temperature ");
+			message.append(this.meanRoomTemperature.getValue());
+			this.logMessage(message.toString());
+		}
+
+		super.userDefinedInternalTransition(elapsedTime);
+
+		assert	BuildingThermalSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.implementationInvariants(this)");
+		assert	BuildingThermalSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.invariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedExternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
+	 */
+	@Override
+	public void			userDefinedExternalTransition(Duration elapsedTime)
+	{
+		// the events of several rooms may occur at the same time
+		ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
+		assert	currentEvents != null && !currentEvents.isEmpty();
+
+		this.externalTransitions++;
+		// First, update the temperatures until the current time under the
+		// previous heating powers
+		this.advance(elapsedTime.getSimulatedDuration());
+		this.sinceSampling += elapsedTime.getSimulatedDuration();
+		// Then, execute the heater events on the heaters of their rooms
+		for (EventI e : currentEvents) {
+			assert	e instanceof SIL_RoomHeaterEvent;
+			if (DEBUG) {
+				this.logMessage("executing the external event: "
+								+ ((Event)e).eventAsString() + ".");
+			}
+			((Event)e).executeOn(this);
+		}
+		if (elapsedTime.getSimulatedDuration() > 0.0) {
+			this.meanRoomTemperature.setNewValue(
+					this.computeMeanTemperature(),
+					new Time(this.getCurrentStateTime().getSimulatedTime()
+										+ elapsedTime.getSimulatedDuration(),
+							 this.getSimulatedTimeUnit()));
+		}
+
+		super.userDefinedExternalTransition(elapsedTime);
+
+		assert	BuildingThermalSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.implementationInvariants(this)");
+		assert	BuildingThermalSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"BuildingThermalSILModel.invariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA#endSimulation(fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void			endSimulation(Time endTime)
+	{
+		this.meanTemperature =
+				this.temperatureAcc/
+						endTime.subtract(this.start).getSimulatedDuration();
+
+		if (VERBOSE) {
+			this.logMessage("simulation ends.");
+		}
+		super.endSimulation(endTime);
+	}
+
+	// -------------------------------------------------------------------------
+	// Optional DEVS simulation protocol: simulation report
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>BuildingThermalReport</code> implements the simulation
+	 * report for the <code>BuildingThermalSILModel</code>.
+	 *
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p><strong>Implementation Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code true}	// no more invariant
+	 * </pre>
+	 * 
+	 * <p><strong>Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code true}	// no more invariant
+	 * </pre>
+	 * 
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static class		BuildingThermalReport
+	implements	SimulationReportI, GlobalReportI
+	{
+		private static final long serialVersionUID = 1L;
+		protected String	modelURI;
+		protected int		rooms;
+		protected double	meanTemperature;
+		protected double	minTemperature;
+		protected double	maxTemperature;
+		protected long		internalTransitions;
+		protected long		externalTransitions;
+		protected int		substeps;
+
+		public			BuildingThermalReport(
+			String modelURI,
+			int rooms,
+			double meanTemperature,
+			double minTemperature,
+			double maxTemperature,
+			long internalTransitions,
+			long externalTransitions,
+			int substeps
+			)
+		{
+			super();
+			this.modelURI = modelURI;
+			this.rooms = rooms;
+			this.meanTemperature = meanTemperature;
+			this.minTemperature = minTemperature;
+			this.maxTemperature = maxTemperature;
+			this.internalTransitions = internalTransitions;
+			this.externalTransitions = externalTransitions;
+			this.substeps = substeps;
+		}
+
+		@Override
+		public String	getModelURI()
+		{
+			return this.modelURI;
+		}
+
+		@Override
+		public String	printout(String indent)
+		{
+			StringBuffer ret = new StringBuffer(indent);
+			ret.append("---\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append(this.modelURI);
+			ret.append(" report\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("rooms = ");
+			ret.append(this.rooms);
+			ret.append(", mean temperature = ");
+			ret.append(this.meanTemperature);
+			ret.append(".\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("final temperatures in [");
+			ret.append(this.minTemperature);
+			ret.append(", ");
+			ret.append(this.maxTemperature);
+			ret.append("].\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("internal transitions = ");
+			ret.append(this.internalTransitions);
+			ret.append(", external transitions = ");
+			ret.append(this.externalTransitions);
+			ret.append(", substeps per step = ");
+			ret.append(this.substeps);
+			ret.append(".\n");
+			ret.append(indent);
+			ret.append("---\n");
+			return ret.toString();
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#getFinalReport()
+	 */
+	@Override
+	public SimulationReportI	getFinalReport()
+	{
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0 ; i < this.temperatures.length ; i++) {
+			min = Math.min(min, this.temperatures[i]);
+			max = Math.max(max, this.temperatures[i]);
+		}
+		return new BuildingThermalReport(this.getURI(),
+										 this.getRooms(),
+										 this.meanTemperature,
+										 min,
+										 max,
+										 this.internalTransitions,
+										 this.externalTransitions,
+										 this.substeps);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,173 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.HeaterUnitTesterModel;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_RoomHeaterEvent;
+import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
+import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
+import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.AtomicSimulatorI;
+import fr.sorbonne_u.devs_simulation.utils.StandardLogger;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>BuildingUnitTesterSILModel</code> implements a unit tester
+ * simulation model for the heaters of the rooms of a building which runs
+ * test scenarios.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The steps of the test scenarios emit the heater events wrapped in
+ * {@code SIL_RoomHeaterEvent} events that tell the room of their heater.
+ * </p>
+ * 
+ * <ul>
+ * <li>Imported events: none</li>
+ * <li>Exported events: {@code SIL_RoomHeaterEvent}</li>
+ * </ul>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code URI != null && !URI.isEmpty()}
+ * invariant	{@code TEST_SCENARIO_RP_NAME != null && !TEST_SCENARIO_RP_NAME.isEmpty()}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+//-----------------------------------------------------------------------------
+@ModelExternalEvents(exported = {SIL_RoomHeaterEvent.class})
+//-----------------------------------------------------------------------------
+public class			BuildingUnitTesterSILModel
+extends		HeaterUnitTesterModel
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long	serialVersionUID = 1L;
+	/** when true, leaves a trace of the execution of the model.			*/
+	public static boolean		VERBOSE = false;
+	/** when true, leaves a debugging trace of the execution of the model.	*/
+	public static boolean		DEBUG = false;
+	/** URI for an instance model; works as long as only one instance is
+	 *  created.															*/
+	public static final String	URI = BuildingUnitTesterSILModel.class.
+															getSimpleName();
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create an atomic model with the given URI (if null, one will be
+	 * generated) and to be run by the given simulator using the given time unit
+	 * for its clock.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code uri == null || !uri.isEmpty()}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code simulationEngine != null && !simulationEngine.isModelSet()}
+	 * pre	{@code simulationEngine instanceof AtomicEngine}
+	 * post	{@code !isDebugModeOn()}
+	 * post	{@code getURI() != null && !getURI().isEmpty()}
+	 * post	{@code uri == null || getURI().equals(uri)}
+	 * post	{@code getSimulatedTimeUnit().equals(simulatedTimeUnit)}
+	 * post	{@code getSimulationEngine().equals(simulationEngine)}
+	 * </pre>
+	 *
+	 * @param uri				unique identifier of the model.
+	 * @param simulatedTimeUnit	time unit used for the simulation clock.
+	 * @param simulationEngine	simulation engine enacting the model.
+	 */
+	public				BuildingUnitTesterSILModel(
+		String uri,
+		TimeUnit simulatedTimeUnit,
+		AtomicSimulatorI simulationEngine
+		)
+	{
+		super(uri, simulatedTimeUnit, simulationEngine);
+
+		if (VERBOSE || DEBUG) {
+			// set the logger to a standard simulation logger
+			this.getSimulationEngine().setLogger(new StandardLogger());
+		}
+
+		// Invariant checking
+		assert	BuildingUnitTesterSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"Implementation Invariants violation: "
+						+ "BuildingUnitTesterSILModel."
+						+ "implementationInvariants(this)");
+		assert	BuildingUnitTesterSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"Invariants violation: BuildingUnitTesterSILModel."
+						+ "invariants(this)");
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#setSimulationRunParameters(java.util.Map)
+	 */
+	@Override
+	public void			setSimulationRunParameters(
+		Map<String, Object> simParams
+		) throws MissingRunParameterException
+	{
+		if (simParams.containsKey(
+						AtomicSimulatorPlugin.OWNER_RUNTIME_PARAMETER_NAME)) {
+			this.getSimulationEngine().setLogger(
+						AtomicSimulatorPlugin.createComponentLogger(simParams));
+		}
+		super.setSimulationRunParameters(simParams);
+	}
+}
+// -----------------------------------------------------------------------------
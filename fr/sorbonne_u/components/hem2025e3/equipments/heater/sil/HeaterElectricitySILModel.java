@@ -48,6 +48,7 @@ import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOff
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOnHeater;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
 import fr.sorbonne_u.components.hem2025e2.utils.Electricity;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events.SIL_IntensityChanged;
 import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
 import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ExportedVariable;
@@ -85,6 +86,11 @@ import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
  * exported variable {@code currentIntensity}.
  * </p>
  * <p>
+ * Each update of {@code currentIntensity} is followed by another immediate
+ * internal transition which emits a {@code SIL_IntensityChanged} event, so
+ * that the electric meter model reads the new intensity after its update.
+ * </p>
+ * <p>
  * Initially, the mode is in state {@code State.OFF} and the electric power
  * consumption at 0.0.
  * </p>
@@ -96,7 +102,7 @@ import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
  *   {@code SetPowerHeater},
  *   {@code Heat},
  *   {@code DoNotHeat}</li>
- * <li>Exported events: none</li>
+ * <li>Exported events: {@code SIL_IntensityChanged}</li>
  * <li>Imported variables: none</li>
  * <li>Exported variables:
  *   name = {@code currentIntensity}, type = {@code Double}</li>
@@ -131,7 +137,8 @@ import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
 								 SwitchOffHeater.class,
 								 SIL_SetPowerHeater.class,
 								 Heat.class,
-								 DoNotHeat.class})
+								 DoNotHeat.class},
+					 exported = {SIL_IntensityChanged.class})
 @ModelExportedVariable(name = "currentIntensity", type = Double.class)
 //-----------------------------------------------------------------------------
 public class			HeaterElectricitySILModel
@@ -159,6 +166,9 @@ implements	SIL_HeaterOperationI
 	 *  will be triggered by putting through in this variable which will
 	 *  update the variable <code>currentIntensity</code>.					*/
 	protected boolean			consumptionHasChanged = false;
+	/** true when <code>currentIntensity</code> has been updated and the
+	 *  change is still to be notified to the electric meter model.		*/
+	protected boolean			intensityToBeNotified = false;
 
 	/** the current heating power between 0 and
 	 *  {@code HeaterElectricityModel.MAX_HEATING_POWER} in the power unit
@@ -437,6 +447,7 @@ implements	SIL_HeaterOperationI
 		this.currentHeatingPower =
 						HeaterExternalControlI.MAX_POWER_LEVEL.getData();
 		this.consumptionHasChanged = false;
+		this.intensityToBeNotified = false;
 		this.totalConsumption = 0.0;
 
 		if (VERBOSE) {
@@ -504,7 +515,14 @@ implements	SIL_HeaterOperationI
 	@Override
 	public ArrayList<EventI>	output()
 	{
-		return null;
+		ArrayList<EventI> ret = null;
+		if (this.intensityToBeNotified) {
+			// the intensity has been updated by the previous transition
+			ret = new ArrayList<>();
+			ret.add(new SIL_IntensityChanged(this.getCurrentStateTime(),
+											 this.getURI()));
+		}
+		return ret;
 	}
 
 	/**
@@ -515,11 +533,10 @@ implements	SIL_HeaterOperationI
 	{
 		Duration ret = null;
 
-		if (this.consumptionHasChanged) {
+		if (this.consumptionHasChanged || this.intensityToBeNotified) {
 			// When the consumption has changed, an immediate (delay = 0.0)
 			// internal transition must be made to update the electricity
-			// consumption.
-			this.consumptionHasChanged = false;
+			// consumption, and then another one to notify the update.
 			ret = Duration.zero(this.getSimulatedTimeUnit());
 		} else {
 			// As long as the state does not change, no internal transition
@@ -545,31 +562,38 @@ implements	SIL_HeaterOperationI
 	{
 		super.userDefinedInternalTransition(elapsedTime);
 
-		Time t = this.getCurrentStateTime();
-		if (this.currentState == HeaterState.ON) {
-			this.currentIntensity.setNewValue(
-					HeaterExternalControlI.NOT_HEATING_POWER.getData()/
-									HeaterExternalControlI.TENSION.getData(),
-					t);
-		} else if (this.currentState == HeaterState.HEATING) {
-			this.currentIntensity.setNewValue(
-					this.currentHeatingPower/
-									HeaterExternalControlI.TENSION.getData(),
-					t);
-		} else {
-			assert	this.currentState == HeaterState.OFF;
-			this.currentIntensity.setNewValue(0.0, t);
-		}
+		// the notification, if any, has been emitted by the output
+		this.intensityToBeNotified = false;
+		if (this.consumptionHasChanged) {
+			this.consumptionHasChanged = false;
+			this.intensityToBeNotified = true;
+
+			Time t = this.getCurrentStateTime();
+			if (this.currentState == HeaterState.ON) {
+				this.currentIntensity.setNewValue(
+						HeaterExternalControlI.NOT_HEATING_POWER.getData()/
+										HeaterExternalControlI.TENSION.getData(),
+						t);
+			} else if (this.currentState == HeaterState.HEATING) {
+				this.currentIntensity.setNewValue(
+						this.currentHeatingPower/
+										HeaterExternalControlI.TENSION.getData(),
+						t);
+			} else {
+				assert	this.currentState == HeaterState.OFF;
+				this.currentIntensity.setNewValue(0.0, t);
+			}
 
-		if (VERBOSE) {
-			StringBuffer sb = new StringBuffer("new consumption: ");
-			sb.append(this.currentIntensity.getValue());
-			sb.append(" ");
-			sb.append(ElectricMeterImplementationI.POWER_UNIT);
-			sb.append(" at ");
-			sb.append(this.currentIntensity.getTime());
-			sb.append(".");
-			this.logMessage(sb.toString());
+			if (VERBOSE) {
+				StringBuffer sb = new StringBuffer("new consumption: ");
+				sb.append(this.currentIntensity.getValue());
+				sb.append(" ");
+				sb.append(ElectricMeterImplementationI.POWER_UNIT);
+				sb.append(" at ");
+				sb.append(this.currentIntensity.getTime());
+				sb.append(".");
+				this.logMessage(sb.toString());
+			}
 		}
 
 		assert	HeaterElectricitySILModel.implementationInvariants(this) :
@@ -46,6 +46,11 @@ import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.Heat;
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.HeaterEventI;
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOffHeater;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
+import fr.sorbonne_u.components.hem2025e3.utils.DormandPrinceIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.EulerIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI;
+import fr.sorbonne_u.components.hem2025e3.utils.QSSIntegrator;
+import fr.sorbonne_u.components.hem2025e3.utils.RK4Integrator;
 import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
 import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ImportedVariable;
@@ -57,6 +62,7 @@ import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.devs_simulation.models.events.Event;
 import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
 import fr.sorbonne_u.devs_simulation.models.time.Duration;
 import fr.sorbonne_u.devs_simulation.models.time.Time;
 import fr.sorbonne_u.devs_simulation.simulators.interfaces.AtomicSimulatorI;
@@ -93,12 +99,65 @@ import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
  *   but rather proportional to the current power level of the heater.</li>
  * </ol>
  * <p>
- * The resulting differential equation is integrated using the Euler method
- * with a predefined integration step. The initial state of the model is
- * a state not heating and the initial temperature given by
+ * The resulting differential equation is integrated by the integrator
+ * selected by {@code INTEGRATION_METHOD}: the Euler method or the fourth
+ * order Runge-Kutta method with the predefined integration step
+ * {@code STEP}, or the adaptive Dormand-Prince 5(4) method which keeps the
+ * local error under {@code ABSOLUTE_TOLERANCE} and
+ * {@code RELATIVE_TOLERANCE}. The model wakes up after the step proposed by
+ * the integrator, which is always {@code STEP} for the fixed-step methods
+ * while, for the adaptive one, it grows up to {@code MAX_STEP} when the
+ * temperature is close to its steady state and shrinks down to
+ * {@code MIN_STEP} when it changes fast; as the events change the
+ * derivative discontinuously, they restart the estimation of the step. The
+ * heater state and its power are taken as constant over each integration,
+ * while the external temperature is evaluated at the times at which the
+ * integrator evaluates the derivative. Between two transitions,
+ * {@code getTemperatureAt} extrapolates the temperature from its value and
+ * derivative at the last transition. The initial state of the model is a
+ * state not heating and the initial temperature given by
  * {@code INITIAL_TEMPERATURE}.
  * </p>
  * <p>
+ * As the equation is linear in the room temperature, the
+ * {@code IntegrationMethod.ANALYTIC} method integrates nothing: at each
+ * transition, the model publishes the {@code ThermalRelaxation} giving the
+ * exact temperature under the current inputs, from which the temperature
+ * and the mean temperature are computed in closed form and
+ * {@code getTemperatureAt} answers the queries of the owner component at any
+ * time. The model then only wakes up when the temperature reaches one of the
+ * temperatures given by {@code REPORTED_THRESHOLDS}, which crossing is
+ * traced, or after {@code MAX_STEP} to sample again the external
+ * temperature.
+ * </p>
+ * <p>
+ * With the {@code IntegrationMethod.QSS} method, the temperature is a
+ * quantised state system (QSS1): the derivative is evaluated at a quantised
+ * temperature, which only changes when the temperature has moved by one
+ * quantum from it, and the model wakes up at these crossings, with a
+ * quantum of {@code QUANTUM} Celsius by default which can be changed per
+ * model with the run parameter {@code QUANTUM_RPNAME}. The events and the
+ * transitions after {@code MAX_STEP} without crossing keep the quantised
+ * temperature and only evaluate the derivative again with the current
+ * inputs. The transitions are then rare when the temperature is close to
+ * its steady state.
+ * </p>
+ * <p>
+ * QSS1 is however not competitive on this equation: as a first order
+ * method, its error is in the order of the quantum, and the number of
+ * transitions grows as the quantum shrinks. On the heating cycles of
+ * {@code HeaterThermalIntegratorsBenchmark}, the default quantum of 0.05
+ * Celsius takes 1205 transitions for a largest error of 1.0e-2 Celsius,
+ * when Euler with {@code STEP} takes 1447 transitions for an error of
+ * 6.2e-3, while {@code IntegrationMethod.RK45} takes 129 to 284
+ * transitions, for tolerances from 1.0e-2 to 1.0e-4, with errors about
+ * 1.0e-11. {@code IntegrationMethod.RK45}, or
+ * {@code IntegrationMethod.ANALYTIC} when only threshold crossings matter,
+ * should therefore be preferred; {@code IntegrationMethod.QSS} is kept for
+ * comparisons and for models which inputs change often relatively to
+ * their state.
+ * </p>
+ * <p>
  * Whether the current temperature evolves under the influence of the outside
  * temperature only or also the heating temperature depends upon the state,
  * which in turn is modified through the reception of imported events
@@ -126,17 +185,26 @@ import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
  * invariant	{@code INSULATION_TRANSFER_CONSTANT > 0.0}
  * invariant	{@code MIN_HEATING_TRANSFER_CONSTANT > 0.0}
  * invariant	{@code STEP > 0.0}
+ * invariant	{@code INTEGRATION_METHOD != null}
+ * invariant	{@code ABSOLUTE_TOLERANCE > 0.0 && RELATIVE_TOLERANCE >= 0.0}
+ * invariant	{@code MIN_STEP > 0.0 && MIN_STEP <= STEP && STEP <= MAX_STEP}
+ * invariant	{@code QUANTUM > 0.0}
  * invariant	{@code currentState != null}
  * invariant	{@code integrationStep.getSimulatedDuration() > 0.0}
  * invariant	{@code !isStateInitialised() || start != null}
  * invariant	{@code currentHeatingPower >= 0.0}
  * invariant	{@code currentTemperature != null}
+ * invariant	{@code integrationMethod != null}
+ * invariant	{@code quantum > 0.0}
+ * invariant	{@code integrationMethod == IntegrationMethod.ANALYTIC || integrator != null}
+ * invariant	{@code integrationMethod != IntegrationMethod.ANALYTIC || thresholds != null}
  * </pre>
  * 
  * <p><strong>Invariants</strong></p>
  * 
  * <pre>
  * invariant	{@code URI != null && !URI.isEmpty()}
+ * invariant	{@code QUANTUM_RPNAME != null && !QUANTUM_RPNAME.isEmpty()}
  * </pre>
  * 
  * <p>Created on : 2023-09-29</p>
@@ -153,6 +221,36 @@ public class			HeaterTemperatureSILModel
 extends		AtomicHIOA
 implements	SIL_HeaterOperationI
 {
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The enumeration <code>IntegrationMethod</code> defines the methods
+	 * which can be used to integrate the differential equation of the
+	 * temperature.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static enum	IntegrationMethod
+	{
+		/** Euler method with the fixed step {@code STEP}.					*/
+		EULER,
+		/** fourth order Runge-Kutta method with the fixed step
+		 *  {@code STEP}.													*/
+		RK4,
+		/** Dormand-Prince 5(4) method with an adaptive step.				*/
+		RK45,
+		/** exact solution of the equation under constant inputs.			*/
+		ANALYTIC,
+		/** first order quantised state system with the quantum
+		 *  {@code quantum}, less accurate than {@code RK45} for more
+		 *  transitions on this equation; kept for comparisons.			*/
+		QSS
+	}
+
 	// -------------------------------------------------------------------------
 	// Constants and variables
 	// -------------------------------------------------------------------------
@@ -189,6 +287,26 @@ implements	SIL_HeaterOperationI
 	protected static double		POWER_HEAT_TRANSFER_TOLERANCE = 0.0001;
 	/** integration step for the differential equation(assumed in hours).	*/
 	protected static double		STEP = 60.0/3600.0;	// 60 seconds
+	/** method used to integrate the differential equation.					*/
+	public static IntegrationMethod	INTEGRATION_METHOD = IntegrationMethod.EULER;
+	/** absolute tolerance on the local error of the temperature in Celsius
+	 *  for the adaptive integration.										*/
+	public static double		ABSOLUTE_TOLERANCE = 0.001;
+	/** relative tolerance on the local error of the temperature for the
+	 *  adaptive integration.												*/
+	public static double		RELATIVE_TOLERANCE = 0.0;
+	/** minimal step of the adaptive integration (assumed in hours).		*/
+	protected static double		MIN_STEP = 1.0/3600.0;	// 1 second
+	/** maximal step of the adaptive integration and of the quantised state
+	 *  system method, and maximal duration between two transitions with the
+	 *  analytic method (assumed in hours).									*/
+	protected static double		MAX_STEP = 15.0/60.0;	// 15 minutes
+	/** temperatures in Celsius which crossings wake up the model with the
+	 *  analytic method.													*/
+	public static double[]		REPORTED_THRESHOLDS = new double[0];
+	/** default change of the temperature in Celsius between two
+	 *  transitions with the quantised state system method.					*/
+	public static double		QUANTUM = 0.05;
 
 	/** current state of the heater; for the temperature model, only two
 	 *  states are relevant: heating, which is {@code HeaterState.HEATING},
@@ -203,6 +321,30 @@ implements	SIL_HeaterOperationI
 
 	/** integration step as a duration, including the time unit.			*/
 	protected final Duration	integrationStep;
+	/** method used by the integrator, fixed at creation.				*/
+	protected final IntegrationMethod			integrationMethod;
+	/** integrator of the differential equation, null with the analytic
+	 *  method.																*/
+	protected ODEIntegratorI					integrator;
+	/** change of the temperature between two transitions with the
+	 *  quantised state system method.										*/
+	protected double							quantum;
+	/** derivative of the temperature given to the integrator.				*/
+	protected final ODEIntegratorI.DerivativeI	derivative;
+	/** number of internal transitions, for the simulation report.			*/
+	protected long				internalTransitions;
+	/** temperatures which crossings wake up the model with the analytic
+	 *  method, fixed at creation.											*/
+	protected final double[]	thresholds;
+	/** exact solution from the last transition with the analytic method,
+	 *  null before the initialisation of the temperature or with the
+	 *  other methods.														*/
+	protected volatile ThermalRelaxation	relaxation;
+	/** duration until the next transition with the analytic method.		*/
+	protected Duration			analyticAdvance;
+	/** threshold reached at the next transition with the analytic method,
+	 *  or {@code Double.NaN} if none.										*/
+	protected double			nextThreshold;
 	/** accumulator to compute the mean external temperature for the
 	 *  simulation report.													*/
 	protected double			temperatureAcc;
@@ -264,6 +406,22 @@ implements	SIL_HeaterOperationI
 				STEP > 0.0,
 				HeaterTemperatureSILModel.class,
 				"STEP > 0.0");
+		ret &= AssertionChecking.checkStaticImplementationInvariant(
+				INTEGRATION_METHOD != null,
+				HeaterTemperatureSILModel.class,
+				"INTEGRATION_METHOD != null");
+		ret &= AssertionChecking.checkStaticImplementationInvariant(
+				ABSOLUTE_TOLERANCE > 0.0 && RELATIVE_TOLERANCE >= 0.0,
+				HeaterTemperatureSILModel.class,
+				"ABSOLUTE_TOLERANCE > 0.0 && RELATIVE_TOLERANCE >= 0.0");
+		ret &= AssertionChecking.checkStaticImplementationInvariant(
+				MIN_STEP > 0.0 && MIN_STEP <= STEP && STEP <= MAX_STEP,
+				HeaterTemperatureSILModel.class,
+				"MIN_STEP > 0.0 && MIN_STEP <= STEP && STEP <= MAX_STEP");
+		ret &= AssertionChecking.checkStaticImplementationInvariant(
+				QUANTUM > 0.0,
+				HeaterTemperatureSILModel.class,
+				"QUANTUM > 0.0");
 		return ret;
 	}
 
@@ -316,6 +474,30 @@ implements	SIL_HeaterOperationI
 				HeaterTemperatureSILModel.class,
 				instance,
 				"currentTemperature != null");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.integrationMethod != null,
+				HeaterTemperatureSILModel.class,
+				instance,
+				"integrationMethod != null");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.quantum > 0.0,
+				HeaterTemperatureSILModel.class,
+				instance,
+				"quantum > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.integrationMethod == IntegrationMethod.ANALYTIC ||
+											instance.integrator != null,
+				HeaterTemperatureSILModel.class,
+				instance,
+				"integrationMethod == IntegrationMethod.ANALYTIC || "
+				+ "integrator != null");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.integrationMethod != IntegrationMethod.ANALYTIC ||
+											instance.thresholds != null,
+				HeaterTemperatureSILModel.class,
+				instance,
+				"integrationMethod != IntegrationMethod.ANALYTIC || "
+				+ "thresholds != null");
 		return ret;
 	}
 
@@ -339,6 +521,10 @@ implements	SIL_HeaterOperationI
 				URI != null && !URI.isEmpty(),
 				HeaterTemperatureSILModel.class,
 				"URI != null && !URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				QUANTUM_RPNAME != null && !QUANTUM_RPNAME.isEmpty(),
+				HeaterTemperatureSILModel.class,
+				"QUANTUM_RPNAME != null && !QUANTUM_RPNAME.isEmpty()");
 		return ret;
 	}
 
@@ -403,6 +589,11 @@ implements	SIL_HeaterOperationI
 		super(uri, simulatedTimeUnit, simulationEngine);
 
 		this.integrationStep = new Duration(STEP, simulatedTimeUnit);
+		this.integrationMethod = INTEGRATION_METHOD;
+		this.quantum = QUANTUM;
+		this.integrator = this.createIntegrator();
+		this.derivative = (t, y) -> this.computeDerivatives(t, y);
+		this.thresholds = REPORTED_THRESHOLDS.clone();
 		this.getSimulationEngine().setLogger(new StandardLogger());
 
 		assert	HeaterTemperatureSILModel.implementationInvariants(this) :
@@ -417,6 +608,39 @@ implements	SIL_HeaterOperationI
 	// Methods
 	// -------------------------------------------------------------------------
 
+	/**
+	 * create the integrator of the differential equation for the method
+	 * of the model, or return null for the analytic method.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code integrationMethod != null}
+	 * post	{@code integrationMethod == IntegrationMethod.ANALYTIC || return != null}
+	 * </pre>
+	 *
+	 * @return	a new integrator or null for the analytic method.
+	 */
+	protected ODEIntegratorI	createIntegrator()
+	{
+		switch (this.integrationMethod) {
+		case RK4:
+			return new RK4Integrator(STEP);
+		case RK45:
+			return new DormandPrinceIntegrator(ABSOLUTE_TOLERANCE,
+											   RELATIVE_TOLERANCE,
+											   MIN_STEP,
+											   MAX_STEP,
+											   STEP);
+		case QSS:
+			return new QSSIntegrator(this.quantum, MIN_STEP, MAX_STEP);
+		case ANALYTIC:
+			return null;
+		default:
+			return new EulerIntegrator(STEP);
+		}
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_HeaterOperationI#setState(fr.sorbonne_u.components.hem2025e1.equipments.heater.Heater.HeaterState)
 	 */
@@ -462,6 +686,47 @@ implements	SIL_HeaterOperationI
 							this.currentTemperature.getTime());
 	}
 
+	/**
+	 * For software-in-the-loop tests with simulation, return the temperature
+	 * at time {@code t}, exactly with the analytic method and otherwise
+	 * extrapolated from the value and the derivative of the
+	 * {@code currentTemperature} variable at the last transition.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param t	time at which the temperature is requested.
+	 * @return	the temperature at time {@code t}.
+	 */
+	public VariableValue<Double>	getTemperatureAt(Time t)
+	{
+		assert	t != null :
+				new NeoSim4JavaException("Precondition violation: t != null");
+
+		ThermalRelaxation r = this.relaxation;
+		if (r == null) {
+			if (!this.currentTemperature.isInitialised()) {
+				return this.getCurrentTemperature();
+			}
+			// the temperature is not known before the last transition
+			Time at = new Time(
+					Math.max(t.getSimulatedTime(),
+							 this.currentTemperature.getTime().getSimulatedTime()),
+					this.getSimulatedTimeUnit());
+			return new VariableValue<Double>(
+							this.currentTemperature.evaluateAt(at), at);
+		}
+		// the temperature is not known before the last transition
+		double at = Math.max(t.getSimulatedTime(), r.getStartTime());
+		return new VariableValue<Double>(
+							r.temperatureAt(at),
+							new Time(at, this.getSimulatedTimeUnit()));
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_HeaterOperationI#setCurrentHeatingPower(double, fr.sorbonne_u.devs_simulation.models.time.Time)
 	 */
@@ -509,7 +774,7 @@ implements	SIL_HeaterOperationI
 	}
 
 	/**
-	 * compute the current derivative of the room temperature.
+	 * compute the derivative of the room temperature at time {@code t}.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -518,10 +783,11 @@ implements	SIL_HeaterOperationI
 	 * post	{@code true}	// no postcondition.
 	 * </pre>
 	 *
-	 * @param current	current temperature of the room.
-	 * @return			the current derivative.
+	 * @param t			simulated time at which the derivative is computed.
+	 * @param current	temperature of the room at time {@code t}.
+	 * @return			the derivative at time {@code t}.
 	 */
-	protected double	computeDerivatives(Double current)
+	protected double	computeDerivatives(double t, double current)
 	{
 		double currentTempDerivative = 0.0;
 		if (this.currentState == HeaterState.HEATING) {
@@ -539,13 +805,60 @@ implements	SIL_HeaterOperationI
 		// the cooling contribution: difference between the external temperature
 		// and the temperature of the room divided by the insulation transfer
 		// constant taking into account the surface of the walls.
-		Time t = this.getCurrentStateTime();
 		currentTempDerivative +=
-				(this.externalTemperature.evaluateAt(t) - current)/
+				(this.externalTemperature.evaluateAt(
+							new Time(t, this.getSimulatedTimeUnit())) - current)/
 												INSULATION_TRANSFER_CONSTANT;
 		return currentTempDerivative;
 	}
 
+	/**
+	 * publish the exact solution of the equation from {@code temperature} at
+	 * {@code time} under the current inputs and, with the analytic method,
+	 * compute the duration until the next threshold crossing, bounded by
+	 * {@code MAX_STEP}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code integrationMethod == IntegrationMethod.ANALYTIC}
+	 * post	{@code relaxation != null && analyticAdvance != null}
+	 * </pre>
+	 *
+	 * @param time			current time.
+	 * @param temperature	temperature of the room at {@code time}.
+	 */
+	protected void		anchorRelaxation(double time, double temperature)
+	{
+		double rate = 1.0/INSULATION_TRANSFER_CONSTANT;
+		// the external temperature at time, as the current state time is
+		// not yet updated in external transitions
+		double forcing =
+				this.externalTemperature.evaluateAt(
+						new Time(time, this.getSimulatedTimeUnit()))/
+												INSULATION_TRANSFER_CONSTANT;
+		if (this.currentState == HeaterState.HEATING &&
+						this.currentHeatingPower > POWER_HEAT_TRANSFER_TOLERANCE) {
+			double c = this.currentHeatTransfertConstant();
+			rate += 1.0/c;
+			forcing += STANDARD_HEATING_TEMP/c;
+		}
+		this.relaxation =
+				new ThermalRelaxation(time, temperature, rate, forcing/rate);
+
+		double d = MAX_STEP;
+		this.nextThreshold = Double.NaN;
+		for (int i = 0 ; i < this.thresholds.length ; i++) {
+			// a threshold just reached is not reached again
+			double c = this.relaxation.durationTo(this.thresholds[i]);
+			if (c > TEMPERATURE_UPDATE_TOLERANCE && c < d) {
+				d = c;
+				this.nextThreshold = this.thresholds[i];
+			}
+		}
+		this.analyticAdvance = new Duration(d, this.getSimulatedTimeUnit());
+	}
+
 	/**
 	 * compute the current temperature given that a duration of {@code deltaT}
 	 * has elapsed since the last update.
@@ -566,11 +879,25 @@ implements	SIL_HeaterOperationI
 		double oldTemp = this.currentTemperature.evaluateAt(t);
 		double newTemp;
 
+		if (this.integrationMethod == IntegrationMethod.ANALYTIC) {
+			// the exact solution from the last transition, which may be
+			// later than the last update of the temperature
+			ThermalRelaxation r = this.relaxation;
+			double from = Math.max(t.getSimulatedTime(), r.getStartTime());
+			double to = Math.max(t.getSimulatedTime() + deltaT, from);
+			newTemp = r.temperatureAt(to);
+			this.temperatureAcc += r.integral(from, to) +
+											oldTemp*(from - t.getSimulatedTime());
+			return newTemp;
+		}
+
 		if (deltaT > TEMPERATURE_UPDATE_TOLERANCE) {
-			// update the room temperature using the Euler integration of the
+			// update the room temperature using the integrator of the
 			// differential equation
-			double derivative = this.currentTemperature.getFirstDerivative();
-			newTemp = oldTemp + derivative*deltaT;
+			newTemp = this.integrator.integrate(this.derivative,
+												t.getSimulatedTime(),
+												oldTemp,
+												deltaT);
 		} else {
 			newTemp = oldTemp;
 		}
@@ -584,6 +911,9 @@ implements	SIL_HeaterOperationI
 	// DEVS simulation protocol
 	// -------------------------------------------------------------------------
 
+	/** run parameter name for {@code quantum}.							*/
+	public static final String		QUANTUM_RPNAME = "QUANTUM";
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#setSimulationRunParameters(Map)
 	 */
@@ -594,6 +924,12 @@ implements	SIL_HeaterOperationI
 	{
 		super.setSimulationRunParameters(simParams);
 
+		String quantumName =
+				ModelI.createRunParameterName(this.getURI(), QUANTUM_RPNAME);
+		if (simParams.containsKey(quantumName)) {
+			this.quantum = (double) simParams.get(quantumName);
+		}
+
 		// this gets the reference on the owner component which is required
 		// to have simulation models able to make the component perform some
 		// operations or tasks or to get the value of variables held by the
@@ -616,6 +952,10 @@ implements	SIL_HeaterOperationI
 	{
 		this.temperatureAcc = 0.0;
 		this.start = initialTime;
+		this.internalTransitions = 0L;
+		this.relaxation = null;
+		// a new integrator for each run, with the quantum of the run
+		this.integrator = this.createIntegrator();
 		this.currentHeatingPower =
 				HeaterExternalControlI.MAX_POWER_LEVEL.getData();
 
@@ -658,8 +998,16 @@ implements	SIL_HeaterOperationI
 			// If the current temperature is not initialised yet but the
 			// external temperature is, then initialise the current temperature
 			// and say one more variable is initialised at this execution.
-			double derivative = this.computeDerivatives(INITIAL_TEMPERATURE);
+			double derivative = this.computeDerivatives(
+							this.getCurrentStateTime().getSimulatedTime(),
+							INITIAL_TEMPERATURE);
 			this.currentTemperature.initialise(INITIAL_TEMPERATURE, derivative);
+			double t0 = this.currentTemperature.getTime().getSimulatedTime();
+			if (this.integrator != null) {
+				this.integrator.restart(this.derivative, t0, INITIAL_TEMPERATURE);
+			} else {
+				this.anchorRelaxation(t0, INITIAL_TEMPERATURE);
+			}
 			justInitialised++;
 		} else if (!this.currentTemperature.isInitialised()) {
 			// If the external temperature is not initialised and the current
@@ -694,7 +1042,15 @@ implements	SIL_HeaterOperationI
 	@Override
 	public Duration		timeAdvance()
 	{
-		return this.integrationStep;
+		if (this.integrator == null) {
+			return this.analyticAdvance;
+		}
+		double h = this.integrator.getNextStep();
+		if (h == this.integrationStep.getSimulatedDuration()) {
+			return this.integrationStep;
+		} else {
+			return new Duration(h, this.getSimulatedTimeUnit());
+		}
 	}
 
 	/**
@@ -703,20 +1059,35 @@ implements	SIL_HeaterOperationI
 	@Override
 	public void			userDefinedInternalTransition(Duration elapsedTime)
 	{
+		this.internalTransitions++;
 		// First, update the temperature (i.e., the value of the continuous
 		// variable) until the current time.
 		double newTemp =
 				this.computeNewTemperature(elapsedTime.getSimulatedDuration());
 		// Next, compute the new derivative
-		double newDerivative = this.computeDerivatives(newTemp);
+		double newDerivative = this.computeDerivatives(
+							this.getCurrentStateTime().getSimulatedTime(),
+							newTemp);
 		// Finally, set the new temperature value and derivative
 		this.currentTemperature.setNewValue(
 						newTemp,
 						newDerivative,
 						new Time(this.getCurrentStateTime().getSimulatedTime(),
 								 this.getSimulatedTimeUnit()));
+		double reachedThreshold = Double.NaN;
+		if (this.integrationMethod == IntegrationMethod.ANALYTIC) {
+			reachedThreshold = this.nextThreshold;
+			this.anchorRelaxation(
+							this.getCurrentStateTime().getSimulatedTime(),
+							newTemp);
+		}
 
 		// Tracing
+		if (VERBOSE && !Double.isNaN(reachedThreshold)) {
+			this.logMessage(this.currentTemperature.getTime().getSimulatedTime()
+							+ " : temperature reaches the threshold "
+							+ reachedThreshold + ".");
+		}
 		if (VERBOSE) {
 			String mark = this.currentState == HeaterState.HEATING ? " (h)" : " (-)";
 			StringBuffer message = new StringBuffer();
@@ -767,7 +1138,15 @@ implements	SIL_HeaterOperationI
 		// Then, update the current state of the heater.
 		ce.executeOn(this);
 		// Next, compute the new derivative
-		double newDerivative = this.computeDerivatives(newTemp);
+		double now = this.getCurrentStateTime().getSimulatedTime()
+										+ elapsedTime.getSimulatedDuration();
+		double newDerivative = this.computeDerivatives(now, newTemp);
+		// the event may have changed the derivative discontinuously
+		if (this.integrator != null) {
+			this.integrator.restart(this.derivative, now, newTemp);
+		} else {
+			this.anchorRelaxation(now, newTemp);
+		}
 
 		if (elapsedTime.getSimulatedDuration() > TEMPERATURE_UPDATE_TOLERANCE) {
 			// Finally, set the new temperature value and derivative
@@ -837,15 +1216,27 @@ implements	SIL_HeaterOperationI
 		private static final long serialVersionUID = 1L;
 		protected String	modelURI;
 		protected double	meanTemperature;
+		protected IntegrationMethod	integrationMethod;
+		protected long		internalTransitions;
+		protected long		evaluations;
+		protected long		rejectedSteps;
 
 		public			HeaterTemperatureReport(
 			String modelURI,
-			double meanTemperature
+			double meanTemperature,
+			IntegrationMethod integrationMethod,
+			long internalTransitions,
+			long evaluations,
+			long rejectedSteps
 			)
 		{
 			super();
 			this.modelURI = modelURI;
 			this.meanTemperature = meanTemperature;
+			this.integrationMethod = integrationMethod;
+			this.internalTransitions = internalTransitions;
+			this.evaluations = evaluations;
+			this.rejectedSteps = rejectedSteps;
 		}
 
 		@Override
@@ -869,6 +1260,17 @@ implements	SIL_HeaterOperationI
 			ret.append(this.meanTemperature);
 			ret.append(".\n");
 			ret.append(indent);
+			ret.append('|');
+			ret.append("integration = ");
+			ret.append(this.integrationMethod);
+			ret.append(", internal transitions = ");
+			ret.append(this.internalTransitions);
+			ret.append(", derivative evaluations = ");
+			ret.append(this.evaluations);
+			ret.append(", rejected steps = ");
+			ret.append(this.rejectedSteps);
+			ret.append(".\n");
+			ret.append(indent);
 			ret.append("---\n");
 			return ret.toString();
 		}
@@ -880,7 +1282,15 @@ implements	SIL_HeaterOperationI
 	@Override
 	public SimulationReportI	getFinalReport()
 	{
-		return new HeaterTemperatureReport(this.getURI(), this.meanTemperature);
+		return new HeaterTemperatureReport(
+								this.getURI(),
+								this.meanTemperature,
+								this.integrationMethod,
+								this.internalTransitions,
+								this.integrator == null ?
+									0L : this.integrator.getEvaluationsCount(),
+								this.integrator == null ?
+									0L : this.integrator.getRejectedStepsCount());
 	}
 }
 // -----------------------------------------------------------------------------
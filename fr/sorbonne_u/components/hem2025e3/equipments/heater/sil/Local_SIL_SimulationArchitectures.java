@@ -44,9 +44,11 @@ import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.Heat;
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOffHeater;
 import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOnHeater;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_RoomHeaterEvent;
 import fr.sorbonne_u.devs_simulation.architectures.RTArchitecture;
 import fr.sorbonne_u.devs_simulation.hioa.architectures.RTAtomicHIOA_Descriptor;
 import fr.sorbonne_u.devs_simulation.hioa.architectures.RTCoupledHIOA_Descriptor;
+import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA;
 import fr.sorbonne_u.devs_simulation.hioa.models.vars.VariableSink;
 import fr.sorbonne_u.devs_simulation.hioa.models.vars.VariableSource;
 import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDescriptor;
@@ -56,6 +58,7 @@ import fr.sorbonne_u.devs_simulation.models.events.EventI;
 import fr.sorbonne_u.devs_simulation.models.events.EventSink;
 import fr.sorbonne_u.devs_simulation.models.events.EventSource;
 import fr.sorbonne_u.devs_simulation.models.events.ReexportedEvent;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
 import fr.sorbonne_u.exceptions.PreconditionException;
 
 // -----------------------------------------------------------------------------
@@ -82,6 +85,17 @@ import fr.sorbonne_u.exceptions.PreconditionException;
  * architectures where they are seen as atomic models to be composed by a
  * coupled model that will reside in a coordinator component.
  * </p>
+ * <p>
+ * The methods take the run parameters of the runs of the architecture, as the
+ * models depend upon them: when they give a weather trace file to the model
+ * of the external temperature, by the run parameter
+ * {@code WeatherTraceTemperatureSILModel.TRACE_FILE_RPNAME} under the URI
+ * of the {@code ExternalTemperatureSILModel}, or else when
+ * {@code WeatherTraceTemperatureSILModel.TRACE_FILE} is not null, the
+ * external temperature is simulated by a
+ * {@code WeatherTraceTemperatureSILModel} replaying the weather trace,
+ * under the URI of the {@code ExternalTemperatureSILModel}.
+ * </p>
  * 
  * <p><strong>Implementation  Invariants</strong></p>
  * 
@@ -101,6 +115,48 @@ import fr.sorbonne_u.exceptions.PreconditionException;
  */
 public abstract class	Local_SIL_SimulationArchitectures
 {
+	/** URI of the coupled model of the building in the architecture for
+	 *  the unit tests of the building.										*/
+	public static final String	BUILDING_COUPLED_MODEL_URI =
+														"BuildingCoupledModel";
+
+	/**
+	 * return the class of the model simulating the external temperature, the
+	 * {@code WeatherTraceTemperatureSILModel} when a weather trace file is
+	 * given by the run parameters or else set by default and the
+	 * {@code ExternalTemperatureSILModel} otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code runParameters != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param runParameters	run parameters of the runs of the architecture.
+	 * @return				the class of the model simulating the external temperature.
+	 */
+	protected static Class<? extends AtomicHIOA>	externalTemperatureModelClass(
+		Map<String,Object> runParameters
+		)
+	{
+		assert	runParameters != null :
+				new PreconditionException("runParameters != null");
+
+		// the trace model is created under the URI of the external
+		// temperature model, hence its run parameters are named after it
+		String traceFileName =
+				ModelI.createRunParameterName(
+						ExternalTemperatureSILModel.URI,
+						WeatherTraceTemperatureSILModel.TRACE_FILE_RPNAME);
+		if (runParameters.get(traceFileName) != null ||
+							WeatherTraceTemperatureSILModel.TRACE_FILE != null) {
+			return WeatherTraceTemperatureSILModel.class;
+		} else {
+			return ExternalTemperatureSILModel.class;
+		}
+	}
+
 	/**
 	 * create the local software-in-the-loop simulation architecture for the
 	 * {@code HeaterCyPhy} component used in unit tests.
@@ -146,6 +202,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 	 * pre	{@code rootModelURI != null && !rootModelURI.isEmpty()}
 	 * pre	{@code simulatedTimeUnit != null}
 	 * pre	{@code accelerationFactor > 0.0}
+	 * pre	{@code runParameters != null}
 	 * post	{@code return != null}
 	 * post {@code return.getArchitectureURI().equals(architectureURI)}
 	 * post	{@code return.getRootModelURI().equals(rootModelURI)}
@@ -156,6 +213,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 	 * @param rootModelURI			URI of the root model in the simulation architecture.
 	 * @param simulatedTimeUnit		simulated time unit used in the architecture.
 	 * @param accelerationFactor	acceleration factor used to execute in a logical time speeding up the real time.
+	 * @param runParameters			run parameters of the runs of the architecture, used to choose its models.
 	 * @return						the local software-in-the-loop real time simulation architecture for the unit tests of the {@code Heater} component.
 	 * @throws Exception			<i>to do</i>.
 	 */
@@ -163,7 +221,8 @@ public abstract class	Local_SIL_SimulationArchitectures
 		String architectureURI,
 		String rootModelURI,
 		TimeUnit simulatedTimeUnit,
-		double accelerationFactor
+		double accelerationFactor,
+		Map<String,Object> runParameters
 		) throws Exception
 	{
 		assert	architectureURI != null && !architectureURI.isEmpty() :
@@ -176,6 +235,8 @@ public abstract class	Local_SIL_SimulationArchitectures
 				new PreconditionException("simulatedTimeUnit != null");
 		assert	accelerationFactor > 0.0 :
 				new PreconditionException("accelerationFactor > 0.0");
+		assert	runParameters != null :
+				new PreconditionException("runParameters != null");
 
 		// map that will contain the atomic model descriptors to construct
 		// the simulation architecture
@@ -198,7 +259,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 		atomicModelDescriptors.put(
 				ExternalTemperatureSILModel.URI,
 				RTAtomicHIOA_Descriptor.create(
-						ExternalTemperatureSILModel.class,
+						externalTemperatureModelClass(runParameters),
 						ExternalTemperatureSILModel.URI,
 						simulatedTimeUnit,
 						null,
@@ -349,6 +410,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 	 * pre	{@code rootModelURI != null && !rootModelURI.isEmpty()}
 	 * pre	{@code simulatedTimeUnit != null}
 	 * pre	{@code accelerationFactor > 0.0}
+	 * pre	{@code runParameters != null}
 	 * post	{@code return != null}
 	 * post {@code return.getArchitectureURI().equals(architectureURI)}
 	 * post	{@code return.getRootModelURI().equals(rootModelURI)}
@@ -357,6 +419,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 	 *
 	 * @param architectureURI		URI to be given to the created simulation architecture.
 	 * @param accelerationFactor	acceleration factor used to execute in a logical time speeding up the real time.
+	 * @param runParameters			run parameters of the runs of the architecture, used to choose its models.
 	 * @return						the local SIL real time simulation architecture for the unit tests of the {@code Heater} component.
 	 * @throws Exception			<i>to do</i>.
 	 */
@@ -364,7 +427,8 @@ public abstract class	Local_SIL_SimulationArchitectures
 		String architectureURI,
 		String rootModelURI,
 		TimeUnit simulatedTimeUnit,
-		double accelerationFactor
+		double accelerationFactor,
+		Map<String,Object> runParameters
 		) throws Exception
 	{
 		assert	architectureURI != null && !architectureURI.isEmpty() :
@@ -377,6 +441,8 @@ public abstract class	Local_SIL_SimulationArchitectures
 				new PreconditionException("simulatedTimeUnit != null");
 		assert	accelerationFactor > 0.0 :
 				new PreconditionException("accelerationFactor > 0.0");
+		assert	runParameters != null :
+				new PreconditionException("runParameters != null");
 
 		// map that will contain the atomic model descriptors to construct
 		// the simulation architecture
@@ -397,7 +463,7 @@ public abstract class	Local_SIL_SimulationArchitectures
 		atomicModelDescriptors.put(
 				ExternalTemperatureSILModel.URI,
 				RTAtomicHIOA_Descriptor.create(
-						ExternalTemperatureSILModel.class,
+						externalTemperatureModelClass(runParameters),
 						ExternalTemperatureSILModel.URI,
 						simulatedTimeUnit,
 						null,
@@ -520,5 +586,290 @@ public abstract class	Local_SIL_SimulationArchitectures
 
 		return architecture;
 	}
+
+	/**
+	 * create the local software-in-the-loop simulation architecture of a
+	 * building which rooms are each heated by a heater.
+	 * 
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p>
+	 * In this simulation architecture, the temperatures of all of the rooms
+	 * and the states of their heaters are simulated by one
+	 * {@code BuildingThermalSILModel} instead of one
+	 * {@code HeaterStateSILModel} and one {@code HeaterTemperatureSILModel}
+	 * per room:
+	 * </p>
+	 * <ol>
+	 * <li>The root coupled model imports the {@code SIL_RoomHeaterEvent}
+	 *   events, which wrap the heater events with the index of the room of
+	 *   their heater, and passes them to the
+	 *   {@code BuildingThermalSILModel}.</li>
+	 * <li>The {@code ExternalTemperatureSILModel} provides the external
+	 *   temperature imported by the {@code BuildingThermalSILModel}.</li>
+	 * </ol>
+	 * <p>
+	 * The electricity models of the heaters are not part of this
+	 * architecture. The number of rooms is the one of the network of the
+	 * building model.
+	 * </p>
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code architectureURI != null && !architectureURI.isEmpty()}
+	 * pre	{@code rootModelURI != null && !rootModelURI.isEmpty()}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * pre	{@code runParameters != null}
+	 * post	{@code return != null}
+	 * post {@code return.getArchitectureURI().equals(architectureURI)}
+	 * post	{@code return.getRootModelURI().equals(rootModelURI)}
+	 * post	{@code return.getSimulationTimeUnit().equals(simulatedTimeUnit)}
+	 * </pre>
+	 *
+	 * @param architectureURI		URI to be given to the created simulation architecture.
+	 * @param rootModelURI			URI of the root model in the simulation architecture.
+	 * @param simulatedTimeUnit		simulated time unit used in the architecture.
+	 * @param accelerationFactor	acceleration factor used to execute in a logical time speeding up the real time.
+	 * @param runParameters			run parameters of the runs of the architecture, used to choose its models.
+	 * @return						the local software-in-the-loop real time simulation architecture of the building.
+	 * @throws Exception			<i>to do</i>.
+	 */
+	public static RTArchitecture	createBuildingSIL_Architecture(
+		String architectureURI,
+		String rootModelURI,
+		TimeUnit simulatedTimeUnit,
+		double accelerationFactor,
+		Map<String,Object> runParameters
+		) throws Exception
+	{
+		assert	architectureURI != null && !architectureURI.isEmpty() :
+				new PreconditionException(
+						"architectureURI != null && !architectureURI.isEmpty()");
+		assert	rootModelURI != null && !rootModelURI.isEmpty() :
+				new PreconditionException(
+						"rootModelURI != null && !rootModelURI.isEmpty()");
+		assert	simulatedTimeUnit != null :
+				new PreconditionException("simulatedTimeUnit != null");
+		assert	accelerationFactor > 0.0 :
+				new PreconditionException("accelerationFactor > 0.0");
+		assert	runParameters != null :
+				new PreconditionException("runParameters != null");
+
+		Map<String,AbstractAtomicModelDescriptor> atomicModelDescriptors =
+															new HashMap<>();
+		Map<String,CoupledModelDescriptor> coupledModelDescriptors =
+															new HashMap<>();
+		addBuildingModels(atomicModelDescriptors, coupledModelDescriptors,
+						  rootModelURI, simulatedTimeUnit, accelerationFactor,
+						  runParameters);
+
+		return new RTArchitecture(architectureURI,
+								  rootModelURI,
+								  atomicModelDescriptors,
+								  coupledModelDescriptors,
+								  simulatedTimeUnit,
+								  accelerationFactor);
+	}
+
+	/**
+	 * create the software-in-the-loop simulation architecture of a building
+	 * for unit tests, where the coupled model of the building created by
+	 * {@code createBuildingSIL_Architecture} receives the
+	 * {@code SIL_RoomHeaterEvent} events from a
+	 * {@code BuildingUnitTesterSILModel} running a test scenario.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code architectureURI != null && !architectureURI.isEmpty()}
+	 * pre	{@code rootModelURI != null && !rootModelURI.isEmpty()}
+	 * pre	{@code !rootModelURI.equals(BUILDING_COUPLED_MODEL_URI)}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * pre	{@code runParameters != null}
+	 * post	{@code return != null}
+	 * post {@code return.getArchitectureURI().equals(architectureURI)}
+	 * post	{@code return.getRootModelURI().equals(rootModelURI)}
+	 * post	{@code return.getSimulationTimeUnit().equals(simulatedTimeUnit)}
+	 * </pre>
+	 *
+	 * @param architectureURI		URI to be given to the created simulation architecture.
+	 * @param rootModelURI			URI of the root model in the simulation architecture.
+	 * @param simulatedTimeUnit		simulated time unit used in the architecture.
+	 * @param accelerationFactor	acceleration factor used to execute in a logical time speeding up the real time.
+	 * @param runParameters			run parameters of the runs of the architecture, used to choose its models.
+	 * @return						the software-in-the-loop real time simulation architecture for the unit tests of the building.
+	 * @throws Exception			<i>to do</i>.
+	 */
+	public static RTArchitecture	createBuildingSIL_Architecture4UnitTest(
+		String architectureURI,
+		String rootModelURI,
+		TimeUnit simulatedTimeUnit,
+		double accelerationFactor,
+		Map<String,Object> runParameters
+		) throws Exception
+	{
+		assert	architectureURI != null && !architectureURI.isEmpty() :
+				new PreconditionException(
+						"architectureURI != null && !architectureURI.isEmpty()");
+		assert	rootModelURI != null && !rootModelURI.isEmpty() :
+				new PreconditionException(
+						"rootModelURI != null && !rootModelURI.isEmpty()");
+		assert	!rootModelURI.equals(BUILDING_COUPLED_MODEL_URI) :
+				new PreconditionException(
+						"!rootModelURI.equals(BUILDING_COUPLED_MODEL_URI)");
+		assert	simulatedTimeUnit != null :
+				new PreconditionException("simulatedTimeUnit != null");
+		assert	accelerationFactor > 0.0 :
+				new PreconditionException("accelerationFactor > 0.0");
+		assert	runParameters != null :
+				new PreconditionException("runParameters != null");
+
+		Map<String,AbstractAtomicModelDescriptor> atomicModelDescriptors =
+															new HashMap<>();
+		Map<String,CoupledModelDescriptor> coupledModelDescriptors =
+															new HashMap<>();
+		addBuildingModels(atomicModelDescriptors, coupledModelDescriptors,
+						  BUILDING_COUPLED_MODEL_URI, simulatedTimeUnit,
+						  accelerationFactor, runParameters);
+
+		atomicModelDescriptors.put(
+				BuildingUnitTesterSILModel.URI,
+				RTAtomicModelDescriptor.create(
+						BuildingUnitTesterSILModel.class,
+						BuildingUnitTesterSILModel.URI,
+						simulatedTimeUnit,
+						null,
+						accelerationFactor));
+
+		Set<String> submodels = new HashSet<String>();
+		submodels.add(BuildingUnitTesterSILModel.URI);
+		submodels.add(BUILDING_COUPLED_MODEL_URI);
+
+		Map<EventSource,EventSink[]> connections =
+									new HashMap<EventSource,EventSink[]>();
+		connections.put(
+				new EventSource(BuildingUnitTesterSILModel.URI,
+								SIL_RoomHeaterEvent.class),
+				new EventSink[] {
+						new EventSink(BUILDING_COUPLED_MODEL_URI,
+									  SIL_RoomHeaterEvent.class)
+				});
+
+		coupledModelDescriptors.put(
+				rootModelURI,
+				new RTCoupledHIOA_Descriptor(
+						HeaterCoupledModel.class,
+						rootModelURI,
+						submodels,
+						null,
+						null,
+						connections,
+						null,
+						null,
+						null,
+						null,
+						accelerationFactor));
+
+		return new RTArchitecture(architectureURI,
+								  rootModelURI,
+								  atomicModelDescriptors,
+								  coupledModelDescriptors,
+								  simulatedTimeUnit,
+								  accelerationFactor);
+	}
+
+	/**
+	 * add to the descriptor maps the descriptors of the models of a building
+	 * composed under a coupled model {@code coupledModelURI} which imports
+	 * the {@code SIL_RoomHeaterEvent} events.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code atomicModelDescriptors != null}
+	 * pre	{@code coupledModelDescriptors != null}
+	 * pre	{@code coupledModelURI != null && !coupledModelURI.isEmpty()}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code accelerationFactor > 0.0}
+	 * pre	{@code runParameters != null}
+	 * post	{@code coupledModelDescriptors.containsKey(coupledModelURI)}
+	 * </pre>
+	 *
+	 * @param atomicModelDescriptors	map of the atomic model descriptors to be completed.
+	 * @param coupledModelDescriptors	map of the coupled model descriptors to be completed.
+	 * @param coupledModelURI			URI of the coupled model of the building.
+	 * @param simulatedTimeUnit			simulated time unit used in the architecture.
+	 * @param accelerationFactor		acceleration factor used to execute in a logical time speeding up the real time.
+	 * @param runParameters				run parameters of the runs of the architecture, used to choose its models.
+	 * @throws Exception				<i>to do</i>.
+	 */
+	protected static void	addBuildingModels(
+		Map<String,AbstractAtomicModelDescriptor> atomicModelDescriptors,
+		Map<String,CoupledModelDescriptor> coupledModelDescriptors,
+		String coupledModelURI,
+		TimeUnit simulatedTimeUnit,
+		double accelerationFactor,
+		Map<String,Object> runParameters
+		) throws Exception
+	{
+		atomicModelDescriptors.put(
+				ExternalTemperatureSILModel.URI,
+				RTAtomicHIOA_Descriptor.create(
+						externalTemperatureModelClass(runParameters),
+						ExternalTemperatureSILModel.URI,
+						simulatedTimeUnit,
+						null,
+						accelerationFactor));
+		atomicModelDescriptors.put(
+				BuildingThermalSILModel.URI,
+				RTAtomicHIOA_Descriptor.create(
+						BuildingThermalSILModel.class,
+						BuildingThermalSILModel.URI,
+						simulatedTimeUnit,
+						null,
+						accelerationFactor));
+
+		Set<String> submodels = new HashSet<String>();
+		submodels.add(ExternalTemperatureSILModel.URI);
+		submodels.add(BuildingThermalSILModel.URI);
+
+		// the heater events of all of the rooms go to the building model
+		Map<Class<? extends EventI>,EventSink[]> imported = new HashMap<>();
+		imported.put(
+				SIL_RoomHeaterEvent.class,
+				new EventSink[] {
+					new EventSink(BuildingThermalSILModel.URI,
+								  SIL_RoomHeaterEvent.class)
+				});
+
+		Map<VariableSource,VariableSink[]> bindings =
+							new HashMap<VariableSource,VariableSink[]>();
+		bindings.put(new VariableSource("externalTemperature",
+										Double.class,
+										ExternalTemperatureSILModel.URI),
+					 new VariableSink[] {
+							 new VariableSink("externalTemperature",
+									 		  Double.class,
+									 		  BuildingThermalSILModel.URI)
+					 });
+
+		coupledModelDescriptors.put(
+				coupledModelURI,
+				new RTCoupledHIOA_Descriptor(
+						HeaterCoupledModel.class,
+						coupledModelURI,
+						submodels,
+						imported,
+						null,
+						new HashMap<EventSource,EventSink[]>(),
+						null,
+						null,
+						null,
+						bindings,
+						accelerationFactor));
+	}
 }
 // -----------------------------------------------------------------------------
@@ -0,0 +1,326 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import fr.sorbonne_u.components.cyphy.utils.tests.SimulationTestStep;
+import fr.sorbonne_u.components.cyphy.utils.tests.TestScenarioWithSimulation;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.HeaterSimulationConfigurationI;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.DoNotHeat;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.Heat;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.SwitchOffHeater;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_RoomHeaterEvent;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_RoomHeaterEvent.RoomHeaterEvent;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater.PowerValue;
+import fr.sorbonne_u.devs_simulation.architectures.RTArchitecture;
+import fr.sorbonne_u.devs_simulation.models.events.Event;
+import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
+import fr.sorbonne_u.devs_simulation.models.time.Duration;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import fr.sorbonne_u.devs_simulation.simulators.SimulationEngine;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulationReportI;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulatorI;
+import fr.sorbonne_u.exceptions.VerboseException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>RunBuildingSILSimulation</code> creates a simulator for
+ * the heaters of the rooms of a building and then runs a typical simulation.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The simulation architecture is the one created by
+ * {@code Local_SIL_SimulationArchitectures.createBuildingSIL_Architecture4UnitTest}:
+ * a {@code BuildingUnitTesterSILModel} emits the heater events of the rooms,
+ * wrapped in {@code SIL_RoomHeaterEvent} events, towards the coupled model of
+ * the building, which passes them to its {@code BuildingThermalSILModel}.
+ * The scenario makes all of the rooms heat, then stops the heating of the
+ * first half of the rooms, lowers the power of the heaters of the other
+ * half and finally switches all of the heaters off.
+ * </p>
+ * <p>
+ * When a file is given as first argument, the external temperature replays
+ * the weather trace of this file, the run parameters being passed to the
+ * creation of the architecture to choose the
+ * {@code WeatherTraceTemperatureSILModel}. The final report of the run is
+ * printed at its end.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code ACCELERATION_FACTOR > 0.0}
+ * invariant	{@code ROOMS > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			RunBuildingSILSimulation
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** the acceleration factor used in the real time SIL simulations.	 	*/
+	public static final double		ACCELERATION_FACTOR = 3600.0;
+	/** URI of the simulation architecture.									*/
+	public static final String		ARCHITECTURE_URI = "building-sil";
+	/** URI of the root coupled model.										*/
+	public static final String		ROOT_MODEL_URI = "BuildingTestCoupledModel";
+	/** number of rooms of the default network of the building model.		*/
+	public static final int			ROOMS =
+										BuildingThermalSILModel.GRID_WIDTH *
+										BuildingThermalSILModel.GRID_DEPTH;
+
+	// -------------------------------------------------------------------------
+	// Invariants
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the static invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the invariants are observed, false otherwise.
+	 */
+	public static boolean	staticInvariants()
+	{
+		boolean ret = true;
+		ret &= HeaterSimulationConfigurationI.staticInvariants();
+		ret &= BuildingThermalSILModel.staticInvariants();
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	public static void main(String[] args)
+	{
+		staticInvariants();
+		Time.setPrintPrecision(4);
+		Duration.setPrintPrecision(4);
+
+		try {
+			// run a CLASSICAL test scenario, which run parameters are needed
+			// to choose the models of the architecture
+			TestScenarioWithSimulation classical = classical();
+			System.out.println(classical.beginMessage());
+			Map<String, Object> classicalRunParameters =
+												new HashMap<String, Object>();
+			classical.addToRunParameters(classicalRunParameters);
+			if (args.length > 0) {
+				// replay the weather trace of the given file
+				classicalRunParameters.put(
+					ModelI.createRunParameterName(
+						ExternalTemperatureSILModel.URI,
+						WeatherTraceTemperatureSILModel.TRACE_FILE_RPNAME),
+					args[0]);
+			}
+
+			RTArchitecture architecture =
+				Local_SIL_SimulationArchitectures.
+					createBuildingSIL_Architecture4UnitTest(
+							ARCHITECTURE_URI,
+							ROOT_MODEL_URI,
+							HeaterSimulationConfigurationI.TIME_UNIT,
+							ACCELERATION_FACTOR,
+							classicalRunParameters);
+
+			// create the simulator from the simulation architecture
+			SimulatorI se = architecture.constructSimulator();
+			// this add additional time at each simulation step in
+			// standard simulations (useful when debugging)
+			SimulationEngine.SIMULATION_STEP_SLEEP_TIME = 0L;
+
+			se.setSimulationRunParameters(classicalRunParameters);
+			Time startTime = classical.getStartTime();
+			Duration d = classical.getEndTime().subtract(startTime);
+			long realTimeStart = System.currentTimeMillis() + 200;
+			se.startRTSimulation(realTimeStart,
+								 startTime.getSimulatedTime(),
+								 d.getSimulatedDuration());
+			long executionDuration =
+				new Double(
+						HeaterSimulationConfigurationI.TIME_UNIT.toMillis(1)
+							* (d.getSimulatedDuration()/ACCELERATION_FACTOR)).
+																	longValue();
+			Thread.sleep(executionDuration + 2000L);
+			SimulationReportI sr = se.getSimulatedModel().getFinalReport();
+			System.out.println(sr);
+			System.out.println(classical.endMessage());
+			System.exit(0);
+		} catch (Exception e) {
+			throw new RuntimeException(e) ;
+		}
+	}
+
+	/**
+	 * return the events wrapping the heater events created by
+	 * {@code heaterEvent} for the rooms {@code from} included to {@code to}
+	 * excluded.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from >= 0 && from <= to && to <= ROOMS}
+	 * pre	{@code t != null && heaterEvent != null}
+	 * post	{@code return.size() == to - from}
+	 * </pre>
+	 *
+	 * @param from			index of the first room.
+	 * @param to			index following the one of the last room.
+	 * @param t				time of occurrence of the events.
+	 * @param heaterEvent	function creating a heater event occurring at a given time.
+	 * @return				the events for the heaters of the rooms.
+	 */
+	protected static ArrayList<EventI>	roomEvents(
+		int from,
+		int to,
+		Time t,
+		Function<Time,Event> heaterEvent
+		)
+	{
+		ArrayList<EventI> ret = new ArrayList<>();
+		for (int i = from ; i < to ; i++) {
+			ret.add(new SIL_RoomHeaterEvent(
+							t, new RoomHeaterEvent(i, heaterEvent.apply(t))));
+		}
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Test scenarios
+	// -------------------------------------------------------------------------
+
+	/** the start instant used in the test scenarios.						*/
+	protected static Instant	START_INSTANT =
+									Instant.parse("2025-10-20T12:00:00.00Z");
+	/** the end instant used in the test scenarios.							*/
+	protected static Instant	END_INSTANT =
+									Instant.parse("2025-10-20T18:00:00.00Z");
+	/** the start time in simulated time, corresponding to
+	 *  {@code START_INSTANT}.												*/
+	protected static Time		START_TIME = new Time(0.0, TimeUnit.HOURS);
+
+	/** standard test scenario, see Gherkin specification.				 	
+	 * @throws VerboseException */
+	protected static TestScenarioWithSimulation	classical() throws VerboseException
+	{
+		return new TestScenarioWithSimulation(
+			"-----------------------------------------------------\n" +
+			"Classical\n\n" +
+			"  Gherkin specification\n\n" +
+			"    Feature: heating of the rooms of a building\n\n" +
+			"      Scenario: all of the rooms heat\n" +
+			"        Given a building which heaters are on and not heating\n" +
+			"        When they are all asked to heat\n" +
+			"        Then all of the rooms heat at the highest power level\n" +
+			"      Scenario: half of the rooms stop heating\n" +
+			"        Given a building which rooms all heat\n" +
+			"        When the heaters of the first half are asked not to heat\n" +
+			"        Then only the second half of the rooms heats\n" +
+			"      Scenario: half of the rooms heat at a lower power level\n" +
+			"        Given a building which second half of the rooms heats\n" +
+			"        When their heaters are set to a lower power level\n" +
+			"        Then they heat at the new power level\n" +
+			"      Scenario: heaters switched off\n" +
+			"        Given a building which heaters are on\n" +
+			"        When they are all switched off\n" +
+			"        Then they are all off\n" +
+			"-----------------------------------------------------\n",
+			"\n-----------------------------------------------------\n" +
+			"End Classical\n" +
+			"-----------------------------------------------------",
+			"fake-clock-URI",	// for simulation only test scenario, no clock needed
+			START_INSTANT,
+			END_INSTANT,
+			ROOT_MODEL_URI,
+			START_TIME,
+			(ts, simParams) -> {
+				simParams.put(
+					ModelI.createRunParameterName(
+						BuildingUnitTesterSILModel.URI,
+						BuildingUnitTesterSILModel.TEST_SCENARIO_RP_NAME),
+					ts);
+			},
+			new SimulationTestStep[]{
+				new SimulationTestStep(
+					BuildingUnitTesterSILModel.URI,
+					Instant.parse("2025-10-20T12:30:00.00Z"),
+					(m, t) -> roomEvents(0, ROOMS, t, ht -> new Heat(ht)),
+					(m, t) -> {}),
+				new SimulationTestStep(
+					BuildingUnitTesterSILModel.URI,
+					Instant.parse("2025-10-20T14:00:00.00Z"),
+					(m, t) -> roomEvents(0, ROOMS/2, t,
+										 ht -> new DoNotHeat(ht)),
+					(m, t) -> {}),
+				new SimulationTestStep(
+					BuildingUnitTesterSILModel.URI,
+					Instant.parse("2025-10-20T14:30:00.00Z"),
+					(m, t) -> roomEvents(ROOMS/2, ROOMS, t,
+										 ht -> new SIL_SetPowerHeater(
+												ht, new PowerValue(880.0))),
+					(m, t) -> {}),
+				new SimulationTestStep(
+					BuildingUnitTesterSILModel.URI,
+					Instant.parse("2025-10-20T16:30:00.00Z"),
+					(m, t) -> roomEvents(0, ROOMS, t,
+										 ht -> new SwitchOffHeater(ht)),
+					(m, t) -> {})
+			});
+	}
+}
+// -----------------------------------------------------------------------------
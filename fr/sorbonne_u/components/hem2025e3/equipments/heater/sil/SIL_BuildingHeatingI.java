@@ -0,0 +1,107 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+// -----------------------------------------------------------------------------
+/**
+ * The interface <code>SIL_BuildingHeatingI</code> defines the operations used
+ * by events to act upon the heaters of the rooms on the building thermal
+ * models.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A building model acts as the heater of its selected room: the operations
+ * of {@code SIL_HeaterOperationI} apply to the room selected by the last call
+ * to {@code selectRoom}, which lets the heater events be executed on the
+ * building model unchanged.
+ * </p>
+ * 
+ * <p><strong>Black-box Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code getSelectedRoom() >= 0 && getSelectedRoom() < getRooms()}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		SIL_BuildingHeatingI
+extends		SIL_HeaterOperationI
+{
+	/**
+	 * return the number of rooms of the building.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the number of rooms of the building.
+	 */
+	public int			getRooms();
+
+	/**
+	 * select the room {@code room} as the one which heater the operations
+	 * of {@code SIL_HeaterOperationI} apply to.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code room >= 0 && room < getRooms()}
+	 * post	{@code getSelectedRoom() == room}
+	 * </pre>
+	 *
+	 * @param room	index of the room.
+	 */
+	public void			selectRoom(int room);
+
+	/**
+	 * return the index of the room which heater the operations of
+	 * {@code SIL_HeaterOperationI} apply to.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return < getRooms()}
+	 * </pre>
+	 *
+	 * @return	the index of the selected room.
+	 */
+	public int			getSelectedRoom();
+}
+// -----------------------------------------------------------------------------
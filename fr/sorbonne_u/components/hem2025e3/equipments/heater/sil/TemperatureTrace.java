@@ -0,0 +1,757 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>TemperatureTrace</code> represents a trace of the external
+ * temperature, interpolated between its samples.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A trace is made of samples {@code (times[i], temperatures[i])}, the times
+ * being in hours from the beginning of the trace and strictly increasing.
+ * It is loaded once from a text file, each line giving a time and a
+ * temperature separated by a comma, a semicolon or blanks, empty lines and
+ * lines beginning with {@code #} being ignored, or from a binary file as
+ * written by {@code writeBinary}: the magic number {@code BINARY_MAGIC}, the
+ * number of samples as an int, then the times and the temperatures as
+ * doubles. Files which name ends with {@code .csv} or {@code .txt} are read
+ * as text, the others as binary.
+ * </p>
+ * <p>
+ * Between two samples, the temperature is a polynomial of the time since the
+ * first sample, {@code a + b*s + c*s^2 + d*s^3}, which coefficients are
+ * precomputed for each segment in primitive arrays, either for a linear
+ * interpolation or for a natural cubic spline. To find the segment of a time
+ * in constant time, the span of the trace is divided in buckets no wider
+ * than the shortest segment, up to {@code MAX_BUCKETS}, each one knowing the
+ * segment containing its beginning; a query then moves at most to the next
+ * segment. Evaluating the trace hence takes a constant time and does not
+ * allocate.
+ * </p>
+ * <p>
+ * A trace is cyclic or not: a cyclic trace repeats itself after its span,
+ * hence should end with the temperature at which it begins, while a
+ * non-cyclic one keeps its first and last temperatures before and after its
+ * span. {@code nextExit} gives the first time at which the temperature leaves
+ * a band, splitting the segments in monotone pieces at the extrema of their
+ * polynomial, which lets a model wake up only when the temperature has
+ * changed enough. Traces are immutable and can be shared among models.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code times.length >= 2}
+ * invariant	{@code a.length == times.length - 1 && b.length == a.length && c.length == a.length && d.length == a.length}
+ * invariant	{@code span > 0.0}
+ * invariant	{@code bucketSegment.length > 0 && bucketWidth > 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MAX_BUCKETS > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		TemperatureTrace
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The enumeration <code>Interpolation</code> defines the interpolations
+	 * of the temperature between the samples of a trace.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static enum	Interpolation
+	{
+		/** straight lines between the samples.								*/
+		LINEAR,
+		/** natural cubic spline through the samples.						*/
+		CUBIC
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** largest number of buckets indexing the segments.					*/
+	public static final int		MAX_BUCKETS = 1 << 20;
+	/** first int of the binary files of traces.							*/
+	public static final int		BINARY_MAGIC = 0x54454d50;	// "TEMP"
+	/** number of bisections to find the time a band is left.				*/
+	protected static final int	BISECTIONS = 50;
+
+	/** times of the samples in hours.										*/
+	protected final double[]	times;
+	/** constant coefficient of each segment.								*/
+	protected final double[]	a;
+	/** first order coefficient of each segment.							*/
+	protected final double[]	b;
+	/** second order coefficient of each segment.							*/
+	protected final double[]	c;
+	/** third order coefficient of each segment.							*/
+	protected final double[]	d;
+	/** interpolation between the samples.									*/
+	protected final Interpolation	interpolation;
+	/** true if the trace repeats itself after its span.					*/
+	protected final boolean		cyclic;
+	/** duration of the trace in hours.										*/
+	protected final double		span;
+	/** width of the buckets in hours.										*/
+	protected final double		bucketWidth;
+	/** segment containing the beginning of each bucket.					*/
+	protected final int[]		bucketSegment;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a trace from its samples; the arrays are not kept.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code times != null && temperatures != null}
+	 * pre	{@code times.length >= 2 && times.length == temperatures.length}
+	 * pre	{@code for all i > 0, times[i] > times[i-1]}
+	 * pre	{@code interpolation != null}
+	 * post	{@code valueAt(times[i]) == temperatures[i]}, within rounding
+	 * </pre>
+	 *
+	 * @param times			times of the samples in hours, strictly increasing.
+	 * @param temperatures	temperatures of the samples in Celsius.
+	 * @param interpolation	interpolation between the samples.
+	 * @param cyclic		true if the trace repeats itself after its span.
+	 */
+	public				TemperatureTrace(
+		double[] times,
+		double[] temperatures,
+		Interpolation interpolation,
+		boolean cyclic
+		)
+	{
+		assert	times != null && temperatures != null :
+				new PreconditionException(
+						"times != null && temperatures != null");
+		assert	times.length >= 2 && times.length == temperatures.length :
+				new PreconditionException(
+						"times.length >= 2 && "
+						+ "times.length == temperatures.length");
+		assert	interpolation != null :
+				new PreconditionException("interpolation != null");
+
+		int n = times.length;
+		double minSpacing = Double.POSITIVE_INFINITY;
+		for (int i = 1 ; i < n ; i++) {
+			assert	times[i] > times[i - 1] :
+					new PreconditionException(
+							"times[i] > times[i-1] for i = " + i);
+			minSpacing = Math.min(minSpacing, times[i] - times[i - 1]);
+		}
+
+		this.times = times.clone();
+		this.interpolation = interpolation;
+		this.cyclic = cyclic;
+		this.span = times[n - 1] - times[0];
+		this.a = new double[n - 1];
+		this.b = new double[n - 1];
+		this.c = new double[n - 1];
+		this.d = new double[n - 1];
+		if (interpolation == Interpolation.CUBIC && n > 2) {
+			this.computeSpline(temperatures);
+		} else {
+			for (int i = 0 ; i < n - 1 ; i++) {
+				this.a[i] = temperatures[i];
+				this.b[i] = (temperatures[i + 1] - temperatures[i])/
+												(times[i + 1] - times[i]);
+			}
+		}
+
+		int buckets = (int) Math.min(MAX_BUCKETS,
+									 Math.max(1L, (long) Math.ceil(
+												this.span/minSpacing)));
+		this.bucketWidth = this.span/buckets;
+		this.bucketSegment = new int[buckets];
+		int k = 0;
+		for (int j = 0 ; j < buckets ; j++) {
+			double t = times[0] + j * this.bucketWidth;
+			while (k < n - 2 && times[k + 1] <= t) {
+				k++;
+			}
+			this.bucketSegment[j] = k;
+		}
+	}
+
+	/**
+	 * compute the coefficients of the natural cubic spline through the
+	 * samples, solving the tridiagonal system of the second derivatives.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code y != null && y.length == times.length && y.length > 2}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param y	temperatures of the samples.
+	 */
+	protected void		computeSpline(double[] y)
+	{
+		int n = this.times.length;
+		double[] h = new double[n - 1];
+		for (int i = 0 ; i < n - 1 ; i++) {
+			h[i] = this.times[i + 1] - this.times[i];
+		}
+		// second derivatives, zero at both ends, by the Thomas algorithm
+		double[] m = new double[n];
+		double[] diag = new double[n];
+		double[] rhs = new double[n];
+		for (int i = 1 ; i < n - 1 ; i++) {
+			diag[i] = 2.0 * (h[i - 1] + h[i]);
+			rhs[i] = 6.0 * ((y[i + 1] - y[i])/h[i] - (y[i] - y[i - 1])/h[i - 1]);
+		}
+		for (int i = 2 ; i < n - 1 ; i++) {
+			double f = h[i - 1]/diag[i - 1];
+			diag[i] -= f * h[i - 1];
+			rhs[i] -= f * rhs[i - 1];
+		}
+		for (int i = n - 2 ; i >= 1 ; i--) {
+			m[i] = (rhs[i] - h[i] * m[i + 1])/diag[i];
+		}
+		for (int i = 0 ; i < n - 1 ; i++) {
+			this.a[i] = y[i];
+			this.b[i] = (y[i + 1] - y[i])/h[i] - h[i] * (2.0 * m[i] + m[i + 1])/6.0;
+			this.c[i] = m[i]/2.0;
+			this.d[i] = (m[i + 1] - m[i])/(6.0 * h[i]);
+		}
+	}
+
+	/**
+	 * load a trace from the file {@code file}, as text if its name ends with
+	 * {@code .csv} or {@code .txt} and as binary otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code file != null && interpolation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param file			file of the trace.
+	 * @param interpolation	interpolation between the samples.
+	 * @param cyclic		true if the trace repeats itself after its span.
+	 * @return				the trace of the file.
+	 * @throws IOException	when the file cannot be read or is malformed.
+	 */
+	public static TemperatureTrace	load(
+		Path file,
+		Interpolation interpolation,
+		boolean cyclic
+		) throws IOException
+	{
+		assert	file != null && interpolation != null :
+				new PreconditionException(
+						"file != null && interpolation != null");
+
+		String name = file.getFileName().toString().toLowerCase();
+		if (name.endsWith(".csv") || name.endsWith(".txt")) {
+			try {
+				return parse(Files.readAllLines(file, StandardCharsets.UTF_8),
+							 interpolation, cyclic);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + ": " + e.getMessage(), e);
+			}
+		} else {
+			try (InputStream in = Files.newInputStream(file)) {
+				return readBinary(in, interpolation, cyclic);
+			}
+		}
+	}
+
+	/**
+	 * parse a trace from the lines of its textual description.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code lines != null && interpolation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param lines			lines of the description of the trace.
+	 * @param interpolation	interpolation between the samples.
+	 * @param cyclic		true if the trace repeats itself after its span.
+	 * @return				the trace described by the lines.
+	 * @throws IllegalArgumentException	when a line is malformed, the times are not increasing or there are less than two samples.
+	 */
+	public static TemperatureTrace	parse(
+		List<String> lines,
+		Interpolation interpolation,
+		boolean cyclic
+		)
+	{
+		assert	lines != null && interpolation != null :
+				new PreconditionException(
+						"lines != null && interpolation != null");
+
+		double[] times = new double[Math.max(2, lines.size())];
+		double[] temperatures = new double[times.length];
+		int count = 0;
+		for (int n = 0 ; n < lines.size() ; n++) {
+			String line = lines.get(n).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("[,;\\s]+");
+			try {
+				if (fields.length != 2) {
+					throw new IllegalArgumentException(
+										"not of the form <hours>,<celsius>");
+				}
+				times[count] = Double.parseDouble(fields[0]);
+				temperatures[count] = Double.parseDouble(fields[1]);
+				if (count > 0 && !(times[count] > times[count - 1])) {
+					throw new IllegalArgumentException(
+										"time not after the previous one");
+				}
+				count++;
+			} catch (RuntimeException e) {
+				throw new IllegalArgumentException(
+							"temperature trace line " + (n + 1) + ": "
+							+ e.getMessage() + " in \"" + line + "\"", e);
+			}
+		}
+		if (count < 2) {
+			throw new IllegalArgumentException(
+							"temperature trace has less than two samples");
+		}
+		return new TemperatureTrace(Arrays.copyOf(times, count),
+									Arrays.copyOf(temperatures, count),
+									interpolation, cyclic);
+	}
+
+	/**
+	 * read a trace in binary form from {@code in}, which is not closed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code in != null && interpolation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param in			stream of the trace.
+	 * @param interpolation	interpolation between the samples.
+	 * @param cyclic		true if the trace repeats itself after its span.
+	 * @return				the trace read from the stream.
+	 * @throws IOException	when the stream cannot be read or is malformed.
+	 */
+	public static TemperatureTrace	readBinary(
+		InputStream in,
+		Interpolation interpolation,
+		boolean cyclic
+		) throws IOException
+	{
+		assert	in != null && interpolation != null :
+				new PreconditionException(
+						"in != null && interpolation != null");
+
+		DataInputStream data =
+						new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != BINARY_MAGIC) {
+			throw new IOException("not a binary temperature trace");
+		}
+		int n = data.readInt();
+		if (n < 2) {
+			throw new IOException(
+							"temperature trace has less than two samples");
+		}
+		double[] times = new double[n];
+		double[] temperatures = new double[n];
+		for (int i = 0 ; i < n ; i++) {
+			times[i] = data.readDouble();
+			if (i > 0 && !(times[i] > times[i - 1])) {
+				throw new IOException(
+						"temperature trace time " + i
+						+ " not after the previous one");
+			}
+		}
+		for (int i = 0 ; i < n ; i++) {
+			temperatures[i] = data.readDouble();
+		}
+		return new TemperatureTrace(times, temperatures, interpolation,
+									cyclic);
+	}
+
+	/**
+	 * write the samples of the trace in binary form to {@code out}, which is
+	 * not closed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code out != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param out			stream receiving the trace.
+	 * @throws IOException	when the stream cannot be written.
+	 */
+	public void			writeBinary(OutputStream out) throws IOException
+	{
+		assert	out != null : new PreconditionException("out != null");
+
+		DataOutputStream data =
+						new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(BINARY_MAGIC);
+		data.writeInt(this.times.length);
+		for (int i = 0 ; i < this.times.length ; i++) {
+			data.writeDouble(this.times[i]);
+		}
+		for (int i = 0 ; i < this.times.length ; i++) {
+			// the samples are the constant coefficients, but the last one
+			data.writeDouble(i < this.a.length ?
+								this.a[i]
+							:	this.polynomial(i - 1,
+										this.times[i] - this.times[i - 1]));
+		}
+		data.flush();
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of samples of the trace.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 2}
+	 * </pre>
+	 *
+	 * @return	the number of samples of the trace.
+	 */
+	public int			getSamples()
+	{
+		return this.times.length;
+	}
+
+	/**
+	 * return the duration of the trace in hours.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0.0}
+	 * </pre>
+	 *
+	 * @return	the duration of the trace in hours.
+	 */
+	public double		getSpan()
+	{
+		return this.span;
+	}
+
+	/**
+	 * return the interpolation between the samples.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the interpolation between the samples.
+	 */
+	public Interpolation	getInterpolation()
+	{
+		return this.interpolation;
+	}
+
+	/**
+	 * return the time within the span of the trace corresponding to
+	 * {@code t}, wrapped if the trace is cyclic and clamped otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= times[0] && return <= times[times.length - 1]}
+	 * </pre>
+	 *
+	 * @param t	time in hours.
+	 * @return	the corresponding time within the span of the trace.
+	 */
+	protected double	localise(double t)
+	{
+		double offset = t - this.times[0];
+		if (this.cyclic) {
+			offset %= this.span;
+			if (offset < 0.0) {
+				offset += this.span;
+			}
+		} else {
+			offset = Math.max(0.0, Math.min(this.span, offset));
+		}
+		return this.times[0] + offset;
+	}
+
+	/**
+	 * return the segment containing the time {@code x} within the span.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code x >= times[0] && x <= times[times.length - 1]}
+	 * post	{@code return >= 0 && return < times.length - 1}
+	 * </pre>
+	 *
+	 * @param x	time within the span of the trace.
+	 * @return	the index of the segment containing {@code x}.
+	 */
+	protected int		segment(double x)
+	{
+		int j = (int) ((x - this.times[0])/this.bucketWidth);
+		if (j >= this.bucketSegment.length) {
+			j = this.bucketSegment.length - 1;
+		}
+		int k = this.bucketSegment[j];
+		// at most one move when the buckets are narrower than the segments
+		final int last = this.times.length - 2;
+		while (k < last && this.times[k + 1] <= x) {
+			k++;
+		}
+		return k;
+	}
+
+	/**
+	 * return the value of the polynomial of the segment {@code k} at
+	 * {@code s} hours from its beginning.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code k >= 0 && k < times.length - 1}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param k	index of the segment.
+	 * @param s	time from the beginning of the segment in hours.
+	 * @return	the value of the polynomial of the segment.
+	 */
+	protected double	polynomial(int k, double s)
+	{
+		return this.a[k] + s * (this.b[k] + s * (this.c[k] + s * this.d[k]));
+	}
+
+	/**
+	 * return the temperature at time {@code t}, in constant time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	time in hours.
+	 * @return	the temperature in Celsius at time {@code t}.
+	 */
+	public double		valueAt(double t)
+	{
+		double x = this.localise(t);
+		int k = this.segment(x);
+		return this.polynomial(k, x - this.times[k]);
+	}
+
+	/**
+	 * return the first time after {@code t} at which the temperature is out
+	 * of the open band {@code (low, high)}, or infinity if it never is; the
+	 * temperature at {@code t} is assumed in the band.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code low < high}
+	 * post	{@code return > t}
+	 * </pre>
+	 *
+	 * @param t		time in hours.
+	 * @param low	lower bound of the band in Celsius.
+	 * @param high	upper bound of the band in Celsius.
+	 * @return		the first time after {@code t} at which the temperature leaves the band.
+	 */
+	public double		nextExit(double t, double low, double high)
+	{
+		assert	low < high : new PreconditionException("low < high");
+
+		double x = this.localise(t);
+		if (!this.cyclic && t - this.times[0] >= this.span) {
+			// constant after the end of the trace
+			return Double.POSITIVE_INFINITY;
+		}
+		// time of the beginning of the current segment in the time of t
+		int k = this.segment(x);
+		double base = t - (x - this.times[k]);
+		double s0 = x - this.times[k];
+		// a cyclic trace is scanned over one span and one segment at most
+		int segments = this.a.length;
+		for (int scanned = 0 ; scanned <= segments ; scanned++) {
+			double h = this.times[k + 1] - this.times[k];
+			double s = this.exitInSegment(k, s0, h, low, high);
+			if (!Double.isNaN(s)) {
+				return Math.max(base + s, Math.nextUp(t));
+			}
+			base += h;
+			s0 = 0.0;
+			k++;
+			if (k == segments) {
+				if (!this.cyclic) {
+					return Double.POSITIVE_INFINITY;
+				}
+				k = 0;
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * return the first time in {@code (s0, h]} from the beginning of the
+	 * segment {@code k} at which its polynomial is out of the open band
+	 * {@code (low, high)}, or NaN if none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code k >= 0 && k < times.length - 1}
+	 * pre	{@code s0 >= 0.0 && s0 <= h}
+	 * post	{@code Double.isNaN(return) || return > s0 && return <= h}
+	 * </pre>
+	 *
+	 * @param k		index of the segment.
+	 * @param s0	time from which the segment is scanned.
+	 * @param h		duration of the segment.
+	 * @param low	lower bound of the band.
+	 * @param high	upper bound of the band.
+	 * @return		the time of the exit from the beginning of the segment or NaN.
+	 */
+	protected double	exitInSegment(
+		int k,
+		double s0,
+		double h,
+		double low,
+		double high
+		)
+	{
+		// the extrema of the polynomial split the segment in monotone pieces
+		double e1 = Double.NaN;
+		double e2 = Double.NaN;
+		if (this.d[k] != 0.0 || this.c[k] != 0.0) {
+			double qa = 3.0 * this.d[k];
+			double qb = 2.0 * this.c[k];
+			double qc = this.b[k];
+			if (qa == 0.0) {
+				e1 = -qc/qb;
+			} else {
+				double delta = qb * qb - 4.0 * qa * qc;
+				if (delta >= 0.0) {
+					double r = Math.sqrt(delta);
+					e1 = (-qb - r)/(2.0 * qa);
+					e2 = (-qb + r)/(2.0 * qa);
+					if (e1 > e2) {
+						double tmp = e1;
+						e1 = e2;
+						e2 = tmp;
+					}
+				}
+			}
+		}
+		double u = s0;
+		for (double v : new double[]{e1, e2, h}) {
+			if (!(v > u) || v > h) {
+				continue;
+			}
+			double pv = this.polynomial(k, v);
+			if (pv <= low || pv >= high) {
+				// monotone on [u, v], in the band at u and out of it at v
+				double lo = u;
+				double hi = v;
+				for (int i = 0 ; i < BISECTIONS && hi - lo > 1.0e-12 ; i++) {
+					double mid = 0.5 * (lo + hi);
+					double pm = this.polynomial(k, mid);
+					if (pm <= low || pm >= high) {
+						hi = mid;
+					} else {
+						lo = mid;
+					}
+				}
+				return hi;
+			}
+			u = v;
+		}
+		return Double.NaN;
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,257 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>ThermalRelaxation</code> represents the exact solution of
+ * the thermal equation of the heater temperature model from a given state,
+ * as long as the heater state, its power and the external temperature do not
+ * change.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Under constant inputs, the equation of the model is linear in the room
+ * temperature: {@code T' = -rate * (T - equilibrium)}, where the rate sums
+ * the inverses of the transfer constants and the equilibrium is their
+ * weighted mean of the external and heating temperatures. From the
+ * temperature {@code T0} at time {@code t0}, the temperature relaxes
+ * exponentially towards the equilibrium:
+ * </p>
+ * <pre>
+ * T(t) = equilibrium + (T0 - equilibrium) * exp(-rate * (t - t0))
+ * </pre>
+ * <p>
+ * which gives in closed form the temperature at any time, its integral over
+ * any interval and the time at which it reaches a given temperature, if
+ * ever. Relaxations are immutable, so that a model can publish a new one at
+ * each of its transitions and other threads read a consistent one.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code rate > 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public final class		ThermalRelaxation
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** time of the initial temperature, in the time unit of the model.		*/
+	protected final double	startTime;
+	/** initial temperature in Celsius.										*/
+	protected final double	startTemperature;
+	/** rate of the relaxation per time unit of the model.					*/
+	protected final double	rate;
+	/** temperature towards which the temperature relaxes, in Celsius.		*/
+	protected final double	equilibrium;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a relaxation from {@code startTemperature} at {@code startTime}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code rate > 0.0}
+	 * post	{@code temperatureAt(startTime) == startTemperature}
+	 * </pre>
+	 *
+	 * @param startTime			time of the initial temperature.
+	 * @param startTemperature	initial temperature in Celsius.
+	 * @param rate				rate of the relaxation per time unit.
+	 * @param equilibrium		temperature towards which the temperature relaxes.
+	 */
+	public				ThermalRelaxation(
+		double startTime,
+		double startTemperature,
+		double rate,
+		double equilibrium
+		)
+	{
+		assert	rate > 0.0 : new PreconditionException("rate > 0.0");
+
+		this.startTime = startTime;
+		this.startTemperature = startTemperature;
+		this.rate = rate;
+		this.equilibrium = equilibrium;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the time of the initial temperature.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time of the initial temperature.
+	 */
+	public double		getStartTime()
+	{
+		return this.startTime;
+	}
+
+	/**
+	 * return the temperature towards which the temperature relaxes.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the temperature towards which the temperature relaxes.
+	 */
+	public double		getEquilibrium()
+	{
+		return this.equilibrium;
+	}
+
+	/**
+	 * return the temperature at time {@code t}, the initial one if {@code t}
+	 * precedes the start time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	a time in the time unit of the model.
+	 * @return	the temperature at time {@code t}.
+	 */
+	public double		temperatureAt(double t)
+	{
+		double d = Math.max(0.0, t - this.startTime);
+		return this.equilibrium + (this.startTemperature - this.equilibrium)*
+												Math.exp(-this.rate*d);
+	}
+
+	/**
+	 * return the derivative of the temperature at time {@code t}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	a time in the time unit of the model.
+	 * @return	the derivative of the temperature at time {@code t}.
+	 */
+	public double		derivativeAt(double t)
+	{
+		return -this.rate*(this.temperatureAt(t) - this.equilibrium);
+	}
+
+	/**
+	 * return the integral of the temperature over the interval from
+	 * {@code from} to {@code to}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from >= getStartTime() && to >= from}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param from	beginning of the interval.
+	 * @param to	end of the interval.
+	 * @return		the integral of the temperature over the interval.
+	 */
+	public double		integral(double from, double to)
+	{
+		assert	from >= this.startTime && to >= from :
+				new PreconditionException("from >= getStartTime() && to >= from");
+
+		double gap = this.temperatureAt(from) - this.equilibrium;
+		return this.equilibrium*(to - from) +
+					gap*(-Math.expm1(-this.rate*(to - from)))/this.rate;
+	}
+
+	/**
+	 * return the duration from the start time after which the temperature
+	 * reaches {@code temperature}, or {@code Double.POSITIVE_INFINITY} if it
+	 * never does.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param temperature	a temperature in Celsius.
+	 * @return				the duration after which it is reached or infinity.
+	 */
+	public double		durationTo(double temperature)
+	{
+		double ratio = (temperature - this.equilibrium)/
+								(this.startTemperature - this.equilibrium);
+		if (ratio > 0.0 && ratio <= 1.0) {
+			return -Math.log(ratio)/this.rate;
+		} else {
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,792 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
+import fr.sorbonne_u.components.hem2025e2.GlobalReportI;
+import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
+import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
+import fr.sorbonne_u.devs_simulation.hioa.annotations.ExportedVariable;
+import fr.sorbonne_u.devs_simulation.hioa.annotations.ModelExportedVariable;
+import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA;
+import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
+import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
+import fr.sorbonne_u.devs_simulation.models.time.Duration;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.AtomicSimulatorI;
+import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulationReportI;
+import fr.sorbonne_u.devs_simulation.utils.Pair;
+import fr.sorbonne_u.devs_simulation.utils.StandardLogger;
+import fr.sorbonne_u.devs_simulation.utils.AssertionChecking;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>WeatherTraceTemperatureSILModel</code> defines a simulation
+ * model of the external temperature replaying a weather trace.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Where the {@code ExternalTemperatureSILModel} computes the external
+ * temperature at each of its steps, this model follows a
+ * {@code TemperatureTrace} loaded once from the file {@code TRACE_FILE}, or
+ * the one given by the run parameter {@code TRACE_FILE_RPNAME}, and shared by
+ * all of the models using the same file, interpolation and cyclicity. The
+ * hours of the trace are counted from the beginning of the simulation.
+ * </p>
+ * <p>
+ * Instead of stepping, the model computes from the trace the first time at
+ * which the interpolated temperature moves away from its exported value by
+ * {@code TOLERANCE} or more and makes its next internal transition at that
+ * time, to export the new value. Hence, the exported value never differs from
+ * the trace by more than the tolerance and the value, with its time, changes
+ * only when the weather does, so that mild weather costs few transitions.
+ * The model can replace the {@code ExternalTemperatureSILModel} under the
+ * same URI in the architectures, as {@code Local_SIL_SimulationArchitectures}
+ * does when the run parameters given to create them set the trace file or
+ * else when {@code TRACE_FILE} is not null.
+ * </p>
+ * <p>
+ * The simulation report gives the mean of the exported temperature over the
+ * run, accumulated at each update as the exported value is constant between
+ * them, and its extreme values.
+ * </p>
+ * 
+ * <ul>
+ * <li>Imported events: none</li>
+ * <li>Exported events: none</li>
+ * <li>Imported variables: none</li>
+ * <li>Exported variables:
+ *   <ul>
+ *   <li>name = {@code externalTemperature}, type = {@code Double}</li>
+ *   </ul>
+ * </li>
+ * </ul>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code tolerance > 0.0}
+ * invariant	{@code hoursPerTimeUnit > 0.0}
+ * invariant	{@code nextUpdate == null || nextUpdate.getSimulatedDuration() >= 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code URI != null && !URI.isEmpty()}
+ * invariant	{@code TOLERANCE > 0.0}
+ * invariant	{@code INTERPOLATION != null}
+ * invariant	{@code TRACE_FILE_RPNAME != null && !TRACE_FILE_RPNAME.isEmpty()}
+ * invariant	{@code TOLERANCE_RPNAME != null && !TOLERANCE_RPNAME.isEmpty()}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+// -----------------------------------------------------------------------------
+@ModelExportedVariable(name = "externalTemperature", type = Double.class)
+// -----------------------------------------------------------------------------
+public class			WeatherTraceTemperatureSILModel
+extends		AtomicHIOA
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long		serialVersionUID = 1L;
+
+	// The following variables should be considered constant but can be changed
+	// before the first model instance is created to adapt the simulation
+	// scenario.
+
+	/** URI for a model; works when only one instance is created.			*/
+	public static String		URI = WeatherTraceTemperatureSILModel.class.
+															getSimpleName();
+	/** when true, leaves a trace of the execution of the model.			*/
+	public static boolean		VERBOSE = false;
+	/** when true, leaves a debugging trace of the execution of the model.	*/
+	public static boolean		DEBUG = false;
+
+	/** file of the weather trace, or null to use the
+	 *  {@code ExternalTemperatureSILModel} in the architectures.			*/
+	public static String		TRACE_FILE = null;
+	/** interpolation of the weather traces.								*/
+	public static TemperatureTrace.Interpolation	INTERPOLATION =
+									TemperatureTrace.Interpolation.CUBIC;
+	/** true if the weather traces repeat themselves after their span.		*/
+	public static boolean		CYCLIC = true;
+	/** change of the temperature in Celsius triggering an update.			*/
+	public static double		TOLERANCE = 0.1;
+
+	/** traces already loaded, by file, interpolation and cyclicity.		*/
+	protected static final Map<String,TemperatureTrace>	TRACES =
+											new ConcurrentHashMap<>();
+
+	/** file of the weather trace of this model.							*/
+	protected String			traceFile;
+	/** weather trace followed by this model.								*/
+	protected TemperatureTrace	trace;
+	/** change of the temperature triggering an update.						*/
+	protected double			tolerance;
+	/** number of hours per simulated time unit.							*/
+	protected final double		hoursPerTimeUnit;
+	/** delay until the next update or null before the initialisation.		*/
+	protected Duration			nextUpdate;
+	/** number of updates of the external temperature, for the simulation
+	 *  report.																*/
+	protected long				updates;
+	/** accumulator to compute the mean external temperature for the
+	 *  simulation report.													*/
+	protected double			temperatureAcc;
+	/** the simulation time of start used to compute the mean temperature.	*/
+	protected Time				start;
+	/** time of the last update of the exported temperature.				*/
+	protected Time				lastUpdate;
+	/** lowest exported temperature, for the simulation report.			*/
+	protected double			minTemperature;
+	/** highest exported temperature, for the simulation report.			*/
+	protected double			maxTemperature;
+	/** the mean external temperature over the simulation duration for the
+	 *  simulation report.													*/
+	protected double			meanTemperature;
+
+	// -------------------------------------------------------------------------
+	// HIOA model variables
+	// -------------------------------------------------------------------------
+
+	/** current external temperature in Celsius.							*/
+	@ExportedVariable(type = Double.class)
+	protected final Value<Double>	externalTemperature =
+												new Value<Double>(this);
+
+	// -------------------------------------------------------------------------
+	// Invariants
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the implementation invariants are observed, false
+	 * otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the implementation invariants are observed, false otherwise.
+	 */
+	protected static boolean	implementationInvariants(
+		WeatherTraceTemperatureSILModel instance
+		)
+	{
+		assert	instance != null :
+				new NeoSim4JavaException(
+						"Precondition violation: instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.tolerance > 0.0,
+				WeatherTraceTemperatureSILModel.class,
+				instance,
+				"tolerance > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.hoursPerTimeUnit > 0.0,
+				WeatherTraceTemperatureSILModel.class,
+				instance,
+				"hoursPerTimeUnit > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.nextUpdate == null ||
+					instance.nextUpdate.getSimulatedDuration() >= 0.0,
+				WeatherTraceTemperatureSILModel.class,
+				instance,
+				"nextUpdate == null || "
+				+ "nextUpdate.getSimulatedDuration() >= 0.0");
+		return ret;
+	}
+
+	/**
+	 * return true if the static invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the static invariants are observed, false otherwise.
+	 */
+	public static boolean	staticInvariants()
+	{
+		boolean ret = true;
+		ret &= AssertionChecking.checkStaticInvariant(
+				URI != null && !URI.isEmpty(),
+				WeatherTraceTemperatureSILModel.class,
+				"URI != null && !URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				TOLERANCE > 0.0,
+				WeatherTraceTemperatureSILModel.class,
+				"TOLERANCE > 0.0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				INTERPOLATION != null,
+				WeatherTraceTemperatureSILModel.class,
+				"INTERPOLATION != null");
+		ret &= AssertionChecking.checkStaticInvariant(
+				TRACE_FILE_RPNAME != null && !TRACE_FILE_RPNAME.isEmpty(),
+				WeatherTraceTemperatureSILModel.class,
+				"TRACE_FILE_RPNAME != null && !TRACE_FILE_RPNAME.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				TOLERANCE_RPNAME != null && !TOLERANCE_RPNAME.isEmpty(),
+				WeatherTraceTemperatureSILModel.class,
+				"TOLERANCE_RPNAME != null && !TOLERANCE_RPNAME.isEmpty()");
+		return ret;
+	}
+
+	/**
+	 * return true if the invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the invariants are observed, false otherwise.
+	 */
+	protected static boolean	invariants(
+		WeatherTraceTemperatureSILModel instance
+		)
+	{
+		assert	instance != null :
+				new NeoSim4JavaException(
+						"Precondition violation: instance != null");
+
+		boolean ret = true;
+		ret &= staticInvariants();
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a <code>WeatherTraceTemperatureSILModel</code> instance.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code uri == null || !uri.isEmpty()}
+	 * pre	{@code simulatedTimeUnit != null}
+	 * pre	{@code simulationEngine != null && !simulationEngine.isModelSet()}
+	 * pre	{@code simulationEngine instanceof AtomicEngine}
+	 * post	{@code !isDebugModeOn()}
+	 * post	{@code getURI() != null && !getURI().isEmpty()}
+	 * post	{@code uri == null || getURI().equals(uri)}
+	 * post	{@code getSimulatedTimeUnit().equals(simulatedTimeUnit)}
+	 * post	{@code getSimulationEngine().equals(simulationEngine)}
+	 * </pre>
+	 *
+	 * @param uri				URI of the model.
+	 * @param simulatedTimeUnit	time unit used for the simulation time.
+	 * @param simulationEngine	simulation engine to which the model is attached.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	public				WeatherTraceTemperatureSILModel(
+		String uri,
+		TimeUnit simulatedTimeUnit,
+		AtomicSimulatorI simulationEngine
+		) throws Exception
+	{
+		super(uri, simulatedTimeUnit, simulationEngine);
+
+		this.traceFile = TRACE_FILE;
+		this.tolerance = TOLERANCE;
+		this.hoursPerTimeUnit =
+				simulatedTimeUnit.toNanos(1L)/(double) TimeUnit.HOURS.toNanos(1L);
+		this.getSimulationEngine().setLogger(new StandardLogger());
+
+		assert	WeatherTraceTemperatureSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel."
+						+ "implementationInvariants(this)");
+		assert	WeatherTraceTemperatureSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel.invariants(this)");
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the trace of the file {@code file}, loading it on its first use
+	 * only.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code file != null && interpolation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param file			file of the trace.
+	 * @param interpolation	interpolation between the samples.
+	 * @param cyclic		true if the trace repeats itself after its span.
+	 * @return				the trace of the file.
+	 * @throws IOException	when the file cannot be read or is malformed.
+	 */
+	public static TemperatureTrace	getTrace(
+		String file,
+		TemperatureTrace.Interpolation interpolation,
+		boolean cyclic
+		) throws IOException
+	{
+		assert	file != null && interpolation != null :
+				new NeoSim4JavaException(
+						"Precondition violation: file != null && "
+						+ "interpolation != null");
+
+		String key = file + '|' + interpolation + '|' + cyclic;
+		TemperatureTrace ret = TRACES.get(key);
+		if (ret == null) {
+			ret = TemperatureTrace.load(Paths.get(file), interpolation, cyclic);
+			TemperatureTrace previous = TRACES.putIfAbsent(key, ret);
+			if (previous != null) {
+				ret = previous;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * return the hours of the trace corresponding to the simulated time
+	 * {@code t}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	simulated time.
+	 * @return	the hours of the trace corresponding to {@code t}.
+	 */
+	protected double	toHours(Time t)
+	{
+		return t.getSimulatedTime() * this.hoursPerTimeUnit;
+	}
+
+	/**
+	 * set the exported temperature to the one of the trace at {@code t} and
+	 * compute the delay until the trace moves away from it by the tolerance.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code nextUpdate != null}
+	 * </pre>
+	 *
+	 * @param t	current simulated time.
+	 * @return	the temperature of the trace at {@code t}.
+	 */
+	protected double	sampleTrace(Time t)
+	{
+		double h = this.toHours(t);
+		double v = this.trace.valueAt(h);
+		double exit = this.trace.nextExit(h, v - this.tolerance,
+											 v + this.tolerance);
+		if (Double.isInfinite(exit)) {
+			this.nextUpdate = Duration.INFINITY;
+		} else {
+			this.nextUpdate = new Duration((exit - h)/this.hoursPerTimeUnit,
+										   this.getSimulatedTimeUnit());
+		}
+		return v;
+	}
+
+	/**
+	 * accumulate the exported temperature, constant since its last update,
+	 * until {@code t} for the mean temperature of the simulation report.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	current simulated time.
+	 */
+	protected void		accumulateTemperature(Time t)
+	{
+		this.temperatureAcc +=
+				this.externalTemperature.getValue() *
+							t.subtract(this.lastUpdate).getSimulatedDuration();
+		this.lastUpdate = t;
+	}
+
+	/**
+	 * update the extreme values of the exported temperature with
+	 * {@code v}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param v	new exported temperature.
+	 */
+	protected void		recordExtremes(double v)
+	{
+		this.minTemperature = Math.min(this.minTemperature, v);
+		this.maxTemperature = Math.max(this.maxTemperature, v);
+	}
+
+	// -------------------------------------------------------------------------
+	// DEVS simulation protocol
+	// -------------------------------------------------------------------------
+
+	/** run parameter name for the file of the weather trace.				*/
+	public static final String		TRACE_FILE_RPNAME = "TRACE_FILE";
+	/** run parameter name for the tolerance on the temperature.			*/
+	public static final String		TOLERANCE_RPNAME = "TOLERANCE";
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#setSimulationRunParameters(Map)
+	 */
+	@Override
+	public void			setSimulationRunParameters(
+		Map<String, Object> simParams
+		) throws MissingRunParameterException
+	{
+		super.setSimulationRunParameters(simParams);
+
+		String traceFileName =
+				ModelI.createRunParameterName(this.getURI(), TRACE_FILE_RPNAME);
+		if (simParams.containsKey(traceFileName)) {
+			this.traceFile = (String) simParams.get(traceFileName);
+		}
+		String toleranceName =
+				ModelI.createRunParameterName(this.getURI(), TOLERANCE_RPNAME);
+		if (simParams.containsKey(toleranceName)) {
+			this.tolerance = (double) simParams.get(toleranceName);
+		}
+
+		if (simParams.containsKey(
+						AtomicSimulatorPlugin.OWNER_RUNTIME_PARAMETER_NAME)) {
+			this.getSimulationEngine().setLogger(
+						AtomicSimulatorPlugin.createComponentLogger(simParams));
+		}
+
+		assert	WeatherTraceTemperatureSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel."
+						+ "implementationInvariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA#initialiseState(fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void			initialiseState(Time initialTime)
+	{
+		if (this.traceFile == null) {
+			throw new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel: no weather trace, "
+						+ "set TRACE_FILE or the run parameter "
+						+ TRACE_FILE_RPNAME + ".");
+		}
+		try {
+			this.trace = getTrace(this.traceFile, INTERPOLATION, CYCLIC);
+		} catch (IOException e) {
+			throw new NeoSim4JavaException(e);
+		}
+		// the first update is scheduled before the variables are initialised
+		this.sampleTrace(initialTime);
+		this.updates = 0L;
+		this.temperatureAcc = 0.0;
+		this.start = initialTime;
+		this.lastUpdate = initialTime;
+		this.minTemperature = Double.POSITIVE_INFINITY;
+		this.maxTemperature = Double.NEGATIVE_INFINITY;
+
+		if (VERBOSE) {
+			this.logMessage("simulation begins with the weather trace "
+							+ this.traceFile + " of "
+							+ this.trace.getSamples() + " samples.");
+		}
+
+		super.initialiseState(initialTime);
+
+		assert	WeatherTraceTemperatureSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel."
+						+ "implementationInvariants(this)");
+		assert	WeatherTraceTemperatureSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel.invariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.interfaces.VariableInitialisationI#useFixpointInitialiseVariables()
+	 */
+	@Override
+	public boolean		useFixpointInitialiseVariables()
+	{
+		return true;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.interfaces.VariableInitialisationI#fixpointInitialiseVariables()
+	 */
+	@Override
+	public Pair<Integer, Integer>	fixpointInitialiseVariables()
+	{
+		int justInitialised = 0;
+		int notInitialisedYet = 0;
+
+		// the external temperature only depends upon the trace
+		if (!this.externalTemperature.isInitialised()) {
+			this.externalTemperature.initialise(
+							this.sampleTrace(this.getCurrentStateTime()));
+			this.recordExtremes(this.externalTemperature.getValue());
+			justInitialised++;
+		}
+
+		return new Pair<>(justInitialised, notInitialisedYet);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI#output()
+	 */
+	@Override
+	public ArrayList<EventI>	output()
+	{
+		return null;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#timeAdvance()
+	 */
+	@Override
+	public Duration		timeAdvance()
+	{
+		return this.nextUpdate;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedInternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
+	 */
+	@Override
+	public void			userDefinedInternalTransition(Duration elapsedTime)
+	{
+		Time t = this.getCurrentStateTime();
+		this.accumulateTemperature(t);
+		this.externalTemperature.setNewValue(this.sampleTrace(t), t);
+		this.recordExtremes(this.externalTemperature.getValue());
+		this.updates++;
+
+		if (VERBOSE) {
+			StringBuffer message = new StringBuffer();
+			message.append(t.getSimulatedTime());
+			message.append(" : external temperature ");
+			message.append(this.externalTemperature.getValue());
+			message.append(", next update in ");
+			message.append(this.nextUpdate.getSimulatedDuration());
+			this.logMessage(message.toString());
+		}
+
+		super.userDefinedInternalTransition(elapsedTime);
+
+		assert	WeatherTraceTemperatureSILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel."
+						+ "implementationInvariants(this)");
+		assert	WeatherTraceTemperatureSILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"WeatherTraceTemperatureSILModel.invariants(this)");
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA#endSimulation(fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void			endSimulation(Time endTime)
+	{
+		this.accumulateTemperature(endTime);
+		double d = endTime.subtract(this.start).getSimulatedDuration();
+		this.meanTemperature = d > 0.0 ?
+									this.temperatureAcc/d
+								:	this.externalTemperature.getValue();
+
+		if (VERBOSE) {
+			this.logMessage("simulation ends after " + this.updates
+							+ " updates of the external temperature.");
+		}
+		super.endSimulation(endTime);
+	}
+
+	// -------------------------------------------------------------------------
+	// Optional DEVS simulation protocol: simulation report
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>WeatherTraceReport</code> implements the simulation
+	 * report for the <code>WeatherTraceTemperatureSILModel</code>.
+	 *
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p><strong>Implementation Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code true}	// no more invariant
+	 * </pre>
+	 * 
+	 * <p><strong>Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code true}	// no more invariant
+	 * </pre>
+	 * 
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static class		WeatherTraceReport
+	implements	SimulationReportI, GlobalReportI
+	{
+		private static final long serialVersionUID = 1L;
+		protected String	modelURI;
+		protected String	traceFile;
+		protected double	tolerance;
+		protected long		updates;
+		protected double	meanTemperature;
+		protected double	minTemperature;
+		protected double	maxTemperature;
+
+		public			WeatherTraceReport(
+			String modelURI,
+			String traceFile,
+			double tolerance,
+			long updates,
+			double meanTemperature,
+			double minTemperature,
+			double maxTemperature
+			)
+		{
+			super();
+			this.modelURI = modelURI;
+			this.traceFile = traceFile;
+			this.tolerance = tolerance;
+			this.updates = updates;
+			this.meanTemperature = meanTemperature;
+			this.minTemperature = minTemperature;
+			this.maxTemperature = maxTemperature;
+		}
+
+		@Override
+		public String	getModelURI()
+		{
+			return this.modelURI;
+		}
+
+		@Override
+		public String	printout(String indent)
+		{
+			StringBuffer ret = new StringBuffer(indent);
+			ret.append("---\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append(this.modelURI);
+			ret.append(" report\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("weather trace = ");
+			ret.append(this.traceFile);
+			ret.append(", tolerance = ");
+			ret.append(this.tolerance);
+			ret.append(".\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("updates of the external temperature = ");
+			ret.append(this.updates);
+			ret.append(".\n");
+			ret.append(indent);
+			ret.append('|');
+			ret.append("mean temperature = ");
+			ret.append(this.meanTemperature);
+			ret.append(", in [");
+			ret.append(this.minTemperature);
+			ret.append(", ");
+			ret.append(this.maxTemperature);
+			ret.append("].\n");
+			ret.append(indent);
+			ret.append("---\n");
+			return ret.toString();
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.interfaces.ModelI#getFinalReport()
+	 */
+	@Override
+	public SimulationReportI	getFinalReport()
+	{
+		return new WeatherTraceReport(this.getURI(),
+									  this.traceFile,
+									  this.tolerance,
+									  this.updates,
+									  this.meanTemperature,
+									  this.minTemperature,
+									  this.maxTemperature);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,270 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
+import fr.sorbonne_u.devs_simulation.models.events.Event;
+import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.events.EventInformationI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import fr.sorbonne_u.components.hem2025e2.equipments.heater.mil.events.HeaterEventI;
+import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.SIL_BuildingHeatingI;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>SIL_RoomHeaterEvent</code> defines the simulation event
+ * carrying a heater event towards the heater of one room of a building.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The heater events do not tell which heater they come from, hence this
+ * event wraps one of them, {@code SwitchOffHeater}, {@code SwitchOnHeater},
+ * {@code Heat}, {@code DoNotHeat} or {@code SIL_SetPowerHeater}, with the
+ * index of the room of the heater. When executed on the building thermal
+ * model, it selects the room and then executes the wrapped event on the
+ * model, which then acts as the heater of the selected room, so that the
+ * heater events keep their own semantics and checks.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			SIL_RoomHeaterEvent
+extends		Event
+{
+	// -------------------------------------------------------------------------
+	// Inner types and classes
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>RoomHeaterEvent</code> represents a heater event for
+	 * the heater of a room to be passed as an {@code EventInformationI} when
+	 * creating a {@code SIL_RoomHeaterEvent} event.
+	 *
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p><strong>Implementation Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code room >= 0}
+	 * invariant	{@code event instanceof HeaterEventI}
+	 * </pre>
+	 * 
+	 * <p><strong>Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code true}	// no more invariant
+	 * </pre>
+	 * 
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static class	RoomHeaterEvent
+	implements	EventInformationI
+	{
+		private static final long serialVersionUID = 1L;
+		/** index of the room.												*/
+		protected final int		room;
+		/** heater event for the heater of the room.						*/
+		protected final Event	event;
+
+		/**
+		 * create an instance of {@code RoomHeaterEvent}.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code room >= 0}
+		 * pre	{@code event instanceof HeaterEventI}
+		 * post	{@code getRoom() == room && getEvent() == event}
+		 * </pre>
+		 *
+		 * @param room	index of the room.
+		 * @param event	heater event for the heater of the room.
+		 */
+		public			RoomHeaterEvent(int room, Event event)
+		{
+			super();
+
+			assert	room >= 0 :
+					new NeoSim4JavaException(
+							"Precondition violation: room >= 0");
+			assert	event instanceof HeaterEventI :
+					new NeoSim4JavaException(
+							"Precondition violation: event instanceof "
+							+ "HeaterEventI");
+
+			this.room = room;
+			this.event = event;
+		}
+
+		/**
+		 * return the index of the room.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code return >= 0}
+		 * </pre>
+		 *
+		 * @return	the index of the room.
+		 */
+		public int		getRoom()	{ return this.room; }
+
+		/**
+		 * return the heater event for the heater of the room.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code return instanceof HeaterEventI}
+		 * </pre>
+		 *
+		 * @return	the heater event for the heater of the room.
+		 */
+		public Event	getEvent()	{ return this.event; }
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String	toString()
+		{
+			StringBuffer sb = new StringBuffer(this.getClass().getSimpleName());
+			sb.append('[');
+			sb.append(this.room);
+			sb.append(", ");
+			sb.append(this.event.getClass().getSimpleName());
+			sb.append(']');
+			return sb.toString();
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long		serialVersionUID = 1L;
+	/** the room and the heater event to be executed on its heater.			*/
+	protected final RoomHeaterEvent	roomEvent;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a {@code SIL_RoomHeaterEvent} event which content is a
+	 * {@code RoomHeaterEvent}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code timeOfOccurrence != null}
+	 * pre	{@code content != null && content instanceof RoomHeaterEvent}
+	 * post	{@code getTimeOfOccurrence().equals(timeOfOccurrence)}
+	 * post	{@code getEventInformation().equals(content)}
+	 * </pre>
+	 *
+	 * @param timeOfOccurrence	time at which the event must be executed in simulated time.
+	 * @param content			the room and the heater event to be executed on its heater.
+	 */
+	public				SIL_RoomHeaterEvent(
+		Time timeOfOccurrence,
+		EventInformationI content
+		)
+	{
+		super(timeOfOccurrence, content);
+
+		assert	content != null && content instanceof RoomHeaterEvent :
+				new NeoSim4JavaException(
+						"Precondition violation: event content is null or"
+						+ " not a RoomHeaterEvent " + content);
+
+		this.roomEvent = (RoomHeaterEvent) content;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.es.events.ES_Event#hasPriorityOver(fr.sorbonne_u.devs_simulation.models.events.EventI)
+	 */
+	@Override
+	public boolean		hasPriorityOver(EventI e)
+	{
+		// the events of different rooms commute while the ones of the same
+		// room keep the priorities of the heater events
+		if (e instanceof SIL_RoomHeaterEvent) {
+			RoomHeaterEvent other = ((SIL_RoomHeaterEvent)e).roomEvent;
+			return other.getRoom() == this.roomEvent.getRoom() &&
+				   this.roomEvent.getEvent().hasPriorityOver(other.getEvent());
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.events.Event#executeOn(fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI)
+	 */
+	@Override
+	public void			executeOn(AtomicModelI model)
+	{
+		assert	model instanceof SIL_BuildingHeatingI :
+				new NeoSim4JavaException(
+						"Precondition violation: model instanceof "
+						+ "SIL_BuildingHeatingI");
+
+		((SIL_BuildingHeatingI)model).selectRoom(this.roomEvent.getRoom());
+		this.roomEvent.getEvent().executeOn(model);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,200 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.cvm.AbstractCVM;
+import fr.sorbonne_u.components.cyphy.ExecutionMode;
+import fr.sorbonne_u.exceptions.VerboseException;
+import fr.sorbonne_u.utils.aclocks.ClocksServer;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>CVMDistrictMeter</code> deploys a district meter
+ * aggregating two electric meters and a reader of the district meter.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The two leaves are {@code ElectricMeterCyPhy} components executed in unit
+ * test mode, each one with its own reflection and inbound port URIs, the URIs
+ * of their other inbound ports being derived from the latter. The district
+ * meter is created by {@code DistrictMeter.createTree}, which gives a single
+ * node with two children, hence querying the first child on its fan-out
+ * executor service while its calling thread queries the second one. The
+ * {@code DistrictMeterReader} reads the district meter as it would read the
+ * meter of a house.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			CVMDistrictMeter
+extends		AbstractCVM
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** delay before starting the clock, leaving time to build and
+	 *  initialise the components.											*/
+	public static long				DELAY_TO_START = 3000L;
+	/** duration of the execution.											*/
+	public static long				EXECUTION_DURATION = 10000L;
+	/** duration of the sleep at the end of the execution before exiting
+	 *  the JVM.															*/
+	public static long				END_SLEEP_DURATION = 10000L;
+	/** acceleration factor of the clock shared by the components.			*/
+	public static double			ACCELERATION_FACTOR = 1.0;
+	/** URI of the clock shared by the components.							*/
+	public static String			CLOCK_URI = "district-meter-clock";
+	/** start instant of the clock, as a string to be parsed.				*/
+	public static String			START_INSTANT = "2025-12-02T06:00:00.00Z";
+
+	/** URIs of the reflection inbound ports of the two leaves.			*/
+	public static final String[]	LEAF_REFLECTION_INBOUND_PORT_URIS =
+										new String[]{
+											"ELECTRIC-METER-RIP-URI-1",
+											"ELECTRIC-METER-RIP-URI-2"};
+	/** URIs of the electric meter inbound ports of the two leaves.		*/
+	public static final String[]	LEAF_INBOUND_PORT_URIS =
+										new String[]{
+											"ELECTRIC-METER-1",
+											"ELECTRIC-METER-2"};
+	/** URI of the inbound port of the district meter.						*/
+	public static final String		DISTRICT_METER_INBOUND_PORT_URI =
+															"DISTRICT-METER";
+	/** number of readings made by the reader.								*/
+	public static int				NUMBER_OF_READINGS = 5;
+	/** period between two readings in milliseconds.						*/
+	public static long				READING_PERIOD = 1000L;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	public				CVMDistrictMeter() throws Exception
+	{
+		DistrictMeter.VERBOSE = true;
+		DistrictMeter.X_RELATIVE_POSITION = 1;
+		DistrictMeter.Y_RELATIVE_POSITION = 0;
+		DistrictMeterReader.X_RELATIVE_POSITION = 0;
+		DistrictMeterReader.Y_RELATIVE_POSITION = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// CVM life-cycle
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.components.cvm.AbstractCVM#deploy()
+	 */
+	@Override
+	public void			deploy() throws Exception
+	{
+		// start time of the components in Unix epoch time in milliseconds.
+		long unixEpochStartTimeInMillis =
+								System.currentTimeMillis() + DELAY_TO_START;
+
+		AbstractComponent.createComponent(
+				ClocksServer.class.getCanonicalName(),
+				new Object[]{
+						// URI of the clock to retrieve it
+						CLOCK_URI,
+						// start time in Unix epoch time
+						TimeUnit.MILLISECONDS.toNanos(
+										 		unixEpochStartTimeInMillis),
+						// start instant synchronised with the start time
+						Instant.parse(START_INSTANT),
+						ACCELERATION_FACTOR
+				});
+
+		for (int i = 0 ; i < LEAF_INBOUND_PORT_URIS.length ; i++) {
+			AbstractComponent.createComponent(
+					ElectricMeterCyPhy.class.getCanonicalName(),
+					new Object[]{
+							LEAF_REFLECTION_INBOUND_PORT_URIS[i],
+							LEAF_INBOUND_PORT_URIS[i],
+							ExecutionMode.UNIT_TEST,
+							CLOCK_URI
+					});
+		}
+
+		DistrictMeter.createTree(DISTRICT_METER_INBOUND_PORT_URI,
+								 LEAF_INBOUND_PORT_URIS,
+								 DistrictMeter.DEFAULT_FAN_OUT);
+
+		AbstractComponent.createComponent(
+				DistrictMeterReader.class.getCanonicalName(),
+				new Object[]{
+						DISTRICT_METER_INBOUND_PORT_URI,
+						CLOCK_URI,
+						NUMBER_OF_READINGS,
+						READING_PERIOD
+				});
+
+		super.deploy();
+	}
+
+	public static void	main(String[] args)
+	{
+		try {
+			VerboseException.VERBOSE = true;
+			VerboseException.PRINT_STACK_TRACE = true;
+
+			CVMDistrictMeter cvm = new CVMDistrictMeter();
+			cvm.startStandardLifeCycle(EXECUTION_DURATION);
+			Thread.sleep(END_SLEEP_DURATION);
+			System.exit(0);
+		} catch (Throwable e) {
+			e.printStackTrace();
+		}
+	}
+}
+// -----------------------------------------------------------------------------
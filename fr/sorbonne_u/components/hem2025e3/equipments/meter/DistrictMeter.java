@@ -0,0 +1,589 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import fr.sorbonne_u.alasca.physical_data.Measure;
+import fr.sorbonne_u.alasca.physical_data.SignalData;
+import fr.sorbonne_u.alasca.physical_data.TimedMeasure;
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.annotations.OfferedInterfaces;
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
+import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
+import fr.sorbonne_u.components.exceptions.ComponentStartException;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterCI;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterImplementationI;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.connections.ElectricMeterConnector;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.connections.ElectricMeterInboundPort;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.connections.ElectricMeterOutboundPort;
+import fr.sorbonne_u.exceptions.AssertionChecking;
+import fr.sorbonne_u.exceptions.ImplementationInvariantException;
+import fr.sorbonne_u.exceptions.InvariantException;
+import fr.sorbonne_u.exceptions.PostconditionException;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>DistrictMeter</code> implements a node of a tree of
+ * partial aggregators computing the electric power consumption and
+ * production of a district made of many houses, each one having its own
+ * electric meter.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A district meter offers the same {@code ElectricMeterCI} component
+ * interface as the {@code ElectricMeterCyPhy} of a house, and requires it from
+ * its children, which are either the meters of houses or other district
+ * meters. Its current consumption (resp. production) is the sum of the ones
+ * of its children, so that district meters compose into a tree which root
+ * gives the district-level powers to any client of an electric meter, like
+ * the household energy manager.
+ * </p>
+ * <p>
+ * A node queries its children in parallel, the calling thread querying the
+ * last child while the other ones are queried by tasks run on an executor
+ * service of the component, {@code FAN_OUT_EXECUTOR_SERVICE_URI}, having
+ * {@code children - 1} threads. The requests from the parent and the other
+ * clients are handled by the standard threads of the component, so that they
+ * never compete with the queries of the children. The latency of a query is therefore the one of its slowest child
+ * plus the summation, and the latency at the root grows with the depth of the
+ * tree, which is logarithmic in the number of houses when the tree is built
+ * by {@code createTree} with a fixed fan-out, rather than with the number of
+ * houses as for a single aggregator polling all of them in sequence.
+ * </p>
+ * <p>
+ * As the children are designated by the URIs of their inbound ports, which
+ * are connected through the standard BCM ports and connectors, a tree can
+ * span several JVMs in a distributed CVM: each JVM creates the subtree
+ * aggregating its local houses, and the JVM hosting the root creates the top
+ * of the tree over the URIs of the roots of these subtrees.
+ * </p>
+ * <p>
+ * The tension is the one of the first child, fetched at the first call and
+ * then cached, as all the houses of a district share the same network. The
+ * district powers are returned as untimed measures, stamped when the sum is
+ * computed, as the children may not share the same clock.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code inboundPortURI != null && !inboundPortURI.isEmpty()}
+ * invariant	{@code childrenURIs != null && childrenURIs.length > 0}
+ * invariant	{@code childrenURIs.length == 1 || fanOutExecutorIndex >= 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code X_RELATIVE_POSITION >= 0}
+ * invariant	{@code Y_RELATIVE_POSITION >= 0}
+ * invariant	{@code DEFAULT_FAN_OUT > 1}
+ * invariant	{@code FAN_OUT_EXECUTOR_SERVICE_URI != null && !FAN_OUT_EXECUTOR_SERVICE_URI.isEmpty()}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+//-----------------------------------------------------------------------------
+@OfferedInterfaces(offered={ElectricMeterCI.class})
+@RequiredInterfaces(required={ElectricMeterCI.class})
+//-----------------------------------------------------------------------------
+public class			DistrictMeter
+extends		AbstractComponent
+implements	ElectricMeterImplementationI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** when tracing, x coordinate of the window relative position.			*/
+	public static int			X_RELATIVE_POSITION = 0;
+	/** when tracing, y coordinate of the window relative position.			*/
+	public static int			Y_RELATIVE_POSITION = 0;
+	/** when true, some methods trace their actions.						*/
+	public static boolean		VERBOSE = false;
+
+	/** default number of children of the nodes built by
+	 *  {@code createTree}.													*/
+	public static final int		DEFAULT_FAN_OUT = 8;
+	/** URI of the executor service querying the children in parallel.		*/
+	public static final String	FAN_OUT_EXECUTOR_SERVICE_URI = "fan-out";
+
+	/** URI of the inbound port offering the {@code ElectricMeterCI}.		*/
+	protected final String					inboundPortURI;
+	/** URIs of the {@code ElectricMeterCI} inbound ports of the children.	*/
+	protected final String[]				childrenURIs;
+	/** inbound port offering the {@code ElectricMeterCI} interface.		*/
+	protected ElectricMeterInboundPort		emip;
+	/** outbound ports connected to the children, in the order of
+	 *  {@code childrenURIs}.												*/
+	protected ElectricMeterOutboundPort[]	childrenPorts;
+	/** index of the executor service querying all the children but the
+	 *  last in parallel, -1 when the node has only one child.				*/
+	protected final int						fanOutExecutorIndex;
+	/** tension of the network, fetched from the first child when first
+	 *  requested.															*/
+	protected volatile Measure<Double>		tension;
+
+	// -------------------------------------------------------------------------
+	// Invariants
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the implementation invariants are observed, false
+	 * otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the implementation invariants are observed, false otherwise.
+	 */
+	protected static boolean	implementationInvariants(DistrictMeter instance)
+	{
+		assert	instance != null :
+				new PreconditionException("instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.inboundPortURI != null &&
+										!instance.inboundPortURI.isEmpty(),
+					DistrictMeter.class, instance,
+					"inboundPortURI != null && !inboundPortURI.isEmpty()");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.childrenURIs != null &&
+										instance.childrenURIs.length > 0,
+					DistrictMeter.class, instance,
+					"childrenURIs != null && childrenURIs.length > 0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+					instance.childrenURIs.length == 1 ||
+											instance.fanOutExecutorIndex >= 0,
+					DistrictMeter.class, instance,
+					"childrenURIs.length == 1 || fanOutExecutorIndex >= 0");
+		return ret;
+	}
+
+	/**
+	 * return true if the invariants are observed, false otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code instance != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param instance	instance to be tested.
+	 * @return			true if the invariants are observed, false otherwise.
+	 */
+	protected static boolean	invariants(DistrictMeter instance)
+	{
+		assert	instance != null :
+				new PreconditionException("instance != null");
+
+		boolean ret = true;
+		ret &= AssertionChecking.checkInvariant(
+					X_RELATIVE_POSITION >= 0,
+					DistrictMeter.class, instance,
+					"X_RELATIVE_POSITION >= 0");
+		ret &= AssertionChecking.checkInvariant(
+					Y_RELATIVE_POSITION >= 0,
+					DistrictMeter.class, instance,
+					"Y_RELATIVE_POSITION >= 0");
+		ret &= AssertionChecking.checkInvariant(
+					DEFAULT_FAN_OUT > 1,
+					DistrictMeter.class, instance,
+					"DEFAULT_FAN_OUT > 1");
+		ret &= AssertionChecking.checkInvariant(
+					FAN_OUT_EXECUTOR_SERVICE_URI != null &&
+									!FAN_OUT_EXECUTOR_SERVICE_URI.isEmpty(),
+					DistrictMeter.class, instance,
+					"FAN_OUT_EXECUTOR_SERVICE_URI != null && "
+					+ "!FAN_OUT_EXECUTOR_SERVICE_URI.isEmpty()");
+		return ret;
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a district meter aggregating the meters which inbound ports are
+	 * designated by {@code childrenURIs}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code inboundPortURI != null && !inboundPortURI.isEmpty()}
+	 * pre	{@code childrenURIs != null && childrenURIs.length > 0}
+	 * pre	{@code Arrays.stream(childrenURIs).allMatch(u -> u != null && !u.isEmpty())}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param inboundPortURI	URI of the inbound port offering the {@code ElectricMeterCI}.
+	 * @param childrenURIs		URIs of the {@code ElectricMeterCI} inbound ports of the children.
+	 * @throws Exception		<i>to do</i>.
+	 */
+	protected			DistrictMeter(
+		String inboundPortURI,
+		String[] childrenURIs
+		) throws Exception
+	{
+		// two threads serve the requests from the parent and from other
+		// clients; the children are queried by the fan-out executor service
+		super(2, 0);
+
+		assert	inboundPortURI != null && !inboundPortURI.isEmpty() :
+				new PreconditionException(
+						"inboundPortURI != null && !inboundPortURI.isEmpty()");
+		assert	childrenURIs != null && childrenURIs.length > 0 :
+				new PreconditionException(
+						"childrenURIs != null && childrenURIs.length > 0");
+		assert	Arrays.stream(childrenURIs).
+							allMatch(u -> u != null && !u.isEmpty()) :
+				new PreconditionException(
+						"Arrays.stream(childrenURIs).allMatch("
+						+ "u -> u != null && !u.isEmpty())");
+
+		this.inboundPortURI = inboundPortURI;
+		this.childrenURIs = childrenURIs.clone();
+		if (childrenURIs.length > 1) {
+			this.fanOutExecutorIndex =
+					this.createNewExecutorService(FAN_OUT_EXECUTOR_SERVICE_URI,
+												  childrenURIs.length - 1,
+												  false);
+		} else {
+			this.fanOutExecutorIndex = -1;
+		}
+		this.emip = new ElectricMeterInboundPort(inboundPortURI, this);
+		this.emip.publishPort();
+
+		if (VERBOSE) {
+			this.tracer.get().setTitle("District meter " + inboundPortURI);
+			this.tracer.get().setRelativePosition(X_RELATIVE_POSITION,
+												  Y_RELATIVE_POSITION);
+			this.toggleTracing();
+		}
+
+		// Invariant checking
+		assert	DistrictMeter.implementationInvariants(this) :
+				new ImplementationInvariantException(
+						"DistrictMeter.implementationInvariants(this)");
+		assert	DistrictMeter.invariants(this) :
+				new InvariantException("DistrictMeter.invariants(this)");
+	}
+
+	// -------------------------------------------------------------------------
+	// Tree construction
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create in the current JVM a tree of district meters aggregating the
+	 * meters which inbound ports are designated by {@code meterURIs}, each
+	 * node having at most {@code fanOut} children, and return the URI of the
+	 * inbound port of its root, {@code rootURI}.
+	 * 
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p>
+	 * The meters are grouped in order by {@code fanOut} under the nodes of the
+	 * first level, themselves grouped by {@code fanOut} under the nodes of the
+	 * next level and so on until only one node remains, so that the tree has
+	 * a depth of {@code ceil(log(meterURIs.length)/log(fanOut))}. The inbound
+	 * ports of the intermediate nodes have URIs made of {@code rootURI}, their
+	 * level and their rank in the level. The method must be called during the
+	 * deployment of a CVM, each JVM of a distributed CVM creating the subtree
+	 * of its local meters, and the JVM hosting the root calling it again over
+	 * the URIs of the roots of the subtrees.
+	 * </p>
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code rootURI != null && !rootURI.isEmpty()}
+	 * pre	{@code meterURIs != null && meterURIs.length > 0}
+	 * pre	{@code fanOut > 1}
+	 * post	{@code rootURI.equals(return)}
+	 * </pre>
+	 *
+	 * @param rootURI		URI of the inbound port of the root of the tree.
+	 * @param meterURIs		URIs of the {@code ElectricMeterCI} inbound ports of the aggregated meters.
+	 * @param fanOut		maximum number of children of each node.
+	 * @return				the URI of the inbound port of the root of the tree.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public static String	createTree(
+		String rootURI,
+		String[] meterURIs,
+		int fanOut
+		) throws Exception
+	{
+		assert	rootURI != null && !rootURI.isEmpty() :
+				new PreconditionException("rootURI != null && !rootURI.isEmpty()");
+		assert	meterURIs != null && meterURIs.length > 0 :
+				new PreconditionException(
+						"meterURIs != null && meterURIs.length > 0");
+		assert	fanOut > 1 : new PreconditionException("fanOut > 1");
+
+		String[] level = meterURIs;
+		int depth = 0;
+		do {
+			int nodes = (level.length + fanOut - 1) / fanOut;
+			String[] next = new String[nodes];
+			for (int n = 0 ; n < nodes ; n++) {
+				next[n] = nodes == 1 ?
+							rootURI : rootURI + "-" + depth + "-" + n;
+				AbstractComponent.createComponent(
+						DistrictMeter.class.getCanonicalName(),
+						new Object[]{
+								next[n],
+								Arrays.copyOfRange(
+										level,
+										n * fanOut,
+										Math.min(level.length, (n + 1) * fanOut))
+						});
+			}
+			level = next;
+			depth++;
+		} while (level.length > 1);
+
+		assert	rootURI.equals(level[0]) :
+				new PostconditionException("rootURI.equals(return)");
+
+		return level[0];
+	}
+
+	// -------------------------------------------------------------------------
+	// Component life-cycle
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#start()
+	 */
+	@Override
+	public synchronized void	start() throws ComponentStartException
+	{
+		super.start();
+
+		try {
+			this.childrenPorts =
+					new ElectricMeterOutboundPort[this.childrenURIs.length];
+			for (int i = 0 ; i < this.childrenURIs.length ; i++) {
+				this.childrenPorts[i] = new ElectricMeterOutboundPort(this);
+				this.childrenPorts[i].publishPort();
+				this.doPortConnection(
+						this.childrenPorts[i].getPortURI(),
+						this.childrenURIs[i],
+						ElectricMeterConnector.class.getCanonicalName());
+			}
+		} catch (Exception e) {
+			throw new ComponentStartException(e) ;
+		}
+
+		if (VERBOSE) {
+			this.traceMessage("District meter starts with "
+							  + this.childrenURIs.length + " children.\n");
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#finalise()
+	 */
+	@Override
+	public synchronized void	finalise() throws Exception
+	{
+		for (int i = 0 ; i < this.childrenPorts.length ; i++) {
+			this.doPortDisconnection(this.childrenPorts[i].getPortURI());
+		}
+		super.finalise();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#shutdown()
+	 */
+	@Override
+	public synchronized void	shutdown() throws ComponentShutdownException
+	{
+		try {
+			for (int i = 0 ; i < this.childrenPorts.length ; i++) {
+				this.childrenPorts[i].unpublishPort();
+			}
+			this.emip.unpublishPort();
+		} catch (Exception e) {
+			throw new ComponentShutdownException(e) ;
+		}
+		super.shutdown();
+	}
+
+	// -------------------------------------------------------------------------
+	// Component services implementation
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterImplementationI#getTension()
+	 */
+	@Override
+	public Measure<Double>		getTension() throws Exception
+	{
+		Measure<Double> ret = this.tension;
+		if (ret == null) {
+			ret = this.childrenPorts[0].getTension();
+			this.tension = ret;
+		}
+		return ret;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterImplementationI#getCurrentConsumption()
+	 */
+	@Override
+	public SignalData<Double>	getCurrentConsumption() throws Exception
+	{
+		double total = this.sumChildren(true);
+
+		if (VERBOSE) {
+			this.traceMessage("District meter returns its current consumption "
+							  + total + ".\n");
+		}
+
+		return new SignalData<>(new TimedMeasure<Double>(total, POWER_UNIT));
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterImplementationI#getCurrentProduction()
+	 */
+	@Override
+	public SignalData<Double>	getCurrentProduction() throws Exception
+	{
+		double total = this.sumChildren(false);
+
+		if (VERBOSE) {
+			this.traceMessage("District meter returns its current production "
+							  + total + ".\n");
+		}
+
+		return new SignalData<>(new TimedMeasure<Double>(total, POWER_UNIT));
+	}
+
+	// -------------------------------------------------------------------------
+	// Component internal methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the sum of the current consumptions, when {@code consumption} is
+	 * true, or productions otherwise, of the children, queried in parallel.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code isStarted()}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param consumption	true to sum the consumptions, false to sum the productions.
+	 * @return				the sum of the current powers of the children in {@code POWER_UNIT}.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected double	sumChildren(boolean consumption) throws Exception
+	{
+		int last = this.childrenPorts.length - 1;
+		List<CompletableFuture<Double>> pending = new ArrayList<>(last);
+		for (int i = 0 ; i < last ; i++) {
+			final ElectricMeterOutboundPort p = this.childrenPorts[i];
+			final CompletableFuture<Double> f = new CompletableFuture<>();
+			pending.add(f);
+			this.runTask(
+				this.fanOutExecutorIndex,
+				o -> {
+					try {
+						f.complete(childPower(p, consumption));
+					} catch (Throwable e) {
+						f.completeExceptionally(e);
+					}
+				});
+		}
+
+		double total = childPower(this.childrenPorts[last], consumption);
+		try {
+			for (int i = 0 ; i < last ; i++) {
+				total += pending.get(i).get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof Exception ? (Exception) cause : e;
+		}
+
+		assert	total >= 0.0 : new PostconditionException("return >= 0.0");
+
+		return total;
+	}
+
+	/**
+	 * return the current consumption, when {@code consumption} is true, or
+	 * production otherwise, of the child connected to {@code p}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code p != null}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param p				outbound port connected to a child.
+	 * @param consumption	true to get the consumption, false to get the production.
+	 * @return				the current power of the child in {@code POWER_UNIT}.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected static double	childPower(
+		ElectricMeterOutboundPort p,
+		boolean consumption
+		) throws Exception
+	{
+		SignalData<Double> s = consumption ?
+									p.getCurrentConsumption()
+								:	p.getCurrentProduction();
+		return s.getMeasure().getData();
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,220 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+
+import fr.sorbonne_u.alasca.physical_data.SignalData;
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
+import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterCI;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.connections.ElectricMeterConnector;
+import fr.sorbonne_u.components.hem2025e1.equipments.meter.connections.ElectricMeterOutboundPort;
+import fr.sorbonne_u.exceptions.PreconditionException;
+import fr.sorbonne_u.utils.aclocks.AcceleratedClock;
+import fr.sorbonne_u.utils.aclocks.ClocksServer;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>DistrictMeterReader</code> implements a client reading the
+ * current consumption and production of an electric meter at a fixed period,
+ * used to demonstrate trees of {@code DistrictMeter}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The reader waits for the start of the clock shared with the meters, then
+ * makes {@code numberOfReadings} readings through the {@code ElectricMeterCI}
+ * component interface, {@code period} milliseconds apart, and traces them.
+ * As a district meter offers the same interface as the meter of a house, the
+ * reader can be connected to either one.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code meterInboundPortURI != null && !meterInboundPortURI.isEmpty()}
+ * invariant	{@code clockURI != null && !clockURI.isEmpty()}
+ * invariant	{@code numberOfReadings > 0}
+ * invariant	{@code period >= 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+@RequiredInterfaces(required={ElectricMeterCI.class})
+//-----------------------------------------------------------------------------
+public class			DistrictMeterReader
+extends		AbstractComponent
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** when tracing, x coordinate of the window relative position.			*/
+	public static int			X_RELATIVE_POSITION = 0;
+	/** when tracing, y coordinate of the window relative position.			*/
+	public static int			Y_RELATIVE_POSITION = 0;
+
+	/** URI of the inbound port of the meter to be read.					*/
+	protected final String				meterInboundPortURI;
+	/** URI of the clock shared with the meters.							*/
+	protected final String				clockURI;
+	/** number of readings to be made.										*/
+	protected final int					numberOfReadings;
+	/** period between two readings in milliseconds.						*/
+	protected final long				period;
+	/** outbound port connected to the meter.								*/
+	protected ElectricMeterOutboundPort	emop;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a reader of the meter which inbound port has the URI
+	 * {@code meterInboundPortURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code meterInboundPortURI != null && !meterInboundPortURI.isEmpty()}
+	 * pre	{@code clockURI != null && !clockURI.isEmpty()}
+	 * pre	{@code numberOfReadings > 0}
+	 * pre	{@code period >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param meterInboundPortURI	URI of the inbound port of the meter to be read.
+	 * @param clockURI				URI of the clock shared with the meters.
+	 * @param numberOfReadings		number of readings to be made.
+	 * @param period				period between two readings in milliseconds.
+	 * @throws Exception			<i>to do</i>.
+	 */
+	protected			DistrictMeterReader(
+		String meterInboundPortURI,
+		String clockURI,
+		int numberOfReadings,
+		long period
+		) throws Exception
+	{
+		super(1, 0);
+
+		assert	meterInboundPortURI != null && !meterInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"meterInboundPortURI != null && "
+						+ "!meterInboundPortURI.isEmpty()");
+		assert	clockURI != null && !clockURI.isEmpty() :
+				new PreconditionException(
+						"clockURI != null && !clockURI.isEmpty()");
+		assert	numberOfReadings > 0 :
+				new PreconditionException("numberOfReadings > 0");
+		assert	period >= 0 : new PreconditionException("period >= 0");
+
+		this.meterInboundPortURI = meterInboundPortURI;
+		this.clockURI = clockURI;
+		this.numberOfReadings = numberOfReadings;
+		this.period = period;
+		this.emop = new ElectricMeterOutboundPort(this);
+		this.emop.publishPort();
+
+		this.tracer.get().setTitle("District meter reader");
+		this.tracer.get().setRelativePosition(X_RELATIVE_POSITION,
+											  Y_RELATIVE_POSITION);
+		this.toggleTracing();
+	}
+
+	// -------------------------------------------------------------------------
+	// Component life-cycle
+	// -------------------------------------------------------------------------
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#execute()
+	 */
+	@Override
+	public synchronized void	execute() throws Exception
+	{
+		this.doPortConnection(
+				this.emop.getPortURI(),
+				this.meterInboundPortURI,
+				ElectricMeterConnector.class.getCanonicalName());
+
+		this.initialiseClock(ClocksServer.STANDARD_INBOUNDPORT_URI,
+							 this.clockURI);
+		AcceleratedClock ac = this.getClock();
+		ac.waitUntilStart();
+
+		for (int i = 0 ; i < this.numberOfReadings ; i++) {
+			SignalData<Double> c = this.emop.getCurrentConsumption();
+			SignalData<Double> p = this.emop.getCurrentProduction();
+			this.traceMessage("reading " + i + " of " + this.meterInboundPortURI
+							  + ": consumption " + c.getMeasure().getData()
+							  + ", production " + p.getMeasure().getData()
+							  + " " + c.getMeasure().getMeasurementUnit()
+							  + ".\n");
+			Thread.sleep(this.period);
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#finalise()
+	 */
+	@Override
+	public synchronized void	finalise() throws Exception
+	{
+		this.doPortDisconnection(this.emop.getPortURI());
+		super.finalise();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#shutdown()
+	 */
+	@Override
+	public synchronized void	shutdown() throws ComponentShutdownException
+	{
+		try {
+			this.emop.unpublishPort();
+		} catch (Exception e) {
+			throw new ComponentShutdownException(e) ;
+		}
+		super.shutdown();
+	}
+}
+// -----------------------------------------------------------------------------
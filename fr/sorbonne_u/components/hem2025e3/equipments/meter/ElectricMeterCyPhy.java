@@ -32,7 +32,9 @@ package fr.sorbonne_u.components.hem2025e3.equipments.meter;
 // The fact that you are presently reading this means that you have had
 // knowledge of the CeCILL-C license and that you accept its terms.
 
+import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.annotations.OfferedInterfaces; 
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
 import fr.sorbonne_u.components.cyphy.ExecutionMode;
 import fr.sorbonne_u.components.cyphy.annotations.LocalArchitecture;
@@ -42,6 +44,7 @@ import fr.sorbonne_u.components.cyphy.plugins.devs.RTAtomicSimulatorPlugin;
 import fr.sorbonne_u.components.cyphy.utils.aclocks.ClocksServerWithSimulation;
 import fr.sorbonne_u.components.cyphy.utils.tests.TestScenarioWithSimulation;
 import fr.sorbonne_u.components.exceptions.BCMException;
+import fr.sorbonne_u.components.exceptions.BCMRuntimeException;
 import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
 import fr.sorbonne_u.components.exceptions.ComponentStartException;
 import fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterCI;
@@ -60,10 +63,19 @@ import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.SwitchOf
 import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.ActivateWifiBoxWifi;
 import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.DeactivateWifiBoxWifi;
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterAnalyticsInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterCostInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterHistoryInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterNotificationConnector;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterNotificationOutboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterSubscriptionInboundPort;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.ElectricMeterElectricitySILModel;
 import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.LocalSimulationArchitectures;
 import fr.sorbonne_u.components.utils.tests.TestScenario;
 import fr.sorbonne_u.devs_simulation.architectures.RTArchitecture;
 import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
 import fr.sorbonne_u.devs_simulation.models.time.Time;
 import fr.sorbonne_u.exceptions.ImplementationInvariantException;
 import fr.sorbonne_u.exceptions.AssertionChecking;
@@ -73,12 +85,17 @@ import fr.sorbonne_u.utils.aclocks.ClocksServer;
 import fr.sorbonne_u.alasca.physical_data.Measure;
 import fr.sorbonne_u.alasca.physical_data.SignalData;
 import fr.sorbonne_u.alasca.physical_data.TimedMeasure;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 // -----------------------------------------------------------------------------
@@ -153,14 +170,74 @@ import java.util.function.Supplier;
  * local architectures of the appliances and production unit to propagate them
  * to the appropriate electricity models.
  * </p>
- * 
+ * <p>
+ * Each power consumption and production set by the simulator is also recorded
+ * in a fixed-memory {@code PowerHistory} keeping the last
+ * {@code HISTORY_CAPACITY} readings, which clients can query by time window,
+ * raw or downsampled, through the {@code ElectricMeterHistoryCI} component
+ * interface offered by an inbound port which URI is derived from the one of
+ * the electric meter inbound port by {@code historyInboundPortURI}, so that
+ * several meters can be deployed in the same JVM.
+ * </p>
+ * <p>
+ * Rather than polling the current consumption and production, clients can
+ * subscribe through the {@code ElectricMeterSubscriptionCI} component
+ * interface, giving a minimum change in power and a minimum interval between
+ * two notifications. The changes already detected when the simulator sets a
+ * new power, by comparison with the previous one up to {@code TOLERANCE}, are
+ * then filtered per subscriber by a {@code PowerSubscription} and pushed
+ * through the {@code ElectricMeterNotificationCI} component interface by the
+ * schedulable thread of the meter, so that the simulator never waits for the
+ * subscribers. The URI of the subscription inbound port is derived from the
+ * one of the electric meter inbound port by {@code subscriptionInboundPortURI}.
+ * </p>
+ * <p>
+ * In SIL runs, the simulation model of the meter also feeds a
+ * {@code PowerBalanceAnalytics} which it hands over to the meter, so that
+ * percentiles, time above threshold, peak demand and energy per appliance can
+ * be queried live through the {@code ElectricMeterAnalyticsCI} component
+ * interface, offered by an inbound port which URI is derived from the one of
+ * the electric meter inbound port by {@code analyticsInboundPortURI}.
+ * </p>
+ * <p>
+ * The current power consumption and production are kept as primitive values
+ * in {@code PowerReading}, written under a sequence lock by the simulator
+ * without allocating anything; the {@code SignalData} returned by
+ * {@code getCurrentPowerConsumption} and {@code getCurrentPowerProduction} is
+ * created only when read, and once per new reading.
+ * </p>
+ * <p>
+ * When {@code JOURNAL_DIRECTORY} is not null, each reading is also appended
+ * to a memory-mapped {@code MeterJournal} with the cumulative consumed energy,
+ * so that the readings survive the JVM. The journal of a meter is split in
+ * epochs, one per run: at initialisation, the meter rebuilds its histories
+ * from the last readings of the last epoch left by a previous run and opens
+ * the next epoch, and when a SIL simulation restarts from an earlier time,
+ * it starts yet another epoch rather than truncating the readings of the
+ * previous run. The journal is closed when the meter is finalised; offline
+ * jobs can read the epochs with a {@code MeterJournal.Reader}.
+ * </p>
+ * <p>
+ * When {@code TARIFF_FILE} is not null, the meter loads a time-of-use
+ * {@code TariffTable} from it and, in SIL runs, the simulation model of the
+ * meter feeds an {@code EnergyCostMeter} with the consumed power at each of
+ * its changes, so that the running cost of the consumed energy and the
+ * current price can be queried through the {@code ElectricMeterCostCI}
+ * component interface, offered by an inbound port which URI is derived from
+ * the one of the electric meter inbound port by {@code costInboundPortURI}.
+ * A sample tariff table, {@code time-of-use-tariff.txt}, is provided next to
+ * this class and used by the integration test.
+ * </p>
+ *
  * <p><strong>Implementation Invariants</strong></p>
  * 
  * <pre>
- * invariant	{@code currentPowerConsumption.get() == null || currentPowerConsumption.get().getMeasure().getData() >= 0.0 && currentPowerConsumption.get().getMeasure().getMeasurementUnit().equals(POWER_UNIT)}
- * invariant	{@code currentPowerProduction.get() == null || currentPowerProduction.get().getMeasure().getData() >= 0.0 && currentPowerProduction.get().getMeasure().getMeasurementUnit().equals(POWER_UNIT)}
+ * invariant	{@code !currentPowerConsumption.isSet() || currentPowerConsumption.getValue() >= 0.0}
+ * invariant	{@code !currentPowerProduction.isSet() || currentPowerProduction.getValue() >= 0.0}
  * invariant	{@code !getExecutionMode().isSimulationTest() || (localArchitectureURI != null && !localArchitectureURI.isEmpty())}
  * invariant	{@code !getExecutionMode().isSimulationTest() || accFactor > 0.0}
+ * invariant	{@code consumptionHistory != null && productionHistory != null}
+ * invariant	{@code subscriptions != null}
  * </pre>
  * 
  * <p><strong>Invariant</strong></p>
@@ -168,13 +245,23 @@ import java.util.function.Supplier;
  * <pre>
  * invariant	{@code REFLECTION_INBOUND_PORT_URI != null && !REFLECTION_INBOUND_PORT_URI.isEmpty()}
  * invariant	{@code ELECTRIC_METER_INBOUND_PORT_URI != null && !ELECTRIC_METER_INBOUND_PORT_URI.isEmpty()}
+ * invariant	{@code HISTORY_INBOUND_PORT_URI_SUFFIX != null && !HISTORY_INBOUND_PORT_URI_SUFFIX.isEmpty()}
+ * invariant	{@code ELECTRIC_METER_HISTORY_INBOUND_PORT_URI != null && !ELECTRIC_METER_HISTORY_INBOUND_PORT_URI.isEmpty()}
+ * invariant	{@code HISTORY_CAPACITY > 0}
+ * invariant	{@code JOURNAL_SEGMENT_CAPACITY > 0}
+ * invariant	{@code SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX != null && !SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX.isEmpty()}
+ * invariant	{@code ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI != null && !ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI.isEmpty()}
+ * invariant	{@code ANALYTICS_INBOUND_PORT_URI_SUFFIX != null && !ANALYTICS_INBOUND_PORT_URI_SUFFIX.isEmpty()}
+ * invariant	{@code ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI != null && !ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI.isEmpty()}
+ * invariant	{@code COST_INBOUND_PORT_URI_SUFFIX != null && !COST_INBOUND_PORT_URI_SUFFIX.isEmpty()}
+ * invariant	{@code ELECTRIC_METER_COST_INBOUND_PORT_URI != null && !ELECTRIC_METER_COST_INBOUND_PORT_URI.isEmpty()}
  * invariant	{@code TENSION != null}
  * invariant	{@code TENSION.getData() > 0.0}
  * invariant	{@code TENSION.getMeasurementUnit().equals(TENSION_UNIT)}
  * invariant	{@code X_RELATIVE_POSITION >= 0}
  * invariant	{@code Y_RELATIVE_POSITION >= 0}
  * invariant	{@code NUMBER_OF_STANDARD_THREADS >= 0}
- * invariant	{@code NUMBER_OF_SCHEDULABLE_THREADS >= 0}
+ * invariant	{@code NUMBER_OF_SCHEDULABLE_THREADS > 0}
  * </pre>
  * 
  * <p>Created on : 2023-09-19</p>
@@ -207,11 +294,20 @@ import java.util.function.Supplier;
 	)
 })
 // -----------------------------------------------------------------------------
-@OfferedInterfaces(offered={ElectricMeterCI.class})
+@OfferedInterfaces(offered={ElectricMeterCI.class,
+							 ElectricMeterHistoryCI.class,
+							 ElectricMeterSubscriptionCI.class,
+							 ElectricMeterAnalyticsCI.class,
+							 ElectricMeterCostCI.class})
+@RequiredInterfaces(required={ElectricMeterNotificationCI.class})
 // -----------------------------------------------------------------------------
 public class			ElectricMeterCyPhy
 extends		AbstractCyPhyComponent
-implements	ElectricMeterImplementationI
+implements	ElectricMeterImplementationI,
+			ElectricMeterHistoryImplementationI,
+			ElectricMeterSubscriptionImplementationI,
+			ElectricMeterAnalyticsImplementationI,
+			ElectricMeterCostImplementationI
 {
 	// -------------------------------------------------------------------------
 	// Constants and variables
@@ -225,6 +321,48 @@ implements	ElectricMeterImplementationI
 	/** URI of the electric meter inbound port used in tests.				*/
 	public static final String		ELECTRIC_METER_INBOUND_PORT_URI =
 															"ELECTRIC-METER";
+	/** suffix appended to the URI of the electric meter inbound port of a
+	 *  meter to get the URI of its history inbound port.					*/
+	public static final String		HISTORY_INBOUND_PORT_URI_SUFFIX =
+																"-HISTORY";
+	/** URI of the electric meter history inbound port used in tests.		*/
+	public static final String		ELECTRIC_METER_HISTORY_INBOUND_PORT_URI =
+				historyInboundPortURI(ELECTRIC_METER_INBOUND_PORT_URI);
+	/** number of readings kept in each of the power histories, enough for
+	 *  a few hours of readings at sub-minute resolution.					*/
+	public static int				HISTORY_CAPACITY = 16384;
+	/** directory under which the meters journal their readings, in a
+	 *  subdirectory named by the URI of their inbound port, or null to
+	 *  keep the readings only in memory; set by the deployment, as the
+	 *  tariff file.														*/
+	public static String			JOURNAL_DIRECTORY = null;
+	/** number of readings in each segment of the journals.				*/
+	public static int				JOURNAL_SEGMENT_CAPACITY =
+									MeterJournal.DEFAULT_SEGMENT_CAPACITY;
+	/** suffix appended to the URI of the electric meter inbound port of a
+	 *  meter to get the URI of its subscription inbound port.			*/
+	public static final String		SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX =
+													"-SUBSCRIPTION";
+	/** URI of the electric meter subscription inbound port used in tests.	*/
+	public static final String		ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI =
+				subscriptionInboundPortURI(ELECTRIC_METER_INBOUND_PORT_URI);
+	/** suffix appended to the URI of the electric meter inbound port of a
+	 *  meter to get the URI of its analytics inbound port.			*/
+	public static final String		ANALYTICS_INBOUND_PORT_URI_SUFFIX =
+													"-ANALYTICS";
+	/** URI of the electric meter analytics inbound port used in tests.		*/
+	public static final String		ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI =
+				analyticsInboundPortURI(ELECTRIC_METER_INBOUND_PORT_URI);
+	/** suffix appended to the URI of the electric meter inbound port of a
+	 *  meter to get the URI of its cost inbound port.				*/
+	public static final String		COST_INBOUND_PORT_URI_SUFFIX =
+															"-COST";
+	/** URI of the electric meter cost inbound port used in tests.			*/
+	public static final String		ELECTRIC_METER_COST_INBOUND_PORT_URI =
+				costInboundPortURI(ELECTRIC_METER_INBOUND_PORT_URI);
+	/** local file of the time-of-use tariff table of the meter, or null
+	 *  to compute no energy cost.											*/
+	public static String			TARIFF_FILE = null;
 
 	/**	the tension in the electric circuits of this meter.					*/
 	public static Measure<Double>	TENSION = new Measure<Double>(
@@ -236,10 +374,47 @@ implements	ElectricMeterImplementationI
 
 	/** current total electric power consumption measured at the electric
 	 *  meter in the power unit of the meter.								*/
-	protected AtomicReference<SignalData<Double>>	currentPowerConsumption;
+	protected PowerReading							currentPowerConsumption;
 	/** current total electric power production measured at the electric
 	 *  meter in the power unit of the meter.								*/
-	protected AtomicReference<SignalData<Double>>	currentPowerProduction;
+	protected PowerReading							currentPowerProduction;
+	/** creates the signal data of the power readings when they are read.	*/
+	protected PowerReading.MaterialiserI			signalMaterialiser;
+	/** inbound port offering the <code>ElectricMeterHistoryCI</code>
+	 *  interface.															*/
+	protected ElectricMeterHistoryInboundPort		emhip;
+	/** history of the power consumptions set by the simulator.				*/
+	protected PowerHistory							consumptionHistory;
+	/** history of the power productions set by the simulator.				*/
+	protected PowerHistory							productionHistory;
+	/** directory holding the epochs of the journal of the meter, null
+	 *  when {@code JOURNAL_DIRECTORY} is null; also the lock under which
+	 *  the journal is used and replaced.									*/
+	protected Path									journalRoot;
+	/** number of the current epoch of the journal.							*/
+	protected int									journalEpoch;
+	/** persistent journal of the readings of the current epoch, null when
+	 *  {@code JOURNAL_DIRECTORY} is null or once the meter is finalised.	*/
+	protected MeterJournal							journal;
+	/** inbound port offering the <code>ElectricMeterSubscriptionCI</code>
+	 *  interface.															*/
+	protected ElectricMeterSubscriptionInboundPort	emsip;
+	/** subscriptions to the power changes, by URI of the inbound port of
+	 *  the subscribers.													*/
+	protected ConcurrentHashMap<String,PowerSubscription>	subscriptions;
+	/** inbound port offering the <code>ElectricMeterAnalyticsCI</code>
+	 *  interface.															*/
+	protected ElectricMeterAnalyticsInboundPort		emaip;
+	/** analytics fed by the simulation model in SIL runs, null otherwise.	*/
+	protected volatile PowerBalanceAnalytics		powerBalanceAnalytics;
+	/** inbound port offering the <code>ElectricMeterCostCI</code>
+	 *  interface.															*/
+	protected ElectricMeterCostInboundPort			emcip;
+	/** time-of-use tariffs of the meter, null when {@code TARIFF_FILE} is
+	 *  null.																*/
+	protected TariffTable							tariffTable;
+	/** cost meter fed by the simulation model in SIL runs, null otherwise.	*/
+	protected volatile EnergyCostMeter				energyCostMeter;
 
 	// Execution/Simulation
 
@@ -257,8 +432,9 @@ implements	ElectricMeterImplementationI
 	 *  simulation report, and one to answer the calls to the component
 	 *  services.															*/
 	protected static int		NUMBER_OF_STANDARD_THREADS = 2;
-	/** no need for statically defined schedulable threads.					*/
-	protected static int		NUMBER_OF_SCHEDULABLE_THREADS = 0;
+	/** one schedulable thread pushing the power changes to the subscribers
+	 *  in the order they are detected.										*/
+	protected static int		NUMBER_OF_SCHEDULABLE_THREADS = 1;
 
 	/** URI of the local simulation architecture for SIL unit tests.		*/
 	public static final String	LOCAL_ARCHITECTURE_URI = "silIntegrationTests";
@@ -271,6 +447,18 @@ implements	ElectricMeterImplementationI
 	/** acceleration factor to be used when running the real time
 	 *  simulation.															*/
 	protected double				accFactor;
+	/** true when the conversions of times to nanoseconds since the epoch
+	 *  can be computed without the clock, i.e., after it is known.		*/
+	protected boolean				timeConversionsInitialised;
+	/** start instant of the clock in nanoseconds since the epoch.			*/
+	protected long					clockStartInstantNanos;
+	/** physical start time of the clock in the time base of
+	 *  {@code System.nanoTime()}.											*/
+	protected long					clockStartNanoTime;
+	/** simulated time at the start instant of the clock.					*/
+	protected double				simulatedStartTime;
+	/** time unit of the simulated times.									*/
+	protected TimeUnit				simulatedTimeUnit;
 
 	// -------------------------------------------------------------------------
 	// Invariants
@@ -296,27 +484,17 @@ implements	ElectricMeterImplementationI
 
 		boolean ret = true;
 		ret &= AssertionChecking.checkImplementationInvariant(
-				instance.currentPowerConsumption.get() == null ||
-					instance.currentPowerConsumption.get().getMeasure().
-															getData() >= 0.0
-					&& instance.currentPowerConsumption.get().getMeasure().
-										getMeasurementUnit().equals(POWER_UNIT),
+				!instance.currentPowerConsumption.isSet() ||
+						instance.currentPowerConsumption.getValue() >= 0.0,
 				ElectricMeterCyPhy.class, instance,
-				"currentPowerConsumption.get() == null || "
-				+ "currentPowerConsumption.get().getMeasure().getData() >= 0.0 "
-				+ "&& currentPowerConsumption.get().getMeasure()."
-				+ "getMeasurementUnit().equals(POWER_UNIT)");
+				"!currentPowerConsumption.isSet() || "
+				+ "currentPowerConsumption.getValue() >= 0.0");
 		ret &= AssertionChecking.checkImplementationInvariant(
-				instance.currentPowerProduction.get() == null ||
-					instance.currentPowerProduction.get().getMeasure().
-															getData() >= 0.0
-					&& instance.currentPowerProduction.get().getMeasure().
-										getMeasurementUnit().equals(POWER_UNIT),
+				!instance.currentPowerProduction.isSet() ||
+						instance.currentPowerProduction.getValue() >= 0.0,
 				ElectricMeterCyPhy.class, instance,
-				"currentPowerProduction.get() == null || "
-				+ "currentPowerProduction.get().getMeasure().getData() >= 0.0 "
-				+ "&& currentPowerProduction.get().getMeasure()."
-				+ "getMeasurementUnit().equals(POWER_UNIT)");
+				"!currentPowerProduction.isSet() || "
+				+ "currentPowerProduction.getValue() >= 0.0");
 		ret &= AssertionChecking.checkImplementationInvariant(
 				!instance.getExecutionMode().isSimulationTest() ||
 					(instance.localArchitectureURI != null &&
@@ -330,6 +508,15 @@ implements	ElectricMeterImplementationI
 													instance.accFactor > 0.0,
 				ElectricMeterCyPhy.class, instance,
 				"!getExecutionMode().isSimulationTest() || accFactor > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.consumptionHistory != null &&
+										instance.productionHistory != null,
+				ElectricMeterCyPhy.class, instance,
+				"consumptionHistory != null && productionHistory != null");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.subscriptions != null,
+				ElectricMeterCyPhy.class, instance,
+				"subscriptions != null");
 		return ret;
 	}
 
@@ -357,6 +544,62 @@ implements	ElectricMeterImplementationI
 				ElectricMeterCyPhy.class,
 				"ELECTRIC_METER_INBOUND_PORT_URI != null &&"
 							+ "!ELECTRIC_METER_INBOUND_PORT_URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				HISTORY_INBOUND_PORT_URI_SUFFIX != null &&
+								!HISTORY_INBOUND_PORT_URI_SUFFIX.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"HISTORY_INBOUND_PORT_URI_SUFFIX != null &&"
+							+ "!HISTORY_INBOUND_PORT_URI_SUFFIX.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ELECTRIC_METER_HISTORY_INBOUND_PORT_URI != null &&
+							!ELECTRIC_METER_HISTORY_INBOUND_PORT_URI.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"ELECTRIC_METER_HISTORY_INBOUND_PORT_URI != null &&"
+						+ "!ELECTRIC_METER_HISTORY_INBOUND_PORT_URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				HISTORY_CAPACITY > 0,
+				ElectricMeterCyPhy.class,
+				"HISTORY_CAPACITY > 0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				JOURNAL_SEGMENT_CAPACITY > 0,
+				ElectricMeterCyPhy.class,
+				"JOURNAL_SEGMENT_CAPACITY > 0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX != null &&
+						!SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX != null &&"
+					+ "!SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI != null &&
+						!ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI != null &&"
+					+ "!ELECTRIC_METER_SUBSCRIPTION_INBOUND_PORT_URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ANALYTICS_INBOUND_PORT_URI_SUFFIX != null &&
+						!ANALYTICS_INBOUND_PORT_URI_SUFFIX.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"ANALYTICS_INBOUND_PORT_URI_SUFFIX != null &&"
+					+ "!ANALYTICS_INBOUND_PORT_URI_SUFFIX.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI != null &&
+						!ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI != null &&"
+					+ "!ELECTRIC_METER_ANALYTICS_INBOUND_PORT_URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				COST_INBOUND_PORT_URI_SUFFIX != null &&
+						!COST_INBOUND_PORT_URI_SUFFIX.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"COST_INBOUND_PORT_URI_SUFFIX != null &&"
+					+ "!COST_INBOUND_PORT_URI_SUFFIX.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ELECTRIC_METER_COST_INBOUND_PORT_URI != null &&
+							!ELECTRIC_METER_COST_INBOUND_PORT_URI.isEmpty(),
+				ElectricMeterCyPhy.class,
+				"ELECTRIC_METER_COST_INBOUND_PORT_URI != null &&"
+						+ "!ELECTRIC_METER_COST_INBOUND_PORT_URI.isEmpty()");
 		ret &= AssertionChecking.checkStaticInvariant(
 				TENSION != null,
 				ElectricMeterCyPhy.class,
@@ -402,6 +645,125 @@ implements	ElectricMeterImplementationI
 		return ret;
 	}
 
+	// -------------------------------------------------------------------------
+	// Port URIs
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the URI of the history inbound port of the meter which electric
+	 * meter inbound port has the URI {@code electricMeterInboundPortURI}, so
+	 * that several meters can be deployed in the same JVM.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code electricMeterInboundPortURI != null && !electricMeterInboundPortURI.isEmpty()}
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @param electricMeterInboundPortURI	URI of the electric meter inbound port of the meter.
+	 * @return								the URI of the history inbound port of the meter.
+	 */
+	public static String	historyInboundPortURI(
+		String electricMeterInboundPortURI
+		)
+	{
+		assert	electricMeterInboundPortURI != null &&
+										!electricMeterInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"electricMeterInboundPortURI != null && "
+						+ "!electricMeterInboundPortURI.isEmpty()");
+
+		return electricMeterInboundPortURI + HISTORY_INBOUND_PORT_URI_SUFFIX;
+	}
+
+	/**
+	 * return the URI of the subscription inbound port of the meter which
+	 * electric meter inbound port has the URI
+	 * {@code electricMeterInboundPortURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code electricMeterInboundPortURI != null && !electricMeterInboundPortURI.isEmpty()}
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @param electricMeterInboundPortURI	URI of the electric meter inbound port of the meter.
+	 * @return								the URI of the subscription inbound port of the meter.
+	 */
+	public static String	subscriptionInboundPortURI(
+		String electricMeterInboundPortURI
+		)
+	{
+		assert	electricMeterInboundPortURI != null &&
+										!electricMeterInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"electricMeterInboundPortURI != null && "
+						+ "!electricMeterInboundPortURI.isEmpty()");
+
+		return electricMeterInboundPortURI
+									+ SUBSCRIPTION_INBOUND_PORT_URI_SUFFIX;
+	}
+
+	/**
+	 * return the URI of the analytics inbound port of the meter which
+	 * electric meter inbound port has the URI
+	 * {@code electricMeterInboundPortURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code electricMeterInboundPortURI != null && !electricMeterInboundPortURI.isEmpty()}
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @param electricMeterInboundPortURI	URI of the electric meter inbound port of the meter.
+	 * @return								the URI of the analytics inbound port of the meter.
+	 */
+	public static String	analyticsInboundPortURI(
+		String electricMeterInboundPortURI
+		)
+	{
+		assert	electricMeterInboundPortURI != null &&
+										!electricMeterInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"electricMeterInboundPortURI != null && "
+						+ "!electricMeterInboundPortURI.isEmpty()");
+
+		return electricMeterInboundPortURI
+									+ ANALYTICS_INBOUND_PORT_URI_SUFFIX;
+	}
+
+	/**
+	 * return the URI of the cost inbound port of the meter which
+	 * electric meter inbound port has the URI
+	 * {@code electricMeterInboundPortURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code electricMeterInboundPortURI != null && !electricMeterInboundPortURI.isEmpty()}
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @param electricMeterInboundPortURI	URI of the electric meter inbound port of the meter.
+	 * @return								the URI of the cost inbound port of the meter.
+	 */
+	public static String	costInboundPortURI(
+		String electricMeterInboundPortURI
+		)
+	{
+		assert	electricMeterInboundPortURI != null &&
+										!electricMeterInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"electricMeterInboundPortURI != null && "
+						+ "!electricMeterInboundPortURI.isEmpty()");
+
+		return electricMeterInboundPortURI
+									+ COST_INBOUND_PORT_URI_SUFFIX;
+	}
+
 	// -------------------------------------------------------------------------
 	// Constructors
 	// -------------------------------------------------------------------------
@@ -701,9 +1063,69 @@ implements	ElectricMeterImplementationI
 		this.emip =
 				new ElectricMeterInboundPort(electricMeterInboundPortURI, this);
 		this.emip.publishPort();
-
-		this.currentPowerProduction = new AtomicReference<>();
-		this.currentPowerConsumption = new AtomicReference<>();
+		this.emhip = new ElectricMeterHistoryInboundPort(
+					historyInboundPortURI(electricMeterInboundPortURI), this);
+		this.emhip.publishPort();
+		this.emsip = new ElectricMeterSubscriptionInboundPort(
+					subscriptionInboundPortURI(electricMeterInboundPortURI),
+					this);
+		this.emsip.publishPort();
+		this.emaip = new ElectricMeterAnalyticsInboundPort(
+					analyticsInboundPortURI(electricMeterInboundPortURI),
+					this);
+		this.emaip.publishPort();
+		this.emcip = new ElectricMeterCostInboundPort(
+					costInboundPortURI(electricMeterInboundPortURI),
+					this);
+		this.emcip.publishPort();
+
+		this.currentPowerProduction = new PowerReading();
+		this.currentPowerConsumption = new PowerReading();
+		this.signalMaterialiser =
+			(v, measureNanos, setNanos) ->
+				new SignalData<>(
+						this.getClock4Simulation(),
+						new TimedMeasure<Double>(
+								v,
+								POWER_UNIT,
+								this.getClock4Simulation(),
+								Instant.ofEpochSecond(0L, measureNanos)),
+						Instant.ofEpochSecond(0L, setNanos));
+		this.timeConversionsInitialised = false;
+		this.consumptionHistory = new PowerHistory(HISTORY_CAPACITY);
+		this.productionHistory = new PowerHistory(HISTORY_CAPACITY);
+		if (JOURNAL_DIRECTORY != null) {
+			this.journalRoot = Paths.get(JOURNAL_DIRECTORY,
+										 electricMeterInboundPortURI);
+			this.journalEpoch = MeterJournal.lastEpoch(this.journalRoot);
+			if (this.journalEpoch >= 0) {
+				// rebuild the histories from the last readings of the
+				// previous run, which epoch is left untouched
+				MeterJournal previous =
+					new MeterJournal(
+						MeterJournal.epochPath(this.journalRoot,
+											   this.journalEpoch),
+						JOURNAL_SEGMENT_CAPACITY);
+				try {
+					previous.replay(
+						Math.max(0L, previous.size() - HISTORY_CAPACITY),
+						(timestamp, consumption, production, energy) -> {
+							this.consumptionHistory.record(timestamp,
+														   consumption);
+							this.productionHistory.record(timestamp,
+														  production);
+						});
+				} finally {
+					previous.close();
+				}
+			}
+			this.journal = null;
+			this.openNextJournalEpoch();
+		}
+		if (TARIFF_FILE != null) {
+			this.tariffTable = TariffTable.load(Paths.get(TARIFF_FILE));
+		}
+		this.subscriptions = new ConcurrentHashMap<>();
 
 		if (VERBOSE) {
 			this.tracer.get().setTitle("Electric meter component");
@@ -757,59 +1179,126 @@ implements	ElectricMeterImplementationI
 	// -------------------------------------------------------------------------
 
 	/**
-	 * set the current power consumption, a method that is meant to be called
-	 * only by the simulator in SIL runs, otherwise a hardware sensor would be
-	 * used in standard executions.
+	 * set the analytics fed by the simulation model, a method that is meant
+	 * to be called only by the simulator in SIL runs.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code analytics != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param analytics	analytics fed by the simulation model.
+	 */
+	public void			setPowerBalanceAnalytics(
+		PowerBalanceAnalytics analytics
+		)
+	{
+		assert	analytics != null :
+				new PreconditionException("analytics != null");
+
+		this.powerBalanceAnalytics = analytics;
+	}
+
+	/**
+	 * return the time-of-use tariffs of the meter, or null if it computes
+	 * no energy cost.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time-of-use tariffs of the meter or null.
+	 */
+	public TariffTable	getTariffTable()
+	{
+		return this.tariffTable;
+	}
+
+	/**
+	 * set the cost meter fed by the simulation model, a method that is meant
+	 * to be called only by the simulator in SIL runs.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code costMeter != null}
+	 * pre	{@code getTariffTable() != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param costMeter	cost meter fed by the simulation model.
+	 */
+	public void			setEnergyCostMeter(EnergyCostMeter costMeter)
+	{
+		assert	costMeter != null :
+				new PreconditionException("costMeter != null");
+		assert	this.getTariffTable() != null :
+				new PreconditionException("getTariffTable() != null");
+
+		this.energyCostMeter = costMeter;
+	}
+
+	/**
+	 * set the current power consumption and production at the same metering
+	 * instant, a method that is meant to be called only by the simulator in
+	 * SIL runs, otherwise hardware sensors would be used in standard
+	 * executions; the reading is journaled once with both values and only the
+	 * changed powers are recorded in the histories and notified.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
 	 * <pre>
 	 * pre	{@code getExecutionMode().isSimulationTest()}
-	 * pre	{@code power >= 0.0}
+	 * pre	{@code consumption >= 0.0 && production >= 0.0}
 	 * pre	{@code t != null}
 	 * post	{@code true}	// no postcondition.
 	 * </pre>
 	 *
-	 * @param power		electric power consumption in {@code POWER_UNIT}.
-	 * @param t			simulated time at which the power has been measured.
+	 * @param consumption	electric power consumption in {@code POWER_UNIT}.
+	 * @param production	electric power production in {@code POWER_UNIT}.
+	 * @param t				simulated time at which the powers have been measured.
 	 */
-	public void			setCurrentPowerConsumption(double power, Time t)
+	public void			setCurrentPowers(
+		double consumption,
+		double production,
+		Time t
+		)
 	{
 		assert	getExecutionMode().isSimulationTest() :
 				new PreconditionException(
 						"getExecutionMode().isSimulationTest()");
-		assert	power >= 0.0 : new PreconditionException("power >= 0.0");
+		assert	consumption >= 0.0 && production >= 0.0 :
+				new PreconditionException(
+						"consumption >= 0.0 && production >= 0.0");
 		assert	t != null : new PreconditionException("t != null");
 
-		Instant currentInstant = this.getClock4Simulation().currentInstant();
-		TimedMeasure<Double> measuredPowerConsumption =
-				new TimedMeasure<Double>(
-						power,
-						POWER_UNIT,
-						this.getClock4Simulation(),
-						this.getClock4Simulation().instantOfSimulatedTime(t));
-		SignalData<Double> powerConsumptionSignal =
-				new SignalData<>(
-						this.getClock4Simulation(),
-						measuredPowerConsumption,
-						currentInstant);
-
-		SignalData<Double> oldSignalData =
-				this.currentPowerConsumption.getAndSet(powerConsumptionSignal);
-		if (oldSignalData != null && VERBOSE) {
-			double old = oldSignalData.getMeasure().getData();
-			if (Math.abs(old - power) > TOLERANCE) {
-				this.traceMessage(
-					"Electric meter sets its current consumption with new value "
-					+ measuredPowerConsumption + " at " + currentInstant + ".\n");
-			}
+		// primitive times and reading: no allocation unless someone reads
+		long measureTime = this.simulatedTimeToEpochNanos(t);
+		long setTime = this.currentEpochNanos();
+		if (this.journalRoot != null) {
+			this.journalReading(measureTime, consumption, production);
+		}
+		if (this.hasChanged(this.currentPowerConsumption, consumption)) {
+			this.updatePower(PowerSubscription.CONSUMPTION, consumption,
+							 measureTime, setTime);
+		}
+		if (this.hasChanged(this.currentPowerProduction, production)) {
+			this.updatePower(PowerSubscription.PRODUCTION, production,
+							 measureTime, setTime);
 		}
 	}
 
 	/**
 	 * set the current power consumption, a method that is meant to be called
 	 * only by the simulator in SIL runs, otherwise a hardware sensor would be
-	 * used in standard executions.
+	 * used in standard executions; when the production changes at the same
+	 * instant, {@code setCurrentPowers} must be used instead to journal a
+	 * single reading.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -823,35 +1312,445 @@ implements	ElectricMeterImplementationI
 	 * @param power		electric power consumption in {@code POWER_UNIT}.
 	 * @param t			simulated time at which the power has been measured.
 	 */
+	public void			setCurrentPowerConsumption(double power, Time t)
+	{
+		this.setCurrentPowers(
+				power,
+				this.currentPowerProduction.isSet() ?
+						this.currentPowerProduction.getValue() : 0.0,
+				t);
+	}
+
+	/**
+	 * set the current power production, a method that is meant to be called
+	 * only by the simulator in SIL runs, otherwise a hardware sensor would be
+	 * used in standard executions; when the consumption changes at the same
+	 * instant, {@code setCurrentPowers} must be used instead to journal a
+	 * single reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code getExecutionMode().isSimulationTest()}
+	 * pre	{@code power >= 0.0}
+	 * pre	{@code t != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param power		electric power production in {@code POWER_UNIT}.
+	 * @param t			simulated time at which the power has been measured.
+	 */
 	public void			setCurrentPowerProduction(double power, Time t)
 	{
-		assert	getExecutionMode().isSimulationTest() :
-				new PreconditionException(
-						"getExecutionMode().isSimulationTest()");
-		assert	power >= 0.0 : new PreconditionException("power >= 0.0");
+		this.setCurrentPowers(
+				this.currentPowerConsumption.isSet() ?
+						this.currentPowerConsumption.getValue() : 0.0,
+				power,
+				t);
+	}
+
+	/**
+	 * return true if {@code power} differs from the current value of
+	 * {@code reading} or if the latter is not set yet.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code reading != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param reading	current reading of a power.
+	 * @param power		new value of the power.
+	 * @return			true if {@code power} differs from the current value of {@code reading}.
+	 */
+	protected boolean	hasChanged(PowerReading reading, double power)
+	{
+		return !reading.isSet() ||
+						Math.abs(reading.getValue() - power) > TOLERANCE;
+	}
+
+	/**
+	 * record the new value of the power consumption or production in its
+	 * history, write it in its reading and notify the subscribers.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power == PowerSubscription.CONSUMPTION || power == PowerSubscription.PRODUCTION}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param power			index of the power in {@code PowerSubscription}.
+	 * @param value			new value of the power in {@code POWER_UNIT}.
+	 * @param measureTime	time of the measure in nanoseconds since the epoch.
+	 * @param setTime		time of the update in nanoseconds since the epoch.
+	 */
+	protected void		updatePower(
+		int power,
+		double value,
+		long measureTime,
+		long setTime
+		)
+	{
+		boolean consumption = power == PowerSubscription.CONSUMPTION;
+		PowerReading reading = consumption ?
+				this.currentPowerConsumption : this.currentPowerProduction;
+		(consumption ? this.consumptionHistory : this.productionHistory).
+												record(measureTime, value);
+
+		double old = reading.write(value, measureTime, setTime);
+		if (!Double.isNaN(old) && VERBOSE) {
+			this.traceMessage(
+				"Electric meter sets its current "
+				+ (consumption ? "consumption" : "production")
+				+ " with new value " + value + " " + POWER_UNIT + " at "
+				+ Instant.ofEpochSecond(0L, setTime) + ".\n");
+		}
+		if (!this.subscriptions.isEmpty()) {
+			this.notifySubscribers(
+					power,
+					reading.getSignalData(this.signalMaterialiser),
+					value, measureTime);
+		}
+	}
+
+	/**
+	 * return the number of nanoseconds since the epoch of {@code i}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	an instant.
+	 * @return	the number of nanoseconds since the epoch of {@code i}.
+	 */
+	protected static long	toEpochNanos(Instant i)
+	{
+		assert	i != null : new PreconditionException("i != null");
+
+		return TimeUnit.SECONDS.toNanos(i.getEpochSecond()) + i.getNano();
+	}
+
+	/**
+	 * close the current epoch of the journal, if any, and open the next one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code journalRoot != null}
+	 * post	{@code journal != null && journal.size() == 0}
+	 * </pre>
+	 *
+	 * @throws IOException	when the epoch cannot be created.
+	 */
+	protected void		openNextJournalEpoch() throws IOException
+	{
+		assert	this.journalRoot != null :
+				new PreconditionException("journalRoot != null");
+
+		if (this.journal != null) {
+			this.journal.close();
+		}
+		this.journalEpoch++;
+		this.journal =
+			new MeterJournal(MeterJournal.epochPath(this.journalRoot,
+													this.journalEpoch),
+							 JOURNAL_SEGMENT_CAPACITY);
+	}
+
+	/**
+	 * append a reading to the journal, first starting a new epoch when
+	 * {@code time} is before the last journaled reading, as when a
+	 * simulation is run again from its start time, and discarding from the
+	 * histories the readings of the previous epoch after {@code time}; the
+	 * readings set after the meter is finalised are not journaled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code journalRoot != null}
+	 * pre	{@code consumption >= 0.0 && production >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param time			time of the reading in nanoseconds since the epoch.
+	 * @param consumption	current power consumption in {@code POWER_UNIT}.
+	 * @param production	current power production in {@code POWER_UNIT}.
+	 */
+	protected void		journalReading(
+		long time,
+		double consumption,
+		double production
+		)
+	{
+		assert	this.journalRoot != null :
+				new PreconditionException("journalRoot != null");
+
+		try {
+			synchronized (this.journalRoot) {
+				if (this.journal == null) {
+					return;
+				}
+				if (this.journal.size() > 0 &&
+										time < this.journal.lastTimestamp()) {
+					// the readings of the previous run are kept in its epoch
+					this.openNextJournalEpoch();
+				}
+				if (this.journal.size() == 0) {
+					this.consumptionHistory.discardAfter(time);
+					this.productionHistory.discardAfter(time);
+				}
+				this.journal.append(time, consumption, production);
+			}
+		} catch (IOException e) {
+			throw new BCMRuntimeException(e) ;
+		}
+	}
+
+	/**
+	 * initialise the conversions of times to nanoseconds since the epoch
+	 * from the start values of the clock used in SIL simulation runs, so that
+	 * the power setters neither call the clock nor create {@code Instant}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code getClock4Simulation() != null}
+	 * post	{@code timeConversionsInitialised}
+	 * </pre>
+	 *
+	 * @throws Exception	<i>to do</i>.
+	 */
+	protected void		initialiseTimeConversions() throws Exception
+	{
+		assert	this.getClock4Simulation() != null :
+				new PreconditionException("getClock4Simulation() != null");
+
+		this.clockStartInstantNanos =
+				toEpochNanos(this.getClock4Simulation().getStartInstant());
+		// the physical start time of the clock is given in milliseconds
+		// since the epoch, converted once to the monotonic time base which
+		// gives the elapsed times in nanoseconds
+		long nowNanoTime = System.nanoTime();
+		long nowEpochNanos =
+				TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+		this.clockStartNanoTime =
+				nowNanoTime + (this.getClock4Simulation().getStartEpochNanos()
+															- nowEpochNanos);
+		Time start = this.getClock4Simulation().getSimulatedStartTime();
+		this.simulatedStartTime = start.getSimulatedTime();
+		this.simulatedTimeUnit = start.getTimeUnit();
+		this.timeConversionsInitialised = true;
+	}
+
+	/**
+	 * return the current instant of the accelerated clock in nanoseconds
+	 * since the epoch, computed from the monotonic elapsed time since the
+	 * start of the clock when the conversions are initialised and the
+	 * acceleration factor known, i.e., in SIL runs, and given by the clock
+	 * otherwise.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code getClock4Simulation() != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current instant of the clock in nanoseconds since the epoch.
+	 */
+	protected long		currentEpochNanos()
+	{
+		if (!this.timeConversionsInitialised || this.accFactor <= 0.0) {
+			return toEpochNanos(this.getClock4Simulation().currentInstant());
+		}
+		long elapsed = System.nanoTime() - this.clockStartNanoTime;
+		return this.clockStartInstantNanos + (long) (elapsed * this.accFactor);
+	}
+
+	/**
+	 * return the instant corresponding to the simulated time {@code t} in
+	 * nanoseconds since the epoch, a method that is also used by the
+	 * simulator in SIL runs.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	a simulated time.
+	 * @return	the instant of {@code t} in nanoseconds since the epoch.
+	 */
+	public long			simulatedTimeToEpochNanos(Time t)
+	{
 		assert	t != null : new PreconditionException("t != null");
 
-		Instant currentInstant = this.getClock4Simulation().currentInstant();
-		TimedMeasure<Double> measuredPowerProduction =
-				new TimedMeasure<Double>(
-						power,
-						POWER_UNIT,
-						this.getClock4Simulation(),
+		if (!this.timeConversionsInitialised ||
+							!this.simulatedTimeUnit.equals(t.getTimeUnit())) {
+			return toEpochNanos(
 						this.getClock4Simulation().instantOfSimulatedTime(t));
-		SignalData<Double> powerProductionSignal =
-				new SignalData<>(
-						this.getClock4Simulation(),
-						measuredPowerProduction,
-						currentInstant);
-
-		SignalData<Double> oldSignalData =
-			this.currentPowerProduction.getAndSet(powerProductionSignal);
-		if (oldSignalData != null && VERBOSE) {
-			double old = oldSignalData.getMeasure().getData();
-			if (Math.abs(old - power) > TOLERANCE) {
+		}
+		return this.clockStartInstantNanos +
+					Math.round((t.getSimulatedTime() - this.simulatedStartTime)
+									* this.simulatedTimeUnit.toNanos(1L));
+	}
+
+	/**
+	 * offer a new value of {@code power} to all subscribers, pushing it
+	 * to the ones which filter accepts it either immediately or at the end of
+	 * their minimum interval.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power == PowerSubscription.CONSUMPTION || power == PowerSubscription.PRODUCTION}
+	 * pre	{@code signal != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param power		index of the power in {@code PowerSubscription}.
+	 * @param signal	signal data holding the new value.
+	 * @param value		new value of the power.
+	 * @param timestamp	time stamp of the new value in nanoseconds since the epoch.
+	 */
+	protected void		notifySubscribers(
+		int power,
+		SignalData<Double> signal,
+		double value,
+		long timestamp
+		)
+	{
+		for (PowerSubscription s : this.subscriptions.values()) {
+			long delay = s.offer(power, signal, value, timestamp);
+			if (delay == 0L) {
+				this.schedulePush(s, power, signal, 0L);
+			} else if (delay > 0L) {
+				this.scheduleDelayedPush(s, power, timestamp + delay, delay);
+			}
+		}
+	}
+
+	/**
+	 * schedule the push of {@code signal} to the subscriber of {@code s}
+	 * after {@code delay} nanoseconds of real time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * pre	{@code signal != null}
+	 * pre	{@code delay >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param s			subscription.
+	 * @param power		index of the power in {@code PowerSubscription}.
+	 * @param signal	signal data to be pushed.
+	 * @param delay		delay in nanoseconds before pushing.
+	 */
+	protected void		schedulePush(
+		PowerSubscription s,
+		int power,
+		SignalData<Double> signal,
+		long delay
+		)
+	{
+		this.scheduleTaskOnComponent(
+				new AbstractComponent.AbstractTask() {
+					@Override
+					public void run() {
+						((ElectricMeterCyPhy)this.getTaskOwner()).
+												push(s, power, signal);
+					}
+				},
+				delay,
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * schedule the push of the value of {@code power} pending in {@code s}
+	 * at the end of its minimum interval.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * pre	{@code delay > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param s			subscription.
+	 * @param power		index of the power in {@code PowerSubscription}.
+	 * @param due		time stamp of the end of the minimum interval in nanoseconds since the epoch.
+	 * @param delay		delay until {@code due} in nanoseconds of clock time.
+	 */
+	protected void		scheduleDelayedPush(
+		PowerSubscription s,
+		int power,
+		long due,
+		long delay
+		)
+	{
+		// the time stamps follow the accelerated clock of the simulation
+		long actualDelay =
+				this.accFactor > 0.0 ? (long) (delay / this.accFactor) : delay;
+		this.scheduleTaskOnComponent(
+				new AbstractComponent.AbstractTask() {
+					@Override
+					public void run() {
+						SignalData<Double> signal = s.takePending(power, due);
+						if (signal != null) {
+							((ElectricMeterCyPhy)this.getTaskOwner()).
+												push(s, power, signal);
+						}
+					}
+				},
+				actualDelay,
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * push {@code signal} to the subscriber of {@code s} unless the
+	 * subscription has been cancelled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * pre	{@code signal != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param s			subscription.
+	 * @param power		index of the power in {@code PowerSubscription}.
+	 * @param signal	signal data to be pushed.
+	 */
+	protected void		push(
+		PowerSubscription s,
+		int power,
+		SignalData<Double> signal
+		)
+	{
+		if (s.isCancelled()) {
+			return;
+		}
+		try {
+			if (power == PowerSubscription.CONSUMPTION) {
+				s.getPort().consumptionChanged(signal);
+			} else {
+				s.getPort().productionChanged(signal);
+			}
+		} catch (Exception e) {
+			if (VERBOSE) {
 				this.traceMessage(
-					"Electric meter sets its current production with new value "
-					+ measuredPowerProduction + " at " + currentInstant + ".\n");
+					"Electric meter failed to push to "
+					+ s.getNotificationInboundPortURI() + ": " + e + ".\n");
 			}
 		}
 	}
@@ -890,10 +1789,20 @@ implements	ElectricMeterImplementationI
 				this.installPlugin(this.asp);
 				// the simulator inside the plug-in is created
 				this.asp.createSimulator();
-				// to prepare for the run, set the run parameters
+				// to prepare for the run, set the run parameters, including
+				// the imported variables exported by each appliance model
+				// as derived from the bindings of the architecture
+				Map<String,Object> runParameters = new HashMap<>();
+				runParameters.put(
+					ModelI.createRunParameterName(
+							ElectricMeterElectricitySILModel.URI,
+							ElectricMeterElectricitySILModel.SOURCES_RPNAME),
+					LocalSimulationArchitectures.electricMeterSources(
+							LocalSimulationArchitectures.
+													electricMeterBindings()));
 				this.asp.setSimulationRunParameters(
 						(TestScenarioWithSimulation) this.testScenario,
-						new HashMap<>());
+						runParameters);
 				break;
 			case UNIT_TEST_WITH_HIL_SIMULATION:
 			case INTEGRATION_TEST_WITH_HIL_SIMULATION:
@@ -924,22 +1833,27 @@ implements	ElectricMeterImplementationI
 
 		switch (this.getExecutionMode()) {
 		case STANDARD:
+			long start = TimeUnit.MILLISECONDS.toNanos(
+												System.currentTimeMillis());
 			TimedMeasure<Double> measuredPowerConsumption =
 					new TimedMeasure<Double>(0.0, POWER_UNIT);
 			SignalData<Double> powerConsumptionSignal =
 					new SignalData<>(measuredPowerConsumption);
-			this.currentPowerConsumption.set(powerConsumptionSignal);
+			this.currentPowerConsumption.write(
+									powerConsumptionSignal, start, start);
 			TimedMeasure<Double> measuredPowerProduction =
 					new TimedMeasure<Double>(0.0, POWER_UNIT);
 			SignalData<Double> powerProductionSignal =
 					new SignalData<>(measuredPowerProduction);
-			this.currentPowerProduction.set(powerProductionSignal);
+			this.currentPowerProduction.write(
+									powerProductionSignal, start, start);
 			break;
 		case UNIT_TEST:
 		case INTEGRATION_TEST:
 			this.initialiseClock(
 					ClocksServer.STANDARD_INBOUNDPORT_URI,
 					this.clockURI);
+			start = toEpochNanos(this.getClock().getStartInstant());
 			measuredPowerConsumption =
 					new TimedMeasure<Double>(
 							0.0,
@@ -951,7 +1865,8 @@ implements	ElectricMeterImplementationI
 							this.getClock(),
 							measuredPowerConsumption,
 							this.getClock().getStartInstant());
-			this.currentPowerConsumption.set(powerConsumptionSignal);
+			this.currentPowerConsumption.write(
+									powerConsumptionSignal, start, start);
 			measuredPowerProduction =
 					new TimedMeasure<Double>(
 							0.0,
@@ -963,12 +1878,15 @@ implements	ElectricMeterImplementationI
 							this.getClock(),
 							measuredPowerProduction,
 							this.getClock().getStartInstant());
-			this.currentPowerProduction.set(powerProductionSignal);
+			this.currentPowerProduction.write(
+									powerProductionSignal, start, start);
 			break;
 		case UNIT_TEST_WITH_SIL_SIMULATION:
 			this.initialiseClock4Simulation(
 					ClocksServerWithSimulation.STANDARD_INBOUNDPORT_URI,
 					this.clockURI);
+			this.initialiseTimeConversions();
+			start = this.clockStartInstantNanos;
 			// initialise the simulation before starting it
 			this.asp.initialiseSimulation(
 					this.getClock4Simulation().getSimulatedStartTime(),
@@ -993,7 +1911,8 @@ implements	ElectricMeterImplementationI
 							this.getClock4Simulation(),
 							measuredPowerConsumption,
 							this.getClock4Simulation().getStartInstant());
-			this.currentPowerConsumption.set(powerConsumptionSignal);
+			this.currentPowerConsumption.write(
+									powerConsumptionSignal, start, start);
 			measuredPowerProduction =
 					new TimedMeasure<Double>(
 							0.0,
@@ -1005,7 +1924,8 @@ implements	ElectricMeterImplementationI
 							this.getClock4Simulation(),
 							measuredPowerProduction,
 							this.getClock4Simulation().getStartInstant());
-			this.currentPowerProduction.set(powerProductionSignal);
+			this.currentPowerProduction.write(
+									powerProductionSignal, start, start);
 			// wait until the simulation ends
 			this.getClock4Simulation().waitUntilEnd();
 			// give some time for the end of simulation catering tasks
@@ -1017,6 +1937,8 @@ implements	ElectricMeterImplementationI
 			this.initialiseClock4Simulation(
 					ClocksServerWithSimulation.STANDARD_INBOUNDPORT_URI,
 					this.clockURI);
+			this.initialiseTimeConversions();
+			start = this.clockStartInstantNanos;
 			measuredPowerConsumption =
 					new TimedMeasure<Double>(
 							0.0,
@@ -1028,7 +1950,8 @@ implements	ElectricMeterImplementationI
 							this.getClock4Simulation(),
 							measuredPowerConsumption,
 							this.getClock4Simulation().getStartInstant());
-			this.currentPowerConsumption.set(powerConsumptionSignal);
+			this.currentPowerConsumption.write(
+									powerConsumptionSignal, start, start);
 			measuredPowerProduction =
 					new TimedMeasure<Double>(
 							0.0,
@@ -1040,7 +1963,8 @@ implements	ElectricMeterImplementationI
 							this.getClock4Simulation(),
 							measuredPowerProduction,
 							this.getClock4Simulation().getStartInstant());
-			this.currentPowerProduction.set(powerProductionSignal);
+			this.currentPowerProduction.write(
+									powerProductionSignal, start, start);
 			break;
 		case UNIT_TEST_WITH_HIL_SIMULATION:
 		case INTEGRATION_TEST_WITH_HIL_SIMULATION:
@@ -1053,6 +1977,27 @@ implements	ElectricMeterImplementationI
 		}
 	}
 
+	/**
+	 * @see fr.sorbonne_u.components.AbstractComponent#finalise()
+	 */
+	@Override
+	public synchronized void	finalise() throws Exception
+	{
+		for (PowerSubscription s : this.subscriptions.values()) {
+			s.cancel();
+			this.doPortDisconnection(s.getPort().getPortURI());
+		}
+		if (this.journalRoot != null) {
+			synchronized (this.journalRoot) {
+				if (this.journal != null) {
+					this.journal.close();
+					this.journal = null;
+				}
+			}
+		}
+		super.finalise();
+	}
+
 	/**
 	 * @see fr.sorbonne_u.components.AbstractComponent#shutdown()
 	 */
@@ -1061,6 +2006,13 @@ implements	ElectricMeterImplementationI
 	{
 		try {
 			this.emip.unpublishPort();
+			this.emhip.unpublishPort();
+			this.emsip.unpublishPort();
+			this.emaip.unpublishPort();
+			this.emcip.unpublishPort();
+			for (PowerSubscription s : this.subscriptions.values()) {
+				s.getPort().unpublishPort();
+			}
 		} catch (Exception e) {
 			throw new ComponentShutdownException(e) ;
 		}
@@ -1096,7 +2048,8 @@ implements	ElectricMeterImplementationI
 
 		SignalData<Double> ret = null;
 		if (this.getExecutionMode().isSimulationTest()) {
-			ret = this.currentPowerConsumption.get();
+			ret = this.currentPowerConsumption.getSignalData(
+												this.signalMaterialiser);
 		} else {
 			TimedMeasure<Double> measuredPowerProduction = null;
 			if (this.getExecutionMode().isTestWithoutSimulation()) {
@@ -1141,7 +2094,8 @@ implements	ElectricMeterImplementationI
 
 		SignalData<Double> ret = null;
 		if (this.getExecutionMode().isSimulationTest()) {
-			ret = this.currentPowerProduction.get();
+			ret = this.currentPowerProduction.getSignalData(
+												this.signalMaterialiser);
 		} else {
 			TimedMeasure<Double> measuredPowerProduction = null;
 			if (this.getExecutionMode().isTestWithoutSimulation()) {
@@ -1172,5 +2126,246 @@ implements	ElectricMeterImplementationI
 
 		return ret;
 	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryImplementationI#getConsumptionHistory(java.time.Instant, java.time.Instant)
+	 */
+	@Override
+	public PowerHistoryWindow	getConsumptionHistory(Instant from, Instant to)
+	throws Exception
+	{
+		assert	from != null && to != null && !from.isAfter(to) :
+				new PreconditionException(
+						"from != null && to != null && !from.isAfter(to)");
+
+		if (VERBOSE) {
+			this.traceMessage("Electric meter returns its consumption history.\n");
+		}
+
+		PowerHistoryWindow ret =
+				this.consumptionHistory.range(toEpochNanos(from), toEpochNanos(to));
+
+		assert	ret != null : new PostconditionException("return != null");
+
+		return ret;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryImplementationI#getProductionHistory(java.time.Instant, java.time.Instant)
+	 */
+	@Override
+	public PowerHistoryWindow	getProductionHistory(Instant from, Instant to)
+	throws Exception
+	{
+		assert	from != null && to != null && !from.isAfter(to) :
+				new PreconditionException(
+						"from != null && to != null && !from.isAfter(to)");
+
+		if (VERBOSE) {
+			this.traceMessage("Electric meter returns its production history.\n");
+		}
+
+		PowerHistoryWindow ret =
+				this.productionHistory.range(toEpochNanos(from), toEpochNanos(to));
+
+		assert	ret != null : new PostconditionException("return != null");
+
+		return ret;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryImplementationI#getDownsampledConsumption(java.time.Instant, java.time.Instant, java.time.Duration, fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation)
+	 */
+	@Override
+	public PowerHistoryWindow	getDownsampledConsumption(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception
+	{
+		assert	from != null && to != null && from.isBefore(to) :
+				new PreconditionException(
+						"from != null && to != null && from.isBefore(to)");
+		assert	step != null && !step.isNegative() && !step.isZero() :
+				new PreconditionException(
+						"step != null && !step.isNegative() && !step.isZero()");
+		assert	aggregation != null :
+				new PreconditionException("aggregation != null");
+
+		if (VERBOSE) {
+			this.traceMessage(
+				"Electric meter returns its downsampled consumption.\n");
+		}
+
+		PowerHistoryWindow ret =
+				this.consumptionHistory.downsample(toEpochNanos(from),
+											toEpochNanos(to),
+											step.toNanos(),
+											aggregation);
+
+		assert	ret != null : new PostconditionException("return != null");
+
+		return ret;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryImplementationI#getDownsampledProduction(java.time.Instant, java.time.Instant, java.time.Duration, fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation)
+	 */
+	@Override
+	public PowerHistoryWindow	getDownsampledProduction(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception
+	{
+		assert	from != null && to != null && from.isBefore(to) :
+				new PreconditionException(
+						"from != null && to != null && from.isBefore(to)");
+		assert	step != null && !step.isNegative() && !step.isZero() :
+				new PreconditionException(
+						"step != null && !step.isNegative() && !step.isZero()");
+		assert	aggregation != null :
+				new PreconditionException("aggregation != null");
+
+		if (VERBOSE) {
+			this.traceMessage(
+				"Electric meter returns its downsampled production.\n");
+		}
+
+		PowerHistoryWindow ret =
+				this.productionHistory.downsample(toEpochNanos(from),
+											toEpochNanos(to),
+											step.toNanos(),
+											aggregation);
+
+		assert	ret != null : new PostconditionException("return != null");
+
+		return ret;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterSubscriptionImplementationI#subscribe(java.lang.String, double, java.time.Duration)
+	 */
+	@Override
+	public void			subscribe(
+		String notificationInboundPortURI,
+		double delta,
+		Duration minimumInterval
+		) throws Exception
+	{
+		assert	notificationInboundPortURI != null &&
+										!notificationInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"notificationInboundPortURI != null && "
+						+ "!notificationInboundPortURI.isEmpty()");
+		assert	!this.isSubscribed(notificationInboundPortURI) :
+				new PreconditionException(
+						"!isSubscribed(notificationInboundPortURI)");
+		assert	delta >= 0.0 : new PreconditionException("delta >= 0.0");
+		assert	minimumInterval != null && !minimumInterval.isNegative() :
+				new PreconditionException(
+						"minimumInterval != null && "
+						+ "!minimumInterval.isNegative()");
+
+		ElectricMeterNotificationOutboundPort p =
+								new ElectricMeterNotificationOutboundPort(this);
+		p.publishPort();
+		this.doPortConnection(
+				p.getPortURI(),
+				notificationInboundPortURI,
+				ElectricMeterNotificationConnector.class.getCanonicalName());
+		PowerSubscription s =
+				new PowerSubscription(notificationInboundPortURI, p, delta,
+									  minimumInterval.toNanos());
+		if (this.subscriptions.putIfAbsent(notificationInboundPortURI, s)
+																	!= null) {
+			this.doPortDisconnection(p.getPortURI());
+			p.unpublishPort();
+			throw new BCMException(notificationInboundPortURI
+								   + " is already subscribed.");
+		}
+
+		if (VERBOSE) {
+			this.traceMessage("Electric meter subscribes "
+							  + notificationInboundPortURI + ".\n");
+		}
+
+		// the subscriber starts from the current powers, if already known
+		SignalData<Double> c =
+			this.currentPowerConsumption.getSignalData(this.signalMaterialiser);
+		if (c != null) {
+			s.initialPush(PowerSubscription.CONSUMPTION,
+						  c.getMeasure().getData());
+			this.schedulePush(s, PowerSubscription.CONSUMPTION, c, 0L);
+		}
+		SignalData<Double> pr =
+			this.currentPowerProduction.getSignalData(this.signalMaterialiser);
+		if (pr != null) {
+			s.initialPush(PowerSubscription.PRODUCTION,
+						  pr.getMeasure().getData());
+			this.schedulePush(s, PowerSubscription.PRODUCTION, pr, 0L);
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterSubscriptionImplementationI#unsubscribe(java.lang.String)
+	 */
+	@Override
+	public void			unsubscribe(String notificationInboundPortURI)
+	throws Exception
+	{
+		assert	this.isSubscribed(notificationInboundPortURI) :
+				new PreconditionException(
+						"isSubscribed(notificationInboundPortURI)");
+
+		PowerSubscription s =
+					this.subscriptions.remove(notificationInboundPortURI);
+		s.cancel();
+		this.doPortDisconnection(s.getPort().getPortURI());
+		s.getPort().unpublishPort();
+
+		if (VERBOSE) {
+			this.traceMessage("Electric meter unsubscribes " + s + ".\n");
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterSubscriptionImplementationI#isSubscribed(java.lang.String)
+	 */
+	@Override
+	public boolean		isSubscribed(String notificationInboundPortURI)
+	throws Exception
+	{
+		assert	notificationInboundPortURI != null &&
+										!notificationInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"notificationInboundPortURI != null && "
+						+ "!notificationInboundPortURI.isEmpty()");
+
+		return this.subscriptions.containsKey(notificationInboundPortURI);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterAnalyticsImplementationI#getPowerBalanceStatistics()
+	 */
+	@Override
+	public PowerBalanceStatistics	getPowerBalanceStatistics()
+	throws Exception
+	{
+		PowerBalanceAnalytics analytics = this.powerBalanceAnalytics;
+		return analytics == null ? null : analytics.snapshot();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterCostImplementationI#getEnergyCostStatus()
+	 */
+	@Override
+	public EnergyCostStatus	getEnergyCostStatus() throws Exception
+	{
+		EnergyCostMeter costMeter = this.energyCostMeter;
+		return costMeter == null ? null : costMeter.getStatus();
+	}
 }
 // -----------------------------------------------------------------------------
@@ -0,0 +1,157 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.time.Duration;
+import java.time.Instant;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation;
+
+// -----------------------------------------------------------------------------
+/**
+ * The interface <code>ElectricMeterHistoryImplementationI</code> declares the
+ * signatures of the history services that an electric meter must implement.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Power values are expressed in the power unit of the electric meter and time
+ * stamps in nanoseconds since the epoch of the clock used by the meter.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		ElectricMeterHistoryImplementationI
+{
+	/**
+	 * return the power consumption readings which time stamps are in the
+	 * interval {@code [from, to]}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from != null && to != null && !from.isAfter(to)}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from		start of the interval.
+	 * @param to			end of the interval.
+	 * @return				the power consumption readings in {@code [from, to]}.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public PowerHistoryWindow	getConsumptionHistory(Instant from, Instant to)
+	throws Exception;
+
+	/**
+	 * return the power production readings which time stamps are in the
+	 * interval {@code [from, to]}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from != null && to != null && !from.isAfter(to)}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from		start of the interval.
+	 * @param to			end of the interval.
+	 * @return				the power production readings in {@code [from, to]}.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public PowerHistoryWindow	getProductionHistory(Instant from, Instant to)
+	throws Exception;
+
+	/**
+	 * return the power consumption over {@code [from, to)} downsampled in
+	 * buckets of duration {@code step}, each aggregated with
+	 * {@code aggregation}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from != null && to != null && from.isBefore(to)}
+	 * pre	{@code step != null && !step.isNegative() && !step.isZero()}
+	 * pre	{@code aggregation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from			start of the interval.
+	 * @param to			end of the interval.
+	 * @param step			duration of the buckets.
+	 * @param aggregation	aggregation applied to each bucket.
+	 * @return				the downsampled power consumption.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public PowerHistoryWindow	getDownsampledConsumption(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception;
+
+	/**
+	 * return the power production over {@code [from, to)} downsampled in
+	 * buckets of duration {@code step}, each aggregated with
+	 * {@code aggregation}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from != null && to != null && from.isBefore(to)}
+	 * pre	{@code step != null && !step.isNegative() && !step.isZero()}
+	 * pre	{@code aggregation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from			start of the interval.
+	 * @param to			end of the interval.
+	 * @param step			duration of the buckets.
+	 * @param aggregation	aggregation applied to each bucket.
+	 * @return				the downsampled power production.
+	 * @throws Exception	<i>to do</i>.
+	 */
+	public PowerHistoryWindow	getDownsampledProduction(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception;
+}
+// -----------------------------------------------------------------------------
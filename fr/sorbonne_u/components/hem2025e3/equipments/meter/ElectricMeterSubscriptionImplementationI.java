@@ -0,0 +1,118 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.time.Duration;
+
+// -----------------------------------------------------------------------------
+/**
+ * The interface <code>ElectricMeterSubscriptionImplementationI</code> declares
+ * the signatures of the subscription services that an electric meter must
+ * implement.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		ElectricMeterSubscriptionImplementationI
+{
+	/**
+	 * subscribe the component offering the {@code ElectricMeterNotificationCI}
+	 * interface through the inbound port {@code notificationInboundPortURI} to
+	 * the changes of the power consumption and production.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code notificationInboundPortURI != null && !notificationInboundPortURI.isEmpty()}
+	 * pre	{@code !isSubscribed(notificationInboundPortURI)}
+	 * pre	{@code delta >= 0.0}
+	 * pre	{@code minimumInterval != null && !minimumInterval.isNegative()}
+	 * post	{@code isSubscribed(notificationInboundPortURI)}
+	 * </pre>
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port receiving the notifications.
+	 * @param delta							minimum change in power, in the power unit of the meter, to be notified.
+	 * @param minimumInterval				minimum duration between two notifications of the same power.
+	 * @throws Exception					<i>to do</i>.
+	 */
+	public void			subscribe(
+		String notificationInboundPortURI,
+		double delta,
+		Duration minimumInterval
+		) throws Exception;
+
+	/**
+	 * unsubscribe the component which inbound port is
+	 * {@code notificationInboundPortURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code isSubscribed(notificationInboundPortURI)}
+	 * post	{@code !isSubscribed(notificationInboundPortURI)}
+	 * </pre>
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port receiving the notifications.
+	 * @throws Exception					<i>to do</i>.
+	 */
+	public void			unsubscribe(String notificationInboundPortURI)
+	throws Exception;
+
+	/**
+	 * return true if the component which inbound port is
+	 * {@code notificationInboundPortURI} is subscribed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code notificationInboundPortURI != null && !notificationInboundPortURI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port receiving the notifications.
+	 * @return								true if the component is subscribed.
+	 * @throws Exception					<i>to do</i>.
+	 */
+	public boolean	isSubscribed(String notificationInboundPortURI)
+	throws Exception;
+}
+// -----------------------------------------------------------------------------
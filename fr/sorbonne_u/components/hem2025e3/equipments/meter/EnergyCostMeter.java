@@ -0,0 +1,274 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>EnergyCostMeter</code> implements the incremental
+ * computation of the cost of the consumed energy under a time-of-use
+ * {@code TariffTable}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The meter is told of each change of consumption by {@code update}, which
+ * accounts the energy and the cost of the previous consumption since the
+ * previous change before taking the new one. The price and the end of the
+ * current tariff interval are kept, so that an update within the same
+ * interval takes a constant time; when updates cross the end of the interval,
+ * the previous consumption is accounted interval by interval, the next
+ * interval being found in constant time through the interval index of the
+ * table. As there are only a few intervals per day, the cost per update is
+ * constant when amortised over the readings.
+ * </p>
+ * <p>
+ * The meter is written by the simulation thread and read by the threads of
+ * the component, hence its methods are synchronized.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code tariffs != null}
+ * invariant	{@code energy >= 0.0 && runningCost >= 0.0}
+ * invariant	{@code !started || lastTime < intervalEnd}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			EnergyCostMeter
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of nanoseconds in an hour.									*/
+	protected static final double	NANOS_PER_HOUR = 3.6e12;
+
+	/** tariff table giving the prices.										*/
+	protected final TariffTable		tariffs;
+	/** true after the first update.										*/
+	protected boolean				started;
+	/** time of the last update in nanoseconds since the epoch.				*/
+	protected long					lastTime;
+	/** consumption since the last update in watts.							*/
+	protected double				power;
+	/** price per kWh in the current tariff interval.						*/
+	protected double				price;
+	/** end of the current tariff interval in nanoseconds since the epoch.	*/
+	protected long					intervalEnd;
+	/** energy consumed up to the last update in kWh.						*/
+	protected double				energy;
+	/** cost of the energy consumed up to the last update.					*/
+	protected double				runningCost;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a cost meter applying {@code tariffs}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code tariffs != null}
+	 * post	{@code !isStarted()}
+	 * </pre>
+	 *
+	 * @param tariffs	tariff table giving the prices.
+	 */
+	public				EnergyCostMeter(TariffTable tariffs)
+	{
+		assert	tariffs != null : new PreconditionException("tariffs != null");
+
+		this.tariffs = tariffs;
+		this.started = false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the tariff table giving the prices.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the tariff table giving the prices.
+	 */
+	public TariffTable	getTariffs()
+	{
+		return this.tariffs;
+	}
+
+	/**
+	 * return true if the meter has received its first update.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the meter has received its first update.
+	 */
+	public synchronized boolean	isStarted()
+	{
+		return this.started;
+	}
+
+	/**
+	 * account the energy and the cost of the previous consumption up to
+	 * {@code time} and set the current consumption to {@code power}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power >= 0.0}
+	 * pre	{@code !isStarted() || time >= getStatus().getTimestamp()}
+	 * post	{@code isStarted()}
+	 * </pre>
+	 *
+	 * @param time	time of the change in nanoseconds since the epoch.
+	 * @param power	consumption from {@code time} in watts.
+	 */
+	public synchronized void	update(long time, double power)
+	{
+		assert	power >= 0.0 : new PreconditionException("power >= 0.0");
+		assert	!this.started || time >= this.lastTime :
+				new PreconditionException(
+						"!isStarted() || time >= getStatus().getTimestamp()");
+
+		if (!this.started) {
+			this.started = true;
+			this.energy = 0.0;
+			this.runningCost = 0.0;
+			this.enterInterval(time);
+		} else {
+			// whole intervals crossed since the last update
+			while (time >= this.intervalEnd) {
+				this.account(this.intervalEnd);
+				this.enterInterval(this.intervalEnd);
+			}
+			this.account(time);
+		}
+		this.lastTime = time;
+		this.power = power;
+	}
+
+	/**
+	 * account the energy and the cost of the current consumption from the
+	 * last update to {@code time}, in the current interval.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code time >= lastTime && time <= intervalEnd}
+	 * post	{@code lastTime == time}
+	 * </pre>
+	 *
+	 * @param time	time in nanoseconds since the epoch.
+	 */
+	protected void		account(long time)
+	{
+		double e = this.power * (time - this.lastTime) / NANOS_PER_HOUR
+																	/ 1000.0;
+		this.energy += e;
+		this.runningCost += e * this.price;
+		this.lastTime = time;
+	}
+
+	/**
+	 * make the tariff interval containing {@code time} the current one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code intervalEnd > time}
+	 * </pre>
+	 *
+	 * @param time	time in nanoseconds since the epoch.
+	 */
+	protected void		enterInterval(long time)
+	{
+		this.lastTime = time;
+		this.price = this.tariffs.priceAt(time);
+		this.intervalEnd = this.tariffs.intervalEnd(time);
+	}
+
+	/**
+	 * return a snapshot of the cost of the energy consumed up to the last
+	 * update, or null if the meter has not been started.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code !isStarted() || return != null}
+	 * </pre>
+	 *
+	 * @return	a snapshot of the cost, or null.
+	 */
+	public synchronized EnergyCostStatus	getStatus()
+	{
+		if (!this.started) {
+			return null;
+		}
+		return new EnergyCostStatus(this.lastTime,
+									this.tariffs.getCurrency(),
+									this.energy,
+									this.runningCost,
+									this.power,
+									this.price,
+									this.intervalEnd);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,294 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.Serializable;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>EnergyCostStatus</code> implements an immutable snapshot of
+ * the cost of the energy consumed as computed by an {@code EnergyCostMeter}.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The running cost and energy are accounted up to the time of the snapshot,
+ * i.e., the time of the last change of consumption; the cost rate being
+ * constant until the next change or the end of the current tariff interval,
+ * the cost at a later time {@code t} is
+ * {@code getRunningCost() + getCostRate() * (t - getTimestamp())} in hours as
+ * long as {@code t <= getIntervalEnd()}.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			EnergyCostStatus
+implements	Serializable
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+
+	/** time of the snapshot in nanoseconds since the epoch.				*/
+	protected final long		timestamp;
+	/** currency of the costs.												*/
+	protected final String		currency;
+	/** energy consumed up to the snapshot in kWh.							*/
+	protected final double		energy;
+	/** cost of the energy consumed up to the snapshot.						*/
+	protected final double		runningCost;
+	/** current consumption in watts.										*/
+	protected final double		power;
+	/** current price per kWh.												*/
+	protected final double		price;
+	/** end of the current tariff interval in nanoseconds since the epoch.	*/
+	protected final long		intervalEnd;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a snapshot of the cost of the consumed energy.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code currency != null && !currency.isEmpty()}
+	 * pre	{@code energy >= 0.0 && runningCost >= 0.0}
+	 * pre	{@code power >= 0.0 && price >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param timestamp		time of the snapshot in nanoseconds since the epoch.
+	 * @param currency		currency of the costs.
+	 * @param energy		energy consumed up to the snapshot in kWh.
+	 * @param runningCost	cost of the energy consumed up to the snapshot.
+	 * @param power			current consumption in watts.
+	 * @param price			current price per kWh.
+	 * @param intervalEnd	end of the current tariff interval in nanoseconds since the epoch.
+	 */
+	public				EnergyCostStatus(
+		long timestamp,
+		String currency,
+		double energy,
+		double runningCost,
+		double power,
+		double price,
+		long intervalEnd
+		)
+	{
+		assert	currency != null && !currency.isEmpty() :
+				new PreconditionException(
+						"currency != null && !currency.isEmpty()");
+		assert	energy >= 0.0 && runningCost >= 0.0 :
+				new PreconditionException(
+						"energy >= 0.0 && runningCost >= 0.0");
+		assert	power >= 0.0 && price >= 0.0 :
+				new PreconditionException("power >= 0.0 && price >= 0.0");
+
+		this.timestamp = timestamp;
+		this.currency = currency;
+		this.energy = energy;
+		this.runningCost = runningCost;
+		this.power = power;
+		this.price = price;
+		this.intervalEnd = intervalEnd;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the time of the snapshot in nanoseconds since the epoch.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time of the snapshot in nanoseconds since the epoch.
+	 */
+	public long			getTimestamp()
+	{
+		return this.timestamp;
+	}
+
+	/**
+	 * return the currency of the costs.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the currency of the costs.
+	 */
+	public String		getCurrency()
+	{
+		return this.currency;
+	}
+
+	/**
+	 * return the energy consumed up to the snapshot in kWh.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the energy consumed up to the snapshot in kWh.
+	 */
+	public double		getEnergy()
+	{
+		return this.energy;
+	}
+
+	/**
+	 * return the cost of the energy consumed up to the snapshot.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the cost of the energy consumed up to the snapshot.
+	 */
+	public double		getRunningCost()
+	{
+		return this.runningCost;
+	}
+
+	/**
+	 * return the current consumption in watts.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the current consumption in watts.
+	 */
+	public double		getPower()
+	{
+		return this.power;
+	}
+
+	/**
+	 * return the current price per kWh.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the current price per kWh.
+	 */
+	public double		getPrice()
+	{
+		return this.price;
+	}
+
+	/**
+	 * return the current cost rate per hour, i.e., the current price times
+	 * the current consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the current cost rate per hour.
+	 */
+	public double		getCostRate()
+	{
+		return this.price * this.power / 1000.0;
+	}
+
+	/**
+	 * return the end of the current tariff interval in nanoseconds since the
+	 * epoch, after which the price changes.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the end of the current tariff interval.
+	 */
+	public long			getIntervalEnd()
+	{
+		return this.intervalEnd;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		return "EnergyCostStatus[" + this.energy + " kWh, "
+				+ this.runningCost + " " + this.currency + ", "
+				+ this.getCostRate() + " " + this.currency + "/h at "
+				+ this.price + " " + this.currency + "/kWh]";
+	}
+}
+// -----------------------------------------------------------------------------
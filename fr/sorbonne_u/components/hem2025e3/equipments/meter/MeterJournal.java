@@ -0,0 +1,1341 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>MeterJournal</code> implements an append-only persistent
+ * journal of the readings of an electric meter in memory-mapped files.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Each reading is a fixed-size binary record holding its time stamp in
+ * nanoseconds since the epoch, the consumption and the production at that
+ * time and the energy consumed since the first record, integrated by the
+ * journal from the step signal of the consumption and expressed in the power
+ * unit of the meter times hours. The records are written in
+ * {@code MappedByteBuffer} segments of a fixed number of records, one file
+ * per segment named by the index of its first record; when a segment is full,
+ * it is forced to the storage and a new one is created. Appending a record
+ * only writes primitive values in the current segment and does not allocate.
+ * </p>
+ * <p>
+ * The last field of a record is a checksum of its index and its other fields,
+ * written after them, and the valid records of a segment always form a
+ * prefix of it. As the records written in a mapped file survive a crash of
+ * the JVM, recovery when reopening the journal only has to find the end of
+ * this prefix in the last segment, discarding a record torn by the crash and
+ * a segment which header was not completely written; the records written
+ * since the last {@code force} may however be lost on a crash of the
+ * operating system. {@code truncateAfter} removes the records following
+ * a given time, zeroing them so that they are not recovered; a meter which
+ * simulation restarts from an earlier time rather keeps the journal of the
+ * previous run and starts a new one in the next epoch directory, given by
+ * {@code epochPath} from the last epoch found by {@code lastEpoch}.
+ * </p>
+ * <p>
+ * {@code close} forces and unmaps the current segment, so that the memory
+ * and the file it maps are released when the meter is finalised rather than
+ * when the buffer is garbage collected; the previous segments are unmapped
+ * in the same way when the journal rolls to a new one.
+ * </p>
+ * <p>
+ * The records are read through a {@code Reader}, which maps the segments in
+ * read-only mode and returns the fields of the current record directly from
+ * the mapped memory, without copying nor allocating, so that offline jobs
+ * can process large journals, possibly while the meter appends to them.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code segmentCount >= 0 && segmentCount <= segmentCapacity}
+ * invariant	{@code size == segmentFirst + segmentCount}
+ * invariant	{@code cumulativeEnergy >= 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code RECORD_SIZE == CHECKSUM_OFFSET + 8}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			MeterJournal
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>RecordConsumerI</code> declares the function
+	 * receiving the fields of the records replayed from a journal.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	RecordConsumerI
+	{
+		/**
+		 * receive the fields of a record.
+		 * 
+		 * @param timestamp			time stamp in nanoseconds since the epoch.
+		 * @param consumption		consumption at {@code timestamp}.
+		 * @param production		production at {@code timestamp}.
+		 * @param cumulativeEnergy	energy consumed since the first record.
+		 */
+		public void		accept(
+			long timestamp,
+			double consumption,
+			double production,
+			double cumulativeEnergy
+			);
+	}
+
+	/**
+	 * The class <code>Reader</code> implements a zero-copy cursor over the
+	 * records of a journal.
+	 *
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p>
+	 * The reader is positioned before a record, initially the first one of
+	 * the journal; {@code next} moves it to the next valid record, which
+	 * fields are then read from the mapped segment. When it reaches the end of
+	 * the journal, {@code next} returns false without moving, so that a
+	 * reader can follow a journal being appended by calling it again later.
+	 * A reader is not thread-safe.
+	 * </p>
+	 * 
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static class	Reader
+	{
+		/** directory of the journal.										*/
+		protected final Path			directory;
+		/** indexes of the first records of the known segments, sorted.	*/
+		protected long[]				starts;
+		/** rank of the current segment in {@code starts}.					*/
+		protected int					segmentRank;
+		/** current segment, mapped in read-only mode.						*/
+		protected MappedByteBuffer		segment;
+		/** number of records of the current segment.						*/
+		protected int					capacity;
+		/** position of the current record in the current segment, -1 when
+		 *  before the first one.											*/
+		protected int					position;
+
+		/**
+		 * create a reader of the journal in {@code directory}, positioned
+		 * before its first record.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code directory != null}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param directory		directory of the journal.
+		 * @throws IOException	when the segments cannot be listed or mapped.
+		 */
+		public			Reader(Path directory) throws IOException
+		{
+			assert	directory != null :
+					new PreconditionException("directory != null");
+
+			this.directory = directory;
+			this.starts = listSegments(directory);
+			this.segmentRank = -1;
+			this.segment = null;
+			this.capacity = 0;
+			this.position = -1;
+			if (this.starts.length > 0) {
+				this.openSegment(0);
+			}
+		}
+
+		/**
+		 * map the segment of rank {@code rank} and position the reader
+		 * before its first record.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code rank >= 0 && rank < starts.length}
+		 * post	{@code position == -1}
+		 * </pre>
+		 *
+		 * @param rank			rank of the segment in {@code starts}.
+		 * @throws IOException	when the segment cannot be mapped.
+		 */
+		protected void	openSegment(int rank) throws IOException
+		{
+			MappedByteBuffer b =
+					mapSegment(this.directory, this.starts[rank], false, 0);
+			this.segment = b;
+			this.capacity = b == null ? 0 : b.getInt(CAPACITY_OFFSET);
+			this.segmentRank = rank;
+			this.position = -1;
+		}
+
+		/**
+		 * move to the next valid record and return true, or return false
+		 * without moving if there is none yet.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @return				true if the reader moved to a valid record.
+		 * @throws IOException	when a segment cannot be listed or mapped.
+		 */
+		public boolean	next() throws IOException
+		{
+			if (this.segment == null ||
+									this.position + 1 >= this.capacity) {
+				// end of the current segment, look for the next one
+				if (this.segmentRank + 1 >= this.starts.length) {
+					this.starts = listSegments(this.directory);
+				}
+				if (this.segmentRank + 1 >= this.starts.length) {
+					return false;
+				}
+				int savedRank = this.segmentRank;
+				int savedPosition = this.position;
+				MappedByteBuffer savedSegment = this.segment;
+				int savedCapacity = this.capacity;
+				this.openSegment(this.segmentRank + 1);
+				if (!this.isValid(0)) {
+					this.segmentRank = savedRank;
+					this.position = savedPosition;
+					this.segment = savedSegment;
+					this.capacity = savedCapacity;
+					return false;
+				}
+				this.position = 0;
+				return true;
+			}
+			if (this.isValid(this.position + 1)) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * position the reader before the record of index {@code index}, or
+		 * at the end of the journal if it has fewer records.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code index >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param index			index of the next record to be read.
+		 * @throws IOException	when a segment cannot be listed or mapped.
+		 */
+		public void		seekIndex(long index) throws IOException
+		{
+			assert	index >= 0 : new PreconditionException("index >= 0");
+
+			this.starts = listSegments(this.directory);
+			if (this.starts.length == 0) {
+				return;
+			}
+			int rank = Arrays.binarySearch(this.starts, index);
+			if (rank < 0) {
+				rank = Math.max(0, -rank - 2);
+			}
+			this.openSegment(rank);
+			this.position =
+				(int) Math.min(index - this.starts[rank],
+							   validCount(this.segment, this.starts[rank],
+										  this.capacity)) - 1;
+		}
+
+		/**
+		 * position the reader before the first record which time stamp is
+		 * greater than or equal to {@code timestamp}, or at the end of the
+		 * journal if there is none.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param timestamp		time stamp in nanoseconds since the epoch.
+		 * @throws IOException	when a segment cannot be listed or mapped.
+		 */
+		public void		seek(long timestamp) throws IOException
+		{
+			this.starts = listSegments(this.directory);
+			if (this.starts.length == 0) {
+				return;
+			}
+			// last segment which first record is not after timestamp
+			int low = 0;
+			int high = this.starts.length - 1;
+			while (low < high) {
+				int mid = (low + high + 1) >>> 1;
+				this.openSegment(mid);
+				if (this.isValid(0) && this.timestampAt(0) <= timestamp) {
+					low = mid;
+				} else {
+					high = mid - 1;
+				}
+			}
+			this.openSegment(low);
+			// first record of the segment not before timestamp
+			int count = validCount(this.segment, this.starts[low],
+								   this.capacity);
+			int l = 0;
+			int h = count;
+			while (l < h) {
+				int mid = (l + h) >>> 1;
+				if (this.timestampAt(mid) < timestamp) {
+					l = mid + 1;
+				} else {
+					h = mid;
+				}
+			}
+			this.position = l - 1;
+		}
+
+		/**
+		 * return true if the record at {@code p} in the current segment is
+		 * valid.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param p	position of a record in the current segment.
+		 * @return	true if the record at {@code p} is valid.
+		 */
+		protected boolean	isValid(int p)
+		{
+			return this.segment != null && p < this.capacity &&
+						isValidRecord(this.segment,
+									  this.starts[this.segmentRank], p);
+		}
+
+		/**
+		 * return the time stamp of the record at {@code p} in the current
+		 * segment.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code isValid(p)}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @param p	position of a record in the current segment.
+		 * @return	the time stamp of the record at {@code p}.
+		 */
+		protected long	timestampAt(int p)
+		{
+			return this.segment.getLong(recordOffset(p) + TIMESTAMP_OFFSET);
+		}
+
+		/**
+		 * return the index of the current record in the journal.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code position >= 0}
+		 * post	{@code return >= 0}
+		 * </pre>
+		 *
+		 * @return	the index of the current record in the journal.
+		 */
+		public long		index()
+		{
+			assert	this.position >= 0 :
+					new PreconditionException("position >= 0");
+
+			return this.starts[this.segmentRank] + this.position;
+		}
+
+		/**
+		 * return the time stamp of the current record in nanoseconds since the
+		 * epoch.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code position >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @return	the time stamp of the current record.
+		 */
+		public long		timestamp()
+		{
+			assert	this.position >= 0 :
+					new PreconditionException("position >= 0");
+
+			return this.timestampAt(this.position);
+		}
+
+		/**
+		 * return the consumption of the current record.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code position >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @return	the consumption of the current record.
+		 */
+		public double	consumption()
+		{
+			assert	this.position >= 0 :
+					new PreconditionException("position >= 0");
+
+			return this.segment.getDouble(
+						recordOffset(this.position) + CONSUMPTION_OFFSET);
+		}
+
+		/**
+		 * return the production of the current record.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code position >= 0}
+		 * post	{@code true}	// no postcondition.
+		 * </pre>
+		 *
+		 * @return	the production of the current record.
+		 */
+		public double	production()
+		{
+			assert	this.position >= 0 :
+					new PreconditionException("position >= 0");
+
+			return this.segment.getDouble(
+						recordOffset(this.position) + PRODUCTION_OFFSET);
+		}
+
+		/**
+		 * return the energy consumed from the first record of the journal to
+		 * the current one.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code position >= 0}
+		 * post	{@code return >= 0.0}
+		 * </pre>
+		 *
+		 * @return	the energy consumed up to the current record.
+		 */
+		public double	cumulativeEnergy()
+		{
+			assert	this.position >= 0 :
+					new PreconditionException("position >= 0");
+
+			return this.segment.getDouble(
+						recordOffset(this.position) + ENERGY_OFFSET);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** magic number starting the header of the segments ("MJRN").			*/
+	public static final int		MAGIC = 0x4D4A524E;
+	/** version of the format of the segments.								*/
+	public static final int		VERSION = 1;
+	/** size in bytes of the header of a segment.							*/
+	public static final int		HEADER_SIZE = 32;
+	/** size in bytes of a record.											*/
+	public static final int		RECORD_SIZE = 40;
+	/** default number of records in a segment.								*/
+	public static final int		DEFAULT_SEGMENT_CAPACITY = 65536;
+	/** prefix of the names of the segment files.							*/
+	public static final String	SEGMENT_PREFIX = "segment-";
+	/** suffix of the names of the segment files.							*/
+	public static final String	SEGMENT_SUFFIX = ".jnl";
+	/** prefix of the names of the epoch directories of a journal root.	*/
+	public static final String	EPOCH_PREFIX = "epoch-";
+
+	/** offset of the magic number in the header.							*/
+	protected static final int		MAGIC_OFFSET = 0;
+	/** offset of the version in the header.								*/
+	protected static final int		VERSION_OFFSET = 4;
+	/** offset of the record size in the header.							*/
+	protected static final int		RECORD_SIZE_OFFSET = 8;
+	/** offset of the number of records in the header.						*/
+	protected static final int		CAPACITY_OFFSET = 12;
+	/** offset of the index of the first record in the header.				*/
+	protected static final int		FIRST_INDEX_OFFSET = 16;
+	/** offset of the time stamp in a record.								*/
+	protected static final int		TIMESTAMP_OFFSET = 0;
+	/** offset of the consumption in a record.								*/
+	protected static final int		CONSUMPTION_OFFSET = 8;
+	/** offset of the production in a record.								*/
+	protected static final int		PRODUCTION_OFFSET = 16;
+	/** offset of the cumulative energy in a record.						*/
+	protected static final int		ENERGY_OFFSET = 24;
+	/** offset of the checksum in a record.									*/
+	protected static final int		CHECKSUM_OFFSET = 32;
+	/** number of nanoseconds in an hour, to integrate the energy.			*/
+	protected static final double	NANOS_PER_HOUR = 3.6e12;
+
+	/** directory of the journal.											*/
+	protected final Path			directory;
+	/** number of records in the new segments.								*/
+	protected final int				newSegmentCapacity;
+	/** current segment, mapped in read-write mode.							*/
+	protected MappedByteBuffer		segment;
+	/** index of the first record of the current segment.					*/
+	protected long					segmentFirst;
+	/** number of records of the current segment.							*/
+	protected int					segmentCapacity;
+	/** number of records written in the current segment.					*/
+	protected int					segmentCount;
+	/** number of records in the journal.									*/
+	protected long					size;
+	/** time stamp of the last record.										*/
+	protected long					lastTimestamp;
+	/** consumption of the last record.										*/
+	protected double				lastConsumption;
+	/** production of the last record.										*/
+	protected double				lastProduction;
+	/** energy consumed up to the last record.								*/
+	protected double				cumulativeEnergy;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * open the journal in {@code directory}, creating it if it does not exist
+	 * or recovering it otherwise, and attach to its last record.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code directory != null}
+	 * pre	{@code segmentCapacity > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param directory			directory of the journal.
+	 * @param segmentCapacity	number of records in the new segments.
+	 * @throws IOException		when the journal cannot be created or mapped.
+	 */
+	public				MeterJournal(Path directory, int segmentCapacity)
+	throws IOException
+	{
+		assert	directory != null :
+				new PreconditionException("directory != null");
+		assert	segmentCapacity > 0 :
+				new PreconditionException("segmentCapacity > 0");
+
+		this.directory = directory;
+		this.newSegmentCapacity = segmentCapacity;
+		Files.createDirectories(directory);
+
+		long[] starts = listSegments(directory);
+		int rank = starts.length - 1;
+		this.segment = null;
+		while (rank >= 0 && this.segment == null) {
+			MappedByteBuffer b = mapSegment(directory, starts[rank], true, 0);
+			int count = b == null ?
+						0 : validCount(b, starts[rank], b.getInt(CAPACITY_OFFSET));
+			if (count > 0 || rank == 0 && b != null) {
+				this.attach(b, starts[rank], count);
+			} else {
+				// header torn or no record yet: the segment is discarded
+				Files.delete(segmentPath(directory, starts[rank]));
+				rank--;
+			}
+		}
+		if (this.segment == null) {
+			this.attach(mapSegment(directory, 0L, true, segmentCapacity),
+						0L, 0);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of records in the journal.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records in the journal.
+	 */
+	public synchronized long	size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * return the time stamp of the last record.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code size() > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time stamp of the last record in nanoseconds since the epoch.
+	 */
+	public synchronized long	lastTimestamp()
+	{
+		assert	this.size > 0 : new PreconditionException("size() > 0");
+
+		return this.lastTimestamp;
+	}
+
+	/**
+	 * return the energy consumed up to the last record, in the power unit of
+	 * the meter times hours.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the energy consumed up to the last record.
+	 */
+	public synchronized double	cumulativeEnergy()
+	{
+		return this.cumulativeEnergy;
+	}
+
+	/**
+	 * append a reading to the journal, the consumed energy being integrated
+	 * from the consumption of the previous record.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !isClosed()}
+	 * pre	{@code size() == 0 || timestamp >= lastTimestamp()}
+	 * pre	{@code consumption >= 0.0 && production >= 0.0}
+	 * post	{@code lastTimestamp() == timestamp}
+	 * </pre>
+	 *
+	 * @param timestamp		time stamp in nanoseconds since the epoch.
+	 * @param consumption	consumption at {@code timestamp}.
+	 * @param production	production at {@code timestamp}.
+	 * @throws IOException	when a new segment cannot be created.
+	 */
+	public synchronized void	append(
+		long timestamp,
+		double consumption,
+		double production
+		) throws IOException
+	{
+		assert	!this.isClosed() : new PreconditionException("!isClosed()");
+		assert	this.size == 0 || timestamp >= this.lastTimestamp :
+				new PreconditionException(
+						"size() == 0 || timestamp >= lastTimestamp()");
+		assert	consumption >= 0.0 && production >= 0.0 :
+				new PreconditionException(
+						"consumption >= 0.0 && production >= 0.0");
+
+		if (this.segmentCount == this.segmentCapacity) {
+			this.roll();
+		}
+		double energy = 0.0;
+		if (this.size > 0) {
+			energy = this.cumulativeEnergy +
+						this.lastConsumption
+							* (timestamp - this.lastTimestamp) / NANOS_PER_HOUR;
+		}
+		long index = this.segmentFirst + this.segmentCount;
+		int o = recordOffset(this.segmentCount);
+		this.segment.putLong(o + TIMESTAMP_OFFSET, timestamp);
+		this.segment.putDouble(o + CONSUMPTION_OFFSET, consumption);
+		this.segment.putDouble(o + PRODUCTION_OFFSET, production);
+		this.segment.putDouble(o + ENERGY_OFFSET, energy);
+		// the checksum is written last to validate the record
+		this.segment.putLong(
+				o + CHECKSUM_OFFSET,
+				checksum(index, timestamp, consumption, production, energy));
+
+		this.segmentCount++;
+		this.size++;
+		this.lastTimestamp = timestamp;
+		this.lastConsumption = consumption;
+		this.lastProduction = production;
+		this.cumulativeEnergy = energy;
+	}
+
+	/**
+	 * remove the records which time stamps are strictly after
+	 * {@code timestamp}, typically when a simulation restarts from an
+	 * earlier time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code size() == 0 || lastTimestamp() <= timestamp}
+	 * </pre>
+	 *
+	 * @param timestamp		time stamp in nanoseconds since the epoch.
+	 * @throws IOException	when a segment cannot be deleted or mapped.
+	 */
+	public synchronized void	truncateAfter(long timestamp)
+	throws IOException
+	{
+		if (this.size == 0 || this.lastTimestamp <= timestamp) {
+			return;
+		}
+
+		// drop the segments which all records are after timestamp
+		while (this.segmentFirst > 0 &&
+					(this.segmentCount == 0 ||
+						this.segment.getLong(recordOffset(0) + TIMESTAMP_OFFSET)
+																> timestamp)) {
+			unmap(this.segment);
+			Files.delete(segmentPath(this.directory, this.segmentFirst));
+			long[] starts = listSegments(this.directory);
+			long previous = starts[starts.length - 1];
+			MappedByteBuffer b = mapSegment(this.directory, previous, true, 0);
+			this.attach(b, previous,
+						validCount(b, previous, b.getInt(CAPACITY_OFFSET)));
+		}
+
+		// first record after timestamp in the current segment
+		int l = 0;
+		int h = this.segmentCount;
+		while (l < h) {
+			int mid = (l + h) >>> 1;
+			if (this.segment.getLong(recordOffset(mid) + TIMESTAMP_OFFSET)
+																<= timestamp) {
+				l = mid + 1;
+			} else {
+				h = mid;
+			}
+		}
+		for (int o = recordOffset(l) ; o < recordOffset(this.segmentCount) ;
+																	o += 8) {
+			this.segment.putLong(o, 0L);
+		}
+		this.segment.force();
+		this.attach(this.segment, this.segmentFirst, l);
+	}
+
+	/**
+	 * replay to {@code c} the records of the journal from the one of index
+	 * {@code from}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from >= 0}
+	 * pre	{@code c != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param from			index of the first record to be replayed.
+	 * @param c				function receiving the fields of the records.
+	 * @throws IOException	when a segment cannot be listed or mapped.
+	 */
+	public synchronized void	replay(long from, RecordConsumerI c)
+	throws IOException
+	{
+		assert	from >= 0 : new PreconditionException("from >= 0");
+		assert	c != null : new PreconditionException("c != null");
+
+		Reader r = new Reader(this.directory);
+		r.seekIndex(from);
+		while (r.next()) {
+			c.accept(r.timestamp(), r.consumption(), r.production(),
+					 r.cumulativeEnergy());
+		}
+	}
+
+	/**
+	 * force the records written in the current segment to the storage.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !isClosed()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 */
+	public synchronized void	force()
+	{
+		assert	!this.isClosed() : new PreconditionException("!isClosed()");
+
+		this.segment.force();
+	}
+
+	/**
+	 * return true if the journal has been closed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the journal has been closed.
+	 */
+	public synchronized boolean	isClosed()
+	{
+		return this.segment == null;
+	}
+
+	/**
+	 * force the current segment to the storage and unmap it; the journal
+	 * cannot be used anymore afterwards but can be reopened by creating a
+	 * new one on the same directory.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code isClosed()}
+	 * </pre>
+	 */
+	public synchronized void	close()
+	{
+		if (this.segment != null) {
+			this.segment.force();
+			unmap(this.segment);
+			this.segment = null;
+		}
+	}
+
+	/**
+	 * force the current segment to the storage and create a new one after it.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code segmentCount == segmentCapacity}
+	 * post	{@code segmentCount == 0}
+	 * </pre>
+	 *
+	 * @throws IOException	when the new segment cannot be created.
+	 */
+	protected void		roll() throws IOException
+	{
+		this.segment.force();
+		unmap(this.segment);
+		long first = this.segmentFirst + this.segmentCount;
+		this.segment = mapSegment(this.directory, first, true,
+								  this.newSegmentCapacity);
+		this.segmentFirst = first;
+		this.segmentCapacity = this.newSegmentCapacity;
+		this.segmentCount = 0;
+	}
+
+	/**
+	 * attach the journal to the segment {@code b} which first record has
+	 * index {@code first} and which first {@code count} records are valid,
+	 * restoring the last values from its last record.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code b != null}
+	 * pre	{@code count >= 0}
+	 * pre	{@code count > 0 || first == 0}
+	 * post	{@code size() == first + count}
+	 * </pre>
+	 *
+	 * @param b		segment mapped in read-write mode.
+	 * @param first	index of the first record of the segment.
+	 * @param count	number of valid records of the segment.
+	 */
+	protected void		attach(MappedByteBuffer b, long first, int count)
+	{
+		this.segment = b;
+		this.segmentFirst = first;
+		this.segmentCapacity = b.getInt(CAPACITY_OFFSET);
+		this.segmentCount = count;
+		this.size = first + count;
+		if (count > 0) {
+			int o = recordOffset(count - 1);
+			this.lastTimestamp = b.getLong(o + TIMESTAMP_OFFSET);
+			this.lastConsumption = b.getDouble(o + CONSUMPTION_OFFSET);
+			this.lastProduction = b.getDouble(o + PRODUCTION_OFFSET);
+			this.cumulativeEnergy = b.getDouble(o + ENERGY_OFFSET);
+		} else {
+			this.lastTimestamp = 0L;
+			this.lastConsumption = 0.0;
+			this.lastProduction = 0.0;
+			this.cumulativeEnergy = 0.0;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Segment and record format
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the path of the segment which first record has index
+	 * {@code first}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code directory != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param directory	directory of the journal.
+	 * @param first		index of the first record of the segment.
+	 * @return			the path of the segment.
+	 */
+	protected static Path	segmentPath(Path directory, long first)
+	{
+		return directory.resolve(
+					String.format("%s%016d%s", SEGMENT_PREFIX, first,
+								  SEGMENT_SUFFIX));
+	}
+
+	/**
+	 * return the directory of the epoch {@code epoch} under the journal root
+	 * {@code root}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code root != null}
+	 * pre	{@code epoch >= 0}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param root	directory holding the epoch directories of a journal.
+	 * @param epoch	number of the epoch.
+	 * @return		the directory of the epoch.
+	 */
+	public static Path	epochPath(Path root, int epoch)
+	{
+		assert	root != null : new PreconditionException("root != null");
+		assert	epoch >= 0 : new PreconditionException("epoch >= 0");
+
+		return root.resolve(String.format("%s%06d", EPOCH_PREFIX, epoch));
+	}
+
+	/**
+	 * return the number of the last epoch directory under the journal root
+	 * {@code root}, or -1 if there is none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code root != null}
+	 * post	{@code return >= -1}
+	 * </pre>
+	 *
+	 * @param root			directory holding the epoch directories of a journal.
+	 * @return				the number of the last epoch or -1 if there is none.
+	 * @throws IOException	when the directory cannot be listed.
+	 */
+	public static int	lastEpoch(Path root) throws IOException
+	{
+		assert	root != null : new PreconditionException("root != null");
+
+		int last = -1;
+		if (Files.isDirectory(root)) {
+			try (DirectoryStream<Path> ds =
+					Files.newDirectoryStream(root, EPOCH_PREFIX + "*")) {
+				for (Path p : ds) {
+					String n = p.getFileName().toString();
+					try {
+						last = Math.max(
+								last,
+								Integer.parseInt(
+									n.substring(EPOCH_PREFIX.length())));
+					} catch (NumberFormatException e) {
+						// not an epoch of the journal
+					}
+				}
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * unmap the segment {@code b} without waiting for its garbage
+	 * collection; {@code b} must not be accessed anymore afterwards. When
+	 * the running platform does not allow it, the segment is left to the
+	 * garbage collector.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code b != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param b	a mapped segment.
+	 */
+	protected static void	unmap(MappedByteBuffer b)
+	{
+		assert	b != null : new PreconditionException("b != null");
+
+		try {
+			// Java 9 and later: sun.misc.Unsafe.invokeCleaner
+			Class<?> uc = Class.forName("sun.misc.Unsafe");
+			Field f = uc.getDeclaredField("theUnsafe");
+			f.setAccessible(true);
+			uc.getMethod("invokeCleaner", ByteBuffer.class)
+										.invoke(f.get(null), b);
+		} catch (NoSuchMethodException e) {
+			// Java 8: the cleaner of the direct buffer
+			try {
+				Method m = b.getClass().getMethod("cleaner");
+				m.setAccessible(true);
+				Object c = m.invoke(b);
+				if (c != null) {
+					c.getClass().getMethod("clean").invoke(c);
+				}
+			} catch (Exception ee) {
+				// left to the garbage collector
+			}
+		} catch (Exception e) {
+			// left to the garbage collector
+		}
+	}
+
+	/**
+	 * return the sorted indexes of the first records of the segments in
+	 * {@code directory}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code directory != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param directory		directory of the journal.
+	 * @return				the sorted indexes of the first records of the segments.
+	 * @throws IOException	when the directory cannot be listed.
+	 */
+	protected static long[]	listSegments(Path directory) throws IOException
+	{
+		ArrayList<Long> starts = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			try (DirectoryStream<Path> ds =
+					Files.newDirectoryStream(
+						directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+				for (Path p : ds) {
+					String n = p.getFileName().toString();
+					try {
+						starts.add(Long.parseLong(
+							n.substring(SEGMENT_PREFIX.length(),
+										n.length() - SEGMENT_SUFFIX.length())));
+					} catch (NumberFormatException e) {
+						// not a segment of the journal
+					}
+				}
+			}
+		}
+		long[] ret = new long[starts.size()];
+		for (int i = 0 ; i < ret.length ; i++) {
+			ret[i] = starts.get(i);
+		}
+		Arrays.sort(ret);
+		return ret;
+	}
+
+	/**
+	 * map the segment which first record has index {@code first}, creating
+	 * it with {@code capacity} records when {@code capacity > 0}, and return
+	 * it, or null if its header is not valid.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code directory != null}
+	 * pre	{@code capacity == 0 || writable}
+	 * post	{@code capacity == 0 || return != null}
+	 * </pre>
+	 *
+	 * @param directory		directory of the journal.
+	 * @param first			index of the first record of the segment.
+	 * @param writable		true to map the segment in read-write mode.
+	 * @param capacity		number of records of a created segment, 0 to map an existing one.
+	 * @return				the mapped segment or null if its header is not valid.
+	 * @throws IOException	when the segment cannot be created or mapped.
+	 */
+	protected static MappedByteBuffer	mapSegment(
+		Path directory,
+		long first,
+		boolean writable,
+		int capacity
+		) throws IOException
+	{
+		assert	capacity == 0 || writable :
+				new PreconditionException("capacity == 0 || writable");
+
+		Path p = segmentPath(directory, first);
+		try (FileChannel fc =
+				capacity > 0 ?
+					FileChannel.open(p, StandardOpenOption.CREATE_NEW,
+									 StandardOpenOption.READ,
+									 StandardOpenOption.WRITE)
+				: writable ?
+					FileChannel.open(p, StandardOpenOption.READ,
+									 StandardOpenOption.WRITE)
+				:	FileChannel.open(p, StandardOpenOption.READ)) {
+			if (capacity > 0) {
+				MappedByteBuffer b =
+					fc.map(FileChannel.MapMode.READ_WRITE, 0,
+						   HEADER_SIZE + (long) capacity * RECORD_SIZE);
+				b.putInt(VERSION_OFFSET, VERSION);
+				b.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+				b.putInt(CAPACITY_OFFSET, capacity);
+				b.putLong(FIRST_INDEX_OFFSET, first);
+				// the magic number is written last to validate the header
+				b.putInt(MAGIC_OFFSET, MAGIC);
+				b.force();
+				return b;
+			}
+			long length = fc.size();
+			if (length < HEADER_SIZE) {
+				return null;
+			}
+			MappedByteBuffer b =
+				fc.map(writable ?
+							FileChannel.MapMode.READ_WRITE
+						:	FileChannel.MapMode.READ_ONLY,
+					   0, length);
+			if (b.getInt(MAGIC_OFFSET) != MAGIC ||
+					b.getInt(VERSION_OFFSET) != VERSION ||
+					b.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE ||
+					b.getLong(FIRST_INDEX_OFFSET) != first ||
+					HEADER_SIZE + (long) b.getInt(CAPACITY_OFFSET)
+												* RECORD_SIZE > length) {
+				return null;
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * return the offset of the record at {@code p} in a segment.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code p >= 0}
+	 * post	{@code return >= HEADER_SIZE}
+	 * </pre>
+	 *
+	 * @param p	position of a record in a segment.
+	 * @return	the offset of the record in the segment.
+	 */
+	protected static int	recordOffset(int p)
+	{
+		return HEADER_SIZE + p * RECORD_SIZE;
+	}
+
+	/**
+	 * return true if the record at {@code p} in the segment {@code b}, which
+	 * first record has index {@code first}, is valid.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code b != null}
+	 * pre	{@code p >= 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param b		a mapped segment.
+	 * @param first	index of the first record of the segment.
+	 * @param p		position of a record in the segment.
+	 * @return		true if the record is valid.
+	 */
+	protected static boolean	isValidRecord(
+		MappedByteBuffer b,
+		long first,
+		int p
+		)
+	{
+		int o = recordOffset(p);
+		return b.getLong(o + CHECKSUM_OFFSET) ==
+					checksum(first + p,
+							 b.getLong(o + TIMESTAMP_OFFSET),
+							 b.getDouble(o + CONSUMPTION_OFFSET),
+							 b.getDouble(o + PRODUCTION_OFFSET),
+							 b.getDouble(o + ENERGY_OFFSET));
+	}
+
+	/**
+	 * return the number of valid records in the segment {@code b}, which
+	 * first record has index {@code first} and which has {@code capacity}
+	 * records, the valid records forming a prefix of the segment.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code b != null}
+	 * pre	{@code capacity >= 0}
+	 * post	{@code return >= 0 && return <= capacity}
+	 * </pre>
+	 *
+	 * @param b			a mapped segment.
+	 * @param first		index of the first record of the segment.
+	 * @param capacity	number of records of the segment.
+	 * @return			the number of valid records in the segment.
+	 */
+	protected static int	validCount(
+		MappedByteBuffer b,
+		long first,
+		int capacity
+		)
+	{
+		int l = 0;
+		int h = capacity;
+		while (l < h) {
+			int mid = (l + h) >>> 1;
+			if (isValidRecord(b, first, mid)) {
+				l = mid + 1;
+			} else {
+				h = mid;
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * return the checksum of a record, never zero so that zeroed records are
+	 * never valid.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != 0L}
+	 * </pre>
+	 *
+	 * @param index			index of the record in the journal.
+	 * @param timestamp		time stamp of the record.
+	 * @param consumption	consumption of the record.
+	 * @param production	production of the record.
+	 * @param energy		cumulative energy of the record.
+	 * @return				the checksum of the record.
+	 */
+	protected static long	checksum(
+		long index,
+		long timestamp,
+		double consumption,
+		double production,
+		double energy
+		)
+	{
+		long h = mix(0x9E3779B97F4A7C15L ^ index);
+		h = mix(h ^ timestamp);
+		h = mix(h ^ Double.doubleToRawLongBits(consumption));
+		h = mix(h ^ Double.doubleToRawLongBits(production));
+		h = mix(h ^ Double.doubleToRawLongBits(energy));
+		return h == 0L ? 1L : h;
+	}
+
+	/**
+	 * return the 64 bits finalisation mix of {@code z}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param z	value to be mixed.
+	 * @return	the mixed value.
+	 */
+	protected static long	mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,488 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.Arrays;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerBalanceAnalytics</code> implements a streaming,
+ * fixed-memory analytics stage fed by the transitions of the electric meter
+ * simulation model.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The total consumption and the consumption of each appliance are recorded
+ * as step signals: a value holds from the time it is recorded until the next
+ * one. From these, the analytics maintain, with primitive accumulators only:
+ * </p>
+ * <ul>
+ * <li>the P50, P95 and P99 of the consumption over time, through a
+ *   {@code WeightedQuantileHistogram};</li>
+ * <li>the time-weighted mean consumption and the time during which the
+ *   consumption has been over a threshold;</li>
+ * <li>the peak demand, i.e., the largest mean consumption over a rolling
+ *   window, computed from the charges of the last {@code windowBuckets}
+ *   buckets of equal duration, so that the window rolls by one bucket;</li>
+ * <li>the energy consumed by each appliance, which accumulator is updated
+ *   only when the consumption of this appliance changes.</li>
+ * </ul>
+ * <p>
+ * Times are expressed in hours of simulated time. The model records from its
+ * simulation thread while the electric meter component may take snapshots
+ * from its own threads, hence the methods are synchronised; snapshots give
+ * the statistics up to the last recorded time.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code threshold >= 0.0}
+ * invariant	{@code bucketLength > 0.0}
+ * invariant	{@code bucketCharges.length > 0}
+ * invariant	{@code observedDuration >= 0.0}
+ * invariant	{@code timeAboveThreshold >= 0.0 && timeAboveThreshold <= observedDuration}
+ * invariant	{@code sourceCount >= 0 && sourceCount <= sourceNames.length}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerBalanceAnalytics
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** smallest consumption distinguished by the percentiles.				*/
+	public static final double	QUANTILE_MINIMUM = 0.01;
+	/** largest consumption distinguished by the percentiles.				*/
+	public static final double	QUANTILE_MAXIMUM = 1000.0;
+	/** relative error on the percentiles.									*/
+	public static final double	QUANTILE_RELATIVE_ERROR = 0.01;
+
+	/** tension used to compute energies from charges, in volts.			*/
+	protected final double		tension;
+	/** consumption threshold.												*/
+	protected final double		threshold;
+	/** quantile sketch of the consumption.									*/
+	protected final WeightedQuantileHistogram	quantiles;
+
+	/** time of the last recording or {@code Double.NaN} if none.			*/
+	protected double			lastTime;
+	/** last recorded consumption.											*/
+	protected double			lastValue;
+	/** duration covered by the recordings.									*/
+	protected double			observedDuration;
+	/** total charge, i.e., integral of the consumption over time.			*/
+	protected double			charge;
+	/** time during which the consumption has been over the threshold.		*/
+	protected double			timeAboveThreshold;
+
+	/** duration of a bucket of the rolling window.							*/
+	protected final double		bucketLength;
+	/** charges of the last closed buckets, used as a ring.					*/
+	protected final double[]	bucketCharges;
+	/** index of the next bucket to be closed in the ring.					*/
+	protected int				nextBucket;
+	/** number of buckets closed so far, bounded by the ring length.		*/
+	protected int				closedBuckets;
+	/** charge of the current bucket so far.								*/
+	protected double			currentBucketCharge;
+	/** time at which the current bucket ends.								*/
+	protected double			currentBucketEnd;
+	/** largest mean consumption over a full window.						*/
+	protected double			peakDemand;
+	/** time at which the window of the peak demand ends.					*/
+	protected double			peakDemandTime;
+
+	/** names of the appliances.											*/
+	protected String[]			sourceNames;
+	/** last recorded consumptions of the appliances.						*/
+	protected double[]			sourceValues;
+	/** times of the last recordings of the appliances.						*/
+	protected double[]			sourceTimes;
+	/** charges of the appliances up to their last recording.				*/
+	protected double[]			sourceCharges;
+	/** number of appliances.												*/
+	protected int				sourceCount;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create an analytics stage.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code tension > 0.0}
+	 * pre	{@code threshold >= 0.0}
+	 * pre	{@code windowLength > 0.0}
+	 * pre	{@code windowBuckets > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param tension		tension used to compute energies from charges, in volts.
+	 * @param threshold		consumption threshold.
+	 * @param windowLength	duration of the rolling peak demand window in hours.
+	 * @param windowBuckets	number of buckets in the rolling window.
+	 */
+	public				PowerBalanceAnalytics(
+		double tension,
+		double threshold,
+		double windowLength,
+		int windowBuckets
+		)
+	{
+		assert	tension > 0.0 : new PreconditionException("tension > 0.0");
+		assert	threshold >= 0.0 :
+				new PreconditionException("threshold >= 0.0");
+		assert	windowLength > 0.0 :
+				new PreconditionException("windowLength > 0.0");
+		assert	windowBuckets > 0 :
+				new PreconditionException("windowBuckets > 0");
+
+		this.tension = tension;
+		this.threshold = threshold;
+		this.quantiles = new WeightedQuantileHistogram(QUANTILE_MINIMUM,
+													   QUANTILE_MAXIMUM,
+													   QUANTILE_RELATIVE_ERROR);
+		this.bucketLength = windowLength/windowBuckets;
+		this.bucketCharges = new double[windowBuckets];
+		this.sourceNames = new String[0];
+		this.sourceValues = new double[0];
+		this.sourceTimes = new double[0];
+		this.sourceCharges = new double[0];
+		this.reset();
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * forget all recordings, keeping the registered appliances.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	public synchronized void	reset()
+	{
+		this.quantiles.reset();
+		this.lastTime = Double.NaN;
+		this.lastValue = 0.0;
+		this.observedDuration = 0.0;
+		this.charge = 0.0;
+		this.timeAboveThreshold = 0.0;
+		Arrays.fill(this.bucketCharges, 0.0);
+		this.nextBucket = 0;
+		this.closedBuckets = 0;
+		this.currentBucketCharge = 0.0;
+		this.currentBucketEnd = Double.NaN;
+		this.peakDemand = 0.0;
+		this.peakDemandTime = Double.NaN;
+		for (int i = 0 ; i < this.sourceCount ; i++) {
+			this.sourceValues[i] = 0.0;
+			this.sourceTimes[i] = Double.NaN;
+			this.sourceCharges[i] = 0.0;
+		}
+	}
+
+	/**
+	 * register an appliance and return its index, which must be used when
+	 * recording its consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code name != null && !name.isEmpty()}
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @param name	name of the appliance.
+	 * @return		the index of the appliance.
+	 */
+	public synchronized int	registerSource(String name)
+	{
+		assert	name != null && !name.isEmpty() :
+				new PreconditionException("name != null && !name.isEmpty()");
+
+		if (this.sourceCount == this.sourceNames.length) {
+			int capacity = Math.max(4, 2 * this.sourceNames.length);
+			this.sourceNames = Arrays.copyOf(this.sourceNames, capacity);
+			this.sourceValues = Arrays.copyOf(this.sourceValues, capacity);
+			this.sourceTimes = Arrays.copyOf(this.sourceTimes, capacity);
+			this.sourceCharges = Arrays.copyOf(this.sourceCharges, capacity);
+		}
+		int index = this.sourceCount++;
+		this.sourceNames[index] = name;
+		this.sourceValues[index] = 0.0;
+		this.sourceTimes[index] = Double.NaN;
+		this.sourceCharges[index] = 0.0;
+		return index;
+	}
+
+	/**
+	 * record that the total consumption is {@code value} from {@code time}
+	 * on.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code value >= 0.0}
+	 * pre	{@code Double.isNaN(lastTime) || time >= lastTime}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param time	time of the recording in hours.
+	 * @param value	total consumption from {@code time} on.
+	 */
+	public synchronized void	record(double time, double value)
+	{
+		assert	value >= 0.0 : new PreconditionException("value >= 0.0");
+		assert	Double.isNaN(this.lastTime) || time >= this.lastTime :
+				new PreconditionException(
+						"Double.isNaN(lastTime) || time >= lastTime");
+
+		if (Double.isNaN(this.lastTime)) {
+			this.currentBucketEnd = time + this.bucketLength;
+		} else {
+			double d = time - this.lastTime;
+			if (d > 0.0) {
+				this.quantiles.add(this.lastValue, d);
+				this.observedDuration += d;
+				this.charge += this.lastValue * d;
+				if (this.lastValue > this.threshold) {
+					this.timeAboveThreshold += d;
+				}
+				this.advanceWindow(time);
+			}
+		}
+		this.lastTime = time;
+		this.lastValue = value;
+	}
+
+	/**
+	 * accumulate the last recorded consumption in the rolling window up to
+	 * {@code time}, closing the buckets ending before it.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code time >= lastTime}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param time	time up to which the window must be advanced.
+	 */
+	protected void		advanceWindow(double time)
+	{
+		double cursor = this.lastTime;
+		double windowLength = this.bucketLength * this.bucketCharges.length;
+		if (time - this.currentBucketEnd > windowLength) {
+			// the value has held over at least a whole window after the
+			// current bucket: close the current bucket, then all of the
+			// buckets of the window are equal, and skip to the last bucket
+			this.currentBucketCharge +=
+						this.lastValue * (this.currentBucketEnd - cursor);
+			this.closeBucket();
+			long skipped = (long) ((time - this.currentBucketEnd)
+													/ this.bucketLength);
+			this.currentBucketEnd += skipped * this.bucketLength;
+			Arrays.fill(this.bucketCharges, this.lastValue * this.bucketLength);
+			this.closedBuckets = this.bucketCharges.length;
+			this.updatePeak(this.currentBucketEnd);
+			cursor = this.currentBucketEnd;
+			this.currentBucketEnd += this.bucketLength;
+		}
+		while (time >= this.currentBucketEnd) {
+			this.currentBucketCharge +=
+						this.lastValue * (this.currentBucketEnd - cursor);
+			cursor = this.currentBucketEnd;
+			this.closeBucket();
+		}
+		this.currentBucketCharge += this.lastValue * (time - cursor);
+	}
+
+	/**
+	 * close the current bucket and open the next one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		closeBucket()
+	{
+		this.bucketCharges[this.nextBucket] = this.currentBucketCharge;
+		this.nextBucket = (this.nextBucket + 1) % this.bucketCharges.length;
+		if (this.closedBuckets < this.bucketCharges.length) {
+			this.closedBuckets++;
+		}
+		this.updatePeak(this.currentBucketEnd);
+		this.currentBucketCharge = 0.0;
+		this.currentBucketEnd += this.bucketLength;
+	}
+
+	/**
+	 * update the peak demand if the window ending at {@code end} is full and
+	 * its mean consumption is larger.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param end	time at which the window ends.
+	 */
+	protected void		updatePeak(double end)
+	{
+		if (this.closedBuckets == this.bucketCharges.length) {
+			// summed again rather than updated to avoid accumulating errors
+			double c = 0.0;
+			for (int i = 0 ; i < this.bucketCharges.length ; i++) {
+				c += this.bucketCharges[i];
+			}
+			double demand = c/(this.bucketLength * this.bucketCharges.length);
+			if (demand > this.peakDemand) {
+				this.peakDemand = demand;
+				this.peakDemandTime = end;
+			}
+		}
+	}
+
+	/**
+	 * record that the consumption of the appliance at {@code index} is
+	 * {@code value} from {@code time} on.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code index >= 0 && index < sourceCount}
+	 * pre	{@code Double.isNaN(sourceTimes[index]) || time >= sourceTimes[index]}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param index	index of the appliance.
+	 * @param time	time of the recording in hours.
+	 * @param value	consumption of the appliance from {@code time} on.
+	 */
+	public synchronized void	recordSource(
+		int index,
+		double time,
+		double value
+		)
+	{
+		assert	index >= 0 && index < this.sourceCount :
+				new PreconditionException("index >= 0 && index < sourceCount");
+		assert	Double.isNaN(this.sourceTimes[index]) ||
+										time >= this.sourceTimes[index] :
+				new PreconditionException(
+						"Double.isNaN(sourceTimes[index]) || "
+						+ "time >= sourceTimes[index]");
+
+		if (!Double.isNaN(this.sourceTimes[index])) {
+			this.sourceCharges[index] +=
+				this.sourceValues[index] * (time - this.sourceTimes[index]);
+		}
+		this.sourceTimes[index] = time;
+		this.sourceValues[index] = value;
+	}
+
+	/**
+	 * return a snapshot of the statistics up to the last recorded time.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	a snapshot of the statistics up to the last recorded time.
+	 */
+	public synchronized PowerBalanceStatistics	snapshot()
+	{
+		String[] names = Arrays.copyOf(this.sourceNames, this.sourceCount);
+		double[] energies = new double[this.sourceCount];
+		for (int i = 0 ; i < this.sourceCount ; i++) {
+			double c = this.sourceCharges[i];
+			if (!Double.isNaN(this.sourceTimes[i]) &&
+									this.lastTime > this.sourceTimes[i]) {
+				// the last value holds until the last recorded time
+				c += this.sourceValues[i] *
+									(this.lastTime - this.sourceTimes[i]);
+			}
+			// charges in ampere hours to energies in kWh
+			energies[i] = c * this.tension / 1000.0;
+		}
+		return new PowerBalanceStatistics(
+					this.lastTime,
+					this.observedDuration,
+					this.observedDuration > 0.0 ?
+						this.charge/this.observedDuration
+					:	Double.NaN,
+					this.quantiles.quantile(0.50),
+					this.quantiles.quantile(0.95),
+					this.quantiles.quantile(0.99),
+					this.threshold,
+					this.timeAboveThreshold,
+					this.bucketLength * this.bucketCharges.length,
+					this.peakDemand,
+					this.peakDemandTime,
+					names,
+					energies);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,467 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.Serializable;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerBalanceStatistics</code> holds a snapshot of the
+ * power-balance analytics of the electric meter.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Times and durations are expressed in hours of simulated time and intensities
+ * in the power unit of the electric meter. The percentiles are taken over the
+ * time during which each consumption holds. The peak demand is the largest
+ * mean consumption over a rolling window of {@code getPeakWindow()} hours,
+ * reached at the end of that window at {@code getPeakDemandTime()}. Energies
+ * per appliance are in kWh, in the order of {@code getApplianceNames()}.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code applianceNames != null && applianceEnergies != null}
+ * invariant	{@code applianceNames.length == applianceEnergies.length}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerBalanceStatistics
+implements	Serializable
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+
+	/** time up to which the statistics are computed.						*/
+	protected final double		time;
+	/** duration over which the statistics are computed.					*/
+	protected final double		observedDuration;
+	/** time-weighted mean consumption.										*/
+	protected final double		meanConsumption;
+	/** median of the consumption.											*/
+	protected final double		p50;
+	/** 95th percentile of the consumption.									*/
+	protected final double		p95;
+	/** 99th percentile of the consumption.									*/
+	protected final double		p99;
+	/** consumption threshold.												*/
+	protected final double		threshold;
+	/** time during which the consumption has been over the threshold.		*/
+	protected final double		timeAboveThreshold;
+	/** duration of the rolling peak demand window.							*/
+	protected final double		peakWindow;
+	/** largest mean consumption over a rolling window.						*/
+	protected final double		peakDemand;
+	/** time at which the peak demand window ends.							*/
+	protected final double		peakDemandTime;
+	/** names of the appliances.											*/
+	protected final String[]	applianceNames;
+	/** energies consumed by the appliances in kWh.							*/
+	protected final double[]	applianceEnergies;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a snapshot of the power-balance analytics.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code applianceNames != null && applianceEnergies != null}
+	 * pre	{@code applianceNames.length == applianceEnergies.length}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param time					time up to which the statistics are computed.
+	 * @param observedDuration		duration over which the statistics are computed.
+	 * @param meanConsumption		time-weighted mean consumption.
+	 * @param p50					median of the consumption.
+	 * @param p95					95th percentile of the consumption.
+	 * @param p99					99th percentile of the consumption.
+	 * @param threshold				consumption threshold.
+	 * @param timeAboveThreshold	time during which the consumption has been over the threshold.
+	 * @param peakWindow			duration of the rolling peak demand window.
+	 * @param peakDemand			largest mean consumption over a rolling window.
+	 * @param peakDemandTime		time at which the peak demand window ends.
+	 * @param applianceNames		names of the appliances.
+	 * @param applianceEnergies		energies consumed by the appliances in kWh.
+	 */
+	public				PowerBalanceStatistics(
+		double time,
+		double observedDuration,
+		double meanConsumption,
+		double p50,
+		double p95,
+		double p99,
+		double threshold,
+		double timeAboveThreshold,
+		double peakWindow,
+		double peakDemand,
+		double peakDemandTime,
+		String[] applianceNames,
+		double[] applianceEnergies
+		)
+	{
+		assert	applianceNames != null && applianceEnergies != null :
+				new PreconditionException(
+						"applianceNames != null && applianceEnergies != null");
+		assert	applianceNames.length == applianceEnergies.length :
+				new PreconditionException(
+						"applianceNames.length == applianceEnergies.length");
+
+		this.time = time;
+		this.observedDuration = observedDuration;
+		this.meanConsumption = meanConsumption;
+		this.p50 = p50;
+		this.p95 = p95;
+		this.p99 = p99;
+		this.threshold = threshold;
+		this.timeAboveThreshold = timeAboveThreshold;
+		this.peakWindow = peakWindow;
+		this.peakDemand = peakDemand;
+		this.peakDemandTime = peakDemandTime;
+		this.applianceNames = applianceNames;
+		this.applianceEnergies = applianceEnergies;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the time up to which the statistics are computed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time up to which the statistics are computed.
+	 */
+	public double		getTime()
+	{
+		return this.time;
+	}
+
+	/**
+	 * return the duration over which the statistics are computed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the duration over which the statistics are computed.
+	 */
+	public double		getObservedDuration()
+	{
+		return this.observedDuration;
+	}
+
+	/**
+	 * return the time-weighted mean consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time-weighted mean consumption.
+	 */
+	public double		getMeanConsumption()
+	{
+		return this.meanConsumption;
+	}
+
+	/**
+	 * return the median of the consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the median of the consumption.
+	 */
+	public double		getP50()
+	{
+		return this.p50;
+	}
+
+	/**
+	 * return the 95th percentile of the consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the 95th percentile of the consumption.
+	 */
+	public double		getP95()
+	{
+		return this.p95;
+	}
+
+	/**
+	 * return the 99th percentile of the consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the 99th percentile of the consumption.
+	 */
+	public double		getP99()
+	{
+		return this.p99;
+	}
+
+	/**
+	 * return the consumption threshold.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the consumption threshold.
+	 */
+	public double		getThreshold()
+	{
+		return this.threshold;
+	}
+
+	/**
+	 * return the time during which the consumption has been over the threshold.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time during which the consumption has been over the threshold.
+	 */
+	public double		getTimeAboveThreshold()
+	{
+		return this.timeAboveThreshold;
+	}
+
+	/**
+	 * return the duration of the rolling peak demand window.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the duration of the rolling peak demand window.
+	 */
+	public double		getPeakWindow()
+	{
+		return this.peakWindow;
+	}
+
+	/**
+	 * return the largest mean consumption over a rolling window.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the largest mean consumption over a rolling window.
+	 */
+	public double		getPeakDemand()
+	{
+		return this.peakDemand;
+	}
+
+	/**
+	 * return the time at which the peak demand window ends.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time at which the peak demand window ends.
+	 */
+	public double		getPeakDemandTime()
+	{
+		return this.peakDemandTime;
+	}
+
+	/**
+	 * return the names of the appliances.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the names of the appliances.
+	 */
+	public String[]		getApplianceNames()
+	{
+		return this.applianceNames.clone();
+	}
+
+	/**
+	 * return the energies consumed by the appliances in kWh, in the order of
+	 * {@code getApplianceNames()}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * post	{@code return.length == getApplianceNames().length}
+	 * </pre>
+	 *
+	 * @return	the energies consumed by the appliances in kWh.
+	 */
+	public double[]		getApplianceEnergies()
+	{
+		return this.applianceEnergies.clone();
+	}
+
+	/**
+	 * return the lines of a simulation report giving the statistics, each
+	 * line starting with {@code indent} followed by '|'.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code indent != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param indent	indentation of the lines.
+	 * @return			the lines of a simulation report giving the statistics.
+	 */
+	public String		printout(String indent)
+	{
+		assert	indent != null : new PreconditionException("indent != null");
+
+		StringBuffer ret = new StringBuffer();
+		ret.append(indent);
+		ret.append("|consumption P50 = ");
+		ret.append(this.p50);
+		ret.append(", P95 = ");
+		ret.append(this.p95);
+		ret.append(", P99 = ");
+		ret.append(this.p99);
+		ret.append(", mean = ");
+		ret.append(this.meanConsumption);
+		ret.append(" over ");
+		ret.append(this.observedDuration);
+		ret.append(" h.\n");
+		ret.append(indent);
+		ret.append("|time above ");
+		ret.append(this.threshold);
+		ret.append(" = ");
+		ret.append(this.timeAboveThreshold);
+		ret.append(" h.\n");
+		ret.append(indent);
+		ret.append("|peak demand over ");
+		ret.append(this.peakWindow);
+		ret.append(" h = ");
+		ret.append(this.peakDemand);
+		ret.append(" at ");
+		ret.append(this.peakDemandTime);
+		ret.append(".\n");
+		for (int i = 0 ; i < this.applianceNames.length ; i++) {
+			ret.append(indent);
+			ret.append("|energy of ");
+			ret.append(this.applianceNames[i]);
+			ret.append(" in kwh = ");
+			ret.append(this.applianceEnergies[i]);
+			ret.append(".\n");
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		return this.getClass().getSimpleName() + "[\n" + this.printout("")
+				+ "]";
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,449 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerHistory</code> implements a fixed-memory columnar ring
+ * buffer of power readings with range and downsampling queries.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Readings are recorded as a primitive time stamp, in nanoseconds since the
+ * epoch, and a primitive power value; recording a reading does not allocate
+ * any object and, when the buffer is full, the oldest readings are
+ * overwritten. Time stamps must be recorded in nondecreasing order, so that
+ * the buffer is always sorted and queries locate the start of a window by a
+ * binary search.
+ * </p>
+ * <p>
+ * As the electric meter records a reading each time the power changes, the
+ * history is interpreted as a step signal: a reading holds from its time stamp
+ * until the next one and the last reading holds until the end of any query
+ * window. Downsampling aggregates this signal over buckets of equal duration,
+ * the mean being weighted by the time each value holds in the bucket.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code capacity > 0}
+ * invariant	{@code size >= 0 && size <= capacity}
+ * invariant	{@code next >= 0 && next < capacity}
+ * invariant	{@code recorded >= size}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerHistory
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The enumeration <code>Aggregation</code> describes the aggregations that
+	 * can be applied to the readings of a bucket when downsampling.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static enum	Aggregation
+	{
+		/** mean power weighted by the time each value holds in the bucket.	*/
+		MEAN,
+		/** minimum power in the bucket.										*/
+		MIN,
+		/** maximum power in the bucket.										*/
+		MAX
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** maximum number of readings kept in the buffer.						*/
+	protected final int			capacity;
+	/** time stamps of the readings in nanoseconds since the epoch.			*/
+	protected final long[]		timestamps;
+	/** power values of the readings.										*/
+	protected final double[]	values;
+	/** index of the next reading to be written.							*/
+	protected int				next;
+	/** number of readings currently held in the buffer.					*/
+	protected int				size;
+	/** total number of readings recorded since the creation.				*/
+	protected long				recorded;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a power history keeping at most {@code capacity} readings.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code capacity > 0}
+	 * post	{@code capacity() == capacity}
+	 * post	{@code size() == 0}
+	 * </pre>
+	 *
+	 * @param capacity	maximum number of readings kept in the buffer.
+	 */
+	public				PowerHistory(int capacity)
+	{
+		assert	capacity > 0 : new PreconditionException("capacity > 0");
+
+		this.capacity = capacity;
+		this.timestamps = new long[capacity];
+		this.values = new double[capacity];
+		this.next = 0;
+		this.size = 0;
+		this.recorded = 0L;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the maximum number of readings kept in the buffer.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the maximum number of readings kept in the buffer.
+	 */
+	public int			capacity()
+	{
+		return this.capacity;
+	}
+
+	/**
+	 * return the number of readings currently held in the buffer.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return <= capacity()}
+	 * </pre>
+	 *
+	 * @return	the number of readings currently held in the buffer.
+	 */
+	public synchronized int		size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * return the total number of readings recorded since the creation,
+	 * including the ones that have been overwritten.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= size()}
+	 * </pre>
+	 *
+	 * @return	the total number of readings recorded since the creation.
+	 */
+	public synchronized long	recorded()
+	{
+		return this.recorded;
+	}
+
+	/**
+	 * return the time stamp of the last reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code size() > 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the time stamp of the last reading in nanoseconds since the epoch.
+	 */
+	public synchronized long	lastTimestamp()
+	{
+		assert	this.size > 0 : new PreconditionException("size() > 0");
+
+		return this.timestamps[this.indexOf(this.size - 1)];
+	}
+
+	/**
+	 * record a reading, overwriting the oldest one when the buffer is full.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code size() == 0 || timestamp >= lastTimestamp()}
+	 * post	{@code size() > 0 && lastTimestamp() == timestamp}
+	 * </pre>
+	 *
+	 * @param timestamp	time stamp of the reading in nanoseconds since the epoch.
+	 * @param value		power value of the reading.
+	 */
+	public synchronized void	record(long timestamp, double value)
+	{
+		assert	this.size == 0 ||
+						timestamp >= this.timestamps[this.indexOf(this.size - 1)] :
+				new PreconditionException(
+						"size() == 0 || timestamp >= lastTimestamp()");
+
+		this.timestamps[this.next] = timestamp;
+		this.values[this.next] = value;
+		this.next = (this.next + 1) % this.capacity;
+		if (this.size < this.capacity) {
+			this.size++;
+		}
+		this.recorded++;
+	}
+
+	/**
+	 * discard the readings which time stamps are strictly after
+	 * {@code timestamp}, typically when a simulation restarts from an
+	 * earlier time.
+	 *
+	 * <p><strong>Contract</strong></p>
+	 *
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code size() == 0 || lastTimestamp() <= timestamp}
+	 * </pre>
+	 *
+	 * @param timestamp	time stamp in nanoseconds since the epoch.
+	 */
+	public synchronized void	discardAfter(long timestamp)
+	{
+		while (this.size > 0 &&
+				this.timestamps[this.indexOf(this.size - 1)] > timestamp) {
+			this.next = (this.next + this.capacity - 1) % this.capacity;
+			this.size--;
+			this.recorded--;
+		}
+	}
+
+	/**
+	 * return the readings which time stamps are in the interval
+	 * {@code [from, to]}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from <= to}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from	start of the interval in nanoseconds since the epoch.
+	 * @param to	end of the interval in nanoseconds since the epoch.
+	 * @return		the readings which time stamps are in {@code [from, to]}.
+	 */
+	public synchronized PowerHistoryWindow	range(long from, long to)
+	{
+		assert	from <= to : new PreconditionException("from <= to");
+
+		int first = this.firstAfter(from - 1);
+		int last = this.firstAfter(to);
+		int n = last - first;
+		long[] ts = new long[n];
+		double[] vs = new double[n];
+		for (int j = 0 ; j < n ; j++) {
+			int i = this.indexOf(first + j);
+			ts[j] = this.timestamps[i];
+			vs[j] = this.values[i];
+		}
+		return new PowerHistoryWindow(ts, vs);
+	}
+
+	/**
+	 * return the history over {@code [from, to)} downsampled in buckets of
+	 * duration {@code step}, each aggregated with {@code aggregation}.
+	 * 
+	 * <p><strong>Description</strong></p>
+	 * 
+	 * <p>
+	 * The bucket {@code k} starts at {@code from + k * step}, the last one
+	 * being truncated at {@code to}; its value is {@code Double.NaN} when no
+	 * reading held during the bucket, which happens before the oldest
+	 * reading still in the buffer.
+	 * </p>
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code from < to}
+	 * pre	{@code step > 0}
+	 * pre	{@code (to - from + step - 1) / step <= Integer.MAX_VALUE}
+	 * pre	{@code aggregation != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param from			start of the interval in nanoseconds since the epoch.
+	 * @param to			end of the interval in nanoseconds since the epoch.
+	 * @param step			duration of the buckets in nanoseconds.
+	 * @param aggregation	aggregation applied to each bucket.
+	 * @return				the downsampled history.
+	 */
+	public synchronized PowerHistoryWindow	downsample(
+		long from,
+		long to,
+		long step,
+		Aggregation aggregation
+		)
+	{
+		assert	from < to : new PreconditionException("from < to");
+		assert	step > 0 : new PreconditionException("step > 0");
+		assert	(to - from + step - 1) / step <= Integer.MAX_VALUE :
+				new PreconditionException(
+						"(to - from + step - 1) / step <= Integer.MAX_VALUE");
+		assert	aggregation != null :
+				new PreconditionException("aggregation != null");
+
+		int n = (int) ((to - from + step - 1) / step);
+		long[] ts = new long[n];
+		double[] vs = new double[n];
+
+		// the value holding at from is the one of the last reading not after
+		// from, if any is still in the buffer
+		int r = this.firstAfter(from);
+		double current = r > 0 ? this.values[this.indexOf(r - 1)] : Double.NaN;
+		for (int k = 0 ; k < n ; k++) {
+			long start = from + k * step;
+			long end = Math.min(start + step, to);
+			double sum = 0.0;
+			long covered = 0L;
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			long t = start;
+			while (t < end) {
+				long until = end;
+				if (r < this.size) {
+					until = Math.min(end, this.timestamps[this.indexOf(r)]);
+				}
+				if (until > t && !Double.isNaN(current)) {
+					sum += current * (until - t);
+					covered += until - t;
+					min = Math.min(min, current);
+					max = Math.max(max, current);
+				}
+				t = until;
+				if (r < this.size && this.timestamps[this.indexOf(r)] <= t) {
+					current = this.values[this.indexOf(r)];
+					r++;
+				}
+			}
+			ts[k] = start;
+			if (covered == 0L) {
+				vs[k] = Double.NaN;
+			} else {
+				switch (aggregation) {
+				case MEAN:	vs[k] = sum / covered;	break;
+				case MIN:	vs[k] = min;			break;
+				case MAX:	vs[k] = max;			break;
+				default:
+				}
+			}
+		}
+		return new PowerHistoryWindow(ts, vs);
+	}
+
+	/**
+	 * return the rank, from the oldest reading, of the first reading which
+	 * time stamp is strictly greater than {@code t}, or {@code size} if none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return <= size()}
+	 * </pre>
+	 *
+	 * @param t	time stamp in nanoseconds since the epoch.
+	 * @return	the rank of the first reading after {@code t}.
+	 */
+	protected int		firstAfter(long t)
+	{
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.timestamps[this.indexOf(mid)] <= t) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * return the index in the arrays of the reading of rank {@code n} from
+	 * the oldest one.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code n >= 0 && n < size()}
+	 * post	{@code return >= 0 && return < capacity()}
+	 * </pre>
+	 *
+	 * @param n	rank of the reading from the oldest one.
+	 * @return	the index of the reading in the arrays.
+	 */
+	protected int		indexOf(int n)
+	{
+		return (this.next - this.size + n + this.capacity) % this.capacity;
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,219 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerHistoryWindow</code> holds a window of power readings
+ * returned by the history services of the electric meter.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The window is columnar: the time stamps, in nanoseconds since the epoch, and
+ * the power values, in the power unit of the electric meter, are kept in two
+ * primitive arrays of the same length so that a whole window is transferred in
+ * one call and with two objects only. For a downsampled window, each time stamp
+ * is the start of a bucket and each value the aggregate over this bucket, which
+ * is {@code Double.NaN} when no reading covers the bucket.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code timestamps != null && values != null}
+ * invariant	{@code timestamps.length == values.length}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerHistoryWindow
+implements	Serializable
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long serialVersionUID = 1L;
+
+	/** time stamps of the readings in nanoseconds since the epoch.			*/
+	protected final long[]		timestamps;
+	/** power values of the readings in the power unit of the meter.		*/
+	protected final double[]	values;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a window from the given columns, which are not copied.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code timestamps != null && values != null}
+	 * pre	{@code timestamps.length == values.length}
+	 * post	{@code size() == timestamps.length}
+	 * </pre>
+	 *
+	 * @param timestamps	time stamps of the readings in nanoseconds since the epoch.
+	 * @param values		power values of the readings.
+	 */
+	public				PowerHistoryWindow(long[] timestamps, double[] values)
+	{
+		assert	timestamps != null && values != null :
+				new PreconditionException(
+						"timestamps != null && values != null");
+		assert	timestamps.length == values.length :
+				new PreconditionException(
+						"timestamps.length == values.length");
+
+		this.timestamps = timestamps;
+		this.values = values;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of readings in the window.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of readings in the window.
+	 */
+	public int			size()
+	{
+		return this.timestamps.length;
+	}
+
+	/**
+	 * return true if the window holds no reading.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return == (size() == 0)}
+	 * </pre>
+	 *
+	 * @return	true if the window holds no reading.
+	 */
+	public boolean		isEmpty()
+	{
+		return this.timestamps.length == 0;
+	}
+
+	/**
+	 * return the time stamp of the {@code i}th reading in nanoseconds since
+	 * the epoch.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the time stamp of the {@code i}th reading.
+	 */
+	public long			getTimestamp(int i)
+	{
+		assert	i >= 0 && i < this.size() :
+				new PreconditionException("i >= 0 && i < size()");
+
+		return this.timestamps[i];
+	}
+
+	/**
+	 * return the power value of the {@code i}th reading in the power unit of
+	 * the electric meter.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code i >= 0 && i < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param i	index of the reading.
+	 * @return	the power value of the {@code i}th reading.
+	 */
+	public double		getValue(int i)
+	{
+		assert	i >= 0 && i < this.size() :
+				new PreconditionException("i >= 0 && i < size()");
+
+		return this.values[i];
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		StringBuilder sb = new StringBuilder(this.getClass().getSimpleName());
+		sb.append('[');
+		for (int i = 0 ; i < this.timestamps.length ; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(TimeUnit.NANOSECONDS.toMillis(this.timestamps[i]));
+			sb.append("ms: ");
+			sb.append(this.values[i]);
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
+// -----------------------------------------------------------------------------
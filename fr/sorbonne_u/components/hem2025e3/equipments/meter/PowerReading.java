@@ -0,0 +1,347 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.util.concurrent.atomic.AtomicLong;
+import fr.sorbonne_u.alasca.physical_data.SignalData;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerReading</code> holds the current reading of a power
+ * of the electric meter as primitive fields protected by a sequence lock, so
+ * that setting it does not allocate.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A reading is made of the power value, the time at which it has been
+ * measured and the time at which it has been set, both in nanoseconds since
+ * the epoch. Writers make the sequence odd by a compare-and-set, which also
+ * excludes concurrent writers, write the fields and make it even again.
+ * Readers retry until they read the same even sequence before and after
+ * reading the fields. As all of these fields are volatile, the reads of the
+ * fields can not be reordered after the second read of the sequence.
+ * </p>
+ * <p>
+ * {@code SignalData} objects are materialised only when a reader asks for
+ * one, by a {@code MaterialiserI} given by the meter, and are cached with the
+ * sequence they have been materialised from, so that repeated reads of the
+ * same reading return the same object.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code sequence != null}
+ * invariant	{@code materialised == null || materialised.sequence % 2 == 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerReading
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>MaterialiserI</code> declares the function creating
+	 * the signal data of a reading from its primitive fields.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	MaterialiserI
+	{
+		/**
+		 * create the signal data of a reading.
+		 *
+		 * @param value			power value.
+		 * @param measureNanos	time of the measure in nanoseconds since the epoch.
+		 * @param setNanos		time of the reading in nanoseconds since the epoch.
+		 * @return				the signal data of the reading.
+		 */
+		public SignalData<Double>	materialise(
+			double value,
+			long measureNanos,
+			long setNanos
+			);
+	}
+
+	/**
+	 * The class <code>Materialised</code> associates signal data with the
+	 * sequence of the reading it has been materialised from.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	protected static class	Materialised
+	{
+		/** sequence of the reading.										*/
+		protected final long				sequence;
+		/** signal data of the reading.										*/
+		protected final SignalData<Double>	signal;
+
+		/**
+		 * create a cached signal data.
+		 *
+		 * @param sequence	sequence of the reading.
+		 * @param signal	signal data of the reading.
+		 */
+		protected		Materialised(long sequence, SignalData<Double> signal)
+		{
+			this.sequence = sequence;
+			this.signal = signal;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** sequence of the reading, odd while it is being written and zero
+	 *  until it is first written.											*/
+	protected final AtomicLong		sequence;
+	/** power value.														*/
+	protected volatile double		value;
+	/** time of the measure in nanoseconds since the epoch.				*/
+	protected volatile long			measureNanos;
+	/** time of the reading in nanoseconds since the epoch.				*/
+	protected volatile long			setNanos;
+	/** signal data last materialised or null if none.						*/
+	protected volatile Materialised	materialised;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a power reading that has not been written yet.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code !isSet()}
+	 * </pre>
+	 *
+	 */
+	public				PowerReading()
+	{
+		this.sequence = new AtomicLong(0L);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if the reading has been written at least once.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the reading has been written at least once.
+	 */
+	public boolean		isSet()
+	{
+		return this.sequence.get() != 0L;
+	}
+
+	/**
+	 * write a new reading and return the previous power value, or
+	 * {@code Double.NaN} if none; writing does not allocate.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !Double.isNaN(value)}
+	 * post	{@code isSet()}
+	 * </pre>
+	 *
+	 * @param value			power value.
+	 * @param measureNanos	time of the measure in nanoseconds since the epoch.
+	 * @param setNanos		time of the reading in nanoseconds since the epoch.
+	 * @return				the previous power value or {@code Double.NaN} if none.
+	 */
+	public double		write(double value, long measureNanos, long setNanos)
+	{
+		assert	!Double.isNaN(value) :
+				new PreconditionException("!Double.isNaN(value)");
+
+		long s = this.beginWrite();
+		double old = s == 0L ? Double.NaN : this.value;
+		this.value = value;
+		this.measureNanos = measureNanos;
+		this.setNanos = setNanos;
+		this.sequence.set(s + 2L);
+		return old;
+	}
+
+	/**
+	 * write a new reading which signal data is already known, for instance
+	 * when initialising the meter, and return the previous power value, or
+	 * {@code Double.NaN} if none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code signal != null}
+	 * post	{@code isSet()}
+	 * </pre>
+	 *
+	 * @param signal		signal data of the reading.
+	 * @param measureNanos	time of the measure in nanoseconds since the epoch.
+	 * @param setNanos		time of the reading in nanoseconds since the epoch.
+	 * @return				the previous power value or {@code Double.NaN} if none.
+	 */
+	public double		write(
+		SignalData<Double> signal,
+		long measureNanos,
+		long setNanos
+		)
+	{
+		assert	signal != null : new PreconditionException("signal != null");
+
+		long s = this.beginWrite();
+		double old = s == 0L ? Double.NaN : this.value;
+		this.value = signal.getMeasure().getData();
+		this.measureNanos = measureNanos;
+		this.setNanos = setNanos;
+		this.materialised = new Materialised(s + 2L, signal);
+		this.sequence.set(s + 2L);
+		return old;
+	}
+
+	/**
+	 * make the sequence odd, waiting for a concurrent writer if any, and
+	 * return its even value before the write.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return % 2 == 0}
+	 * </pre>
+	 *
+	 * @return	the even value of the sequence before the write.
+	 */
+	protected long		beginWrite()
+	{
+		while (true) {
+			long s = this.sequence.get();
+			if ((s & 1L) == 0L && this.sequence.compareAndSet(s, s + 1L)) {
+				return s;
+			}
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * return the current power value, or {@code Double.NaN} if the reading
+	 * has not been written yet.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current power value or {@code Double.NaN}.
+	 */
+	public double		getValue()
+	{
+		return this.isSet() ? this.value : Double.NaN;
+	}
+
+	/**
+	 * return the signal data of the current reading, materialising it with
+	 * {@code m} unless it has already been for this reading, or null if the
+	 * reading has not been written yet.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code m != null}
+	 * post	{@code !isSet() || return != null}
+	 * </pre>
+	 *
+	 * @param m	function creating the signal data from the primitive fields.
+	 * @return	the signal data of the current reading or null.
+	 */
+	public SignalData<Double>	getSignalData(MaterialiserI m)
+	{
+		assert	m != null : new PreconditionException("m != null");
+
+		while (true) {
+			long s1 = this.sequence.get();
+			if (s1 == 0L) {
+				return null;
+			}
+			if ((s1 & 1L) != 0L) {
+				Thread.yield();
+				continue;
+			}
+			Materialised c = this.materialised;
+			if (c != null && c.sequence == s1) {
+				return c.signal;
+			}
+			double v = this.value;
+			long mn = this.measureNanos;
+			long sn = this.setNanos;
+			if (this.sequence.get() == s1) {
+				SignalData<Double> ret = m.materialise(v, mn, sn);
+				this.materialised = new Materialised(s1, ret);
+				return ret;
+			}
+		}
+	}
+}
+// -----------------------------------------------------------------------------
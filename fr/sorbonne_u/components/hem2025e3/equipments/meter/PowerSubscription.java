@@ -0,0 +1,381 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.alasca.physical_data.SignalData;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.connections.ElectricMeterNotificationOutboundPort;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>PowerSubscription</code> holds the state of a subscriber to
+ * the power changes of the electric meter and decides which changes are to be
+ * pushed to it.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * For each of the two powers, consumption and production, the subscription
+ * keeps the last value pushed and its time stamp. A new value is pushed only
+ * if it differs from the last pushed one by at least {@code delta}; when it
+ * comes less than {@code minimumInterval} after the last push, it is kept as
+ * pending and a single delayed push is requested for the end of the interval,
+ * the latest pending value being the one pushed then. A value coming back
+ * within {@code delta} of the last pushed one cancels the pending value.
+ * </p>
+ * <p>
+ * Time stamps are in nanoseconds since the epoch of the clock used by the
+ * meter and powers in the power unit of the meter. The decisions are taken by
+ * the caller thread and the pushes themselves are performed by the meter.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code notificationInboundPortURI != null && !notificationInboundPortURI.isEmpty()}
+ * invariant	{@code port != null}
+ * invariant	{@code delta >= 0.0}
+ * invariant	{@code minimumInterval >= 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code CONSUMPTION != PRODUCTION}
+ * invariant	{@code NONE < 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			PowerSubscription
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** index of the power consumption.										*/
+	public static final int		CONSUMPTION = 0;
+	/** index of the power production.										*/
+	public static final int		PRODUCTION = 1;
+	/** result of {@code offer} when nothing is to be pushed.				*/
+	public static final long	NONE = -1L;
+
+	/** URI of the inbound port of the subscriber.							*/
+	protected final String		notificationInboundPortURI;
+	/** outbound port of the meter connected to the subscriber.			*/
+	protected final ElectricMeterNotificationOutboundPort	port;
+	/** minimum change in power to be pushed.								*/
+	protected final double		delta;
+	/** minimum duration between two pushes of the same power in
+	 *  nanoseconds.														*/
+	protected final long		minimumInterval;
+
+	/** last value pushed for each power, {@code Double.NaN} if none.		*/
+	protected final double[]	lastPushedValues;
+	/** time stamp of the last push for each power, {@code Long.MIN_VALUE}
+	 *  if the minimum interval does not apply.							*/
+	protected final long[]		lastPushedTimes;
+	/** latest value waiting for the end of the minimum interval for each
+	 *  power, null if none.												*/
+	protected final Object[]	pendingSignals;
+	/** value of the pending signal for each power.							*/
+	protected final double[]	pendingValues;
+	/** true when a delayed push has been requested for the power.			*/
+	protected final boolean[]	delayedPushRequested;
+	/** number of values pushed.											*/
+	protected long				pushed;
+	/** number of values offered but not pushed.							*/
+	protected long				suppressed;
+	/** true when the subscription has been cancelled.						*/
+	protected volatile boolean	cancelled;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a subscription.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code notificationInboundPortURI != null && !notificationInboundPortURI.isEmpty()}
+	 * pre	{@code port != null}
+	 * pre	{@code delta >= 0.0}
+	 * pre	{@code minimumInterval >= 0}
+	 * post	{@code !isCancelled()}
+	 * </pre>
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port of the subscriber.
+	 * @param port							outbound port of the meter connected to the subscriber.
+	 * @param delta							minimum change in power to be pushed.
+	 * @param minimumInterval				minimum duration between two pushes of the same power in nanoseconds.
+	 */
+	public				PowerSubscription(
+		String notificationInboundPortURI,
+		ElectricMeterNotificationOutboundPort port,
+		double delta,
+		long minimumInterval
+		)
+	{
+		assert	notificationInboundPortURI != null &&
+										!notificationInboundPortURI.isEmpty() :
+				new PreconditionException(
+						"notificationInboundPortURI != null && "
+						+ "!notificationInboundPortURI.isEmpty()");
+		assert	port != null : new PreconditionException("port != null");
+		assert	delta >= 0.0 : new PreconditionException("delta >= 0.0");
+		assert	minimumInterval >= 0 :
+				new PreconditionException("minimumInterval >= 0");
+
+		this.notificationInboundPortURI = notificationInboundPortURI;
+		this.port = port;
+		this.delta = delta;
+		this.minimumInterval = minimumInterval;
+		this.lastPushedValues = new double[]{Double.NaN, Double.NaN};
+		this.lastPushedTimes = new long[]{Long.MIN_VALUE, Long.MIN_VALUE};
+		this.pendingSignals = new Object[2];
+		this.pendingValues = new double[2];
+		this.delayedPushRequested = new boolean[2];
+		this.pushed = 0L;
+		this.suppressed = 0L;
+		this.cancelled = false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the URI of the inbound port of the subscriber.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the URI of the inbound port of the subscriber.
+	 */
+	public String		getNotificationInboundPortURI()
+	{
+		return this.notificationInboundPortURI;
+	}
+
+	/**
+	 * return the outbound port of the meter connected to the subscriber.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the outbound port of the meter connected to the subscriber.
+	 */
+	public ElectricMeterNotificationOutboundPort	getPort()
+	{
+		return this.port;
+	}
+
+	/**
+	 * cancel the subscription, after which nothing is pushed anymore.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code isCancelled()}
+	 * </pre>
+	 */
+	public void			cancel()
+	{
+		this.cancelled = true;
+	}
+
+	/**
+	 * return true if the subscription has been cancelled.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the subscription has been cancelled.
+	 */
+	public boolean		isCancelled()
+	{
+		return this.cancelled;
+	}
+
+	/**
+	 * record {@code value} as pushed for {@code power} without starting the
+	 * minimum interval, used when pushing the current values to a new
+	 * subscriber.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power == CONSUMPTION || power == PRODUCTION}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param power	index of the power.
+	 * @param value	value pushed.
+	 */
+	public synchronized void	initialPush(int power, double value)
+	{
+		assert	power == CONSUMPTION || power == PRODUCTION :
+				new PreconditionException(
+						"power == CONSUMPTION || power == PRODUCTION");
+
+		this.lastPushedValues[power] = value;
+		this.pushed++;
+	}
+
+	/**
+	 * offer a new value of {@code power} and return {@code 0} if it must be
+	 * pushed now, a positive delay in nanoseconds after which the pending
+	 * value must be taken with {@code takePending} and pushed, or
+	 * {@code NONE} if nothing is to be done.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power == CONSUMPTION || power == PRODUCTION}
+	 * pre	{@code signal != null}
+	 * post	{@code return == NONE || return >= 0}
+	 * </pre>
+	 *
+	 * @param power		index of the power.
+	 * @param signal	signal data holding the new value.
+	 * @param value		new value of the power.
+	 * @param timestamp	time stamp of the new value in nanoseconds.
+	 * @return			{@code 0}, a delay in nanoseconds or {@code NONE}.
+	 */
+	public synchronized long	offer(
+		int power,
+		SignalData<Double> signal,
+		double value,
+		long timestamp
+		)
+	{
+		assert	power == CONSUMPTION || power == PRODUCTION :
+				new PreconditionException(
+						"power == CONSUMPTION || power == PRODUCTION");
+		assert	signal != null : new PreconditionException("signal != null");
+
+		double last = this.lastPushedValues[power];
+		if (!Double.isNaN(last) && Math.abs(value - last) < this.delta) {
+			// back within delta of what the subscriber knows
+			this.pendingSignals[power] = null;
+			this.suppressed++;
+			return NONE;
+		}
+		long lastTime = this.lastPushedTimes[power];
+		if (lastTime == Long.MIN_VALUE ||
+							timestamp - lastTime >= this.minimumInterval) {
+			this.pendingSignals[power] = null;
+			this.lastPushedValues[power] = value;
+			this.lastPushedTimes[power] = timestamp;
+			this.pushed++;
+			return 0L;
+		}
+		if (this.pendingSignals[power] != null) {
+			this.suppressed++;
+		}
+		this.pendingSignals[power] = signal;
+		this.pendingValues[power] = value;
+		if (this.delayedPushRequested[power]) {
+			return NONE;
+		} else {
+			this.delayedPushRequested[power] = true;
+			return lastTime + this.minimumInterval - timestamp;
+		}
+	}
+
+	/**
+	 * take the pending value of {@code power} at the end of the minimum
+	 * interval, returning it if it must be pushed or null if none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code power == CONSUMPTION || power == PRODUCTION}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param power		index of the power.
+	 * @param timestamp	time stamp of the push in nanoseconds.
+	 * @return			the signal data to be pushed or null if none.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized SignalData<Double>	takePending(
+		int power,
+		long timestamp
+		)
+	{
+		assert	power == CONSUMPTION || power == PRODUCTION :
+				new PreconditionException(
+						"power == CONSUMPTION || power == PRODUCTION");
+
+		this.delayedPushRequested[power] = false;
+		SignalData<Double> ret = (SignalData<Double>) this.pendingSignals[power];
+		if (ret != null) {
+			this.pendingSignals[power] = null;
+			this.lastPushedValues[power] = this.pendingValues[power];
+			this.lastPushedTimes[power] = timestamp;
+			this.pushed++;
+		}
+		return ret;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String	toString()
+	{
+		return this.getClass().getSimpleName() + "["
+				+ this.notificationInboundPortURI + ", delta " + this.delta
+				+ ", minimum interval " + this.minimumInterval + "ns, pushed "
+				+ this.pushed + ", suppressed " + this.suppressed + "]";
+	}
+}
+// -----------------------------------------------------------------------------
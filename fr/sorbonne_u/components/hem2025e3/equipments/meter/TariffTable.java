@@ -0,0 +1,587 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>TariffTable</code> implements a time-of-use electricity
+ * tariff, giving the price of the energy at any time of the week.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A tariff table is loaded from a local text file which lines are either
+ * empty, comments starting with {@code #} or one of the following:
+ * </p>
+ * <ul>
+ * <li>{@code zone <zone id>} gives the time zone in which the times of the
+ *   intervals are expressed, {@code UTC} by default;</li>
+ * <li>{@code currency <code>} gives the currency of the prices, {@code EUR}
+ *   by default;</li>
+ * <li>{@code <days> <HH:MM>-<HH:MM> <price>} sets the price per kWh over the
+ *   interval of each of the days, where {@code <days>} is {@code *} for all
+ *   the days or a comma-separated list of days ({@code MON}) or ranges of
+ *   days ({@code MON-FRI}); an interval which end is before its start wraps
+ *   to the next day and {@code 24:00} designates the end of the day.</li>
+ * </ul>
+ * <p>
+ * The lines are applied in order, so that a later line overrides the prices
+ * of the previous ones on the minutes they share, and every minute of the
+ * week must be given a price. The table is then compiled into an interval
+ * index: the consecutive minutes with the same price form the intervals of the
+ * week, and an array maps each minute of the week to the rank of its interval,
+ * so that finding the price at a time or the end of its interval takes a
+ * constant time. A table is immutable and can be shared between threads.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code minuteIntervals.length == MINUTES_PER_WEEK}
+ * invariant	{@code intervalStarts.length == intervalPrices.length}
+ * invariant	{@code intervalStarts.length > 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code MINUTES_PER_WEEK == 7 * 24 * 60}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			TariffTable
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of minutes in a day.										*/
+	public static final int		MINUTES_PER_DAY = 24 * 60;
+	/** number of minutes in a week.										*/
+	public static final int		MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+	/** default time zone of the tables.									*/
+	public static final ZoneId	DEFAULT_ZONE = ZoneOffset.UTC;
+	/** default currency of the tables.										*/
+	public static final String	DEFAULT_CURRENCY = "EUR";
+
+	/** time zone in which the intervals are expressed.						*/
+	protected final ZoneId		zone;
+	/** currency of the prices.												*/
+	protected final String		currency;
+	/** rank of the interval of each minute of the week, from Monday
+	 *  00:00.																*/
+	protected final int[]		minuteIntervals;
+	/** first minute of the week of each interval.							*/
+	protected final int[]		intervalStarts;
+	/** price per kWh of each interval.										*/
+	protected final double[]	intervalPrices;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a tariff table from the prices of the minutes of the week,
+	 * compiling its interval index.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code zone != null}
+	 * pre	{@code currency != null && !currency.isEmpty()}
+	 * pre	{@code minutePrices != null && minutePrices.length == MINUTES_PER_WEEK}
+	 * pre	{@code Arrays.stream(minutePrices).allMatch(p -> p >= 0.0)}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param zone			time zone in which the minutes are expressed.
+	 * @param currency		currency of the prices.
+	 * @param minutePrices	price per kWh of each minute of the week, from Monday 00:00.
+	 */
+	public				TariffTable(
+		ZoneId zone,
+		String currency,
+		double[] minutePrices
+		)
+	{
+		assert	zone != null : new PreconditionException("zone != null");
+		assert	currency != null && !currency.isEmpty() :
+				new PreconditionException(
+						"currency != null && !currency.isEmpty()");
+		assert	minutePrices != null &&
+							minutePrices.length == MINUTES_PER_WEEK :
+				new PreconditionException(
+						"minutePrices != null && "
+						+ "minutePrices.length == MINUTES_PER_WEEK");
+		assert	Arrays.stream(minutePrices).allMatch(p -> p >= 0.0) :
+				new PreconditionException(
+						"Arrays.stream(minutePrices).allMatch(p -> p >= 0.0)");
+
+		this.zone = zone;
+		this.currency = currency;
+		this.minuteIntervals = new int[MINUTES_PER_WEEK];
+		int count = 0;
+		int[] starts = new int[MINUTES_PER_WEEK];
+		double[] prices = new double[MINUTES_PER_WEEK];
+		for (int m = 0 ; m < MINUTES_PER_WEEK ; m++) {
+			if (m == 0 || minutePrices[m] != minutePrices[m - 1]) {
+				starts[count] = m;
+				prices[count] = minutePrices[m];
+				count++;
+			}
+			this.minuteIntervals[m] = count - 1;
+		}
+		this.intervalStarts = Arrays.copyOf(starts, count);
+		this.intervalPrices = Arrays.copyOf(prices, count);
+	}
+
+	/**
+	 * load a tariff table from the text file {@code file}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code file != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param file			text file describing the tariff table.
+	 * @return				the tariff table described by the file.
+	 * @throws IOException	when the file cannot be read.
+	 */
+	public static TariffTable	load(Path file) throws IOException
+	{
+		assert	file != null : new PreconditionException("file != null");
+
+		return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * parse a tariff table from the lines of its textual description.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code lines != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param lines	lines of the description of the tariff table.
+	 * @return		the tariff table described by the lines.
+	 * @throws IllegalArgumentException	when a line is malformed or a minute of the week has no price.
+	 */
+	public static TariffTable	parse(List<String> lines)
+	{
+		assert	lines != null : new PreconditionException("lines != null");
+
+		ZoneId zone = DEFAULT_ZONE;
+		String currency = DEFAULT_CURRENCY;
+		double[] minutePrices = new double[MINUTES_PER_WEEK];
+		Arrays.fill(minutePrices, Double.NaN);
+
+		for (int n = 0 ; n < lines.size() ; n++) {
+			String line = lines.get(n).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("\\s+");
+			try {
+				if (fields[0].equals("zone") && fields.length == 2) {
+					zone = ZoneId.of(fields[1]);
+				} else if (fields[0].equals("currency") && fields.length == 2) {
+					currency = fields[1];
+				} else if (fields.length == 3) {
+					boolean[] days = parseDays(fields[0]);
+					String[] bounds = fields[1].split("-");
+					if (bounds.length != 2) {
+						throw new IllegalArgumentException(
+										"interval not of the form HH:MM-HH:MM");
+					}
+					int start = parseMinuteOfDay(bounds[0]);
+					int end = parseMinuteOfDay(bounds[1]);
+					double price = Double.parseDouble(fields[2]);
+					if (!(price >= 0.0)) {
+						throw new IllegalArgumentException("negative price");
+					}
+					int length = end > start ?
+									end - start : end - start + MINUTES_PER_DAY;
+					for (int d = 0 ; d < 7 ; d++) {
+						if (days[d]) {
+							for (int m = 0 ; m < length ; m++) {
+								minutePrices[(d * MINUTES_PER_DAY + start + m)
+												% MINUTES_PER_WEEK] = price;
+							}
+						}
+					}
+				} else {
+					throw new IllegalArgumentException("unknown directive");
+				}
+			} catch (RuntimeException e) {
+				throw new IllegalArgumentException(
+							"tariff table line " + (n + 1) + ": "
+							+ e.getMessage() + " in \"" + line + "\"", e);
+			}
+		}
+
+		for (int m = 0 ; m < MINUTES_PER_WEEK ; m++) {
+			if (Double.isNaN(minutePrices[m])) {
+				throw new IllegalArgumentException(
+						"tariff table gives no price for "
+						+ DayOfWeek.of(m / MINUTES_PER_DAY + 1) + " "
+						+ String.format("%02d:%02d",
+										(m % MINUTES_PER_DAY) / 60, m % 60));
+			}
+		}
+		return new TariffTable(zone, currency, minutePrices);
+	}
+
+	/**
+	 * parse a specification of days of the week.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * post	{@code return != null && return.length == 7}
+	 * </pre>
+	 *
+	 * @param s	{@code *} or comma-separated days or ranges of days.
+	 * @return	the days of the week from Monday included in {@code s}.
+	 */
+	protected static boolean[]	parseDays(String s)
+	{
+		boolean[] ret = new boolean[7];
+		if (s.equals("*")) {
+			Arrays.fill(ret, true);
+			return ret;
+		}
+		for (String part : s.split(",")) {
+			String[] range = part.split("-");
+			int first = parseDay(range[0]);
+			int last = range.length == 2 ? parseDay(range[1]) : first;
+			if (range.length > 2) {
+				throw new IllegalArgumentException("malformed days " + part);
+			}
+			for (int d = first ; ; d = (d + 1) % 7) {
+				ret[d] = true;
+				if (d == last) {
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * parse a day of the week given by its first three letters.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * post	{@code return >= 0 && return < 7}
+	 * </pre>
+	 *
+	 * @param s	day of the week, like {@code MON}.
+	 * @return	the rank of the day from Monday.
+	 */
+	protected static int	parseDay(String s)
+	{
+		for (DayOfWeek d : DayOfWeek.values()) {
+			if (d.name().startsWith(s.toUpperCase()) && s.length() == 3) {
+				return d.getValue() - 1;
+			}
+		}
+		throw new IllegalArgumentException("unknown day " + s);
+	}
+
+	/**
+	 * parse a time of the day of the form {@code HH:MM}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code s != null}
+	 * post	{@code return >= 0 && return < MINUTES_PER_DAY}
+	 * </pre>
+	 *
+	 * @param s	time of the day, {@code 24:00} being the end of the day.
+	 * @return	the minute of the day, the end of the day being 0.
+	 */
+	protected static int	parseMinuteOfDay(String s)
+	{
+		String[] hm = s.split(":");
+		if (hm.length != 2) {
+			throw new IllegalArgumentException("malformed time " + s);
+		}
+		int h = Integer.parseInt(hm[0]);
+		int m = Integer.parseInt(hm[1]);
+		if (h < 0 || h > 24 || m < 0 || m > 59 || h == 24 && m != 0) {
+			throw new IllegalArgumentException("malformed time " + s);
+		}
+		return (h * 60 + m) % MINUTES_PER_DAY;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the time zone in which the intervals are expressed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the time zone in which the intervals are expressed.
+	 */
+	public ZoneId		getZone()
+	{
+		return this.zone;
+	}
+
+	/**
+	 * return the currency of the prices.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the currency of the prices.
+	 */
+	public String		getCurrency()
+	{
+		return this.currency;
+	}
+
+	/**
+	 * return the number of intervals of the week.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the number of intervals of the week.
+	 */
+	public int			numberOfIntervals()
+	{
+		return this.intervalStarts.length;
+	}
+
+	/**
+	 * return the price per kWh during the minute of the week {@code m}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code m >= 0 && m < MINUTES_PER_WEEK}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param m	minute of the week from Monday 00:00.
+	 * @return	the price per kWh during the minute.
+	 */
+	public double		priceAtMinute(int m)
+	{
+		assert	m >= 0 && m < MINUTES_PER_WEEK :
+				new PreconditionException("m >= 0 && m < MINUTES_PER_WEEK");
+
+		return this.intervalPrices[this.minuteIntervals[m]];
+	}
+
+	/**
+	 * return the number of minutes from the minute of the week {@code m}
+	 * to the end of its interval, an interval ending at the end of the week
+	 * being continued by the first one when they have the same price.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code m >= 0 && m < MINUTES_PER_WEEK}
+	 * post	{@code return > 0 && return <= MINUTES_PER_WEEK}
+	 * </pre>
+	 *
+	 * @param m	minute of the week from Monday 00:00.
+	 * @return	the number of minutes to the end of the interval of {@code m}.
+	 */
+	public int			minutesToIntervalEnd(int m)
+	{
+		assert	m >= 0 && m < MINUTES_PER_WEEK :
+				new PreconditionException("m >= 0 && m < MINUTES_PER_WEEK");
+
+		int i = this.minuteIntervals[m];
+		if (this.intervalStarts.length == 1) {
+			return MINUTES_PER_WEEK - m;
+		}
+		int end = i + 1 < this.intervalStarts.length ?
+							this.intervalStarts[i + 1] : MINUTES_PER_WEEK;
+		if (end == MINUTES_PER_WEEK &&
+						this.intervalPrices[i] == this.intervalPrices[0]) {
+			end += this.intervalStarts[1];
+		}
+		return end - m;
+	}
+
+	/**
+	 * return the minute of the week of the instant {@code epochNanos} in the
+	 * time zone of the table.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return < MINUTES_PER_WEEK}
+	 * </pre>
+	 *
+	 * @param epochNanos	instant in nanoseconds since the epoch.
+	 * @return				the minute of the week from Monday 00:00.
+	 */
+	public int			minuteOfWeek(long epochNanos)
+	{
+		ZonedDateTime z = this.toZoned(epochNanos);
+		return (z.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY
+									+ z.getHour() * 60 + z.getMinute();
+	}
+
+	/**
+	 * return the price per kWh at the instant {@code epochNanos}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param epochNanos	instant in nanoseconds since the epoch.
+	 * @return				the price per kWh at the instant.
+	 */
+	public double		priceAt(long epochNanos)
+	{
+		return this.priceAtMinute(this.minuteOfWeek(epochNanos));
+	}
+
+	/**
+	 * return the instant in nanoseconds since the epoch at which the
+	 * interval containing {@code epochNanos} ends, the changes of offset of
+	 * the time zone being taken into account.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > epochNanos}
+	 * </pre>
+	 *
+	 * @param epochNanos	instant in nanoseconds since the epoch.
+	 * @return				the end of the interval containing the instant.
+	 */
+	public long			intervalEnd(long epochNanos)
+	{
+		ZonedDateTime z = this.toZoned(epochNanos);
+		int m = (z.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY
+									+ z.getHour() * 60 + z.getMinute();
+		ZonedDateTime end = z.truncatedTo(ChronoUnit.MINUTES).
+									plusMinutes(this.minutesToIntervalEnd(m));
+		Instant i = end.toInstant();
+		long ret = TimeUnit.SECONDS.toNanos(i.getEpochSecond()) + i.getNano();
+		// a gap in the local time may map the end before the instant
+		return ret > epochNanos ? ret : epochNanos + TimeUnit.MINUTES.toNanos(1);
+	}
+
+	/**
+	 * return the local date and time of {@code epochNanos} in the time zone
+	 * of the table.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param epochNanos	instant in nanoseconds since the epoch.
+	 * @return				the local date and time of the instant.
+	 */
+	protected ZonedDateTime	toZoned(long epochNanos)
+	{
+		return Instant.ofEpochSecond(0L, epochNanos).atZone(this.zone);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		List<String> intervals = new ArrayList<>();
+		for (int i = 0 ; i < this.intervalStarts.length ; i++) {
+			int m = this.intervalStarts[i];
+			intervals.add(String.format("%s %02d:%02d %s",
+							DayOfWeek.of(m / MINUTES_PER_DAY + 1),
+							(m % MINUTES_PER_DAY) / 60, m % 60,
+							this.intervalPrices[i]));
+		}
+		return "TariffTable[" + this.zone + ", " + this.currency + ", "
+											+ intervals + "]";
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,285 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>WeightedQuantileHistogram</code> implements a fixed-memory
+ * quantile sketch over weighted positive values.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Values between {@code minimum} and {@code maximum} are counted in bins
+ * which bounds grow geometrically by a factor {@code 1 + relativeError}, so
+ * that any quantile is returned with a relative error of at most
+ * {@code relativeError} whatever the number of values added. Values under
+ * {@code minimum}, typically zero when all appliances are off, fall into an
+ * underflow bin and values over {@code maximum} into an overflow bin, which
+ * are represented by the smallest and largest values actually added.
+ * </p>
+ * <p>
+ * Each value comes with a weight, the electric meter using the duration
+ * during which the value holds, so that quantiles are taken over time rather
+ * than over the number of readings.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code minimum > 0.0 && maximum > minimum}
+ * invariant	{@code logBase > 0.0}
+ * invariant	{@code weights.length >= 3}
+ * invariant	{@code totalWeight >= 0.0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			WeightedQuantileHistogram
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** smallest value counted in a regular bin.							*/
+	protected final double		minimum;
+	/** largest value counted in a regular bin.								*/
+	protected final double		maximum;
+	/** natural logarithm of the ratio between successive bin bounds.		*/
+	protected final double		logBase;
+	/** weights of the bins, the first being the underflow bin and the last
+	 *  the overflow one.													*/
+	protected final double[]	weights;
+	/** sum of the weights.													*/
+	protected double			totalWeight;
+	/** smallest value added.												*/
+	protected double			smallest;
+	/** largest value added.												*/
+	protected double			largest;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a histogram for values between {@code minimum} and
+	 * {@code maximum} with the given relative error.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code minimum > 0.0 && maximum > minimum}
+	 * pre	{@code relativeError > 0.0}
+	 * post	{@code getTotalWeight() == 0.0}
+	 * </pre>
+	 *
+	 * @param minimum		smallest value counted in a regular bin.
+	 * @param maximum		largest value counted in a regular bin.
+	 * @param relativeError	maximum relative error on the quantiles.
+	 */
+	public				WeightedQuantileHistogram(
+		double minimum,
+		double maximum,
+		double relativeError
+		)
+	{
+		assert	minimum > 0.0 && maximum > minimum :
+				new PreconditionException(
+						"minimum > 0.0 && maximum > minimum");
+		assert	relativeError > 0.0 :
+				new PreconditionException("relativeError > 0.0");
+
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.logBase = Math.log1p(relativeError);
+		int bins =
+			(int) Math.ceil(Math.log(maximum/minimum)/this.logBase);
+		this.weights = new double[bins + 2];
+		this.reset();
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * forget all of the values added so far.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code getTotalWeight() == 0.0}
+	 * </pre>
+	 *
+	 */
+	public void			reset()
+	{
+		for (int i = 0 ; i < this.weights.length ; i++) {
+			this.weights[i] = 0.0;
+		}
+		this.totalWeight = 0.0;
+		this.smallest = Double.POSITIVE_INFINITY;
+		this.largest = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * add {@code value} with the weight {@code weight}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code !Double.isNaN(value)}
+	 * pre	{@code weight >= 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param value		value to be added.
+	 * @param weight	weight of the value.
+	 */
+	public void			add(double value, double weight)
+	{
+		assert	!Double.isNaN(value) :
+				new PreconditionException("!Double.isNaN(value)");
+		assert	weight >= 0.0 : new PreconditionException("weight >= 0.0");
+
+		if (weight == 0.0) {
+			return;
+		}
+		this.weights[this.binOf(value)] += weight;
+		this.totalWeight += weight;
+		if (value < this.smallest) {
+			this.smallest = value;
+		}
+		if (value > this.largest) {
+			this.largest = value;
+		}
+	}
+
+	/**
+	 * return the index of the bin counting {@code value}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return < weights.length}
+	 * </pre>
+	 *
+	 * @param value	a value.
+	 * @return		the index of the bin counting {@code value}.
+	 */
+	protected int		binOf(double value)
+	{
+		if (value < this.minimum) {
+			return 0;
+		} else if (value > this.maximum) {
+			return this.weights.length - 1;
+		} else {
+			int i = 1 + (int) (Math.log(value/this.minimum)/this.logBase);
+			return Math.min(i, this.weights.length - 2);
+		}
+	}
+
+	/**
+	 * return the sum of the weights of the values added so far.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the sum of the weights of the values added so far.
+	 */
+	public double		getTotalWeight()
+	{
+		return this.totalWeight;
+	}
+
+	/**
+	 * return the quantile {@code q} of the values added so far, or
+	 * {@code Double.NaN} if none has been added with a positive weight.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code q >= 0.0 && q <= 1.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param q	quantile to be returned, as a fraction.
+	 * @return	the quantile {@code q} of the values added so far.
+	 */
+	public double		quantile(double q)
+	{
+		assert	q >= 0.0 && q <= 1.0 :
+				new PreconditionException("q >= 0.0 && q <= 1.0");
+
+		if (this.totalWeight == 0.0) {
+			return Double.NaN;
+		}
+		double rank = q * this.totalWeight;
+		double cumulated = 0.0;
+		int i = 0;
+		while (i < this.weights.length - 1) {
+			cumulated += this.weights[i];
+			if (cumulated >= rank && this.weights[i] > 0.0) {
+				break;
+			}
+			i++;
+		}
+		double ret;
+		if (i == 0) {
+			ret = this.smallest;
+		} else if (i == this.weights.length - 1) {
+			ret = this.largest;
+		} else {
+			// geometric middle of the bin
+			ret = this.minimum * Math.exp((i - 0.5) * this.logBase);
+		}
+		return Math.max(this.smallest, Math.min(this.largest, ret));
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,161 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter.connections;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.time.Duration;
+import java.time.Instant;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryCI;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistoryWindow;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>ElectricMeterHistoryOutboundPort</code> implements the
+ * outbound port for the {@code ElectricMeterHistoryCI} component interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			ElectricMeterHistoryOutboundPort
+extends		AbstractOutboundPort
+implements	ElectricMeterHistoryCI
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * create the outbound port.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param owner			component that owns this port.
+	 * @throws Exception 	<i>to do</i>.
+	 */
+	public				ElectricMeterHistoryOutboundPort(ComponentI owner)
+	throws Exception
+	{
+		super(ElectricMeterHistoryCI.class, owner);
+	}
+
+	/**
+	 * create the outbound port.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param uri			unique identifier of the port.
+	 * @param owner			component that owns this port.
+	 * @throws Exception 	<i>to do</i>.
+	 */
+	public				ElectricMeterHistoryOutboundPort(
+		String uri,
+		ComponentI owner
+		) throws Exception
+	{
+		super(uri, ElectricMeterHistoryCI.class, owner);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryCI#getConsumptionHistory(java.time.Instant, java.time.Instant)
+	 */
+	@Override
+	public PowerHistoryWindow	getConsumptionHistory(Instant from, Instant to)
+	throws Exception
+	{
+		return ((ElectricMeterHistoryCI)this.getConnector()).getConsumptionHistory(from, to);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryCI#getProductionHistory(java.time.Instant, java.time.Instant)
+	 */
+	@Override
+	public PowerHistoryWindow	getProductionHistory(Instant from, Instant to)
+	throws Exception
+	{
+		return ((ElectricMeterHistoryCI)this.getConnector()).getProductionHistory(from, to);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryCI#getDownsampledConsumption(java.time.Instant, java.time.Instant, java.time.Duration, fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation)
+	 */
+	@Override
+	public PowerHistoryWindow	getDownsampledConsumption(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception
+	{
+		return ((ElectricMeterHistoryCI)this.getConnector()).getDownsampledConsumption(from, to, step, aggregation);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterHistoryCI#getDownsampledProduction(java.time.Instant, java.time.Instant, java.time.Duration, fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerHistory.Aggregation)
+	 */
+	@Override
+	public PowerHistoryWindow	getDownsampledProduction(
+		Instant from,
+		Instant to,
+		Duration step,
+		Aggregation aggregation
+		) throws Exception
+	{
+		return ((ElectricMeterHistoryCI)this.getConnector()).getDownsampledProduction(from, to, step, aggregation);
+	}
+}
+// -----------------------------------------------------------------------------
@@ -32,10 +32,16 @@ package fr.sorbonne_u.components.hem2025e3.equipments.meter.sil;
 // The fact that you are presently reading this means that you have had
 // knowledge of the CeCILL-C license and that you accept its terms.
 
+import java.lang.reflect.Field;
 import java.util.ArrayList; 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import fr.sorbonne_u.components.cyphy.plugins.devs.AtomicSimulatorPlugin;
 import fr.sorbonne_u.components.hem2025e1.equipments.meter.ElectricMeterImplementationI;
 import fr.sorbonne_u.components.hem2025e2.GlobalReportI;
@@ -44,6 +50,11 @@ import fr.sorbonne_u.components.hem2025e2.equipments.batteries.mil.events.Batter
 import fr.sorbonne_u.components.hem2025e2.equipments.generator.mil.events.GeneratorRequiredPowerChanged;
 import fr.sorbonne_u.components.hem2025e2.utils.Electricity;
 import fr.sorbonne_u.components.hem2025e3.equipments.meter.ElectricMeterCyPhy;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.EnergyCostMeter;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerBalanceAnalytics;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.PowerBalanceStatistics;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events.SIL_IntensityChanged;
+import fr.sorbonne_u.components.hem2025e3.utils.AsyncSimulationLog;
 import fr.sorbonne_u.devs_simulation.exceptions.MissingRunParameterException;
 import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ImportedVariable;
@@ -52,7 +63,9 @@ import fr.sorbonne_u.devs_simulation.hioa.annotations.ModelImportedVariable;
 import fr.sorbonne_u.devs_simulation.hioa.annotations.ModelImportedVariables;
 import fr.sorbonne_u.devs_simulation.hioa.models.AtomicHIOA;
 import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
+import fr.sorbonne_u.devs_simulation.models.annotations.ModelExternalEvents;
 import fr.sorbonne_u.devs_simulation.models.events.EventI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.ModelI;
 import fr.sorbonne_u.devs_simulation.models.time.Duration;
 import fr.sorbonne_u.devs_simulation.models.time.Time;
 import fr.sorbonne_u.devs_simulation.simulators.interfaces.AtomicSimulatorI;
@@ -74,9 +87,63 @@ import java.text.NumberFormat;
  * This model is an HIOA model that imports variables, hence shows how this kind
  * of models are programmed.
  * </p>
+ * <p>
+ * When {@code EVENT_DRIVEN} is false, the model re-evaluates the total
+ * intensity every {@code STEP} and accumulates the consumption as if the
+ * intensity had been constant over the step. When it is true, the model
+ * receives a {@code SIL_IntensityChanged} event from an appliance model each
+ * time the latter has updated its exported intensity and does not make any
+ * internal transition in between: upon each event, the consumption is
+ * accumulated over the elapsed interval, during which the intensity has been
+ * constant, hence exactly, and the total intensity is then read again. As
+ * the appliance models emit the event at the transition following the one
+ * updating their intensity, the new intensity is always read, whatever the
+ * order in which the simultaneous transitions are executed.
+ * </p>
+ * <p>
+ * The total intensities are not summed over a fixed set of variables but
+ * maintained incrementally by an {@code IntensityAggregator} over all of the
+ * imported intensity variables that are bound in the architecture, consumers
+ * or producers as given by {@code PRODUCER_VARIABLES}. In event-driven mode,
+ * the run parameter {@code SOURCES_RPNAME} gives which imported variables each
+ * appliance model exports, as derived from the bindings of the architecture,
+ * so that only these are read again upon its events; the events of unknown
+ * models, as well as the periodic mode, read again all of them.
+ * </p>
+ * <p>
+ * Each transition also feeds a {@code PowerBalanceAnalytics} with the total
+ * consumption and the consumptions of the changed sources, which the model
+ * hands over to its owner component for live queries and which statistics
+ * are added to the final simulation report.
+ * </p>
+ * <p>
+ * When its owner component has a {@code TariffTable}, the model also feeds
+ * an {@code EnergyCostMeter} with the consumed power at each of its changes,
+ * converting the simulated times to instants through the owner component.
+ * As the clock of the owner may not be available when the variables are
+ * initialised, the initial consumption is only recorded then and the cost
+ * meter is started retroactively from the initial time at the first change.
+ * </p>
+ * <p>
+ * In event-driven mode, the cumulative consumption is only updated upon
+ * events. When {@code ENERGY_QUANTUM} is positive, or the run parameter
+ * {@code ENERGY_QUANTUM_RPNAME} of the model, the cumulative consumption is
+ * also treated as a quantised state: as it grows linearly between events, the
+ * model schedules an internal transition exactly when it crosses the next
+ * multiple of the quantum, so that it is observed each time it has moved by
+ * one quantum, without periodic transitions.
+ * </p>
+ * <p>
+ * The traces of the transitions are formatted and written by an
+ * {@code AsyncSimulationLog} created at the initialisation of each simulation
+ * run and closed at its end, before the final synchronous traces; the
+ * failures of the logger as well as the traces dropped when the log sink was
+ * full are reported through the logger.
+ * </p>
  * 
  * <ul>
- * <li>Imported events: none</li>
+ * <li>Imported events: {@code SIL_IntensityChanged}, in event-driven mode
+ *   only.</li>
  * <li>Exported events: none</li>
  * <li>Imported variables:
  *   <ul>
@@ -100,6 +167,7 @@ import java.text.NumberFormat;
  * 
  * <pre>
  * invariant	{@code STEP > 0.0}
+ * invariant	{@code energyQuantum >= 0.0}
  * invariant	{@code evaluationStep.getSimulatedDuration() > 0.0}
  * invariant	{@code solarPanelOutputPower == null || !solarPanelOutputPower.isInitialised() || solarPanelOutputPower.getValue() >= 0.0}
  * invariant	{@code currentHeaterIntensity == null || !currentHeaterIntensity.isInitialised() || currentHeaterIntensity.getValue() >= 0.0}
@@ -113,6 +181,9 @@ import java.text.NumberFormat;
  * 
  * <pre>
  * invariant	{@code URI != null && !URI.isEmpty()}
+ * invariant	{@code ENERGY_QUANTUM >= 0.0}
+ * invariant	{@code ENERGY_QUANTUM_RPNAME != null && !ENERGY_QUANTUM_RPNAME.isEmpty()}
+ * invariant	{@code SOURCES_RPNAME != null && !SOURCES_RPNAME.isEmpty()}
  * </pre>
  * 
  * <p>Created on : 2023-10-02</p>
@@ -124,6 +195,7 @@ import java.text.NumberFormat;
 //	exported = {BatteriesRequiredPowerChanged.class,
 //				GeneratorRequiredPowerChanged.class}
 //	)
+@ModelExternalEvents(imported = {SIL_IntensityChanged.class})
 @ModelImportedVariables(
 	{@ModelImportedVariable(name = "currentHeaterIntensity",
 							type = Double.class),
@@ -168,6 +240,25 @@ extends		AtomicHIOA
 
 	/** evaluation step for the equation (assumed in hours).				*/
 	protected static final double	STEP = 60.0/3600.0;	// 60 seconds
+	/** when true, the model makes transitions only upon the changes of the
+	 *  intensity of an appliance rather than every {@code STEP}.			*/
+	public static boolean			EVENT_DRIVEN = true;
+	/** names of the imported variables giving produced rather than
+	 *  consumed intensities.												*/
+	public static final Set<String>	PRODUCER_VARIABLES =
+			new HashSet<>(Arrays.asList("solarPanelOutputPower",
+										"batteriesOutputPower",
+										"generatorOutputPower"));
+	/** consumption over which the time is accounted by the analytics, in
+	 *  amperes, i.e., a 6 kVA subscription under 220 volts.				*/
+	public static double			ANALYTICS_THRESHOLD = 6000.0/220.0;
+	/** duration of the rolling peak demand window (assumed in hours).		*/
+	protected static final double	PEAK_WINDOW = 15.0/60.0;	// 15 minutes
+	/** number of buckets by which the peak demand window rolls.			*/
+	protected static final int		PEAK_WINDOW_BUCKETS = 15;
+	/** default quantum of the cumulative consumption in kWh in event-driven
+	 *  mode, zero to wait for the next event only.							*/
+	public static double			ENERGY_QUANTUM = 0.0;
 
 	/** evaluation step as a duration, including the time unit.				*/
 	protected final Duration	evaluationStep;
@@ -177,6 +268,36 @@ extends		AtomicHIOA
 	/** when true, the batteries power model must be notified of a change
 	 *  in the required power at the next output.						 	*/
 	protected boolean			batteriesToBeNotified;
+	/** total production last reported to the owner component.			*/
+	protected double			reportedProduction;
+	/** number of internal transitions made during the simulation run.		*/
+	protected long				evaluations;
+	/** quantum of the cumulative consumption in kWh, zero if none.			*/
+	protected double			energyQuantum;
+	/** last multiple of {@code energyQuantum} reached by the cumulative
+	 *  consumption in kWh.													*/
+	protected double			quantisedConsumption;
+	/** names of the imported variables exported by each appliance model
+	 *  given its URI, empty if not given by the run parameters.			*/
+	protected Map<String,String[]>	eventSources;
+	/** incremental aggregation of the imported intensities.				*/
+	protected final IntensityAggregator	sources;
+	/** streaming analytics of the consumption.							*/
+	protected final PowerBalanceAnalytics	analytics;
+	/** cost meter of the consumption, null when the owner component has
+	 *  no tariff table.													*/
+	protected EnergyCostMeter				costMeter;
+	/** time from which the cost meter accounts the consumption.			*/
+	protected Time							costStartTime;
+	/** consumption at {@code costStartTime} in watts.						*/
+	protected double						costStartPower;
+	/** target of the asynchronous traces, i.e., the model logger.			*/
+	protected transient Consumer<String>	logTarget;
+	/** asynchronous log sink of the current simulation run.				*/
+	protected transient AsyncSimulationLog	traces;
+	/** unit written after the power balance in verbose traces.			*/
+	protected static final String	POWER_UNIT_SUFFIX =
+							" " + ElectricMeterImplementationI.POWER_UNIT;
 
 	/** the component that owns and run this simulation model.				*/
 	protected ElectricMeterCyPhy				ownerComponent;
@@ -278,6 +399,11 @@ extends		AtomicHIOA
 				ElectricMeterElectricitySILModel.class,
 				instance,
 				"evaluationStep.getSimulatedDuration() > 0.0");
+		ret &= AssertionChecking.checkImplementationInvariant(
+				instance.energyQuantum >= 0.0,
+				ElectricMeterElectricitySILModel.class,
+				instance,
+				"energyQuantum >= 0.0");
 //		ret &= AssertionChecking.checkImplementationInvariant(
 //				instance.solarPanelOutputPower == null ||
 //					!instance.solarPanelOutputPower.isInitialised() ||
@@ -365,6 +491,20 @@ extends		AtomicHIOA
 				URI != null && !URI.isEmpty(),
 				ElectricMeterElectricitySILModel.class,
 				"URI != null && !URI.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ENERGY_QUANTUM >= 0.0,
+				ElectricMeterElectricitySILModel.class,
+				"ENERGY_QUANTUM >= 0.0");
+		ret &= AssertionChecking.checkStaticInvariant(
+				ENERGY_QUANTUM_RPNAME != null &&
+										!ENERGY_QUANTUM_RPNAME.isEmpty(),
+				ElectricMeterElectricitySILModel.class,
+				"ENERGY_QUANTUM_RPNAME != null && "
+				+ "!ENERGY_QUANTUM_RPNAME.isEmpty()");
+		ret &= AssertionChecking.checkStaticInvariant(
+				SOURCES_RPNAME != null && !SOURCES_RPNAME.isEmpty(),
+				ElectricMeterElectricitySILModel.class,
+				"SOURCES_RPNAME != null && !SOURCES_RPNAME.isEmpty()");
 		return ret;
 	}
 
@@ -427,6 +567,15 @@ extends		AtomicHIOA
 		super(uri, simulatedTimeUnit, simulationEngine);
 
 		this.evaluationStep = new Duration(STEP, this.getSimulatedTimeUnit());
+		this.energyQuantum = ENERGY_QUANTUM;
+		this.eventSources = new HashMap<>();
+		this.sources = new IntensityAggregator();
+		this.analytics = new PowerBalanceAnalytics(
+									ElectricMeterCyPhy.TENSION.getData(),
+									ANALYTICS_THRESHOLD,
+									PEAK_WINDOW,
+									PEAK_WINDOW_BUCKETS);
+		this.logTarget = this::logMessage;
 		this.getSimulationEngine().setLogger(new StandardLogger());
 
 		assert	ElectricMeterElectricitySILModel.implementationInvariants(this) :
@@ -444,7 +593,8 @@ extends		AtomicHIOA
 
 	/**
 	 * update the cumulative electricity consumption in kwh given the current
-	 * intensity has been constant for the duration {@code d}.
+	 * intensity has been constant for the duration {@code d} since the last
+	 * update.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -475,7 +625,127 @@ extends		AtomicHIOA
 	}
 
 	/**
-	 * compute the current total intensity.
+	 * register in the aggregator all of the imported intensity variables that
+	 * have been bound by the architecture, the others being left null.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code sources.size() == 0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	@SuppressWarnings("unchecked")
+	protected void		registerSources()
+	{
+		assert	this.sources.size() == 0 :
+				new NeoSim4JavaException(
+						"Precondition violation: sources.size() == 0");
+
+		Class<?> c = this.getClass();
+		while (c != AtomicHIOA.class) {
+			for (Field f : c.getDeclaredFields()) {
+				ImportedVariable iv = f.getAnnotation(ImportedVariable.class);
+				if (iv != null && iv.type() == Double.class) {
+					try {
+						f.setAccessible(true);
+						Value<Double> v = (Value<Double>) f.get(this);
+						if (v != null) {
+							int index = this.sources.register(
+									f.getName(), v,
+									PRODUCER_VARIABLES.contains(f.getName()));
+							int a = this.analytics.registerSource(f.getName());
+							assert	a == index :
+									new NeoSim4JavaException(
+										"analytics and aggregator indexes "
+										+ "differ for " + f.getName());
+						}
+					} catch (IllegalAccessException e) {
+						throw new NeoSim4JavaException(e);
+					}
+				}
+			}
+			c = c.getSuperclass();
+		}
+	}
+
+	/**
+	 * record the current total consumption and the consumptions of the
+	 * sources marked as changed in the analytics.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param t	current time.
+	 */
+	protected void		feedAnalytics(Time t)
+	{
+		double time = t.getSimulatedTime();
+		for (int k = 0 ; k < this.sources.getChangedCount() ; k++) {
+			int i = this.sources.getChanged(k);
+			this.analytics.recordSource(i, time, this.sources.getLastValue(i));
+		}
+		this.analytics.record(time,
+							  Math.max(0.0, this.currentIntensity.getValue()));
+	}
+
+	/**
+	 * account the cost of the consumption up to {@code t} and set the current
+	 * consumption of the cost meter, if any, starting it from
+	 * {@code costStartTime} upon the first call.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code t != null}
+	 * post	{@code costMeter == null || costMeter.isStarted()}
+	 * </pre>
+	 *
+	 * @param t	current time.
+	 */
+	protected void		feedCost(Time t)
+	{
+		if (this.costMeter == null) {
+			return;
+		}
+		if (!this.costMeter.isStarted()) {
+			this.costMeter.update(
+				this.ownerComponent.simulatedTimeToEpochNanos(
+														this.costStartTime),
+				this.costStartPower);
+		}
+		this.costMeter.update(
+				this.ownerComponent.simulatedTimeToEpochNanos(t),
+				this.toWatts(this.currentIntensity.getValue()));
+	}
+
+	/**
+	 * return the power in watts corresponding to the intensity {@code i}
+	 * under the tension of the meter.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @param i	an intensity in the unit of the model.
+	 * @return	the corresponding power in watts, zero if {@code i} is negative.
+	 */
+	protected double	toWatts(double i)
+	{
+		return ElectricMeterCyPhy.TENSION.getData() * Math.max(0.0, i);
+	}
+
+	/**
+	 * compute the current total intensity by reading again the sources
+	 * marked as changed.
 	 * 
 	 * <p><strong>Contract</strong></p>
 	 * 
@@ -488,12 +758,8 @@ extends		AtomicHIOA
 	 */
 	protected double	computeTotalIntensity()
 	{
-		// simple sum of all incoming intensities
-		return this.currentHairDryerIntensity.getValue()
-					+ this.currentHeaterIntensity.getValue()
-					+this.currentBoxWifiIntensity.getValue()
-//					+ this.batteriesInputPower.getValue()
-					;
+		this.sources.update();
+		return this.sources.getConsumption();
 	}
 
 	/**
@@ -536,6 +802,28 @@ extends		AtomicHIOA
 	{
 		this.generatorToBeNotified = false;
 		this.batteriesToBeNotified = false;
+		this.evaluations = 0L;
+		this.reportedProduction = 0.0;
+		this.quantisedConsumption = 0.0;
+		this.analytics.reset();
+		this.costMeter = null;
+		this.costStartTime = initialTime;
+		this.costStartPower = 0.0;
+		if (this.traces != null) {
+			// a previous run has not been ended
+			this.traces.close();
+		}
+		this.traces = new AsyncSimulationLog(
+									AsyncSimulationLog.DEFAULT_CAPACITY,
+									this.logTarget);
+		if (this.ownerComponent != null) {
+			this.ownerComponent.setPowerBalanceAnalytics(this.analytics);
+			if (this.ownerComponent.getTariffTable() != null) {
+				this.costMeter = new EnergyCostMeter(
+									this.ownerComponent.getTariffTable());
+				this.ownerComponent.setEnergyCostMeter(this.costMeter);
+			}
+		}
 		
 		super.initialiseState(initialTime);
 	}
@@ -573,14 +861,18 @@ extends		AtomicHIOA
 //			}
 //		}
 
+		if (this.sources.size() == 0) {
+			this.registerSources();
+		}
+
 		if (!this.currentIntensity.isInitialised()
-//				&& this.batteriesInputPower.isInitialised()
-				&& this.currentHairDryerIntensity.isInitialised()
-				&& this.currentHeaterIntensity.isInitialised()
-		        && this.currentBoxWifiIntensity.isInitialised())
-		{
+									&& this.sources.allInitialised()) {
+			this.sources.markAllChanged();
 			double i = this.computeTotalIntensity();
 			this.currentIntensity.initialise(i);
+			this.feedAnalytics(this.currentIntensity.getTime());
+			this.costStartPower = this.toWatts(i);
+			this.sources.clearChanged();
 			this.cumulativeConsumption.initialise(0.0);
 			this.largestPowerDebt.initialise(0.0);
 			this.largestPowerMargin.initialise(0.0);
@@ -641,12 +933,57 @@ extends		AtomicHIOA
 	{
 		if (this.generatorToBeNotified || this.batteriesToBeNotified) {
 			return Duration.zero(this.getSimulatedTimeUnit());
+		} else if (EVENT_DRIVEN) {
+			// wait for the next event that may change an intensity or, with
+			// a quantum, for the cumulative consumption to reach the next one
+			return this.nextQuantumCrossing();
 		} else {
 			// trigger a new internal transition at each evaluation step duration
 			return this.evaluationStep;
 		}
 	}
 
+	/**
+	 * return the duration until the cumulative consumption reaches the next
+	 * multiple of {@code energyQuantum} at the current intensity, or
+	 * infinity if there is no quantum or no consumption.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the duration until the next quantum of consumption.
+	 */
+	protected Duration	nextQuantumCrossing()
+	{
+		if (this.energyQuantum <= 0.0 ||
+				!this.currentIntensity.isInitialised() ||
+					!this.cumulativeConsumption.isInitialised()) {
+			return Duration.INFINITY;
+		}
+		// consumption per time unit, constant until the next event
+		double rate = Electricity.computeConsumption(
+				new Duration(1.0, this.getSimulatedTimeUnit()),
+				ElectricMeterCyPhy.TENSION.getData() *
+						Math.max(0.0, this.currentIntensity.getValue()));
+		if (rate <= 0.0) {
+			return Duration.INFINITY;
+		}
+		// consumption accumulated since its last update, as the update is
+		// made only upon transitions
+		double c = this.cumulativeConsumption.getValue() +
+				rate * this.getCurrentStateTime().subtract(
+						this.cumulativeConsumption.getTime()).
+													getSimulatedDuration();
+		double remaining =
+				Math.max(0.0,
+						 this.quantisedConsumption + this.energyQuantum - c);
+		return new Duration(remaining / rate, this.getSimulatedTimeUnit());
+	}
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedInternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
 	 */
@@ -655,10 +992,77 @@ extends		AtomicHIOA
 	{
 		super.userDefinedInternalTransition(elapsedTime);
 
-		// update the current consumption since the last consumption update.
+		this.evaluations++;
+
+		// update the current consumption since the last consumption update,
+		// which may be an external transition in event-driven mode.
 		// must be done before recomputing the instantaneous intensity.
-		this.updateCumulativeConsumption(elapsedTime);
+		this.updateCumulativeConsumption(
+						this.getCurrentStateTime().subtract(
+									this.cumulativeConsumption.getTime()));
+		this.checkQuantumCrossing();
+		// in event-driven mode, the intensities have not changed since the
+		// last event, hence none is marked and none is read again
+		if (!EVENT_DRIVEN) {
+			this.sources.markAllChanged();
+		}
+		this.updateIntensity();
+
+		assert	ElectricMeterElectricitySILModel.implementationInvariants(this) :
+				new NeoSim4JavaException(
+						"ElectricMeterElectricityModel."
+						+ "implementationInvariants(this)");
+		assert	ElectricMeterElectricitySILModel.invariants(this) :
+				new NeoSim4JavaException(
+						"ElectricMeterElectricityModel.invariants(this)");
+	}
 
+	/**
+	 * move the quantised consumption to the last multiple of
+	 * {@code energyQuantum} reached by the cumulative consumption, if any.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code cumulativeConsumption.isInitialised()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		checkQuantumCrossing()
+	{
+		if (this.energyQuantum > 0.0) {
+			double c = this.cumulativeConsumption.getValue();
+			double crossed = Math.floor((c - this.quantisedConsumption)
+										/ this.energyQuantum + TOLERANCE);
+			if (crossed >= 1.0) {
+				this.quantisedConsumption += crossed * this.energyQuantum;
+				if (VERBOSE) {
+					this.traces.log(this.logTarget,
+									"cumulative consumption reached ",
+									this.quantisedConsumption,
+									" kWh",
+									this.getCurrentStateTime());
+				}
+			}
+		}
+	}
+
+	/**
+	 * read again the intensities of the sources marked as changed, update the
+	 * total intensity, the analytics, the cost and the statistics at the
+	 * current time and trace the power balance.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code currentIntensity.isInitialised()}
+	 * post	{@code sources.getChangedCount() == 0}
+	 * </pre>
+	 *
+	 */
+	protected void		updateIntensity()
+	{
 		boolean somethingHasChanged = false;
 		// recompute the current power production
 //		double totalProduction = this.computeTotalPowerProduction();
@@ -668,17 +1072,29 @@ extends		AtomicHIOA
 //		}
 //		this.powerProduction.setNewValue(totalProduction,
 //										 this.getCurrentStateTime());
-		// recompute the current total intensity
+		// recompute the current total intensity from the changed sources
 		double totalConsumption = this.computeTotalIntensity();
+		double totalProduction = this.sources.getProduction();
 		if (Math.abs(totalConsumption - this.currentIntensity.getValue())
 																>= TOLERANCE) {
 			somethingHasChanged = true;
-			this.ownerComponent.setCurrentPowerConsumption(
-												totalConsumption,
-												this.getCurrentStateTime());
+		}
+		if (somethingHasChanged ||
+				Math.abs(totalProduction - this.reportedProduction)
+																>= TOLERANCE) {
+			// a single reading of the meter with both powers
+			this.ownerComponent.setCurrentPowers(totalConsumption,
+												 totalProduction,
+												 this.getCurrentStateTime());
+			this.reportedProduction = totalProduction;
 		}
 		this.currentIntensity.setNewValue(totalConsumption,
 										  this.getCurrentStateTime());
+		this.feedAnalytics(this.getCurrentStateTime());
+		if (somethingHasChanged) {
+			this.feedCost(this.getCurrentStateTime());
+		}
+		this.sources.clearChanged();
 
 		if (somethingHasChanged) {
 			// set the power to be taken from the generator
@@ -742,7 +1158,7 @@ extends		AtomicHIOA
 		// Report statistics
 		double powerBalance =
 //				this.powerProduction.getValue() -
-									this.currentIntensity.getValue();
+				this.sources.getProduction() - this.currentIntensity.getValue();
 		if (powerBalance < 0 && powerBalance < this.largestPowerDebt.getValue()) {
 			this.largestPowerDebt.setNewValue(powerBalance,
 											  this.getCurrentStateTime());
@@ -751,12 +1167,19 @@ extends		AtomicHIOA
 					this.getCurrentStateTime());
 }
 
-		// Tracing
-		NumberFormat nf = NumberFormat.getInstance(Locale.US);
-		nf.setGroupingUsed(false);
-		nf.setMaximumFractionDigits(2);
-		if (// this.powerProduction.isInitialised() &&
+		// Tracing; only the debugging trace is formatted and written by the
+		// simulation thread, the others are written asynchronously
+		if (!DEBUG && this.currentIntensity.isInitialised()) {
+			this.traces.log(this.logTarget,
+							"current power balance: ",
+							powerBalance,
+							VERBOSE ? POWER_UNIT_SUFFIX : null,
+							this.getCurrentStateTime());
+		} else if (// this.powerProduction.isInitialised() &&
 								this.currentIntensity.isInitialised()) {
+			NumberFormat nf = NumberFormat.getInstance(Locale.US);
+			nf.setGroupingUsed(false);
+			nf.setMaximumFractionDigits(2);
 			StringBuffer message =
 					new StringBuffer("current power balance: ");
 			message.append(nf.format(powerBalance));
@@ -773,14 +1196,72 @@ extends		AtomicHIOA
 //				message.append(nf.format(this.batteriesOutputPower.getValue()));
 				message.append(", current total consumption: ");
 				message.append(nf.format(this.currentIntensity.getValue()));
-			} else if (VERBOSE) {
-				message.append(" ");
-				message.append(ElectricMeterImplementationI.POWER_UNIT);
 			}
 			message.append(" at ");
 			message.append(this.getCurrentStateTime());
+			this.traces.flush();
 			this.logMessage(message.toString());
 		}
+	}
+
+	/**
+	 * mark as changed the imported variables exported by the model with URI
+	 * {@code modelURI}, or all of them if they are unknown, so that they are
+	 * read again at the end of the current external transition.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code modelURI != null && !modelURI.isEmpty()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param modelURI	URI of the appliance model which intensity has changed.
+	 */
+	public void			intensityChanged(String modelURI)
+	{
+		assert	modelURI != null && !modelURI.isEmpty() :
+				new NeoSim4JavaException(
+						"Precondition violation: "
+						+ "modelURI != null && !modelURI.isEmpty()");
+
+		String[] names = this.eventSources.get(modelURI);
+		if (names == null) {
+			this.sources.markAllChanged();
+		} else {
+			for (String name : names) {
+				int index = this.sources.indexOf(name);
+				if (index < 0) {
+					this.sources.markAllChanged();
+				} else {
+					this.sources.markChanged(index);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedExternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
+	 */
+	@Override
+	public void			userDefinedExternalTransition(Duration elapsedTime)
+	{
+		super.userDefinedExternalTransition(elapsedTime);
+
+		// the events tell which appliance models have updated their
+		// intensity, before the events were emitted
+		ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
+		for (EventI e : currentEvents) {
+			((SIL_IntensityChanged)e).executeOn(this);
+		}
+
+		// the intensities have been constant since the last update, which is
+		// therefore exact; the new intensities can then be read at once
+		this.updateCumulativeConsumption(
+						this.getCurrentStateTime().subtract(
+									this.cumulativeConsumption.getTime()));
+		this.checkQuantumCrossing();
+		this.updateIntensity();
 
 		assert	ElectricMeterElectricitySILModel.implementationInvariants(this) :
 				new NeoSim4JavaException(
@@ -799,6 +1280,10 @@ extends		AtomicHIOA
 	{
 		this.updateCumulativeConsumption(
 						endTime.subtract(this.cumulativeConsumption.getTime()));
+		// the last values hold until the end of the run
+		this.analytics.record(endTime.getSimulatedTime(),
+							  Math.max(0.0, this.currentIntensity.getValue()));
+		this.feedCost(endTime);
 
 		// must capture the current consumption before the finalisation
 		// reinitialise the internal model variable.
@@ -808,8 +1293,17 @@ extends		AtomicHIOA
 										this.largestPowerDebt.getValue(),
 										this.largestPowerDebt.getTime(),
 										this.largestPowerMargin.getValue(),
-										this.largestPowerMargin.getTime());
+										this.largestPowerMargin.getTime(),
+										this.evaluations,
+										this.analytics.snapshot());
 
+		// write the pending traces before the synchronous ones
+		this.traces.close();
+		if (this.traces.getDroppedCount() > 0L) {
+			this.logMessage(this.traces.getDroppedCount()
+							+ " traces dropped by the asynchronous log.");
+		}
+		this.traces = null;
 		if (VERBOSE) {
 			this.logMessage("simulation ends.");
 		}
@@ -821,6 +1315,11 @@ extends		AtomicHIOA
 	// Optional DEVS simulation protocol: simulation run parameters
 	// -------------------------------------------------------------------------
 
+	/** run parameter name for {@code energyQuantum}.						*/
+	public static final String		ENERGY_QUANTUM_RPNAME = "ENERGY_QUANTUM";
+	/** run parameter name for {@code eventSources}.						*/
+	public static final String		SOURCES_RPNAME = "SOURCES";
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.Model#setSimulationRunParameters(java.util.Map)
 	 */
@@ -835,6 +1334,21 @@ extends		AtomicHIOA
 				new PreconditionException(
 								"simParams != null && !simParams.isEmpty()");
 
+		String quantumName = ModelI.createRunParameterName(
+										this.getURI(), ENERGY_QUANTUM_RPNAME);
+		if (simParams.containsKey(quantumName)) {
+			this.energyQuantum = (double) simParams.get(quantumName);
+		}
+
+		String sourcesName = ModelI.createRunParameterName(
+											this.getURI(), SOURCES_RPNAME);
+		if (simParams.containsKey(sourcesName)) {
+			@SuppressWarnings("unchecked")
+			Map<String,String[]> sources =
+						(Map<String,String[]>) simParams.get(sourcesName);
+			this.eventSources = sources;
+		}
+
 		if (simParams.containsKey(
 						AtomicSimulatorPlugin.OWNER_RUNTIME_PARAMETER_NAME)) {
 			this.ownerComponent = 
@@ -875,6 +1389,8 @@ extends		AtomicHIOA
 		protected Time		largestPowerDebtTime;
 		protected double	largestPowerMargin; // in amperes
 		protected Time 		largestPowerMarginTime;
+		protected long		evaluations;
+		protected PowerBalanceStatistics	statistics;
 
 		public			ElectricMeterElectricityReport(
 			String modelURI,
@@ -882,7 +1398,9 @@ extends		AtomicHIOA
 			double largestPowerDebt,
 			Time largestPowerDebtTime,
 			double largestPowerMargin,
-			Time largestPowerMarginTime
+			Time largestPowerMarginTime,
+			long evaluations,
+			PowerBalanceStatistics statistics
 			)
 		{
 			super();
@@ -892,6 +1410,8 @@ extends		AtomicHIOA
 			this.largestPowerDebtTime = largestPowerDebtTime;
 			this.largestPowerMargin = largestPowerMargin;
 			this.largestPowerMarginTime = largestPowerMarginTime;
+			this.evaluations = evaluations;
+			this.statistics = statistics;
 		}
 
 		@Override
@@ -933,6 +1453,12 @@ extends		AtomicHIOA
 			ret.append(this.largestPowerMarginTime);
 			ret.append(".\n");
 			ret.append(indent);
+			ret.append('|');
+			ret.append("internal transitions = ");
+			ret.append(this.evaluations);
+			ret.append(".\n");
+			ret.append(this.statistics.printout(indent));
+			ret.append(indent);
 			ret.append("---\n");
 			return ret.toString();
 		}		
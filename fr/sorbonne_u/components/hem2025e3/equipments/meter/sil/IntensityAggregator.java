@@ -0,0 +1,522 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter.sil;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import fr.sorbonne_u.devs_simulation.hioa.models.vars.Value;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>IntensityAggregator</code> maintains incrementally the total
+ * consumed and produced intensities over a dynamically sized set of imported
+ * variables.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Sources are registered once, as consumers or producers, and kept in
+ * parallel arrays together with the last value read from each of them. When a
+ * source is marked as changed, the next call to {@code update} reads it again
+ * and corrects the totals by the difference between its new and last values,
+ * hence an update costs a time proportional to the number of changed sources
+ * rather than to the number of sources. As successive corrections accumulate
+ * rounding errors, the totals are recomputed from the last values every
+ * {@code RESUM_PERIOD} corrections.
+ * </p>
+ * <p>
+ * Changed marks are kept until {@code clearChanged} is called, so that the
+ * sources changed by several events can be marked before being read again
+ * together.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code RESUM_PERIOD > 0}
+ * invariant	{@code size >= 0 && size <= sources.length}
+ * invariant	{@code changedCount >= 0 && changedCount <= size}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			IntensityAggregator
+implements	Serializable
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long	serialVersionUID = 1L;
+	/** number of incremental corrections after which the totals are
+	 *  recomputed from the last values.									*/
+	public static final int		RESUM_PERIOD = 4096;
+	/** initial capacity of the arrays.										*/
+	protected static final int	INITIAL_CAPACITY = 8;
+
+	/** imported variables of the sources.									*/
+	protected Value<Double>[]	sources;
+	/** names of the sources.												*/
+	protected String[]			names;
+	/** true for the producers, false for the consumers.					*/
+	protected boolean[]			producers;
+	/** last value read from each source.									*/
+	protected double[]			lastValues;
+	/** true for the sources marked as changed.								*/
+	protected boolean[]			changed;
+	/** indexes of the sources marked as changed.							*/
+	protected int[]				changedIndexes;
+	/** number of sources marked as changed.								*/
+	protected int				changedCount;
+	/** number of registered sources.										*/
+	protected int				size;
+	/** index of the sources given their name.								*/
+	protected final Map<String,Integer>	indexes;
+	/** current total consumed intensity.									*/
+	protected double			consumption;
+	/** current total produced intensity.									*/
+	protected double			production;
+	/** number of corrections since the totals have been last recomputed.	*/
+	protected int				corrections;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create an aggregator without any source.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code size() == 0}
+	 * </pre>
+	 *
+	 */
+	@SuppressWarnings("unchecked")
+	public				IntensityAggregator()
+	{
+		this.sources = new Value[INITIAL_CAPACITY];
+		this.names = new String[INITIAL_CAPACITY];
+		this.producers = new boolean[INITIAL_CAPACITY];
+		this.lastValues = new double[INITIAL_CAPACITY];
+		this.changed = new boolean[INITIAL_CAPACITY];
+		this.changedIndexes = new int[INITIAL_CAPACITY];
+		this.changedCount = 0;
+		this.size = 0;
+		this.indexes = new HashMap<>();
+		this.consumption = 0.0;
+		this.production = 0.0;
+		this.corrections = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * register a new source and return its index; the source is marked as
+	 * changed, so that it is taken into account by the next update.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code name != null && !name.isEmpty()}
+	 * pre	{@code indexOf(name) < 0}
+	 * pre	{@code source != null}
+	 * post	{@code indexOf(name) == return}
+	 * </pre>
+	 *
+	 * @param name		name of the source.
+	 * @param source	imported variable giving the intensity of the source.
+	 * @param producer	true if the source produces electricity, false if it consumes it.
+	 * @return			the index of the source.
+	 */
+	public int			register(
+		String name,
+		Value<Double> source,
+		boolean producer
+		)
+	{
+		assert	name != null && !name.isEmpty() :
+				new PreconditionException("name != null && !name.isEmpty()");
+		assert	this.indexOf(name) < 0 :
+				new PreconditionException("indexOf(name) < 0");
+		assert	source != null : new PreconditionException("source != null");
+
+		if (this.size == this.sources.length) {
+			int capacity = 2 * this.sources.length;
+			this.sources = Arrays.copyOf(this.sources, capacity);
+			this.names = Arrays.copyOf(this.names, capacity);
+			this.producers = Arrays.copyOf(this.producers, capacity);
+			this.lastValues = Arrays.copyOf(this.lastValues, capacity);
+			this.changed = Arrays.copyOf(this.changed, capacity);
+			this.changedIndexes = Arrays.copyOf(this.changedIndexes, capacity);
+		}
+		int index = this.size++;
+		this.sources[index] = source;
+		this.names[index] = name;
+		this.producers[index] = producer;
+		this.lastValues[index] = 0.0;
+		this.indexes.put(name, index);
+		this.markChanged(index);
+		return index;
+	}
+
+	/**
+	 * return the number of registered sources.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of registered sources.
+	 */
+	public int			size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * return the name of the source at {@code index}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code index >= 0 && index < size()}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param index	index of the source.
+	 * @return		the name of the source at {@code index}.
+	 */
+	public String		getName(int index)
+	{
+		assert	index >= 0 && index < this.size :
+				new PreconditionException("index >= 0 && index < size()");
+
+		return this.names[index];
+	}
+
+	/**
+	 * return the last value read from the source at {@code index}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code index >= 0 && index < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param index	index of the source.
+	 * @return		the last value read from the source at {@code index}.
+	 */
+	public double		getLastValue(int index)
+	{
+		assert	index >= 0 && index < this.size :
+				new PreconditionException("index >= 0 && index < size()");
+
+		return this.lastValues[index];
+	}
+
+	/**
+	 * return the number of sources currently marked as changed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0 && return <= size()}
+	 * </pre>
+	 *
+	 * @return	the number of sources currently marked as changed.
+	 */
+	public int			getChangedCount()
+	{
+		return this.changedCount;
+	}
+
+	/**
+	 * return the index of the {@code k}-th source marked as changed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code k >= 0 && k < getChangedCount()}
+	 * post	{@code return >= 0 && return < size()}
+	 * </pre>
+	 *
+	 * @param k	rank of the source among the changed ones.
+	 * @return	the index of the {@code k}-th source marked as changed.
+	 */
+	public int			getChanged(int k)
+	{
+		assert	k >= 0 && k < this.changedCount :
+				new PreconditionException("k >= 0 && k < getChangedCount()");
+
+		return this.changedIndexes[k];
+	}
+
+	/**
+	 * return the index of the source with the given name or -1 if none.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code name != null}
+	 * post	{@code return >= -1 && return < size()}
+	 * </pre>
+	 *
+	 * @param name	name of a source.
+	 * @return		the index of the source with the given name or -1 if none.
+	 */
+	public int			indexOf(String name)
+	{
+		assert	name != null : new PreconditionException("name != null");
+
+		Integer index = this.indexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * return true if all of the registered sources are initialised.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if all of the registered sources are initialised.
+	 */
+	public boolean		allInitialised()
+	{
+		for (int i = 0 ; i < this.size ; i++) {
+			if (!this.sources[i].isInitialised()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * mark the source at {@code index} as changed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code index >= 0 && index < size()}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param index	index of the source.
+	 */
+	public void			markChanged(int index)
+	{
+		assert	index >= 0 && index < this.size :
+				new PreconditionException("index >= 0 && index < size()");
+
+		if (!this.changed[index]) {
+			this.changed[index] = true;
+			this.changedIndexes[this.changedCount++] = index;
+		}
+	}
+
+	/**
+	 * mark all of the sources as changed, when the changed ones are unknown.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	public void			markAllChanged()
+	{
+		for (int i = 0 ; i < this.size ; i++) {
+			this.markChanged(i);
+		}
+	}
+
+	/**
+	 * forget the changed marks.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	public void			clearChanged()
+	{
+		for (int i = 0 ; i < this.changedCount ; i++) {
+			this.changed[this.changedIndexes[i]] = false;
+		}
+		this.changedCount = 0;
+	}
+
+	/**
+	 * read again the sources marked as changed and correct the totals
+	 * accordingly.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	public void			update()
+	{
+		for (int i = 0 ; i < this.changedCount ; i++) {
+			int index = this.changedIndexes[i];
+			double v = this.sources[index].getValue();
+			double delta = v - this.lastValues[index];
+			if (delta != 0.0) {
+				this.lastValues[index] = v;
+				if (this.producers[index]) {
+					this.production += delta;
+				} else {
+					this.consumption += delta;
+				}
+				this.corrections++;
+			}
+		}
+		if (this.corrections >= RESUM_PERIOD) {
+			this.resum();
+		}
+	}
+
+	/**
+	 * recompute the totals from the last values read from the sources.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	protected void		resum()
+	{
+		double c = 0.0;
+		double p = 0.0;
+		for (int i = 0 ; i < this.size ; i++) {
+			if (this.producers[i]) {
+				p += this.lastValues[i];
+			} else {
+				c += this.lastValues[i];
+			}
+		}
+		this.consumption = c;
+		this.production = p;
+		this.corrections = 0;
+	}
+
+	/**
+	 * return the current total consumed intensity.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current total consumed intensity.
+	 */
+	public double		getConsumption()
+	{
+		return this.consumption;
+	}
+
+	/**
+	 * return the current total produced intensity.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current total produced intensity.
+	 */
+	public double		getProduction()
+	{
+		return this.production;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String		toString()
+	{
+		StringBuffer sb = new StringBuffer(this.getClass().getSimpleName());
+		sb.append('[');
+		for (int i = 0 ; i < this.size ; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.names[i]);
+			sb.append(this.producers[i] ? " +" : " -");
+			sb.append(this.lastValues[i]);
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
+// -----------------------------------------------------------------------------
@@ -33,6 +33,7 @@ package fr.sorbonne_u.components.hem2025e3.equipments.meter.sil;
 // The fact that you are presently reading this means that you have had
 // knowledge of the CeCILL-C license and that you accept its terms.
 
+import java.util.ArrayList;
 import java.util.HashMap; 
 import java.util.HashSet;
 import java.util.Map;
@@ -53,6 +54,7 @@ import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.SwitchOf
 import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.ActivateWifiBoxWifi;
 import fr.sorbonne_u.components.hem2025e2.equipments.BoxWifi.mil.events.DeactivateWifiBoxWifi;
 import fr.sorbonne_u.components.hem2025e3.equipements.wifi.sil.BoxWifiElectricitySILModel;
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events.SIL_IntensityChanged;
 
 import fr.sorbonne_u.components.hem2025e3.equipments.heater.sil.events.SIL_SetPowerHeater;
 import fr.sorbonne_u.devs_simulation.architectures.RTArchitecture;
@@ -65,6 +67,7 @@ import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDes
 import fr.sorbonne_u.devs_simulation.models.architectures.CoupledModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.events.EventI;
 import fr.sorbonne_u.devs_simulation.models.events.EventSink;
+import fr.sorbonne_u.devs_simulation.models.events.EventSource;
 import fr.sorbonne_u.exceptions.PreconditionException;
 
 // -----------------------------------------------------------------------------
@@ -265,8 +268,70 @@ public abstract class	LocalSimulationArchitectures
 					new EventSink(BoxWifiElectricitySILModel.URI,
 								  DeactivateWifiBoxWifi.class)
 				});
-		
+
 		// variable bindings between exporting and importing models
+		Map<VariableSource,VariableSink[]> bindings = electricMeterBindings();
+
+		Map<EventSource,EventSink[]> connections = null;
+		if (ElectricMeterElectricitySILModel.EVENT_DRIVEN) {
+			// every model exporting an intensity to the electric meter
+			// electricity model notifies it of the updates of its intensity,
+			// which otherwise never wakes up
+			connections = new HashMap<>();
+			for (String sourceURI : electricMeterSources(bindings).keySet()) {
+				connections.put(
+					new EventSource(sourceURI, SIL_IntensityChanged.class),
+					new EventSink[] {
+						new EventSink(ElectricMeterElectricitySILModel.URI,
+									  SIL_IntensityChanged.class)
+					});
+			}
+		}
+
+		coupledModelDescriptors.put(
+				rootModelURI,
+				new RTCoupledHIOA_Descriptor(
+						ElectricMeterCoupledModel.class,
+						rootModelURI,
+						submodels,
+						imported,
+						null,
+						connections,
+						null,
+						null,
+						null,
+						bindings,
+						new HIOA_Composer(),
+						accelerationFactor));
+
+		RTArchitecture architecture =
+				new RTArchitecture(
+						architectureURI,
+						rootModelURI,
+						atomicModelDescriptors,
+						coupledModelDescriptors,
+						simulatedTimeUnit,
+						accelerationFactor);
+
+		return architecture;
+	}
+
+	/**
+	 * return the variable bindings between the appliance electricity models
+	 * and the electric meter electricity model in the local SIL simulation
+	 * architecture of the {@code ElectricMeter} component.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @return	the variable bindings of the local SIL simulation architecture.
+	 */
+	public static Map<VariableSource,VariableSink[]>	electricMeterBindings()
+	{
 		Map<VariableSource,VariableSink[]> bindings =
 								new HashMap<VariableSource,VariableSink[]>();
 		bindings.put(
@@ -296,33 +361,49 @@ public abstract class	LocalSimulationArchitectures
 									 Double.class,
 									 ElectricMeterElectricitySILModel.URI)
 				});
+		return bindings;
+	}
 
-		coupledModelDescriptors.put(
-				rootModelURI,
-				new RTCoupledHIOA_Descriptor(
-						ElectricMeterCoupledModel.class,
-						rootModelURI,
-						submodels,
-						imported,
-						null,
-						null,
-						null,
-						null,
-						null,
-						bindings,
-						new HIOA_Composer(),
-						accelerationFactor));
-
-		RTArchitecture architecture =
-				new RTArchitecture(
-						architectureURI,
-						rootModelURI,
-						atomicModelDescriptors,
-						coupledModelDescriptors,
-						simulatedTimeUnit,
-						accelerationFactor);
+	/**
+	 * return the imported variables of the electric meter electricity model
+	 * given the URI of the models exporting them, as derived from the variable
+	 * bindings {@code bindings}; the result is meant to be passed to the model
+	 * as the value of its run parameter {@code SOURCES_RPNAME}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code bindings != null}
+	 * post	{@code return != null}
+	 * </pre>
+	 *
+	 * @param bindings	variable bindings of the simulation architecture.
+	 * @return			the names of the imported variables of the electric meter electricity model given the URI of their exporting model.
+	 */
+	public static Map<String,String[]>	electricMeterSources(
+		Map<VariableSource,VariableSink[]> bindings
+		)
+	{
+		assert	bindings != null :
+				new PreconditionException("bindings != null");
 
-		return architecture;
+		Map<String,ArrayList<String>> sources = new HashMap<>();
+		for (Map.Entry<VariableSource,VariableSink[]> b : bindings.entrySet()) {
+			for (VariableSink sink : b.getValue()) {
+				if (sink.importingModelURI.equals(
+										ElectricMeterElectricitySILModel.URI)) {
+					sources.computeIfAbsent(
+							b.getKey().exportingModelURI,
+							k -> new ArrayList<>()).add(sink.importedVariableName);
+				}
+			}
+		}
+		Map<String,String[]> ret = new HashMap<>();
+		for (Map.Entry<String,ArrayList<String>> e : sources.entrySet()) {
+			ret.put(e.getKey(),
+					e.getValue().toArray(new String[e.getValue().size()]));
+		}
+		return ret;
 	}
 }
 // -----------------------------------------------------------------------------
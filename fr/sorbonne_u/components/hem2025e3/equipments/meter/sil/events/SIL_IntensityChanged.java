@@ -0,0 +1,260 @@
+package fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.events;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.components.hem2025e3.equipments.meter.sil.ElectricMeterElectricitySILModel;
+import fr.sorbonne_u.devs_simulation.exceptions.NeoSim4JavaException;
+import fr.sorbonne_u.devs_simulation.models.events.Event;
+import fr.sorbonne_u.devs_simulation.models.events.EventInformationI;
+import fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>SIL_IntensityChanged</code> defines the simulation event
+ * notifying the electric meter electricity model that an appliance
+ * electricity model has updated its exported intensity.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * An appliance electricity model updates its exported intensity in the
+ * immediate internal transition following the event that changes its state,
+ * and emits this event at its next, also immediate, internal transition. The
+ * event is therefore received by the electric meter model strictly after the
+ * update, at the same simulated time, whatever the order in which the
+ * simultaneous transitions of the models are executed. The event carries the
+ * URI of the emitting model, from which the electric meter model finds the
+ * imported variables to be read again.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			SIL_IntensityChanged
+extends		Event
+{
+	// -------------------------------------------------------------------------
+	// Inner types and classes
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>IntensitySource</code> represents the model which
+	 * intensity has changed, to be passed as an {@code EventInformationI}
+	 * when creating a {@code SIL_IntensityChanged} event.
+	 *
+	 * <p><strong>Invariants</strong></p>
+	 * 
+	 * <pre>
+	 * invariant	{@code modelURI != null && !modelURI.isEmpty()}
+	 * </pre>
+	 * 
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	public static class	IntensitySource
+	implements	EventInformationI
+	{
+		private static final long serialVersionUID = 1L;
+		/** URI of the model which intensity has changed.					*/
+		protected final String	modelURI;
+
+		/**
+		 * create an instance of {@code IntensitySource}.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code modelURI != null && !modelURI.isEmpty()}
+		 * post	{@code getModelURI().equals(modelURI)}
+		 * </pre>
+		 *
+		 * @param modelURI	URI of the model which intensity has changed.
+		 */
+		public			IntensitySource(String modelURI)
+		{
+			super();
+
+			assert	modelURI != null && !modelURI.isEmpty() :
+					new NeoSim4JavaException(
+							"modelURI != null && !modelURI.isEmpty()");
+
+			this.modelURI = modelURI;
+		}
+
+		/**
+		 * return the URI of the model which intensity has changed.
+		 * 
+		 * <p><strong>Contract</strong></p>
+		 * 
+		 * <pre>
+		 * pre	{@code true}	// no precondition.
+		 * post	{@code return != null && !return.isEmpty()}
+		 * </pre>
+		 *
+		 * @return	the URI of the model which intensity has changed.
+		 */
+		public String	getModelURI()	{ return this.modelURI; }
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String	toString()
+		{
+			StringBuffer sb = new StringBuffer(this.getClass().getSimpleName());
+			sb.append('[');
+			sb.append(this.modelURI);
+			sb.append(']');
+			return sb.toString();
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	private static final long	serialVersionUID = 1L;
+	/** the model which intensity has changed.								*/
+	protected final IntensitySource	source;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a {@code SIL_IntensityChanged} event emitted by the model with
+	 * URI {@code modelURI}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code timeOfOccurrence != null}
+	 * pre	{@code modelURI != null && !modelURI.isEmpty()}
+	 * post	{@code getTimeOfOccurrence().equals(timeOfOccurrence)}
+	 * post	{@code getSourceModelURI().equals(modelURI)}
+	 * </pre>
+	 *
+	 * @param timeOfOccurrence	time at which the intensity has changed in simulated time.
+	 * @param modelURI			URI of the model which intensity has changed.
+	 */
+	public				SIL_IntensityChanged(
+		Time timeOfOccurrence,
+		String modelURI
+		)
+	{
+		this(timeOfOccurrence, new IntensitySource(modelURI));
+	}
+
+	/**
+	 * create a {@code SIL_IntensityChanged} event which content is an
+	 * {@code IntensitySource}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code timeOfOccurrence != null}
+	 * pre	{@code content != null && content instanceof IntensitySource}
+	 * post	{@code getTimeOfOccurrence().equals(timeOfOccurrence)}
+	 * post	{@code getEventInformation().equals(content)}
+	 * </pre>
+	 *
+	 * @param timeOfOccurrence	time at which the intensity has changed in simulated time.
+	 * @param content			the model which intensity has changed.
+	 */
+	public				SIL_IntensityChanged(
+		Time timeOfOccurrence,
+		EventInformationI content
+		)
+	{
+		super(timeOfOccurrence, content);
+
+		assert	content != null && content instanceof IntensitySource :
+				new NeoSim4JavaException(
+						"Precondition violation: event content is null or"
+						+ " not an IntensitySource " + content);
+
+		this.source = (IntensitySource) content;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the URI of the model which intensity has changed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return != null && !return.isEmpty()}
+	 * </pre>
+	 *
+	 * @return	the URI of the model which intensity has changed.
+	 */
+	public String		getSourceModelURI()
+	{
+		return this.source.getModelURI();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.events.Event#executeOn(fr.sorbonne_u.devs_simulation.models.interfaces.AtomicModelI)
+	 */
+	@Override
+	public void			executeOn(AtomicModelI model)
+	{
+		assert	model instanceof ElectricMeterElectricitySILModel :
+				new NeoSim4JavaException(
+						"Precondition violation: model instanceof "
+						+ "ElectricMeterElectricitySILModel");
+
+		((ElectricMeterElectricitySILModel)model).intensityChanged(
+												this.getSourceModelURI());
+	}
+}
+// -----------------------------------------------------------------------------
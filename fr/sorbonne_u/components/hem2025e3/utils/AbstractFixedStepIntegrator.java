@@ -0,0 +1,215 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>AbstractFixedStepIntegrator</code> implements the common
+ * behaviour of the integrators which advance the variable by steps of a
+ * fixed maximal duration.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A duration is divided into the smallest number of equal steps not longer
+ * than the step of the integrator, so that no tiny remainder step is taken,
+ * and each of them is performed by the method {@code step} of the subclass.
+ * A duration shorter than the step, as when an event occurs between two
+ * internal transitions, is integrated in one shorter step.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code step > 0.0}
+ * invariant	{@code steps >= 0 && evaluations >= 0}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public abstract class	AbstractFixedStepIntegrator
+implements	ODEIntegratorI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** maximal duration of a step.											*/
+	protected final double	step;
+	/** number of steps performed.											*/
+	protected long			steps;
+	/** number of evaluations of the derivative.							*/
+	protected long			evaluations;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a fixed-step integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code step > 0.0}
+	 * post	{@code getNextStep() == step}
+	 * </pre>
+	 *
+	 * @param step	maximal duration of a step.
+	 */
+	protected			AbstractFixedStepIntegrator(double step)
+	{
+		assert	step > 0.0 : new PreconditionException("step > 0.0");
+
+		this.step = step;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the value of the variable after one step of duration {@code h}
+	 * from its value {@code y} at {@code t}, adding the evaluations of the
+	 * derivative to {@code evaluations}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code f != null}
+	 * pre	{@code h > 0.0}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param f	derivative of the variable.
+	 * @param t	time of the value {@code y}.
+	 * @param y	value of the variable at {@code t}.
+	 * @param h	duration of the step.
+	 * @return	the value of the variable at {@code t + h}.
+	 */
+	protected abstract double	step(DerivativeI f, double t, double y, double h);
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#integrate(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double, double)
+	 */
+	@Override
+	public double		integrate(
+		DerivativeI f,
+		double t,
+		double y,
+		double duration
+		)
+	{
+		assert	f != null : new PreconditionException("f != null");
+		assert	duration >= 0.0 : new PreconditionException("duration >= 0.0");
+
+		if (duration <= 0.0) {
+			return y;
+		}
+		long n = (long) Math.ceil(duration/this.step);
+		double h = duration/n;
+		for (long i = 0 ; i < n ; i++) {
+			y = this.step(f, t + i*h, y, h);
+		}
+		this.steps += n;
+		return y;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#restart(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double)
+	 */
+	@Override
+	public void			restart(DerivativeI f, double t, double y)
+	{
+		assert	f != null : new PreconditionException("f != null");
+
+		// the step does not depend upon the dynamics
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getNextStep()
+	 */
+	@Override
+	public double		getNextStep()
+	{
+		return this.step;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getStepsCount()
+	 */
+	@Override
+	public long			getStepsCount()
+	{
+		return this.steps;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getRejectedStepsCount()
+	 */
+	@Override
+	public long			getRejectedStepsCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getEvaluationsCount()
+	 */
+	@Override
+	public long			getEvaluationsCount()
+	{
+		return this.evaluations;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#resetCounts()
+	 */
+	@Override
+	public void			resetCounts()
+	{
+		this.steps = 0L;
+		this.evaluations = 0L;
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,594 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>AsyncSimulationLog</code> implements an asynchronous log
+ * sink taking the formatting and the output of the traces of the simulation
+ * models off the simulation threads.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * A trace is submitted as a record of unformatted fields: a target receiving
+ * the formatted message, typically {@code this::logMessage} cached in a model
+ * field, a prefix, an optional numeric value, a suffix and an optional time,
+ * usually the current simulated time of the model. Records are preallocated
+ * in a bounded ring which slots are claimed by a compare-and-set on the tail
+ * sequence, so that submitting a trace neither locks nor allocates. When the
+ * ring is full, the record is dropped and counted rather than blocking the
+ * simulation thread.
+ * </p>
+ * <p>
+ * A single daemon writer thread drains the ring by batches, formats the
+ * values with a number formatter it owns, hence never shares, and passes the
+ * messages to their targets, in the order in which they have been submitted.
+ * When the ring is empty, the writer parks for {@code IDLE_PARK_NANOS}. The
+ * method {@code flush} waits until all of the records submitted so far have
+ * been written, which models should call before writing synchronously to keep
+ * the traces in order.
+ * </p>
+ * <p>
+ * A log sink belongs to its user, typically a simulation model which creates
+ * one per simulation run and closes it at the end of the run. The method
+ * {@code close} writes the pending records and stops the writer thread; the
+ * records submitted afterwards are dropped. A shutdown hook closes the log
+ * sink if the virtual machine exits before, so that the pending traces are
+ * not lost. When a target fails, the failure is counted and reported to the
+ * error target given at creation, typically the logger of the model, and the
+ * writer goes on with the next records.
+ * </p>
+ * <p>
+ * The ring follows the bounded multi-producer queue of D. Vyukov: each slot
+ * carries a sequence number telling whether it is free for the producer
+ * claiming a given position or full for the consumer reading it.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code capacity > 0 && (capacity & (capacity - 1)) == 0}
+ * invariant	{@code mask == capacity - 1}
+ * invariant	{@code head <= tail.get()}
+ * invariant	{@code errorTarget != null}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code DEFAULT_CAPACITY > 0}
+ * invariant	{@code BATCH_SIZE > 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			AsyncSimulationLog
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>Record</code> holds the unformatted fields of a trace
+	 * in a slot of the ring.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	protected static class	Record
+	{
+		/** target receiving the formatted message.							*/
+		protected Consumer<String>	target;
+		/** text written before the value.									*/
+		protected String			prefix;
+		/** true if the record has a numeric value.							*/
+		protected boolean			hasValue;
+		/** numeric value of the record.									*/
+		protected double			value;
+		/** text written after the value.									*/
+		protected String			suffix;
+		/** time written after the suffix or null if none.					*/
+		protected Object			time;
+
+		/**
+		 * release the references held by the record.
+		 */
+		protected void	clear()
+		{
+			this.target = null;
+			this.prefix = null;
+			this.suffix = null;
+			this.time = null;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** default number of slots in the ring.								*/
+	public static final int		DEFAULT_CAPACITY = 8192;
+	/** maximum number of records written before checking the ring again.	*/
+	public static final int		BATCH_SIZE = 256;
+	/** maximum number of fraction digits of the formatted values.			*/
+	public static final int		FRACTION_DIGITS = 2;
+	/** time the writer parks when the ring is empty, in nanoseconds.		*/
+	protected static final long	IDLE_PARK_NANOS =
+										TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** number of slots in the ring, a power of two.						*/
+	protected final int				capacity;
+	/** mask giving the slot of a position.									*/
+	protected final int				mask;
+	/** preallocated records.												*/
+	protected final Record[]		records;
+	/** sequence numbers of the slots.										*/
+	protected final AtomicLongArray	sequences;
+	/** next position to be claimed by a producer.							*/
+	protected final AtomicLong		tail;
+	/** next position to be read by the writer, written by it only.			*/
+	protected volatile long			head;
+	/** number of records dropped because the ring was full.				*/
+	protected final AtomicLong		dropped;
+	/** number of records written.											*/
+	protected volatile long			written;
+	/** number of records which target has failed.							*/
+	protected final AtomicLong		failures;
+	/** target receiving the reports of the failures of the targets.		*/
+	protected final Consumer<String>	errorTarget;
+	/** true when the log sink has been closed.								*/
+	protected volatile boolean		closed;
+	/** formatter of the values, used by the writer only.					*/
+	protected final NumberFormat	formatter;
+	/** buffer building the messages, used by the writer only.				*/
+	protected final StringBuilder	message;
+	/** thread writing the records.											*/
+	protected final Thread			writer;
+	/** shutdown hook closing the log sink when the virtual machine exits.	*/
+	protected final Thread			shutdownHook;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a log sink with a ring of at least {@code capacity} slots and
+	 * start its writer thread.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code capacity > 0}
+	 * pre	{@code errorTarget != null}
+	 * post	{@code getCapacity() >= capacity}
+	 * post	{@code !isClosed()}
+	 * </pre>
+	 *
+	 * @param capacity		minimum number of slots in the ring.
+	 * @param errorTarget	target receiving the reports of the failures of the targets.
+	 */
+	public				AsyncSimulationLog(
+		int capacity,
+		Consumer<String> errorTarget
+		)
+	{
+		assert	capacity > 0 : new PreconditionException("capacity > 0");
+		assert	errorTarget != null :
+				new PreconditionException("errorTarget != null");
+
+		int c = 1;
+		while (c < capacity) {
+			c <<= 1;
+		}
+		this.capacity = c;
+		this.mask = c - 1;
+		this.records = new Record[c];
+		this.sequences = new AtomicLongArray(c);
+		for (int i = 0 ; i < c ; i++) {
+			this.records[i] = new Record();
+			this.sequences.set(i, i);
+		}
+		this.tail = new AtomicLong(0L);
+		this.head = 0L;
+		this.dropped = new AtomicLong(0L);
+		this.written = 0L;
+		this.failures = new AtomicLong(0L);
+		this.errorTarget = errorTarget;
+		this.closed = false;
+		this.formatter = NumberFormat.getInstance(Locale.US);
+		this.formatter.setGroupingUsed(false);
+		this.formatter.setMaximumFractionDigits(FRACTION_DIGITS);
+		this.message = new StringBuilder();
+
+		this.writer = new Thread(() -> this.drain(), "async-simulation-log");
+		this.writer.setDaemon(true);
+		this.writer.start();
+		this.shutdownHook =
+				new Thread(() -> this.close(), "async-simulation-log-close");
+		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the number of slots in the ring.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0}
+	 * </pre>
+	 *
+	 * @return	the number of slots in the ring.
+	 */
+	public int			getCapacity()
+	{
+		return this.capacity;
+	}
+
+	/**
+	 * return the number of records dropped because the ring was full.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records dropped because the ring was full.
+	 */
+	public long			getDroppedCount()
+	{
+		return this.dropped.get();
+	}
+
+	/**
+	 * return the number of records written.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records written.
+	 */
+	public long			getWrittenCount()
+	{
+		return this.written;
+	}
+
+	/**
+	 * return the number of records which target has failed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of records which target has failed.
+	 */
+	public long			getFailureCount()
+	{
+		return this.failures.get();
+	}
+
+	/**
+	 * return true if the log sink has been closed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	true if the log sink has been closed.
+	 */
+	public boolean		isClosed()
+	{
+		return this.closed;
+	}
+
+	/**
+	 * submit a message without value nor time; return false if the ring was
+	 * full or the log sink closed and the message has been dropped.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code target != null}
+	 * pre	{@code message != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param target	target receiving the message.
+	 * @param message	message to be written.
+	 * @return			true if the message has been submitted, false if it has been dropped.
+	 */
+	public boolean		log(Consumer<String> target, String message)
+	{
+		return this.submit(target, message, false, 0.0, null, null);
+	}
+
+	/**
+	 * submit a message made of {@code prefix}, the formatted {@code value},
+	 * {@code suffix} and, if not null, " at " followed by {@code time}; return
+	 * false if the ring was full or the log sink closed and the message has
+	 * been dropped.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code target != null}
+	 * pre	{@code prefix != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param target	target receiving the message.
+	 * @param prefix	text written before the value.
+	 * @param value		value to be formatted.
+	 * @param suffix	text written after the value or null if none.
+	 * @param time		time written at the end of the message or null if none.
+	 * @return			true if the message has been submitted, false if it has been dropped.
+	 */
+	public boolean		log(
+		Consumer<String> target,
+		String prefix,
+		double value,
+		String suffix,
+		Object time
+		)
+	{
+		return this.submit(target, prefix, true, value, suffix, time);
+	}
+
+	/**
+	 * claim a slot, fill it with the record and publish it; return false if
+	 * the ring was full or the log sink closed.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code target != null}
+	 * pre	{@code prefix != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param target	target receiving the message.
+	 * @param prefix	text written before the value.
+	 * @param hasValue	true if {@code value} must be written.
+	 * @param value		value to be formatted.
+	 * @param suffix	text written after the value or null if none.
+	 * @param time		time written at the end of the message or null if none.
+	 * @return			true if the record has been submitted, false if it has been dropped.
+	 */
+	protected boolean	submit(
+		Consumer<String> target,
+		String prefix,
+		boolean hasValue,
+		double value,
+		String suffix,
+		Object time
+		)
+	{
+		assert	target != null : new PreconditionException("target != null");
+		assert	prefix != null : new PreconditionException("prefix != null");
+
+		if (this.closed) {
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		long position = this.tail.get();
+		int slot;
+		while (true) {
+			slot = (int) (position & this.mask);
+			long difference = this.sequences.get(slot) - position;
+			if (difference == 0L) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = this.tail.get();
+			} else if (difference < 0L) {
+				// the writer has not yet freed the slot: the ring is full
+				this.dropped.incrementAndGet();
+				return false;
+			} else {
+				// another producer has claimed the position
+				position = this.tail.get();
+			}
+		}
+
+		Record r = this.records[slot];
+		r.target = target;
+		r.prefix = prefix;
+		r.hasValue = hasValue;
+		r.value = value;
+		r.suffix = suffix;
+		r.time = time;
+		this.sequences.lazySet(slot, position + 1);
+		return true;
+	}
+
+	/**
+	 * wait until all of the records submitted before the call have been
+	 * written or the writer thread has stopped.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code Thread.currentThread() != writer}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 */
+	public void			flush()
+	{
+		assert	Thread.currentThread() != this.writer :
+				new PreconditionException(
+						"Thread.currentThread() != writer");
+
+		long target = this.tail.get();
+		while (this.head < target && this.writer.isAlive()) {
+			LockSupport.parkNanos(IDLE_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * write the pending records and stop the writer thread; the records
+	 * submitted afterwards are dropped.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code Thread.currentThread() != writer}
+	 * post	{@code isClosed()}
+	 * </pre>
+	 *
+	 */
+	public void			close()
+	{
+		assert	Thread.currentThread() != this.writer :
+				new PreconditionException(
+						"Thread.currentThread() != writer");
+
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+		}
+		LockSupport.unpark(this.writer);
+		try {
+			this.writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (Thread.currentThread() != this.shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+			} catch (IllegalStateException e) {
+				// the virtual machine is already shutting down
+			}
+		}
+	}
+
+	/**
+	 * body of the writer thread, draining the ring by batches until the log
+	 * sink is closed and the ring empty.
+	 */
+	protected void		drain()
+	{
+		long position = this.head;
+		while (true) {
+			// read before draining, so that the records submitted before the
+			// closing are all written by the last batches
+			boolean last = this.closed;
+			int count = 0;
+			while (count < BATCH_SIZE) {
+				int slot = (int) (position & this.mask);
+				if (this.sequences.get(slot) != position + 1) {
+					break;
+				}
+				this.write(this.records[slot]);
+				this.records[slot].clear();
+				this.sequences.lazySet(slot, position + this.capacity);
+				position++;
+				count++;
+			}
+			if (count > 0) {
+				this.written += count;
+				this.head = position;
+			} else if (last) {
+				return;
+			} else {
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * format the record and pass the message to its target.
+	 *
+	 * @param r	record to be written.
+	 */
+	protected void		write(Record r)
+	{
+		StringBuilder sb = this.message;
+		sb.setLength(0);
+		sb.append(r.prefix);
+		if (r.hasValue) {
+			sb.append(this.formatter.format(r.value));
+		}
+		if (r.suffix != null) {
+			sb.append(r.suffix);
+		}
+		if (r.time != null) {
+			sb.append(" at ");
+			sb.append(r.time);
+		}
+		try {
+			r.target.accept(sb.toString());
+		} catch (Throwable t) {
+			// a failing target must not stop the writer
+			this.failures.incrementAndGet();
+			try {
+				this.errorTarget.accept(
+						"asynchronous trace \"" + sb + "\" failed: " + t);
+			} catch (Throwable t2) {
+				// the failure remains counted
+			}
+		}
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,360 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>DormandPrinceIntegrator</code> implements the embedded
+ * Runge-Kutta 5(4) method of Dormand and Prince with an adaptive step.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * Each step computes a fifth order solution, which is kept, and a fourth
+ * order one which difference with the former estimates the local error. The
+ * step is accepted when the error is under {@code absoluteTolerance +
+ * relativeTolerance * |y|}, otherwise it is taken again with a shorter
+ * duration. In both cases, the next step is scaled by
+ * {@code SAFETY * (1/error)^(1/5)}, bounded by {@code MIN_FACTOR} and
+ * {@code MAX_FACTOR} and by the minimal and maximal steps of the integrator;
+ * hence the step grows when the dynamics is slow, for instance when the
+ * variable is close to a steady state, and shrinks when it changes fast. The
+ * last stage of an accepted step is the first stage of the next one (FSAL),
+ * so that a step costs six evaluations of the derivative.
+ * </p>
+ * <p>
+ * The step proposed after an integration is the one estimated by the error
+ * control, except when the last step has been shortened to end exactly at
+ * the requested time, in which case the previous estimate is kept. When the
+ * derivative changes discontinuously, {@code restart} estimates a new
+ * initial step from the derivative at the current state, with the algorithm
+ * of Hairer, N&oslash;rsett and Wanner.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code absoluteTolerance > 0.0 && relativeTolerance >= 0.0}
+ * invariant	{@code minStep > 0.0 && minStep <= maxStep}
+ * invariant	{@code nextStep >= minStep && nextStep <= maxStep}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code SAFETY > 0.0 && SAFETY < 1.0}
+ * invariant	{@code MIN_FACTOR > 0.0 && MIN_FACTOR < 1.0 && MAX_FACTOR > 1.0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			DormandPrinceIntegrator
+implements	ODEIntegratorI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** safety factor applied to the estimated optimal step.				*/
+	public static final double	SAFETY = 0.9;
+	/** minimal factor applied to the step from one step to the next.		*/
+	public static final double	MIN_FACTOR = 0.2;
+	/** maximal factor applied to the step from one step to the next.		*/
+	public static final double	MAX_FACTOR = 5.0;
+
+	// Butcher tableau of the method
+
+	protected static final double	C2 = 1.0/5.0;
+	protected static final double	C3 = 3.0/10.0;
+	protected static final double	C4 = 4.0/5.0;
+	protected static final double	C5 = 8.0/9.0;
+	protected static final double	A21 = 1.0/5.0;
+	protected static final double	A31 = 3.0/40.0;
+	protected static final double	A32 = 9.0/40.0;
+	protected static final double	A41 = 44.0/45.0;
+	protected static final double	A42 = -56.0/15.0;
+	protected static final double	A43 = 32.0/9.0;
+	protected static final double	A51 = 19372.0/6561.0;
+	protected static final double	A52 = -25360.0/2187.0;
+	protected static final double	A53 = 64448.0/6561.0;
+	protected static final double	A54 = -212.0/729.0;
+	protected static final double	A61 = 9017.0/3168.0;
+	protected static final double	A62 = -355.0/33.0;
+	protected static final double	A63 = 46732.0/5247.0;
+	protected static final double	A64 = 49.0/176.0;
+	protected static final double	A65 = -5103.0/18656.0;
+	protected static final double	B1 = 35.0/384.0;
+	protected static final double	B3 = 500.0/1113.0;
+	protected static final double	B4 = 125.0/192.0;
+	protected static final double	B5 = -2187.0/6784.0;
+	protected static final double	B6 = 11.0/84.0;
+	// differences between the fifth and the fourth order weights
+	protected static final double	E1 = 71.0/57600.0;
+	protected static final double	E3 = -71.0/16695.0;
+	protected static final double	E4 = 71.0/1920.0;
+	protected static final double	E5 = -17253.0/339200.0;
+	protected static final double	E6 = 22.0/525.0;
+	protected static final double	E7 = -1.0/40.0;
+
+	/** absolute tolerance on the local error.								*/
+	protected final double	absoluteTolerance;
+	/** relative tolerance on the local error.								*/
+	protected final double	relativeTolerance;
+	/** minimal duration of a step, accepted whatever its error.			*/
+	protected final double	minStep;
+	/** maximal duration of a step.											*/
+	protected final double	maxStep;
+	/** duration of the next step estimated by the error control.			*/
+	protected double		nextStep;
+	/** number of accepted steps.											*/
+	protected long			steps;
+	/** number of rejected steps.											*/
+	protected long			rejected;
+	/** number of evaluations of the derivative.							*/
+	protected long			evaluations;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a Dormand-Prince integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code absoluteTolerance > 0.0 && relativeTolerance >= 0.0}
+	 * pre	{@code minStep > 0.0 && minStep <= maxStep}
+	 * pre	{@code initialStep >= minStep && initialStep <= maxStep}
+	 * post	{@code getNextStep() == initialStep}
+	 * </pre>
+	 *
+	 * @param absoluteTolerance	absolute tolerance on the local error.
+	 * @param relativeTolerance	relative tolerance on the local error.
+	 * @param minStep			minimal duration of a step.
+	 * @param maxStep			maximal duration of a step.
+	 * @param initialStep		duration of the first step.
+	 */
+	public				DormandPrinceIntegrator(
+		double absoluteTolerance,
+		double relativeTolerance,
+		double minStep,
+		double maxStep,
+		double initialStep
+		)
+	{
+		assert	absoluteTolerance > 0.0 && relativeTolerance >= 0.0 :
+				new PreconditionException(
+						"absoluteTolerance > 0.0 && relativeTolerance >= 0.0");
+		assert	minStep > 0.0 && minStep <= maxStep :
+				new PreconditionException("minStep > 0.0 && minStep <= maxStep");
+		assert	initialStep >= minStep && initialStep <= maxStep :
+				new PreconditionException(
+						"initialStep >= minStep && initialStep <= maxStep");
+
+		this.absoluteTolerance = absoluteTolerance;
+		this.relativeTolerance = relativeTolerance;
+		this.minStep = minStep;
+		this.maxStep = maxStep;
+		this.nextStep = initialStep;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return {@code h} bounded by the minimal and maximal steps.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= minStep && return <= maxStep}
+	 * </pre>
+	 *
+	 * @param h	a step duration.
+	 * @return	{@code h} bounded by the minimal and maximal steps.
+	 */
+	protected double	bound(double h)
+	{
+		return Math.min(this.maxStep, Math.max(this.minStep, h));
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#integrate(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double, double)
+	 */
+	@Override
+	public double		integrate(
+		DerivativeI f,
+		double t,
+		double y,
+		double duration
+		)
+	{
+		assert	f != null : new PreconditionException("f != null");
+		assert	duration >= 0.0 : new PreconditionException("duration >= 0.0");
+
+		double end = t + duration;
+		double h = this.nextStep;
+		double k1 = 0.0;
+		boolean k1Known = false;
+		while (t < end) {
+			double hs = h;
+			boolean last = t + hs >= end;
+			if (last) {
+				hs = end - t;
+			}
+			if (!k1Known) {
+				k1 = f.derivative(t, y);
+				this.evaluations++;
+				k1Known = true;
+			}
+			double k2 = f.derivative(t + C2*hs, y + hs*A21*k1);
+			double k3 = f.derivative(t + C3*hs, y + hs*(A31*k1 + A32*k2));
+			double k4 = f.derivative(t + C4*hs,
+									 y + hs*(A41*k1 + A42*k2 + A43*k3));
+			double k5 = f.derivative(t + C5*hs,
+									 y + hs*(A51*k1 + A52*k2 + A53*k3
+											 + A54*k4));
+			double k6 = f.derivative(t + hs,
+									 y + hs*(A61*k1 + A62*k2 + A63*k3
+											 + A64*k4 + A65*k5));
+			double y5 = y + hs*(B1*k1 + B3*k3 + B4*k4 + B5*k5 + B6*k6);
+			double k7 = f.derivative(t + hs, y5);
+			this.evaluations += 6;
+
+			double scale = this.absoluteTolerance +
+					this.relativeTolerance*Math.max(Math.abs(y), Math.abs(y5));
+			double error = Math.abs(hs*(E1*k1 + E3*k3 + E4*k4 + E5*k5
+										+ E6*k6 + E7*k7))/scale;
+			double factor = error == 0.0 ?
+								MAX_FACTOR
+							:	Math.min(MAX_FACTOR,
+										 Math.max(MIN_FACTOR,
+											SAFETY*Math.pow(error, -0.2)));
+			if (error <= 1.0 || hs <= this.minStep) {
+				t = last ? end : t + hs;
+				y = y5;
+				k1 = k7;
+				this.steps++;
+				if (!last || hs >= h) {
+					h = this.bound(hs*factor);
+				}
+			} else {
+				this.rejected++;
+				h = this.bound(hs*factor);
+			}
+		}
+		this.nextStep = h;
+		return y;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#restart(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double)
+	 */
+	@Override
+	public void			restart(DerivativeI f, double t, double y)
+	{
+		assert	f != null : new PreconditionException("f != null");
+
+		double scale = this.absoluteTolerance +
+									this.relativeTolerance*Math.abs(y);
+		double f0 = f.derivative(t, y);
+		double d0 = Math.abs(y)/scale;
+		double d1 = Math.abs(f0)/scale;
+		double h0 = d0 < 1.0e-5 || d1 < 1.0e-5 ?
+						this.minStep
+					:	Math.max(this.minStep, 0.01*d0/d1);
+		h0 = Math.min(h0, this.maxStep);
+		double f1 = f.derivative(t + h0, y + h0*f0);
+		this.evaluations += 2;
+		double d2 = Math.abs(f1 - f0)/scale/h0;
+		double h1 = Math.max(d1, d2) <= 1.0e-15 ?
+						Math.max(this.minStep, h0*1.0e-3)
+					:	Math.pow(0.01/Math.max(d1, d2), 0.2);
+		this.nextStep = this.bound(Math.min(100.0*h0, h1));
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getNextStep()
+	 */
+	@Override
+	public double		getNextStep()
+	{
+		return this.nextStep;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getStepsCount()
+	 */
+	@Override
+	public long			getStepsCount()
+	{
+		return this.steps;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getRejectedStepsCount()
+	 */
+	@Override
+	public long			getRejectedStepsCount()
+	{
+		return this.rejected;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getEvaluationsCount()
+	 */
+	@Override
+	public long			getEvaluationsCount()
+	{
+		return this.evaluations;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#resetCounts()
+	 */
+	@Override
+	public void			resetCounts()
+	{
+		this.steps = 0L;
+		this.rejected = 0L;
+		this.evaluations = 0L;
+	}
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,212 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+// -----------------------------------------------------------------------------
+/**
+ * The interface <code>ODEIntegratorI</code> declares the methods of the
+ * numerical integrators of scalar ordinary differential equations used by the
+ * simulation models to advance their continuous variables.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * An integrator advances the solution of {@code y' = f(t, y)} over a duration
+ * given by the model, taking as many internal steps as its method requires,
+ * and proposes the duration of the next step, which a model can use as its
+ * time advance. Fixed-step integrators always propose their step, while
+ * adaptive ones propose the step estimated by their error control. As the
+ * models call them at each transition, integrators keep their results and
+ * counters in their own fields and do not allocate when integrating.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code getNextStep() > 0.0}
+ * invariant	{@code getStepsCount() >= 0 && getRejectedStepsCount() >= 0}
+ * invariant	{@code getEvaluationsCount() >= 0}
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public interface		ODEIntegratorI
+{
+	// -------------------------------------------------------------------------
+	// Inner interfaces and types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>DerivativeI</code> declares the function giving the
+	 * derivative of the integrated variable.
+	 *
+	 * <p>Created on : 2026-10-18</p>
+	 * 
+	 * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+	 */
+	@FunctionalInterface
+	public static interface	DerivativeI
+	{
+		/**
+		 * return the derivative of the variable at time {@code t} when its
+		 * value is {@code y}.
+		 *
+		 * @param t	time, in the time unit of the model.
+		 * @param y	value of the variable.
+		 * @return	the derivative of the variable.
+		 */
+		public double	derivative(double t, double y);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the value of the variable at {@code t + duration} integrated
+	 * from its value {@code y} at {@code t}.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code f != null}
+	 * pre	{@code duration >= 0.0}
+	 * post	{@code duration > 0.0 || return == y}
+	 * </pre>
+	 *
+	 * @param f			derivative of the variable.
+	 * @param t			time of the value {@code y}.
+	 * @param y			value of the variable at {@code t}.
+	 * @param duration	duration over which the variable is integrated.
+	 * @return			the value of the variable at {@code t + duration}.
+	 */
+	public double		integrate(
+		DerivativeI f,
+		double t,
+		double y,
+		double duration
+		);
+
+	/**
+	 * prepare the integrator to integrate from {@code y} at {@code t} when
+	 * the derivative has changed discontinuously, for instance upon an event,
+	 * so that an adaptive integrator estimates again its step.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code f != null}
+	 * post	{@code getNextStep() > 0.0}
+	 * </pre>
+	 *
+	 * @param f	derivative of the variable.
+	 * @param t	current time.
+	 * @param y	value of the variable at {@code t}.
+	 */
+	public void			restart(DerivativeI f, double t, double y);
+
+	/**
+	 * return the duration of the next step proposed by the integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0.0}
+	 * </pre>
+	 *
+	 * @return	the duration of the next step proposed by the integrator.
+	 */
+	public double		getNextStep();
+
+	/**
+	 * return the number of accepted steps since the creation or the last
+	 * reset of the counters.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of accepted steps.
+	 */
+	public long			getStepsCount();
+
+	/**
+	 * return the number of steps rejected by the error control since the
+	 * creation or the last reset of the counters.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of rejected steps.
+	 */
+	public long			getRejectedStepsCount();
+
+	/**
+	 * return the number of evaluations of the derivative since the creation
+	 * or the last reset of the counters.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return >= 0}
+	 * </pre>
+	 *
+	 * @return	the number of evaluations of the derivative.
+	 */
+	public long			getEvaluationsCount();
+
+	/**
+	 * reset the counters of steps and evaluations.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code getStepsCount() == 0 && getRejectedStepsCount() == 0}
+	 * post	{@code getEvaluationsCount() == 0}
+	 * </pre>
+	 */
+	public void			resetCounts();
+}
+// -----------------------------------------------------------------------------
@@ -0,0 +1,399 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+import fr.sorbonne_u.exceptions.PreconditionException;
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>QSSIntegrator</code> implements the first order quantised
+ * state system method (QSS1), which steps are given by the time the variable
+ * takes to move by a quantum rather than by a fixed duration.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The integrator keeps two states: the variable, which is continuous and
+ * piecewise linear, and its quantised state, which is piecewise constant.
+ * The derivative is evaluated at the quantised state, not at the variable,
+ * and the variable follows a straight line with this slope until it is one
+ * quantum away from the quantised state. At this crossing, computed
+ * exactly, the quantised state takes the value of the variable and the
+ * slope is evaluated again. An integration over any duration goes through
+ * all of the crossings it contains, hence its result does not depend upon
+ * the times at which it is called.
+ * </p>
+ * <p>
+ * The inputs of the derivative, such as the external temperature given as a
+ * function of the time, are taken into account as in the quantised state
+ * systems: at the end of an integration which does not end on a crossing and
+ * upon {@code restart} from the current state, for instance after an event,
+ * the slope is evaluated again at the same quantised state with the inputs
+ * of the current time. As this happens at the latest after the maximal
+ * step, the latter bounds the duration over which an input is taken as
+ * constant.
+ * </p>
+ * <p>
+ * The next step proposed by the integrator is the duration until the next
+ * crossing, bounded by the minimal and maximal steps; a model using it as
+ * its time advance wakes up only when its variable changes meaningfully,
+ * rarely when the dynamics is slow and often when it is fast, and the error
+ * of the variable stays in the order of the quantum.
+ * </p>
+ * <p>
+ * As a first order method, it needs a small quantum, hence many steps, for
+ * a small error: on smooth equations such as the thermal equation of the
+ * heater, the adaptive {@code DormandPrinceIntegrator} reaches a far smaller
+ * error with far fewer steps, and should be preferred unless the steps must
+ * follow the changes of the variable.
+ * </p>
+ * 
+ * <p><strong>Implementation Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code quantum > 0.0}
+ * invariant	{@code minStep > 0.0 && minStep <= maxStep}
+ * invariant	{@code nextStep >= minStep && nextStep <= maxStep}
+ * invariant	{@code !synchronised || Math.abs(value - quantised) <= quantum}
+ * </pre>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			QSSIntegrator
+implements	ODEIntegratorI
+{
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** relative tolerance under which the variable is considered to have
+	 *  reached the next crossing.											*/
+	protected static final double	CROSSING_TOLERANCE = 1.0e-9;
+
+	/** change of the variable between two quantised states.				*/
+	protected final double	quantum;
+	/** minimal duration of a step.											*/
+	protected final double	minStep;
+	/** maximal duration of a step, taken when the slope is null.			*/
+	protected final double	maxStep;
+	/** duration of the next step.											*/
+	protected double		nextStep;
+	/** true if {@code time} and {@code value} give the current state of the
+	 *  integration.														*/
+	protected boolean		synchronised;
+	/** time of the last state of the integration.							*/
+	protected double		time;
+	/** value of the variable at {@code time}.								*/
+	protected double		value;
+	/** quantised state of the variable.									*/
+	protected double		quantised;
+	/** derivative at the quantised state, slope of the variable.			*/
+	protected double		slope;
+	/** number of steps, i.e., crossings of the quantum and integrations
+	 *  ending between two crossings.										*/
+	protected long			steps;
+	/** number of evaluations of the derivative.							*/
+	protected long			evaluations;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a QSS1 integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code quantum > 0.0}
+	 * pre	{@code minStep > 0.0 && minStep <= maxStep}
+	 * post	{@code getNextStep() == minStep}
+	 * </pre>
+	 *
+	 * @param quantum	change of the variable between two quantised states.
+	 * @param minStep	minimal duration of a step.
+	 * @param maxStep	maximal duration of a step.
+	 */
+	public				QSSIntegrator(
+		double quantum,
+		double minStep,
+		double maxStep
+		)
+	{
+		assert	quantum > 0.0 : new PreconditionException("quantum > 0.0");
+		assert	minStep > 0.0 && minStep <= maxStep :
+				new PreconditionException("minStep > 0.0 && minStep <= maxStep");
+
+		this.quantum = quantum;
+		this.minStep = minStep;
+		this.maxStep = maxStep;
+		this.nextStep = minStep;
+		this.synchronised = false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the quantum of the integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code return > 0.0}
+	 * </pre>
+	 *
+	 * @return	the quantum of the integrator.
+	 */
+	public double		getQuantum()
+	{
+		return this.quantum;
+	}
+
+	/**
+	 * return the current quantised state of the variable.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code true}	// no precondition.
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @return	the current quantised state of the variable.
+	 */
+	public double		getQuantisedState()
+	{
+		return this.quantised;
+	}
+
+	/**
+	 * evaluate the slope at the quantised state with the inputs at {@code t}
+	 * and compute the duration until the next crossing.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code f != null}
+	 * post	{@code true}	// no postcondition.
+	 * </pre>
+	 *
+	 * @param f	derivative of the variable.
+	 * @param t	current time.
+	 */
+	protected void		evaluateSlope(DerivativeI f, double t)
+	{
+		this.slope = f.derivative(t, this.quantised);
+		this.evaluations++;
+		this.nextStep = Math.min(this.maxStep,
+								 Math.max(this.minStep, this.toCrossing()));
+	}
+
+	/**
+	 * return the duration until the variable is one quantum away from the
+	 * quantised state, {@code Double.POSITIVE_INFINITY} if the slope is null.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code synchronised}
+	 * post	{@code return >= 0.0}
+	 * </pre>
+	 *
+	 * @return	the duration until the next crossing.
+	 */
+	protected double	toCrossing()
+	{
+		if (this.slope == 0.0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		// the crossing in the direction of the slope, the variable being
+		// always within one quantum of the quantised state
+		double target = this.slope > 0.0 ?
+							this.quantised + this.quantum
+						:	this.quantised - this.quantum;
+		return Math.max(0.0, (target - this.value)/this.slope);
+	}
+
+	/**
+	 * make {@code y} at {@code t} both the state of the integration and the
+	 * quantised state, and evaluate the slope there.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code f != null}
+	 * post	{@code synchronised}
+	 * </pre>
+	 *
+	 * @param f	derivative of the variable.
+	 * @param t	time of the state.
+	 * @param y	value of the variable at {@code t}.
+	 */
+	protected void		quantise(DerivativeI f, double t, double y)
+	{
+		this.time = t;
+		this.value = y;
+		this.quantised = y;
+		this.synchronised = true;
+		this.evaluateSlope(f, t);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#integrate(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double, double)
+	 */
+	@Override
+	public double		integrate(
+		DerivativeI f,
+		double t,
+		double y,
+		double duration
+		)
+	{
+		assert	f != null : new PreconditionException("f != null");
+		assert	duration >= 0.0 : new PreconditionException("duration >= 0.0");
+
+		if (duration <= 0.0) {
+			return y;
+		}
+		if (!this.synchronised || t != this.time || y != this.value) {
+			// not the state reached by the last integration
+			this.quantise(f, t, y);
+		}
+
+		double end = t + duration;
+		boolean crossed = false;
+		while (true) {
+			double c = this.toCrossing();
+			double remaining = end - this.time;
+			if (c > remaining*(1.0 + CROSSING_TOLERANCE)) {
+				// no crossing before the end of the integration
+				this.value += this.slope*remaining;
+				this.time = end;
+				break;
+			}
+			// crossing: the quantised state takes the value of the variable
+			this.time += Math.min(c, remaining);
+			this.value = this.slope > 0.0 ?
+							this.quantised + this.quantum
+						:	this.quantised - this.quantum;
+			this.quantised = this.value;
+			this.steps++;
+			crossed = this.time >= end;
+			if (crossed) {
+				this.time = end;
+				break;
+			}
+			this.evaluateSlope(f, this.time);
+		}
+		// the slope is evaluated again at the end, with the current inputs
+		this.evaluateSlope(f, this.time);
+		if (!crossed) {
+			this.steps++;
+		}
+		return this.value;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#restart(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double)
+	 */
+	@Override
+	public void			restart(DerivativeI f, double t, double y)
+	{
+		assert	f != null : new PreconditionException("f != null");
+
+		if (this.synchronised && t == this.time && y == this.value) {
+			// the quantised state is kept, only the inputs have changed
+			this.evaluateSlope(f, t);
+		} else {
+			this.quantise(f, t, y);
+		}
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getNextStep()
+	 */
+	@Override
+	public double		getNextStep()
+	{
+		return this.nextStep;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getStepsCount()
+	 */
+	@Override
+	public long			getStepsCount()
+	{
+		return this.steps;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getRejectedStepsCount()
+	 */
+	@Override
+	public long			getRejectedStepsCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#getEvaluationsCount()
+	 */
+	@Override
+	public long			getEvaluationsCount()
+	{
+		return this.evaluations;
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI#resetCounts()
+	 */
+	@Override
+	public void			resetCounts()
+	{
+		this.steps = 0L;
+		this.evaluations = 0L;
+	}
+}
+// -----------------------------------------------------------------------------
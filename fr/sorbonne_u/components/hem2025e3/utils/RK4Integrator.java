@@ -0,0 +1,94 @@
+package fr.sorbonne_u.components.hem2025e3.utils;
+
+// Copyright Jacques Malenfant, Sorbonne Universite.
+// Jacques.Malenfant@lip6.fr
+//
+// This software is a computer program whose purpose is to implement a mock-up
+// of household energy management system.
+//
+// This software is governed by the CeCILL-C license under French law and
+// abiding by the rules of distribution of free software.  You can use,
+// modify and/ or redistribute the software under the terms of the
+// CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+// URL "http://www.cecill.info".
+//
+// As a counterpart to the access to the source code and  rights to copy,
+// modify and redistribute granted by the license, users are provided only
+// with a limited warranty  and the software's author,  the holder of the
+// economic rights,  and the successive licensors  have only  limited
+// liability. 
+//
+// In this respect, the user's attention is drawn to the risks associated
+// with loading,  using,  modifying and/or developing or reproducing the
+// software by the user in light of its specific status of free software,
+// that may mean  that it is complicated to manipulate,  and  that  also
+// therefore means  that it is reserved for developers  and  experienced
+// professionals having in-depth computer knowledge. Users are therefore
+// encouraged to load and test the software's suitability as regards their
+// requirements in conditions enabling the security of their systems and/or 
+// data to be ensured and,  more generally, to use and operate it in the 
+// same conditions as regards security. 
+//
+// The fact that you are presently reading this means that you have had
+// knowledge of the CeCILL-C license and that you accept its terms.
+
+// -----------------------------------------------------------------------------
+/**
+ * The class <code>RK4Integrator</code> implements the classical fourth order
+ * Runge-Kutta method with a fixed step.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * <p>
+ * The method evaluates the derivative four times per step, but its local
+ * error decreases as the fifth power of the step, so that for smooth
+ * dynamics it reaches the accuracy of the Euler method with much longer
+ * steps.
+ * </p>
+ * 
+ * <p><strong>Invariants</strong></p>
+ * 
+ * <pre>
+ * invariant	{@code true}	// no more invariant
+ * </pre>
+ * 
+ * <p>Created on : 2026-10-18</p>
+ * 
+ * @author	<a href="mailto:Jacques.Malenfant@lip6.fr">Jacques Malenfant</a>
+ */
+public class			RK4Integrator
+extends		AbstractFixedStepIntegrator
+{
+	/**
+	 * create a fourth order Runge-Kutta integrator.
+	 * 
+	 * <p><strong>Contract</strong></p>
+	 * 
+	 * <pre>
+	 * pre	{@code step > 0.0}
+	 * post	{@code getNextStep() == step}
+	 * </pre>
+	 *
+	 * @param step	maximal duration of a step.
+	 */
+	public				RK4Integrator(double step)
+	{
+		super(step);
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.hem2025e3.utils.AbstractFixedStepIntegrator#step(fr.sorbonne_u.components.hem2025e3.utils.ODEIntegratorI.DerivativeI, double, double, double)
+	 */
+	@Override
+	protected double	step(DerivativeI f, double t, double y, double h)
+	{
+		double half = h/2.0;
+		double k1 = f.derivative(t, y);
+		double k2 = f.derivative(t + half, y + half*k1);
+		double k3 = f.derivative(t + half, y + half*k2);
+		double k4 = f.derivative(t + h, y + h*k3);
+		this.evaluations += 4;
+		return y + h*(k1 + 2.0*k2 + 2.0*k3 + k4)/6.0;
+	}
+}
+// -----------------------------------------------------------------------------